@@ -0,0 +1,43 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de FlexibleInstantDeserializer para cada formato de timestamp que envían los clientes.
+ * Los formatos que no acepta Instant.parse (local) pasan por la excepción y el formatter de respaldo.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=FlexibleInstantDeserializerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FlexibleInstantDeserializerBenchmark {
+
+    @Param({"utc", "offset", "local", "epoch"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new JacksonConfig().objectMapper();
+        json = switch (format) {
+            case "utc" -> "\"2025-12-20T03:34:43.522865Z\"";
+            case "offset" -> "\"2025-12-20T03:34:43.522865+01:00\"";
+            case "local" -> "\"2025-12-20T03:34:43.522865\"";
+            case "epoch" -> "\"1703041683000\"";
+            default -> throw new IllegalArgumentException("Formato desconocido: " + format);
+        };
+    }
+
+    @Benchmark
+    public Instant deserialize() throws JsonProcessingException {
+        return objectMapper.readValue(json, Instant.class);
+    }
+}
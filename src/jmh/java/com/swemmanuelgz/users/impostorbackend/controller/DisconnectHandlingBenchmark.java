@@ -0,0 +1,169 @@
+package com.swemmanuelgz.users.impostorbackend.controller;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
+import com.swemmanuelgz.users.impostorbackend.entity.Game;
+import com.swemmanuelgz.users.impostorbackend.entity.User;
+import com.swemmanuelgz.users.impostorbackend.monitoring.GameMetrics;
+import com.swemmanuelgz.users.impostorbackend.repository.UserRepository;
+import com.swemmanuelgz.users.impostorbackend.security.StompPrincipal;
+import com.swemmanuelgz.users.impostorbackend.service.GameServiceImpl;
+import com.swemmanuelgz.users.impostorbackend.service.GameSessionManager;
+import com.swemmanuelgz.users.impostorbackend.service.UserProfileCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coste de GameWebSocketController.handleSessionDisconnect según de dónde sale el nombre del jugador.
+ *
+ * - principal: la sesión tiene StompPrincipal, el nombre viene de ahí y no se consulta nada
+ * - cached: conexión sin principal, el perfil está en UserProfileCache
+ * - uncached: conexión sin principal y perfil invalidado en cada desconexión, como antes de la caché
+ *   (un userRepository.findById por desconexión)
+ *
+ * El repositorio de usuarios espera dbRoundTripMicros por consulta en lugar de ir a MySQL; la partida y los
+ * jugadores salen de un GameServiceImpl sin base de datos, igual en los tres casos. Cada invocación vuelve a
+ * conectar al jugador antes de desconectarlo, así que ese coste también es común.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=DisconnectHandlingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DisconnectHandlingBenchmark {
+
+    private static final String ROOM = "ABC123";
+    private static final Long HOST_ID = 1L;
+    private static final Long USER_ID = 42L;
+    private static final String SESSION_ID = "session-42";
+
+    @Param({"principal", "cached", "uncached"})
+    public String usernameSource;
+
+    @Param({"200"})
+    public long dbRoundTripMicros;
+
+    private GameWebSocketController controller;
+    private GameSessionManager sessionManager;
+    private UserProfileCache userProfileCache;
+    private SessionDisconnectEvent event;
+    private final LongAdder userQueries = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.WARN);
+        loggerContext.getLogger("com.swemmanuelgz").setLevel(Level.WARN);
+
+        GameMetrics metrics = new GameMetrics(new SimpleMeterRegistry());
+        sessionManager = new GameSessionManager(metrics, Clock.systemUTC());
+        // El anfitrión sigue conectado: la sala no se queda vacía y no se cierra
+        sessionManager.playerConnected(ROOM, HOST_ID, "session-1");
+
+        userProfileCache = new UserProfileCache(userRepository(), new SimpleMeterRegistry(), 10_000, 600);
+        MessageChannel discard = (msg, timeout) -> true;
+        controller = new GameWebSocketController(gameService(), sessionManager, new SimpMessagingTemplate(discard),
+                null, null, userProfileCache, metrics, null);
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT);
+        headers.setSessionId(SESSION_ID);
+        headers.setSessionAttributes(new HashMap<>());
+        if ("principal".equals(usernameSource)) {
+            headers.setUser(new StompPrincipal(USER_ID, "jugador42"));
+        }
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+        event = new SessionDisconnectEvent(this, message, SESSION_ID, CloseStatus.NORMAL);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!"principal".equals(usernameSource) && userQueries.sum() == 0) {
+            throw new IllegalStateException("La desconexión no ha consultado el perfil del jugador");
+        }
+    }
+
+    @Benchmark
+    public void disconnect() {
+        sessionManager.playerConnected(ROOM, USER_ID, SESSION_ID);
+        if ("uncached".equals(usernameSource)) {
+            userProfileCache.invalidate(USER_ID);
+        }
+        controller.handleSessionDisconnect(event);
+    }
+
+    /**
+     * Partida en curso con ocho jugadores; solo se sobrescriben las lecturas que hace la desconexión
+     */
+    private static GameServiceImpl gameService() {
+        User host = new User();
+        host.setId(HOST_ID);
+        host.setUsername("jugador1");
+        Game game = new Game();
+        game.setId(1L);
+        game.setRoomCode(ROOM);
+        game.setStatus("IN_PROGRESS");
+        game.setCreator(host);
+        game.setCreatedAt(Instant.parse("2025-12-20T03:34:43.522865Z"));
+
+        List<GamePlayerDto> players = new ArrayList<>();
+        for (long userId = 1; userId <= 8; userId++) {
+            players.add(GamePlayerDto.builder()
+                    .id(100 + userId).gameId(1L).userId(userId)
+                    .username("jugador" + userId)
+                    .isImpostor(false)
+                    .build());
+        }
+
+        return new GameServiceImpl(null, null, null, null, null, null, null, null, null, Clock.systemUTC(), null) {
+            @Override
+            public Optional<Game> findByRoomCode(String roomCode) {
+                return Optional.of(game);
+            }
+
+            @Override
+            public List<GamePlayerDto> getGamePlayers(Long gameId) {
+                return players;
+            }
+        };
+    }
+
+    /**
+     * findById espera un viaje de ida y vuelta a la base de datos; el resto de métodos no se usa
+     */
+    private UserRepository userRepository() {
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUsername("jugador42");
+        user.setEmail("jugador42@example.com");
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (!"findById".equals(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    userQueries.increment();
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(dbRoundTripMicros));
+                    return Optional.of(user);
+                });
+    }
+}
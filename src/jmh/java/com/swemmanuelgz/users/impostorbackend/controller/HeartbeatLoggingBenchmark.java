@@ -0,0 +1,116 @@
+package com.swemmanuelgz.users.impostorbackend.controller;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.swemmanuelgz.users.impostorbackend.dto.GameWebSocketMessage;
+import com.swemmanuelgz.users.impostorbackend.monitoring.GameMetrics;
+import com.swemmanuelgz.users.impostorbackend.service.GameSessionManager;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.io.OutputStream;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+/**
+ * Throughput del handler de heartbeat (el mensaje STOMP más frecuente) según el nivel de log.
+ *
+ * - heartbeat con level=INFO: el log de heartbeat está desactivado y no se construye nada
+ * - heartbeat con level=DEBUG: se formatea y se encola en el AsyncAppender como en producción
+ * - legacyAnsiColors: el handler más la línea que escribía antes (concatenación + JUL síncrono)
+ *
+ * La salida va a un stream nulo para medir el coste del logging y no el de la consola.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=HeartbeatLoggingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HeartbeatLoggingBenchmark {
+
+    private static final String ROOM = "ABC123";
+
+    @Param({"INFO", "DEBUG"})
+    public String level;
+
+    private GameWebSocketController controller;
+    private GameWebSocketMessage message;
+    private SimpMessageHeaderAccessor headers;
+    private Logger legacyLogger;
+    private AsyncAppender asyncAppender;
+
+    @Setup
+    public void setUp() {
+        configureLogback(Level.toLevel(level));
+
+        legacyLogger = Logger.getLogger("legacy.heartbeat");
+        legacyLogger.setUseParentHandlers(false);
+        legacyLogger.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+
+        GameMetrics metrics = new GameMetrics(new SimpleMeterRegistry());
+        GameSessionManager sessionManager = new GameSessionManager(metrics, Clock.systemUTC());
+        sessionManager.playerConnected(ROOM, 42L, "session-42");
+        MessageChannel discard = (msg, timeout) -> true;
+        controller = new GameWebSocketController(null, sessionManager, new SimpMessagingTemplate(discard),
+                null, null, null, metrics, null);
+
+        message = GameWebSocketMessage.builder().type("HEARTBEAT").roomCode(ROOM).senderId(42L).build();
+        headers = SimpMessageHeaderAccessor.create();
+    }
+
+    private void configureLogback(Level appLevel) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %5p [%t] %logger{39} : %m %kvp%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(sink);
+        asyncAppender.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(asyncAppender);
+        context.getLogger("com.swemmanuelgz").setLevel(appLevel);
+    }
+
+    @TearDown
+    public void tearDown() {
+        asyncAppender.stop();
+    }
+
+    @Benchmark
+    public void heartbeat() {
+        controller.handleHeartbeat(ROOM, message, headers);
+    }
+
+    @Benchmark
+    public void legacyAnsiColors() {
+        controller.handleHeartbeat(ROOM, message, headers);
+        AnsiColors.infoLog(legacyLogger, "Heartbeat recibido - Room: " + ROOM + ", User: " + message.getSenderId());
+    }
+}
@@ -0,0 +1,84 @@
+package com.swemmanuelgz.users.impostorbackend.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swemmanuelgz.users.impostorbackend.config.JacksonConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Jackson de los mensajes que se envían por /topic/game/{roomCode} y de la respuesta REST
+ * de una partida, con el ObjectMapper de JacksonConfig (el que usa el conversor de mensajes STOMP).
+ *
+ * - chatMessage: el mensaje más frecuente durante una partida
+ * - playerJoined: incluye el GameDto completo con la lista de jugadores
+ * - readMessage: un mensaje entrante del cliente con timestamp sin zona (pasa por FlexibleInstantDeserializer)
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=GameMessageSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GameMessageSerializationBenchmark {
+
+    private static final String ROOM = "ABC123";
+
+    private ObjectMapper objectMapper;
+    private GameWebSocketMessage chatMessage;
+    private GameWebSocketMessage playerJoined;
+    private GameDto game;
+    private String inboundJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new JacksonConfig().objectMapper();
+
+        List<GamePlayerDto> players = new ArrayList<>();
+        for (long userId = 1; userId <= 8; userId++) {
+            players.add(GamePlayerDto.builder()
+                    .id(100 + userId).gameId(1L).userId(userId)
+                    .username("jugador" + userId)
+                    .pictureUrl("https://lh3.googleusercontent.com/a/jugador" + userId)
+                    .isImpostor(false)
+                    .build());
+        }
+        game = GameDto.builder()
+                .id(1L).roomCode(ROOM).status("WAITING")
+                .creatorId(1L).creatorUsername("jugador1")
+                .createdAt(Instant.parse("2025-12-20T03:34:43.522865Z"))
+                .players(players)
+                .category("Animales")
+                .maxPlayers(12).currentPlayers(players.size())
+                .duration(10)
+                .build();
+
+        chatMessage = GameWebSocketMessage.chatMessage(1L, ROOM, 42L, "benchmark", "hola a todos");
+        playerJoined = GameWebSocketMessage.playerJoined(game, players.get(players.size() - 1));
+        inboundJson = objectMapper.writeValueAsString(chatMessage)
+                .replaceAll("\"timestamp\":\"([^\"]+)Z\"", "\"timestamp\":\"$1\"");
+    }
+
+    @Benchmark
+    public String chatMessage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(chatMessage);
+    }
+
+    @Benchmark
+    public String playerJoined() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(playerJoined);
+    }
+
+    @Benchmark
+    public String gameDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(game);
+    }
+
+    @Benchmark
+    public GameWebSocketMessage readMessage() throws JsonProcessingException {
+        return objectMapper.readValue(inboundJson, GameWebSocketMessage.class);
+    }
+}
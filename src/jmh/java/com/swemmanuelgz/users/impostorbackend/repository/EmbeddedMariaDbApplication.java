@@ -0,0 +1,106 @@
+package com.swemmanuelgz.users.impostorbackend.repository;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.swemmanuelgz.users.impostorbackend.ImpostorBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * La aplicación completa sobre un MariaDB embebido (MariaDB4j) para los benchmarks de repositorios:
+ * mismo driver, dialecto y rewriteBatchedStatements que en producción, pero sin red ni disco compartido.
+ * Las tareas de fondo (archivado, retención, backfill, JFR) están apagadas para que no compitan con la medida.
+ */
+final class EmbeddedMariaDbApplication implements AutoCloseable {
+
+    private final DB mariaDb;
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedMariaDbApplication(DB mariaDb, ConfigurableApplicationContext context) {
+        this.mariaDb = mariaDb;
+        this.context = context;
+    }
+
+    /**
+     * Arranca MariaDB en un puerto libre y la aplicación contra la base de datos indicada.
+     * extraProperties se añaden (o sustituyen) a las de application.properties
+     */
+    static EmbeddedMariaDbApplication start(String database, Map<String, String> extraProperties)
+            throws ManagedProcessException, SQLException {
+        return start(database, extraProperties, List.of());
+    }
+
+    /**
+     * Igual, ejecutando antes setupSql sobre la base de datos vacía (lo que en producción dejan las migraciones)
+     */
+    static EmbeddedMariaDbApplication start(String database, Map<String, String> extraProperties,
+                                            List<String> setupSql) throws ManagedProcessException, SQLException {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0); // puerto libre
+        if ("root".equals(System.getProperty("user.name"))) {
+            // mariadbd no arranca como root salvo que se le pida (contenedores, CI)
+            config.addArg("--user=root");
+        }
+        DB mariaDb = DB.newEmbeddedDB(config.build());
+        mariaDb.start();
+        // El esquema lo crea el driver: DB.createDB lanza el cliente mariadb, que necesita libncurses5
+        String jdbcUrl = "jdbc:mysql://localhost:" + config.getPort() + "/" + database
+                + "?createDatabaseIfNotExist=true&rewriteBatchedStatements=true&useSSL=false&allowPublicKeyRetrieval=true";
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, "root", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : setupSql) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            mariaDb.stop();
+            throw e;
+        }
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", "root");
+        properties.put("spring.datasource.password", "");
+        properties.put("server.port", "0");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("jwt.secret", UUID.randomUUID() + "-" + UUID.randomUUID());
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.com.swemmanuelgz", "WARN");
+        properties.put("jfr.continuous.enabled", "false");
+        properties.put("archive.games.enabled", "false");
+        properties.put("login.retention.enabled", "false");
+        properties.put("stats.backfill.enabled", "false");
+        properties.putAll(extraProperties);
+
+        // Como argumentos de línea de comandos: application.properties ganaría a SpringApplicationBuilder.properties()
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        try {
+            return new EmbeddedMariaDbApplication(mariaDb,
+                    new SpringApplicationBuilder(ImpostorBackendApplication.class).run(args));
+        } catch (RuntimeException e) {
+            mariaDb.stop();
+            throw e;
+        }
+    }
+
+    <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() throws ManagedProcessException {
+        context.close();
+        mariaDb.stop();
+    }
+}
@@ -0,0 +1,115 @@
+package com.swemmanuelgz.users.impostorbackend.repository;
+
+import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
+import com.swemmanuelgz.users.impostorbackend.entity.Game;
+import com.swemmanuelgz.users.impostorbackend.entity.GamePlayer;
+import com.swemmanuelgz.users.impostorbackend.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Jugadores de una partida (getGamePlayers) leídos de MariaDB embebido por los dos caminos:
+ *
+ * - fetchJoin: findByGameId (JOIN FETCH de User y Game) y GamePlayerDto.fromEntity, como antes de las proyecciones.
+ *   Cada fila materializa tres entidades gestionadas con su snapshot para el dirty checking
+ * - projection: findPlayerDtosByGameId, SELECT new GamePlayerDto(...) con solo las columnas del DTO
+ *
+ * Las dos consultas corren en la transacción de solo lectura del repositorio, igual que en el servicio.
+ * Hay GAMES partidas de players jugadores y cada invocación lee la siguiente.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=GamePlayerProjectionBenchmark -Pjmh.profilers=gc
+ * (gc.alloc.rate.norm son los bytes reservados por lectura)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GamePlayerProjectionBenchmark {
+
+    private static final int GAMES = 200;
+
+    @Param({"4", "8"})
+    public int players;
+
+    private EmbeddedMariaDbApplication application;
+    private GamePlayerRepository gamePlayerRepository;
+    private List<Long> gameIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        application = EmbeddedMariaDbApplication.start("impostor_jmh_projection", Map.of());
+        gamePlayerRepository = application.getBean(GamePlayerRepository.class);
+        UserRepository userRepository = application.getBean(UserRepository.class);
+        GameRepository gameRepository = application.getBean(GameRepository.class);
+
+        gameIds = application.getBean(TransactionTemplate.class).execute(status -> {
+            List<User> users = new ArrayList<>(players);
+            for (int i = 0; i < players; i++) {
+                User user = new User();
+                user.setUsername("jmh" + i);
+                user.setEmail("jmh" + i + "@jmh.local");
+                user.setPictureUrl("https://example.com/avatars/jmh" + i + ".png");
+                user.setCreatedAt(Instant.now());
+                users.add(user);
+            }
+            users = userRepository.saveAll(users);
+
+            List<Game> games = new ArrayList<>(GAMES);
+            for (int i = 0; i < GAMES; i++) {
+                Game game = new Game();
+                game.setRoomCode(String.format("J%05d", i));
+                game.setStatus("IN_PROGRESS");
+                game.setCategory("animales");
+                game.setWord("gato");
+                game.setCreator(users.get(0));
+                game.setCreatedAt(Instant.now());
+                games.add(game);
+            }
+            games = gameRepository.saveAll(games);
+
+            List<GamePlayer> gamePlayers = new ArrayList<>(GAMES * players);
+            for (Game game : games) {
+                for (int i = 0; i < players; i++) {
+                    GamePlayer player = new GamePlayer();
+                    player.setGame(game);
+                    player.setUser(users.get(i));
+                    player.setIsImpostor(i == 0);
+                    player.setIsWinner(false);
+                    gamePlayers.add(player);
+                }
+            }
+            gamePlayerRepository.saveAll(gamePlayers);
+            return games.stream().map(Game::getId).toList();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        application.close();
+    }
+
+    private Long nextGameId() {
+        next = (next + 1) % gameIds.size();
+        return gameIds.get(next);
+    }
+
+    @Benchmark
+    public List<GamePlayerDto> fetchJoin() {
+        return gamePlayerRepository.findByGameId(nextGameId())
+                .stream()
+                .map(GamePlayerDto::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<GamePlayerDto> projection() {
+        return gamePlayerRepository.findPlayerDtosByGameId(nextGameId());
+    }
+}
@@ -0,0 +1,145 @@
+package com.swemmanuelgz.users.impostorbackend.repository;
+
+import com.swemmanuelgz.users.impostorbackend.entity.Game;
+import com.swemmanuelgz.users.impostorbackend.entity.GamePlayer;
+import com.swemmanuelgz.users.impostorbackend.entity.LoginAttempt;
+import com.swemmanuelgz.users.impostorbackend.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filas insertadas por segundo en MariaDB embebido (rewriteBatchedStatements=true) según cómo se generan los ids
+ * de Game, GamePlayer y LoginAttempt:
+ *
+ * - pooled: secuencia por bloques de 50 (tablas *_seq), como en producción. Hibernate agrupa los INSERT en batch
+ *   y el driver los reescribe como un único INSERT multi-fila
+ * - identity: AUTO_INCREMENT (META-INF/identity-ids.xml sustituye el @GeneratedValue). Hibernate necesita el id
+ *   de cada fila en cuanto la persiste y manda un INSERT por fila
+ *
+ * - gamePlayers: una partida y sus PLAYERS jugadores con saveAll en una transacción (startGame)
+ * - loginAttempts: un lote de LOGIN_BATCH intentos con saveAll en una transacción (LoginAuditWriter.flush)
+ *
+ * Al terminar cada prueba se imprimen los INSERT que ha ejecutado el servidor (Com_insert) por fila insertada:
+ * cerca de 1 sin batching, muy por debajo con él.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=IdGenerationBatchingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IdGenerationBatchingBenchmark {
+
+    private static final int PLAYERS = 8;
+    // Como login.audit.batch-size por defecto
+    private static final int LOGIN_BATCH = 100;
+
+    @Param({"pooled", "identity"})
+    public String ids;
+
+    private EmbeddedMariaDbApplication application;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private GameRepository gameRepository;
+    private GamePlayerRepository gamePlayerRepository;
+    private LoginAttemptRepository loginAttemptRepository;
+    private List<User> users;
+    private long games;
+    private long rowsInserted;
+    private long serverInsertsAtStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if ("identity".equals(ids)) {
+            // Sin secuencias Hibernate no crea las tablas *_seq, pero IdSequenceAligner las espera (migración V6)
+            application = EmbeddedMariaDbApplication.start("impostor_jmh_ids_identity",
+                    Map.of("spring.jpa.mapping-resources", "META-INF/identity-ids.xml"),
+                    List.of("CREATE TABLE games_seq (next_val BIGINT)",
+                            "CREATE TABLE game_players_seq (next_val BIGINT)",
+                            "CREATE TABLE login_attempts_seq (next_val BIGINT)"));
+        } else {
+            application = EmbeddedMariaDbApplication.start("impostor_jmh_ids_pooled", Map.of());
+        }
+        transactionTemplate = application.getBean(TransactionTemplate.class);
+        jdbcTemplate = application.getBean(JdbcTemplate.class);
+        gameRepository = application.getBean(GameRepository.class);
+        gamePlayerRepository = application.getBean(GamePlayerRepository.class);
+        loginAttemptRepository = application.getBean(LoginAttemptRepository.class);
+
+        List<User> newUsers = new ArrayList<>(PLAYERS);
+        for (int i = 0; i < PLAYERS; i++) {
+            User user = new User();
+            user.setUsername("jmh" + i);
+            user.setEmail("jmh" + i + "@jmh.local");
+            user.setCreatedAt(Instant.now());
+            newUsers.add(user);
+        }
+        users = application.getBean(UserRepository.class).saveAll(newUsers);
+        serverInsertsAtStart = serverInserts();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        long statements = serverInserts() - serverInsertsAtStart;
+        System.out.printf("%n[%s] %,d filas con %,d INSERT en el servidor (%.3f por fila)%n",
+                ids, rowsInserted, statements, (double) statements / rowsInserted);
+        application.close();
+    }
+
+    private long serverInserts() {
+        return jdbcTemplate.queryForObject("SHOW GLOBAL STATUS LIKE 'Com_insert'", (rs, rowNum) -> rs.getLong(2));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PLAYERS + 1)
+    public List<GamePlayer> gamePlayers() {
+        return transactionTemplate.execute(status -> {
+            Game game = new Game();
+            game.setRoomCode(String.format("B%09d", games++));
+            game.setStatus("IN_PROGRESS");
+            game.setCategory("animales");
+            game.setWord("gato");
+            game.setCreator(users.get(0));
+            game.setCreatedAt(Instant.now());
+            game = gameRepository.save(game);
+
+            List<GamePlayer> players = new ArrayList<>(PLAYERS);
+            for (int i = 0; i < PLAYERS; i++) {
+                GamePlayer player = new GamePlayer();
+                player.setGame(game);
+                player.setUser(users.get(i));
+                player.setIsImpostor(i == 0);
+                player.setIsWinner(false);
+                players.add(player);
+            }
+            rowsInserted += PLAYERS + 1;
+            return gamePlayerRepository.saveAll(players);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOGIN_BATCH)
+    public List<LoginAttempt> loginAttempts() {
+        Instant now = Instant.now();
+        List<LoginAttempt> batch = new ArrayList<>(LOGIN_BATCH);
+        for (int i = 0; i < LOGIN_BATCH; i++) {
+            batch.add(LoginAttempt.builder()
+                    .username("jmh" + (i % PLAYERS))
+                    .ipAddress("10.0.0." + i)
+                    .userAgent("jmh")
+                    .authType(LoginAttempt.AUTH_TYPE_LOCAL)
+                    .success(false)
+                    .failureReason(LoginAttempt.FAILURE_INVALID_PASSWORD)
+                    .attemptTimestamp(now)
+                    .build());
+        }
+        rowsInserted += LOGIN_BATCH;
+        return transactionTemplate.execute(status -> loginAttemptRepository.saveAll(batch));
+    }
+}
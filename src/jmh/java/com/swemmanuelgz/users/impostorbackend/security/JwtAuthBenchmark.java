@@ -0,0 +1,70 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import com.swemmanuelgz.users.impostorbackend.dto.UserProfile;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de autenticar una petición con JWT (lo que hace JwtAuthFilter por cada request).
+ *
+ * legacyTripleParse reproduce el camino anterior: validateToken + getClaims + getEmailFromToken,
+ * cada uno con su clave y su parser nuevos. singleVerify es el camino actual con JwtProvider.verify.
+ * validateToken y getClaims miden las llamadas sueltas de JwtProvider que siguen usando el resto de
+ * componentes (STOMP, refresh).
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=JwtAuthBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret!!";
+
+    private JwtProvider jwtProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider(SECRET, 3_600_000, 86_400_000, null);
+        token = jwtProvider.generateToken(new UserProfile(42L, "benchmark", "bench@impostor.dev", null, "USER", "LOCAL"));
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken singleVerify() {
+        VerifiedToken jwt = jwtProvider.verify(token).orElseThrow();
+        return authenticate(jwt.email(), jwt.role(), jwt.claims());
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Claims getClaims() {
+        return jwtProvider.getClaims(token);
+    }
+
+    @Benchmark
+    public UsernamePasswordAuthenticationToken legacyTripleParse() {
+        Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build().parseClaimsJws(token);
+        Claims claims = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody();
+        String email = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(token).getBody().getSubject();
+        return authenticate(email, claims.get("role", String.class), claims);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticate(String email, String role, Claims claims) {
+        return new UsernamePasswordAuthenticationToken(new JwtUserDetails(email, claims), null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+}
@@ -0,0 +1,63 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.monitoring.GameMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones de GameSessionManager que se ejecutan en cada CONNECT/DISCONNECT de WebSocket.
+ *
+ * - connectDisconnect: un jugador entra en una sala existente y se desconecta (playerDisconnected
+ *   recorre las salas con findRoomByUserId para saber de dónde sale)
+ * - findRoomByUserId: búsqueda del peor caso, un usuario que no está en ninguna sala (se recorren todas)
+ *
+ * rooms es el número de salas vivas con PLAYERS_PER_ROOM jugadores cada una, para ver cómo escala
+ * la búsqueda lineal con la carga del servidor.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=GameSessionManagerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GameSessionManagerBenchmark {
+
+    private static final int PLAYERS_PER_ROOM = 6;
+
+    @Param({"10", "100", "1000"})
+    public int rooms;
+
+    private GameSessionManager sessionManager;
+    private String targetRoom;
+    private Long visitorId;
+    private Long missingUserId;
+
+    @Setup
+    public void setUp() {
+        sessionManager = new GameSessionManager(new GameMetrics(new SimpleMeterRegistry()), Clock.systemUTC());
+        long userId = 0;
+        for (int room = 0; room < rooms; room++) {
+            String roomCode = String.format("R%05d", room);
+            for (int i = 0; i < PLAYERS_PER_ROOM; i++) {
+                userId++;
+                sessionManager.playerConnected(roomCode, userId, "session-" + userId);
+            }
+        }
+        targetRoom = "R00000";
+        visitorId = userId + 1;
+        missingUserId = userId + 2;
+    }
+
+    @Benchmark
+    public GameSessionManager.DisconnectionResult connectDisconnect() {
+        sessionManager.playerConnected(targetRoom, visitorId, "session-visitor");
+        return sessionManager.playerDisconnected("session-visitor");
+    }
+
+    @Benchmark
+    public String findRoomByUserId() {
+        return sessionManager.findRoomByUserId(missingUserId);
+    }
+}
@@ -0,0 +1,102 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swemmanuelgz.users.impostorbackend.dto.GameWebSocketMessage;
+import com.swemmanuelgz.users.impostorbackend.exception.UserException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia de un mensaje de juego (serializar un GameWebSocketMessage en el executor STOMP)
+ * mientras una ráfaga de logins verifica contraseñas con BCrypt.
+ *
+ * - none: sin ráfaga (referencia)
+ * - inline: cada hilo de la ráfaga (como los de Tomcat) ejecuta BCrypt directamente
+ * - isolated: la ráfaga pasa por PasswordHashingService (2 hilos, cola corta, rechazos rápidos)
+ *
+ * Con isolated la latencia debe quedarse cerca de none; con inline sube en cuanto la ráfaga supera los núcleos.
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=LoginStormIsolationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoginStormIsolationBenchmark {
+
+    private static final int STORM_THREADS = 32;
+
+    @Param({"none", "inline", "isolated"})
+    public String storm;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ExecutorService stompExecutor;
+    private ExecutorService stormExecutor;
+    private PasswordHashingService hashingService;
+    private volatile boolean storming;
+    private GameWebSocketMessage message;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(10);
+        String hash = encoder.encode("contraseña-de-prueba");
+        hashingService = new PasswordHashingService(encoder, new SimpleMeterRegistry(), 2, 32, 5000);
+        // Mismo tamaño que el canal inbound de STOMP (corePoolSize 5)
+        stompExecutor = Executors.newFixedThreadPool(5);
+        message = GameWebSocketMessage.chatMessage(1L, "ABC123", 42L, "benchmark", "hola a todos");
+
+        storming = !"none".equals(storm);
+        stormExecutor = Executors.newFixedThreadPool(STORM_THREADS);
+        if (storming) {
+            for (int i = 0; i < STORM_THREADS; i++) {
+                stormExecutor.submit(() -> {
+                    while (storming) {
+                        if ("inline".equals(storm)) {
+                            encoder.matches("incorrecta", hash);
+                        } else {
+                            try {
+                                hashingService.matches("incorrecta", hash);
+                            } catch (UserException rejected) {
+                                // Fallo rápido por cola llena: el cliente recibiría 503
+                            }
+                        }
+                    }
+                });
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        storming = false;
+        stormExecutor.shutdownNow();
+        stompExecutor.shutdownNow();
+        hashingService.shutdown();
+    }
+
+    @Benchmark
+    public byte[] gameMessageLatency() throws Exception {
+        return stompExecutor.submit(() -> objectMapper.writeValueAsBytes(message)).get();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public List<byte[]> gameMessageBurst() throws Exception {
+        // Diez jugadores votando a la vez
+        List<Future<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(stompExecutor.submit(() -> objectMapper.writeValueAsBytes(message)));
+        }
+        List<byte[]> results = new ArrayList<>(futures.size());
+        for (Future<byte[]> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,49 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.entity.GamePlayer;
+import com.swemmanuelgz.users.impostorbackend.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recuento de votos de una ronda (GameServiceImpl.countVotes), que se ejecuta en getMostVotedPlayer y
+ * getVoteCounts al resolver cada votación. Todos han votado salvo uno y los votos se reparten entre
+ * tres sospechosos.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=VoteCountingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class VoteCountingBenchmark {
+
+    @Param({"4", "12"})
+    public int players;
+
+    private List<GamePlayer> activePlayers;
+
+    @Setup
+    public void setUp() {
+        activePlayers = new ArrayList<>(players);
+        for (long userId = 1; userId <= players; userId++) {
+            User user = new User();
+            user.setId(userId);
+            GamePlayer player = new GamePlayer();
+            player.setUser(user);
+            if (userId < players) {
+                player.setHasVoted(true);
+                player.setVotedForId(1 + userId % 3);
+            }
+            activePlayers.add(player);
+        }
+    }
+
+    @Benchmark
+    public Map<Long, Integer> countVotes() {
+        return GameServiceImpl.countVotes(activePlayers);
+    }
+}
@@ -0,0 +1,35 @@
+package com.swemmanuelgz.users.impostorbackend.utils;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Elección de la palabra secreta al iniciar una partida (WordGenerator.getRandomWordWithCategory).
+ * getRandomWord se incluye como referencia: reconstruye la lista de todas las palabras en cada llamada,
+ * que es lo que hacía también getRandomWordFromCategory con el getOrDefault.
+ *
+ * Ejecutar con: ./gradlew jmh -Pjmh.includes=WordGeneratorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WordGeneratorBenchmark {
+
+    private WordGenerator wordGenerator;
+
+    @Setup
+    public void setUp() {
+        wordGenerator = new WordGenerator();
+    }
+
+    @Benchmark
+    public WordGenerator.WordWithCategory randomWordWithCategory() {
+        return wordGenerator.getRandomWordWithCategory();
+    }
+
+    @Benchmark
+    public String randomWord() {
+        return wordGenerator.getRandomWord();
+    }
+}
@@ -0,0 +1,203 @@
+package com.swemmanuelgz.users.impostorbackend.loadtest;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.swemmanuelgz.users.impostorbackend.ImpostorBackendApplication;
+import com.swemmanuelgz.users.impostorbackend.entity.User;
+import com.swemmanuelgz.users.impostorbackend.repository.UserRepository;
+import com.swemmanuelgz.users.impostorbackend.security.JwtProvider;
+import com.swemmanuelgz.users.impostorbackend.service.PasswordHashingService;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * La aplicación completa arrancada en este proceso contra una base de datos embebida, con los usuarios
+ * del load test ya creados y sus tokens emitidos (así no pasa por login ni por el rate limit de auth).
+ * Con loadtest.login-flood-rps se crean además usuarios con contraseña para LoginFlood.
+ *
+ * - mariadb: MariaDB4j descarga/extrae el binario de MariaDB y lo arranca en un puerto libre; se usa el
+ *   mismo driver y dialecto de MySQL que en producción
+ * - h2: H2 en memoria en modo MySQL, para iterar rápido sobre conexión, chat y votos. Las partidas no llegan a
+ *   terminar: el upsert de user_stats usa SQL de MySQL que H2 no entiende
+ */
+final class EmbeddedBackend implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(EmbeddedBackend.class.getName());
+
+    private static final String DATABASE = "impostor_loadtest";
+    private static final int FLOOD_USERS = 500;
+    static final String FLOOD_PASSWORD = "loadtest-flood";
+
+    /**
+     * Usuario simulado: id en BD, token de acceso y la IP (X-Forwarded-For) con la que se presenta
+     */
+    record SimUser(Long id, String username, String token, String ip) {
+    }
+
+    private final DB mariaDb;
+    private final ConfigurableApplicationContext context;
+    private final List<SimUser> users;
+    private final List<String> floodLogins;
+
+    private EmbeddedBackend(DB mariaDb, ConfigurableApplicationContext context, List<SimUser> users,
+                            List<String> floodLogins) {
+        this.mariaDb = mariaDb;
+        this.context = context;
+        this.users = users;
+        this.floodLogins = floodLogins;
+    }
+
+    static EmbeddedBackend start(LoadTestSettings settings) throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        DB mariaDb = null;
+        if ("mariadb".equals(settings.database())) {
+            DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+            config.setPort(0); // puerto libre
+            if ("root".equals(System.getProperty("user.name"))) {
+                // mariadbd no arranca como root salvo que se le pida (contenedores, CI)
+                config.addArg("--user=root");
+            }
+            mariaDb = DB.newEmbeddedDB(config.build());
+            mariaDb.start();
+            // El esquema lo crea el driver: DB.createDB lanza el cliente mariadb, que necesita libncurses5
+            properties.put("spring.datasource.url", "jdbc:mysql://localhost:" + config.getPort() + "/" + DATABASE
+                    + "?createDatabaseIfNotExist=true&rewriteBatchedStatements=true&useSSL=false&allowPublicKeyRetrieval=true");
+            properties.put("spring.datasource.username", "root");
+            properties.put("spring.datasource.password", "");
+            AnsiColors.infoLog(logger, "MariaDB embebido en el puerto " + config.getPort());
+        } else if ("h2".equals(settings.database())) {
+            // day es palabra reservada en H2 (login_attempt_daily.day). Con update Hibernate toma
+            // INFORMATION_SCHEMA.USERS por la tabla users y no la crea: la base de datos está vacía, create
+            properties.put("spring.datasource.url", "jdbc:h2:mem:" + DATABASE
+                    + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DAY");
+            properties.put("spring.datasource.username", "sa");
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+        } else {
+            throw new IllegalArgumentException("loadtest.database desconocida: " + settings.database());
+        }
+
+        properties.put("server.port", "0");
+        properties.put("jwt.secret", UUID.randomUUID() + "-" + UUID.randomUUID());
+        properties.put("jwt.expiration", String.valueOf(24 * 3_600_000L));
+        properties.put("logging.level.com.swemmanuelgz", "WARN");
+        // Los resultados del propio runner (saturación, votos con flood) se registran como INFO
+        properties.put("logging.level.com.swemmanuelgz.users.impostorbackend.loadtest", "INFO");
+        properties.put("jfr.continuous.enabled", "false");
+        properties.put("archive.games.enabled", "false");
+        properties.put("login.retention.enabled", "false");
+        properties.put("stats.backfill.enabled", "false");
+        if (settings.loginFloodRps() > 0) {
+            // Cliente y servidor comparten CPU: con el coste de producción el flood mediría sobre todo
+            // la contención de bcrypt y no la de los pools de conexiones
+            properties.put("password.hashing.bcrypt-strength", "4");
+        }
+
+        // Como argumentos de línea de comandos: properties() solo fija valores por defecto y
+        // application.properties (server.port=8080, jwt.secret=${JWT_SECRET}...) les ganaría
+        String[] args = properties.entrySet().stream()
+                .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context;
+        try {
+            context = new SpringApplicationBuilder(ImpostorBackendApplication.class)
+                    .run(args);
+        } catch (RuntimeException e) {
+            if (mariaDb != null) {
+                mariaDb.stop();
+            }
+            throw e;
+        }
+
+        EmbeddedBackend backend = new EmbeddedBackend(mariaDb, context, new ArrayList<>(), new ArrayList<>());
+        try {
+            backend.users.addAll(createUsers(context, settings.totalUsers()));
+            if (settings.loginFloodRps() > 0) {
+                backend.floodLogins.addAll(createFloodUsers(context, FLOOD_USERS));
+            }
+        } catch (RuntimeException e) {
+            // Sin cerrar el contexto sus hilos (Tomcat, schedulers) dejarían el proceso colgado
+            backend.close();
+            throw e;
+        }
+        AnsiColors.successLog(logger, "Backend arrancado con " + backend.users.size() + " usuarios de prueba"
+                + (backend.floodLogins.isEmpty() ? "" : " y " + backend.floodLogins.size() + " para el flood de login"));
+        return backend;
+    }
+
+    private static List<SimUser> createUsers(ConfigurableApplicationContext context, int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        JwtProvider jwtProvider = context.getBean(JwtProvider.class);
+
+        List<User> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("load" + i);
+            user.setEmail("load" + i + "@loadtest.local");
+            user.setCreatedAt(Instant.now());
+            entities.add(user);
+        }
+        List<SimUser> users = new ArrayList<>(count);
+        for (User user : userRepository.saveAll(entities)) {
+            int n = users.size();
+            // Una IP distinta por jugador, como clientes reales detrás del proxy
+            String ip = "10." + ((n >> 16) & 0xff) + "." + ((n >> 8) & 0xff) + "." + (n & 0xff);
+            users.add(new SimUser(user.getId(), user.getUsername(), jwtProvider.generateToken(user), ip));
+        }
+        return users;
+    }
+
+    /**
+     * Usuarios locales con FLOOD_PASSWORD (el hash se calcula una vez y se comparte)
+     */
+    private static List<String> createFloodUsers(ConfigurableApplicationContext context, int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String passwordHash = context.getBean(PasswordHashingService.class).encode(FLOOD_PASSWORD);
+
+        List<User> entities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setUsername("flood" + i);
+            user.setEmail("flood" + i + "@loadtest.local");
+            user.setPassword(passwordHash);
+            user.setCreatedAt(Instant.now());
+            entities.add(user);
+        }
+        return userRepository.saveAll(entities).stream().map(User::getUsername).toList();
+    }
+
+    String baseUrl() {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        return "http://localhost:" + port;
+    }
+
+    /**
+     * Jugadores de la sala slot (siempre los mismos para la misma sala)
+     */
+    List<SimUser> playersOf(int slot, int playersPerRoom) {
+        return users.subList(slot * playersPerRoom, (slot + 1) * playersPerRoom);
+    }
+
+    List<String> floodLogins() {
+        return floodLogins;
+    }
+
+    @Override
+    public void close() throws ManagedProcessException {
+        context.close();
+        if (mariaDb != null) {
+            mariaDb.stop();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.swemmanuelgz.users.impostorbackend.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencias de una etapa del load test por tipo de mensaje, en histogramas HdrHistogram (microsegundos).
+ * Cada latencia es desde que el cliente envía el frame hasta que recibe la respuesta que lo confirma.
+ */
+final class LatencyStats {
+
+    enum MessageType {
+        CONNECT,  // handshake SockJS + CONNECT STOMP con el JWT
+        CREATE,   // POST /api/game/create
+        JOIN,     // /join -> PLAYER_JOINED propio
+        START,    // /start -> GAME_STARTED
+        ROLE,     // /start -> notificación de rol en /user/queue/game-notifications
+        CHAT,     // /chat -> CHAT_MESSAGE propio
+        VOTE,     // /vote -> VOTE_CAST propio
+        RESOLVE,  // último voto -> VOTE_RESULT (incluye la espera fija de 500 ms del servidor)
+        LOGIN     // POST /api/auth/login del flood (LoginFlood); 401/404 cuentan como respuesta, no como error
+    }
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<MessageType, Histogram> histograms = new EnumMap<>(MessageType.class);
+    private final Map<MessageType, LongAdder> errors = new EnumMap<>(MessageType.class);
+    private final LongAdder gamesCompleted = new LongAdder();
+    private final LongAdder gamesFailed = new LongAdder();
+
+    LatencyStats() {
+        for (MessageType type : MessageType.values()) {
+            histograms.put(type, new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3));
+            errors.put(type, new LongAdder());
+        }
+    }
+
+    void record(MessageType type, long nanos) {
+        histograms.get(type).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_TRACKABLE_MICROS));
+    }
+
+    /**
+     * Respuesta de error del servidor o sin respuesta dentro del timeout
+     */
+    void error(MessageType type) {
+        errors.get(type).increment();
+    }
+
+    void gameCompleted() {
+        gamesCompleted.increment();
+    }
+
+    void gameFailed() {
+        gamesFailed.increment();
+    }
+
+    double percentileMillis(MessageType type, double percentile) {
+        return millis(histograms.get(type).getValueAtPercentile(percentile));
+    }
+
+    /**
+     * Imprime la tabla de la etapa y devuelve si cumple los límites (p99 y tasa de errores).
+     * Los límites solo miran el tráfico de la partida: el flood de login es la carga de fondo
+     */
+    boolean report(int rooms, String label, Duration elapsed, LoadTestSettings settings) {
+        double seconds = elapsed.toMillis() / 1000.0;
+        long totalMessages = 0;
+        long totalErrors = 0;
+        boolean withinSlo = true;
+
+        System.out.printf("%n=== %d salas simultáneas%s (%.1f s) ===%n", rooms, label, seconds);
+        System.out.printf("%-8s %10s %10s %10s %10s %10s %10s %8s%n",
+                "tipo", "mensajes", "msg/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errores");
+        for (MessageType type : MessageType.values()) {
+            Histogram histogram = histograms.get(type);
+            long count = histogram.getTotalCount();
+            long failed = errors.get(type).sum();
+            if (type == MessageType.LOGIN) {
+                if (count + failed > 0) {
+                    printRow(type, histogram, seconds, failed);
+                }
+                continue;
+            }
+            totalMessages += count + failed;
+            totalErrors += failed;
+
+            printRow(type, histogram, seconds, failed);
+            double p99 = millis(histogram.getValueAtPercentile(99));
+
+            // resolve lleva la espera fija del servidor y no sirve para detectar saturación
+            if (type != MessageType.RESOLVE && count > 0 && p99 > settings.maxP99().toMillis()) {
+                withinSlo = false;
+            }
+        }
+
+        double errorRate = totalMessages == 0 ? 0 : (double) totalErrors / totalMessages;
+        System.out.printf("partidas completadas: %d (%.1f/s), fallidas: %d, tasa de error: %.2f%%%n",
+                gamesCompleted.sum(), gamesCompleted.sum() / seconds, gamesFailed.sum(), errorRate * 100);
+        return withinSlo && errorRate <= settings.maxErrorRate();
+    }
+
+    private static void printRow(MessageType type, Histogram histogram, double seconds, long failed) {
+        long count = histogram.getTotalCount();
+        System.out.printf("%-8s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                type.name().toLowerCase(), count, count / seconds,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()), failed);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
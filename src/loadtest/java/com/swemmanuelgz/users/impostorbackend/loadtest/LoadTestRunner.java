@@ -0,0 +1,156 @@
+package com.swemmanuelgz.users.impostorbackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swemmanuelgz.users.impostorbackend.config.JacksonConfig;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Load test del servidor de partidas: cuántas salas simultáneas aguanta un nodo.
+ *
+ * Arranca la aplicación con una base de datos embebida (EmbeddedBackend) y juega partidas completas por
+ * STOMP sobre SockJS (RoomScenario) en etapas con cada vez más salas simultáneas: startRooms, × growthFactor,
+ * ... hasta maxRooms. En cada etapa cada sala juega partidas seguidas durante stageDuration y se imprime
+ * p50/p99/p999 por tipo de mensaje. La primera etapa que supera maxP99 o maxErrorRate es el punto de saturación.
+ *
+ * Con loadtest.login-flood-rps cada etapa se juega dos veces, sin y con un flood de logins (LoginFlood), y se
+ * compara la latencia de los votos: con los pools separados por carga (ver WorkloadContext) no debería moverse.
+ * La saturación se decide con la pasada con flood.
+ *
+ * Cliente y servidor comparten la máquina (y este proceso): el resultado es una cota inferior de lo que
+ * aguanta el nodo y sirve sobre todo para comparar entre commits con los mismos parámetros.
+ *
+ * Ejecutar con: ./gradlew loadTest [-Ploadtest.max-rooms=320 -Ploadtest.login-flood-rps=100 ...]
+ */
+public final class LoadTestRunner {
+
+    private static final Logger logger = Logger.getLogger(LoadTestRunner.class.getName());
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(settings.responseTimeout()).build();
+
+        try (EmbeddedBackend backend = EmbeddedBackend.start(settings)) {
+            WebSocketStompClient stompClient = stompClient(objectMapper);
+            int lastHealthy = 0;
+            int saturatedAt = 0;
+
+            int rooms = Math.min(settings.startRooms(), settings.maxRooms());
+            while (true) {
+                AnsiColors.infoLog(logger, "Etapa con " + rooms + " salas durante " + settings.stageDuration().toSeconds() + " s");
+                boolean healthy;
+                if (settings.loginFloodRps() > 0) {
+                    LatencyStats quiet = new LatencyStats();
+                    runStage(rooms, quiet, false, backend, stompClient, httpClient, objectMapper, settings);
+                    LatencyStats flooded = new LatencyStats();
+                    healthy = runStage(rooms, flooded, true, backend, stompClient, httpClient, objectMapper, settings);
+                    reportVoteIsolation(rooms, quiet, flooded, settings);
+                } else {
+                    healthy = runStage(rooms, new LatencyStats(), false, backend, stompClient, httpClient, objectMapper, settings);
+                }
+                if (!healthy) {
+                    saturatedAt = rooms;
+                    break;
+                }
+                lastHealthy = rooms;
+                if (rooms == settings.maxRooms()) {
+                    break;
+                }
+                rooms = Math.min(settings.maxRooms(), (int) Math.ceil(rooms * settings.growthFactor()));
+            }
+
+            System.out.println();
+            if (saturatedAt > 0) {
+                AnsiColors.warningLog(logger, "Saturación con " + saturatedAt + " salas simultáneas; última etapa dentro de límites: "
+                        + (lastHealthy > 0 ? lastHealthy + " salas" : "ninguna"));
+            } else {
+                AnsiColors.successLog(logger, "Sin saturación hasta " + lastHealthy + " salas (loadtest.max-rooms)");
+            }
+        }
+    }
+
+    /**
+     * Juega la etapa (con el flood de login si loginFlood) y devuelve si se mantuvo dentro de los límites
+     */
+    private static boolean runStage(int rooms, LatencyStats stats, boolean loginFlood, EmbeddedBackend backend,
+                                    WebSocketStompClient stompClient, HttpClient httpClient, ObjectMapper objectMapper,
+                                    LoadTestSettings settings) {
+        String baseUrl = backend.baseUrl();
+        AtomicBoolean failureLogged = new AtomicBoolean();
+        long start = System.nanoTime();
+        long deadline = start + settings.stageDuration().toNanos();
+
+        // Un hilo virtual por sala: cada jugador espera sus respuestas bloqueando sin ocupar un hilo de plataforma
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int slot = 0; slot < rooms; slot++) {
+                RoomScenario scenario = new RoomScenario(backend.playersOf(slot, settings.playersPerRoom()), baseUrl,
+                        stompClient, httpClient, objectMapper, stats, settings,
+                        new SplittableRandom(settings.seed() * 31 + slot));
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            scenario.play();
+                            stats.gameCompleted();
+                        } catch (Exception e) {
+                            stats.gameFailed();
+                            if (failureLogged.compareAndSet(false, true)) {
+                                AnsiColors.warningLog(logger, "Primera partida fallida de la etapa: " + e);
+                            }
+                        }
+                    }
+                });
+            }
+            if (loginFlood) {
+                LoginFlood flood = new LoginFlood(backend.floodLogins(), baseUrl, httpClient, stats, settings,
+                        new SplittableRandom(settings.seed() * 31 - rooms));
+                executor.submit(() -> flood.run(deadline));
+            }
+        }
+
+        String label = loginFlood ? " + " + settings.loginFloodRps() + " logins/s" : "";
+        return stats.report(rooms, label, Duration.ofNanos(System.nanoTime() - start), settings);
+    }
+
+    /**
+     * Latencia de los votos de la etapa sin y con el flood de login
+     */
+    private static void reportVoteIsolation(int rooms, LatencyStats quiet, LatencyStats flooded, LoadTestSettings settings) {
+        double quietP99 = quiet.percentileMillis(LatencyStats.MessageType.VOTE, 99);
+        double floodedP99 = flooded.percentileMillis(LatencyStats.MessageType.VOTE, 99);
+        String summary = String.format("Votos con %d salas: p50 %.2f -> %.2f ms, p99 %.2f -> %.2f ms con %d logins/s",
+                rooms, quiet.percentileMillis(LatencyStats.MessageType.VOTE, 50),
+                flooded.percentileMillis(LatencyStats.MessageType.VOTE, 50), quietP99, floodedP99,
+                settings.loginFloodRps());
+        if (floodedP99 > settings.maxP99().toMillis()) {
+            AnsiColors.warningLog(logger, summary);
+        } else {
+            AnsiColors.infoLog(logger, summary);
+        }
+    }
+
+    private static WebSocketStompClient stompClient(ObjectMapper objectMapper) {
+        SockJsClient sockJsClient = new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient())));
+        WebSocketStompClient stompClient = new WebSocketStompClient(sockJsClient);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        stompClient.setMessageConverter(converter);
+        return stompClient;
+    }
+}
@@ -0,0 +1,65 @@
+package com.swemmanuelgz.users.impostorbackend.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Parámetros del load test, leídos de propiedades del sistema loadtest.* (la tarea loadTest de Gradle
+ * pasa los -Ploadtest.* tal cual).
+ *
+ * @param database          mariadb (MariaDB embebido, por defecto) o h2 (H2 en modo MySQL, más rápido pero sin resolución de partidas)
+ * @param playersPerRoom    jugadores por sala (mínimo 3 para que haya rondas de votación)
+ * @param startRooms        salas simultáneas de la primera etapa
+ * @param maxRooms          tope de salas simultáneas (también fija cuántos usuarios se crean)
+ * @param growthFactor      multiplicador de salas entre etapas
+ * @param stageDuration     tiempo que se juegan partidas en cada etapa
+ * @param chatMessages      mensajes de chat por jugador y ronda
+ * @param maxP99            latencia p99 máxima de cualquier tipo de mensaje (salvo resolve) para dar la etapa por buena
+ * @param maxErrorRate      proporción máxima de mensajes con error o sin respuesta
+ * @param responseTimeout   espera máxima de cada respuesta; pasado ese tiempo cuenta como timeout
+ * @param seed              semilla de las decisiones de los jugadores (votos), para repetir la misma carga
+ * @param loginFloodRps     logins por segundo contra /api/auth/login durante la etapa (0 = sin flood). Con flood
+ *                          cada etapa se juega dos veces, sin y con, para comparar la latencia de los votos
+ */
+record LoadTestSettings(String database,
+                        int playersPerRoom,
+                        int startRooms,
+                        int maxRooms,
+                        double growthFactor,
+                        Duration stageDuration,
+                        int chatMessages,
+                        Duration maxP99,
+                        double maxErrorRate,
+                        Duration responseTimeout,
+                        long seed,
+                        int loginFloodRps) {
+
+    static LoadTestSettings fromSystemProperties() {
+        LoadTestSettings settings = new LoadTestSettings(
+                System.getProperty("loadtest.database", "mariadb"),
+                Integer.getInteger("loadtest.players-per-room", 4),
+                Integer.getInteger("loadtest.start-rooms", 10),
+                Integer.getInteger("loadtest.max-rooms", 640),
+                Double.parseDouble(System.getProperty("loadtest.growth-factor", "2")),
+                Duration.ofSeconds(Long.getLong("loadtest.stage-seconds", 30L)),
+                Integer.getInteger("loadtest.chat-messages", 3),
+                Duration.ofMillis(Long.getLong("loadtest.max-p99-ms", 250L)),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")),
+                Duration.ofMillis(Long.getLong("loadtest.response-timeout-ms", 5000L)),
+                Long.getLong("loadtest.seed", 42L),
+                Integer.getInteger("loadtest.login-flood-rps", 0));
+        if (settings.playersPerRoom < 3) {
+            throw new IllegalArgumentException("loadtest.players-per-room debe ser al menos 3");
+        }
+        if (settings.growthFactor <= 1) {
+            throw new IllegalArgumentException("loadtest.growth-factor debe ser mayor que 1");
+        }
+        if (settings.loginFloodRps < 0) {
+            throw new IllegalArgumentException("loadtest.login-flood-rps no puede ser negativo");
+        }
+        return settings;
+    }
+
+    int totalUsers() {
+        return maxRooms * playersPerRoom;
+    }
+}
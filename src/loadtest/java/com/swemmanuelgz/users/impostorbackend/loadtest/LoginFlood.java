@@ -0,0 +1,89 @@
+package com.swemmanuelgz.users.impostorbackend.loadtest;
+
+import com.swemmanuelgz.users.impostorbackend.loadtest.LatencyStats.MessageType;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Flood de POST /api/auth/login a ritmo fijo mientras las salas juegan, para ver si la autenticación
+ * (búsqueda del usuario, bcrypt, auditoría del intento) quita conexiones o CPU a los votos.
+ *
+ * Es de bucle abierto: cada petición sale a su hora aunque las anteriores no hayan respondido, como un
+ * flood real. Cada una lleva una IP distinta en X-Forwarded-For, así el rate limit por IP no la corta antes
+ * de llegar a la base de datos (el peor caso, una botnet); una de cada cuatro trae la contraseña correcta
+ * y el resto es un intento fallido (401) que también se audita.
+ */
+final class LoginFlood {
+
+    private static final int SUCCESS_EVERY = 4;
+
+    private final List<String> logins;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final LatencyStats stats;
+    private final LoadTestSettings settings;
+    private final SplittableRandom random;
+
+    LoginFlood(List<String> logins, String baseUrl, HttpClient httpClient, LatencyStats stats,
+               LoadTestSettings settings, SplittableRandom random) {
+        this.logins = logins;
+        this.baseUrl = baseUrl;
+        this.httpClient = httpClient;
+        this.stats = stats;
+        this.settings = settings;
+        this.random = random;
+    }
+
+    /**
+     * Envía loginFloodRps logins por segundo hasta deadline (System.nanoTime) y espera a las respuestas pendientes
+     */
+    void run(long deadline) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.loginFloodRps();
+        long next = System.nanoTime();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+        for (int n = 0; next < deadline; n++, next += interval) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            pending.add(login(n));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+    }
+
+    private CompletableFuture<?> login(int n) {
+        String username = logins.get(random.nextInt(logins.size()));
+        String password = n % SUCCESS_EVERY == 0 ? EmbeddedBackend.FLOOD_PASSWORD : "incorrecta-" + n;
+        String form = "username=" + URLEncoder.encode(username, StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(password, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("X-Forwarded-For", "172.16." + ((n >> 8) & 0xff) + "." + (n & 0xff))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .timeout(settings.responseTimeout())
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    // 429 (rate limit) y 503 (hashing saturado) son logins que el servidor no llegó a atender
+                    if (error != null || response.statusCode() == 429 || response.statusCode() >= 500) {
+                        stats.error(MessageType.LOGIN);
+                    } else {
+                        stats.record(MessageType.LOGIN, System.nanoTime() - start);
+                    }
+                    return null;
+                });
+    }
+}
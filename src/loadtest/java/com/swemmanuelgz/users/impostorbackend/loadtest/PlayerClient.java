@@ -0,0 +1,175 @@
+package com.swemmanuelgz.users.impostorbackend.loadtest;
+
+import com.swemmanuelgz.users.impostorbackend.dto.GameNotificationDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GameWebSocketMessage;
+import com.swemmanuelgz.users.impostorbackend.loadtest.EmbeddedBackend.SimUser;
+import com.swemmanuelgz.users.impostorbackend.loadtest.LatencyStats.MessageType;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Un jugador simulado: su sesión STOMP (SockJS) suscrita a /topic/game/{roomCode} y a sus notificaciones.
+ *
+ * Cada envío registra antes qué mensaje espera de vuelta (expect); cuando llega se anota la latencia en
+ * LatencyStats. Un ERROR del servidor en la sala falla todas las esperas pendientes del jugador.
+ */
+final class PlayerClient implements AutoCloseable {
+
+    private record Waiter(Predicate<Object> match, CompletableFuture<Object> future) {
+    }
+
+    private final SimUser user;
+    private final LatencyStats stats;
+    private final long timeoutMillis;
+    private final List<Waiter> waiters = new CopyOnWriteArrayList<>();
+    private StompSession session;
+
+    private PlayerClient(SimUser user, LatencyStats stats, long timeoutMillis) {
+        this.user = user;
+        this.stats = stats;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Conecta con el JWT en el CONNECT y la IP del jugador en X-Forwarded-For, y se suscribe a la sala
+     */
+    static PlayerClient connect(WebSocketStompClient stompClient, String baseUrl, SimUser user, String roomCode,
+                                LatencyStats stats, long timeoutMillis) throws Exception {
+        PlayerClient client = new PlayerClient(user, stats, timeoutMillis);
+        WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+        handshakeHeaders.add("X-Forwarded-For", user.ip());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + user.token());
+
+        long start = System.nanoTime();
+        try {
+            client.session = stompClient.connectAsync(baseUrl + "/chat-socket", handshakeHeaders, connectHeaders,
+                    new StompSessionHandlerAdapter() {
+                    }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            stats.error(MessageType.CONNECT);
+            throw e;
+        }
+        stats.record(MessageType.CONNECT, System.nanoTime() - start);
+
+        client.session.subscribe("/topic/game/" + roomCode, client.handler(GameWebSocketMessage.class));
+        // Como la app: /user/{userId}/... lo entrega el simple broker (tiene /user como prefijo). Con
+        // /user/queue/... el broker guarda también la suscripción sin traducir y se queda con esa
+        client.session.subscribe("/user/" + user.id() + "/queue/game-notifications", client.handler(GameNotificationDto.class));
+        return client;
+    }
+
+    Long userId() {
+        return user.id();
+    }
+
+    String username() {
+        return user.username();
+    }
+
+    /**
+     * Registra qué mensaje se espera recibir, con el timeout de respuesta.
+     * Hay que llamarlo antes de enviar lo que lo provoca
+     */
+    @SuppressWarnings("unchecked")
+    <T> CompletableFuture<T> expect(Class<T> type, Predicate<T> match) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        waiters.add(new Waiter(payload -> type.isInstance(payload) && match.test((T) payload), future));
+        return ((CompletableFuture<T>) future).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Como expect, y anota la latencia desde startNanos al llegar (o un error si no llega)
+     */
+    <T> CompletableFuture<T> expect(MessageType stat, long startNanos, Class<T> type, Predicate<T> match) {
+        return expect(type, match)
+                .whenComplete((payload, error) -> {
+                    if (error == null) {
+                        stats.record(stat, System.nanoTime() - startNanos);
+                    } else {
+                        stats.error(stat);
+                    }
+                });
+    }
+
+    /**
+     * Envía a /app/game/{roomCode}/{action} y devuelve la espera del mensaje de la sala que lo confirma
+     */
+    CompletableFuture<GameWebSocketMessage> send(MessageType stat, String roomCode, String action,
+                                                 GameWebSocketMessage payload, Predicate<GameWebSocketMessage> response) {
+        CompletableFuture<GameWebSocketMessage> confirmation =
+                expect(stat, System.nanoTime(), GameWebSocketMessage.class, response);
+        session.send("/app/game/" + roomCode + "/" + action, payload);
+        return confirmation;
+    }
+
+    /**
+     * Mensaje de la sala de tipo type enviado por este jugador (el servidor pone el senderId del principal)
+     */
+    Predicate<GameWebSocketMessage> own(String type) {
+        return message -> type.equals(message.getType()) && user.id().equals(message.getSenderId());
+    }
+
+    GameWebSocketMessage message(String type, String content) {
+        return GameWebSocketMessage.builder()
+                .type(type)
+                .senderId(user.id())
+                .senderUsername(user.username())
+                .content(content)
+                .build();
+    }
+
+    private StompFrameHandler handler(Class<?> payloadType) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return payloadType;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                onMessage(payload);
+            }
+        };
+    }
+
+    private void onMessage(Object payload) {
+        if (payload instanceof GameWebSocketMessage message && "ERROR".equals(message.getType())) {
+            IllegalStateException error = new IllegalStateException(
+                    "ERROR del servidor: " + message.getErrorCode() + " - " + message.getContent());
+            for (Waiter waiter : waiters) {
+                waiters.remove(waiter);
+                waiter.future().completeExceptionally(error);
+            }
+            return;
+        }
+        for (Waiter waiter : waiters) {
+            if (waiter.future().isDone()) {
+                waiters.remove(waiter); // caducada por timeout
+            } else if (waiter.match().test(payload)) {
+                waiters.remove(waiter);
+                waiter.future().complete(payload);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        waiters.forEach(waiter -> waiter.future().cancel(false));
+        waiters.clear();
+        if (session != null && session.isConnected()) {
+            session.disconnect();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.swemmanuelgz.users.impostorbackend.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swemmanuelgz.users.impostorbackend.dto.CreateGameRequest;
+import com.swemmanuelgz.users.impostorbackend.dto.GameDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GameNotificationDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GameWebSocketMessage;
+import com.swemmanuelgz.users.impostorbackend.loadtest.EmbeddedBackend.SimUser;
+import com.swemmanuelgz.users.impostorbackend.loadtest.LatencyStats.MessageType;
+import com.swemmanuelgz.users.impostorbackend.utils.WordGenerator;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+/**
+ * Una partida completa en una sala, tal como la juega el cliente:
+ * create (REST) → connect + join de todos → start → rondas de chat y votación → resolve hasta GAME_ENDED.
+ *
+ * Dentro de cada fase los jugadores actúan a la vez (todos los envíos salen antes de esperar respuestas).
+ * Los votos se deciden con el random de la sala: todos votan al mismo sospechoso y él vota a otro,
+ * así cada ronda elimina a alguien y la partida termina en como mucho playersPerRoom - 2 rondas.
+ */
+final class RoomScenario {
+
+    private record RoundResult(Long eliminatedUserId, boolean gameEnded) {
+    }
+
+    private final List<SimUser> players;
+    private final String baseUrl;
+    private final WebSocketStompClient stompClient;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyStats stats;
+    private final LoadTestSettings settings;
+    private final SplittableRandom random;
+
+    RoomScenario(List<SimUser> players, String baseUrl, WebSocketStompClient stompClient, HttpClient httpClient,
+                 ObjectMapper objectMapper, LatencyStats stats, LoadTestSettings settings, SplittableRandom random) {
+        this.players = players;
+        this.baseUrl = baseUrl;
+        this.stompClient = stompClient;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.stats = stats;
+        this.settings = settings;
+        this.random = random;
+    }
+
+    void play() throws Exception {
+        String roomCode = createGame(players.get(0));
+        long timeoutMillis = settings.responseTimeout().toMillis();
+
+        List<PlayerClient> clients = new ArrayList<>(players.size());
+        try {
+            for (SimUser player : players) {
+                clients.add(PlayerClient.connect(stompClient, baseUrl, player, roomCode, stats, timeoutMillis));
+            }
+            PlayerClient host = clients.get(0);
+
+            List<CompletableFuture<?>> joins = new ArrayList<>();
+            for (PlayerClient client : clients) {
+                joins.add(client.send(MessageType.JOIN, roomCode, "join",
+                        client.message("JOIN", null), client.own("PLAYER_JOINED")));
+            }
+            awaitAll(joins);
+
+            long startNanos = System.nanoTime();
+            List<CompletableFuture<?>> start = new ArrayList<>();
+            for (PlayerClient client : clients) {
+                start.add(client.expect(MessageType.ROLE, startNanos, GameNotificationDto.class,
+                        notification -> "YOUR_ROLE".equals(notification.getType())));
+            }
+            start.add(host.send(MessageType.START, roomCode, "start",
+                    host.message("START", null), host.own("GAME_STARTED")));
+            awaitAll(start);
+
+            List<PlayerClient> alive = new ArrayList<>(clients);
+            for (int round = 1; ; round++) {
+                chat(roomCode, alive, round);
+                RoundResult result = vote(roomCode, host, alive);
+                alive.removeIf(client -> client.userId().equals(result.eliminatedUserId()));
+                if (result.gameEnded()) {
+                    break;
+                }
+                if (round >= players.size()) {
+                    throw new IllegalStateException("La partida " + roomCode + " no termina tras " + round + " rondas");
+                }
+            }
+        } finally {
+            clients.forEach(PlayerClient::close);
+        }
+    }
+
+    private String createGame(SimUser creator) throws Exception {
+        CreateGameRequest body = CreateGameRequest.builder()
+                .creatorId(creator.id())
+                .category(WordGenerator.CATEGORIES.get(random.nextInt(WordGenerator.CATEGORIES.size())))
+                .maxPlayers(players.size())
+                .duration(10)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/game/create"))
+                .header("Authorization", "Bearer " + creator.token())
+                .header("X-Forwarded-For", creator.ip())
+                .header("Content-Type", "application/json")
+                .timeout(settings.responseTimeout())
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            stats.error(MessageType.CREATE);
+            throw e;
+        }
+        if (response.statusCode() != 201) {
+            stats.error(MessageType.CREATE);
+            throw new IllegalStateException("create respondió " + response.statusCode() + ": " + response.body());
+        }
+        stats.record(MessageType.CREATE, System.nanoTime() - start);
+        return objectMapper.readValue(response.body(), GameDto.class).getRoomCode();
+    }
+
+    private void chat(String roomCode, List<PlayerClient> alive, int round) {
+        List<CompletableFuture<?>> chats = new ArrayList<>();
+        for (PlayerClient client : alive) {
+            for (int i = 0; i < settings.chatMessages(); i++) {
+                String content = "ronda " + round + " mensaje " + i + " de " + client.username();
+                Predicate<GameWebSocketMessage> echo = client.own("CHAT_MESSAGE");
+                chats.add(client.send(MessageType.CHAT, roomCode, "chat", client.message("CHAT", content),
+                        echo.and(message -> content.equals(message.getContent()))));
+            }
+        }
+        awaitAll(chats);
+    }
+
+    /**
+     * Vota la ronda y espera su resolución (VOTE_RESULT y después GAME_ENDED o NEW_ROUND)
+     */
+    private RoundResult vote(String roomCode, PlayerClient host, List<PlayerClient> alive) {
+        int suspectIndex = random.nextInt(alive.size());
+        Long suspectId = alive.get(suspectIndex).userId();
+        Long suspectVote = alive.get((suspectIndex + 1) % alive.size()).userId();
+
+        List<CompletableFuture<?>> votes = new ArrayList<>();
+        for (PlayerClient client : alive) {
+            Long target = client.userId().equals(suspectId) ? suspectVote : suspectId;
+            votes.add(client.send(MessageType.VOTE, roomCode, "vote",
+                    client.message("VOTE", String.valueOf(target)), client.own("VOTE_CAST")));
+        }
+        // El servidor resuelve 500 ms después del último voto: da tiempo de sobra a registrar las esperas aquí
+        long lastVoteNanos = System.nanoTime();
+        CompletableFuture<GameWebSocketMessage> result = host.expect(MessageType.RESOLVE, lastVoteNanos,
+                GameWebSocketMessage.class, message -> "VOTE_RESULT".equals(message.getType()));
+        CompletableFuture<GameWebSocketMessage> outcome = host.expect(GameWebSocketMessage.class,
+                message -> "GAME_ENDED".equals(message.getType()) || "NEW_ROUND".equals(message.getType()));
+        awaitAll(votes);
+
+        return new RoundResult(result.join().getSenderId(), "GAME_ENDED".equals(outcome.join().getType()));
+    }
+
+    private static void awaitAll(List<CompletableFuture<?>> futures) {
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+    }
+}
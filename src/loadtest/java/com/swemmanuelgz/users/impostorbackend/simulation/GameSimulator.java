@@ -0,0 +1,146 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Simulador de partidas en proceso: juega millones de partidas con semilla contra GameServiceImpl y
+ * GameSessionManager sin sockets, sin base de datos y sin esperas reales. Cada hilo tiene su propio mundo
+ * (SimulatedBackend: repositorios en memoria, reloj y scheduler virtuales) y va cogiendo lotes de índices de
+ * partida; la semilla de cada partida sale de (simulation.seed, índice), así que el resultado no depende
+ * del número de hilos.
+ *
+ * Al terminar imprime el rendimiento y las violaciones de invariantes (ver Violation) con las semillas de
+ * las primeras; una partida se repite con traza y log DEBUG con -Psimulation.replay=<semilla>.
+ * Sale con código 1 si hubo alguna violación.
+ *
+ * Ejecutar con: ./gradlew simulate [-Psimulation.games=5000000 -Psimulation.threads=8 ...]
+ */
+public final class GameSimulator {
+
+    private static final Logger logger = Logger.getLogger(GameSimulator.class.getName());
+    /**
+     * Referencia fuerte: JUL solo guarda referencias débiles a los loggers y perdería el nivel
+     */
+    private static final Logger applicationLogger = Logger.getLogger("com.swemmanuelgz");
+
+    private static final int BATCH_SIZE = 256;
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(5);
+
+    private GameSimulator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimulationSettings settings = SimulationSettings.fromSystemProperties();
+        configureLogging(settings.replay() != null);
+        SimulationReport report = new SimulationReport(settings.maxSamples());
+
+        if (settings.replay() != null) {
+            AnsiColors.infoLog(logger, "Repitiendo la partida con semilla " + settings.replay());
+            long start = System.nanoTime();
+            new SimulatedGame(new SimulatedBackend(settings.resolveDelayMs()), settings, report, settings.replay(),
+                    System.out::println).play();
+            printSummary(report, Duration.ofNanos(System.nanoTime() - start));
+        } else {
+            AnsiColors.infoLog(logger, String.format("Simulando %,d partidas en %d hilos (semilla %d)",
+                    settings.games(), settings.threads(), settings.seed()));
+            Duration wallTime = runAll(settings, report);
+            printSummary(report, wallTime);
+        }
+
+        if (report.totalViolations() > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Duration runAll(SimulationSettings settings, SimulationReport report) throws Exception {
+        AtomicLong nextIndex = new AtomicLong();
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(settings.threads());
+        try {
+            Future<?>[] workers = new Future<?>[settings.threads()];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = executor.submit(() -> work(settings, report, nextIndex));
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(PROGRESS_INTERVAL.toMillis(), TimeUnit.MILLISECONDS)) {
+                long played = report.games.sum();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                AnsiColors.infoLog(logger, String.format("%,d/%,d partidas (%,.0f/s), %d violaciones",
+                        played, settings.games(), played / seconds, report.totalViolations()));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Bucle de un hilo: lotes de índices hasta agotar simulation.games. Si una partida deja estado en
+     * GameSessionManager el mundo se descarta para que la siguiente no arrastre esa violación
+     */
+    private static void work(SimulationSettings settings, SimulationReport report, AtomicLong nextIndex) {
+        SimulatedBackend backend = new SimulatedBackend(settings.resolveDelayMs());
+        while (true) {
+            long from = nextIndex.getAndAdd(BATCH_SIZE);
+            if (from >= settings.games()) {
+                return;
+            }
+            long to = Math.min(from + BATCH_SIZE, settings.games());
+            for (long index = from; index < to; index++) {
+                long seed = settings.gameSeed(index);
+                boolean clean;
+                try {
+                    clean = new SimulatedGame(backend, settings, report, seed, null).play();
+                } catch (RuntimeException e) {
+                    // Excepción fuera de las acciones que ya la comprueban (heartbeat, conexión...)
+                    report.violation(Violation.UNEXPECTED_ERROR, seed, e.toString());
+                    report.games.increment();
+                    clean = false;
+                }
+                if (!clean) {
+                    backend = new SimulatedBackend(settings.resolveDelayMs());
+                }
+            }
+        }
+    }
+
+    private static void printSummary(SimulationReport report, Duration wallTime) {
+        System.out.println();
+        report.summary(wallTime).forEach(System.out::println);
+        if (report.totalViolations() == 0) {
+            AnsiColors.successLog(logger, "Sin violaciones de invariantes");
+            return;
+        }
+        AnsiColors.errorLog(logger, String.format("%,d violaciones; primeras:", report.totalViolations()));
+        for (SimulationReport.Sample sample : report.samples()) {
+            System.out.println("  " + sample.violation() + " [semilla " + sample.seed() + "] " + sample.detail());
+        }
+        AnsiColors.warningLog(logger, "Repetir una partida: ./gradlew simulate -Psimulation.replay=<semilla>");
+    }
+
+    /**
+     * Millones de partidas con el log de la aplicación a INFO serían casi todo el tiempo de la simulación:
+     * solo WARN, salvo al repetir una partida (DEBUG de la aplicación junto a la traza del simulador)
+     */
+    private static void configureLogging(boolean replay) {
+        LoggerContext loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+        loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).setLevel(Level.WARN);
+        loggerContext.getLogger("com.swemmanuelgz").setLevel(replay ? Level.DEBUG : Level.WARN);
+        applicationLogger.setLevel(replay ? java.util.logging.Level.INFO : java.util.logging.Level.WARNING);
+        logger.setLevel(java.util.logging.Level.INFO);
+    }
+}
@@ -0,0 +1,250 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
+import com.swemmanuelgz.users.impostorbackend.entity.Game;
+import com.swemmanuelgz.users.impostorbackend.entity.GamePlayer;
+import com.swemmanuelgz.users.impostorbackend.entity.User;
+import com.swemmanuelgz.users.impostorbackend.repository.ArchivedGamePlayerRepository;
+import com.swemmanuelgz.users.impostorbackend.repository.GamePlayerRepository;
+import com.swemmanuelgz.users.impostorbackend.repository.GameRepository;
+import com.swemmanuelgz.users.impostorbackend.repository.UserRepository;
+import com.swemmanuelgz.users.impostorbackend.repository.UserStatsRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Tablas en memoria detrás de los repositorios que usa GameServiceImpl durante una partida.
+ *
+ * Los repositorios son proxies dinámicos que responden a las consultas del juego por nombre de método con
+ * la misma semántica que sus @Query (jugadores activos, votos, impostores...); cualquier otro método lanza
+ * UnsupportedOperationException para que un cambio en el servicio que use una consulta nueva se note en
+ * vez de devolver datos falsos. Como en el contexto de persistencia de JPA, las entidades devueltas son las
+ * mismas instancias que se guardan.
+ *
+ * Cada mundo simulado tiene su almacén y lo usa desde un único hilo. reset() vacía partidas y jugadores
+ * entre partidas (los ids vuelven a empezar, así una partida se repite igual con su semilla)
+ */
+final class InMemoryGameStore {
+
+    private static final Object UNSUPPORTED = new Object();
+
+    @FunctionalInterface
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private final Map<Long, User> users = new HashMap<>();
+    private final Map<Long, Game> games = new HashMap<>();
+    private final Map<String, Game> gamesByRoomCode = new HashMap<>();
+    private final Map<Long, List<GamePlayer>> playersByGame = new HashMap<>();
+    private final Map<Long, Integer> statsRecorded = new HashMap<>();
+    private long nextGameId;
+    private long nextPlayerId;
+
+    private final GameRepository gameRepository = repository(GameRepository.class, this::gameQuery);
+    private final GamePlayerRepository gamePlayerRepository = repository(GamePlayerRepository.class, this::gamePlayerQuery);
+    private final UserRepository userRepository = repository(UserRepository.class, this::userQuery);
+    private final UserStatsRepository userStatsRepository = repository(UserStatsRepository.class, this::userStatsQuery);
+    private final ArchivedGamePlayerRepository archivedGamePlayerRepository =
+            repository(ArchivedGamePlayerRepository.class, (method, args) -> UNSUPPORTED);
+
+    void addUser(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(username + "@sim.local");
+        users.put(id, user);
+    }
+
+    void reset() {
+        games.clear();
+        gamesByRoomCode.clear();
+        playersByGame.clear();
+        statsRecorded.clear();
+        nextGameId = 0;
+        nextPlayerId = 0;
+    }
+
+    /**
+     * Veces que se han registrado estadísticas (UserStatsRepository.recordGameResult) para el usuario desde el último reset
+     */
+    int statsRecorded(Long userId) {
+        return statsRecorded.getOrDefault(userId, 0);
+    }
+
+    GameRepository gameRepository() {
+        return gameRepository;
+    }
+
+    GamePlayerRepository gamePlayerRepository() {
+        return gamePlayerRepository;
+    }
+
+    UserRepository userRepository() {
+        return userRepository;
+    }
+
+    UserStatsRepository userStatsRepository() {
+        return userStatsRepository;
+    }
+
+    ArchivedGamePlayerRepository archivedGamePlayerRepository() {
+        return archivedGamePlayerRepository;
+    }
+
+    private Object gameQuery(String method, Object[] args) {
+        return switch (method) {
+            case "save" -> saveGame((Game) args[0]);
+            case "findById", "findByIdWithCreator" -> Optional.ofNullable(games.get((Long) args[0]));
+            case "findByRoomCode" -> Optional.ofNullable(gamesByRoomCode.get((String) args[0]));
+            case "existsByRoomCode" -> gamesByRoomCode.containsKey((String) args[0]);
+            case "markFinished" -> {
+                Game game = games.get((Long) args[0]);
+                if (game == null || "FINISHED".equals(game.getStatus())) {
+                    yield 0;
+                }
+                game.setStatus("FINISHED");
+                yield 1;
+            }
+            case "deleteById" -> {
+                Game game = games.remove((Long) args[0]);
+                if (game != null) {
+                    gamesByRoomCode.remove(game.getRoomCode());
+                    playersByGame.remove(game.getId());
+                }
+                yield null;
+            }
+            default -> UNSUPPORTED;
+        };
+    }
+
+    private Object gamePlayerQuery(String method, Object[] args) {
+        return switch (method) {
+            case "save" -> savePlayer((GamePlayer) args[0]);
+            case "saveAll" -> {
+                List<GamePlayer> saved = new ArrayList<>();
+                for (Object player : (Iterable<?>) args[0]) {
+                    saved.add(savePlayer((GamePlayer) player));
+                }
+                yield saved;
+            }
+            case "findByGameId" -> new ArrayList<>(players((Long) args[0]));
+            case "findPlayerDtosByGameId" -> players((Long) args[0]).stream()
+                    .map(gp -> new GamePlayerDto(gp.getId(), gp.getGame().getId(), gp.getUser().getId(),
+                            gp.getUser().getUsername(), gp.getUser().getPictureUrl(), gp.getIsImpostor(), gp.getIsWinner()))
+                    .toList();
+            case "findByGameIdAndUserId" -> findPlayer((Long) args[0], (Long) args[1]);
+            case "existsByGameIdAndUserId" -> findPlayer((Long) args[0], (Long) args[1]).isPresent();
+            case "deleteByGameIdAndUserId" -> {
+                players((Long) args[0]).removeIf(gp -> gp.getUser().getId().equals(args[1]));
+                yield null;
+            }
+            case "countByGameId" -> players((Long) args[0]).size();
+            case "countActivePlayers" -> count((Long) args[0], InMemoryGameStore::isActive);
+            case "countActivePlayersWhoVoted" -> count((Long) args[0], gp -> isActive(gp) && Boolean.TRUE.equals(gp.getHasVoted()));
+            case "countActiveImpostors" -> count((Long) args[0], gp -> isActive(gp) && Boolean.TRUE.equals(gp.getIsImpostor()));
+            case "findActivePlayersByGameId" -> filter((Long) args[0], InMemoryGameStore::isActive);
+            case "findImpostorPlayers", "findImpostorsByGameId" -> filter((Long) args[0], gp -> Boolean.TRUE.equals(gp.getIsImpostor()));
+            default -> UNSUPPORTED;
+        };
+    }
+
+    private Object userQuery(String method, Object[] args) {
+        return switch (method) {
+            case "findById" -> Optional.ofNullable(users.get((Long) args[0]));
+            case "getReferenceById" -> {
+                User user = users.get((Long) args[0]);
+                if (user == null) {
+                    throw new IllegalStateException("Usuario simulado inexistente: " + args[0]);
+                }
+                yield user;
+            }
+            default -> UNSUPPORTED;
+        };
+    }
+
+    private Object userStatsQuery(String method, Object[] args) {
+        if ("recordGameResult".equals(method)) {
+            statsRecorded.merge((Long) args[0], 1, Integer::sum);
+            return 1;
+        }
+        return UNSUPPORTED;
+    }
+
+    private Game saveGame(Game game) {
+        if (game.getId() == null) {
+            game.setId(++nextGameId);
+        }
+        games.put(game.getId(), game);
+        gamesByRoomCode.put(game.getRoomCode(), game);
+        return game;
+    }
+
+    private GamePlayer savePlayer(GamePlayer player) {
+        if (player.getId() == null) {
+            player.setId(++nextPlayerId);
+            players(player.getGame().getId()).add(player);
+        }
+        return player;
+    }
+
+    private List<GamePlayer> players(Long gameId) {
+        return playersByGame.computeIfAbsent(gameId, id -> new ArrayList<>());
+    }
+
+    private Optional<GamePlayer> findPlayer(Long gameId, Long userId) {
+        for (GamePlayer player : players(gameId)) {
+            if (player.getUser().getId().equals(userId)) {
+                return Optional.of(player);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int count(Long gameId, Predicate<GamePlayer> condition) {
+        int count = 0;
+        for (GamePlayer player : players(gameId)) {
+            if (condition.test(player)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private List<GamePlayer> filter(Long gameId, Predicate<GamePlayer> condition) {
+        List<GamePlayer> result = new ArrayList<>();
+        for (GamePlayer player : players(gameId)) {
+            if (condition.test(player)) {
+                result.add(player);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isActive(GamePlayer player) {
+        return "ACTIVE".equals(player.getStatus());
+    }
+
+    private static <T> T repository(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "InMemory" + type.getSimpleName();
+                };
+            }
+            Object result = handler.invoke(method.getName(), args != null ? args : new Object[0]);
+            if (result == UNSUPPORTED) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " no está simulado");
+            }
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,82 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+import com.swemmanuelgz.users.impostorbackend.monitoring.GameMetrics;
+import com.swemmanuelgz.users.impostorbackend.service.GameCleanupScheduler;
+import com.swemmanuelgz.users.impostorbackend.service.GameServiceImpl;
+import com.swemmanuelgz.users.impostorbackend.service.GameSessionManager;
+import com.swemmanuelgz.users.impostorbackend.service.ReadYourWritesTracker;
+import com.swemmanuelgz.users.impostorbackend.service.RoundScheduler;
+import com.swemmanuelgz.users.impostorbackend.service.UserProfileCache;
+import com.swemmanuelgz.users.impostorbackend.service.UserStatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Instant;
+import java.util.Random;
+
+/**
+ * Un mundo simulado: los servicios reales del juego (GameServiceImpl, GameSessionManager, RoundScheduler,
+ * GameCleanupScheduler) cableados a mano como lo haría Spring, pero sobre InMemoryGameStore, un VirtualClock
+ * y un VirtualTaskScheduler. Sin transacciones ni proxies: @Transactional no aplica y cada llamada se ve
+ * al momento, como dentro de una única transacción.
+ *
+ * Lo usa un solo hilo. Cada partida empieza con reset(semilla): mismo instante de inicio, mismas tablas
+ * vacías y el Random del servicio con esa semilla, así que una partida depende solo de su semilla
+ */
+final class SimulatedBackend {
+
+    /**
+     * Usuarios creados en cada mundo (ids 1..USERS); cada partida usa los primeros N
+     */
+    static final int USERS = GameSessionManager.MAX_PLAYERS_PER_ROOM;
+
+    static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    // Como game.vote.resolve-max-attempts por defecto
+    private static final int RESOLVE_MAX_ATTEMPTS = 3;
+
+    final VirtualClock clock = new VirtualClock(START);
+    final VirtualTaskScheduler scheduler = new VirtualTaskScheduler(clock);
+    final InMemoryGameStore store = new InMemoryGameStore();
+    final GameSessionManager sessionManager;
+    final GameServiceImpl gameService;
+    final RoundScheduler roundScheduler;
+    final GameCleanupScheduler cleanupScheduler;
+    private final Random random = new Random();
+
+    SimulatedBackend(long resolveDelayMs) {
+        for (long id = 1; id <= USERS; id++) {
+            store.addUser(id, "sim" + id);
+        }
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GameMetrics gameMetrics = new GameMetrics(meterRegistry);
+        // Sin ventana de lectura del primario: no hay réplica y así el tracker no acumula entradas
+        ReadYourWritesTracker readYourWritesTracker = new ReadYourWritesTracker(0);
+        UserProfileCache userProfileCache = new UserProfileCache(store.userRepository(), meterRegistry, USERS, 3600);
+
+        this.sessionManager = new GameSessionManager(gameMetrics, clock);
+        this.gameService = new GameServiceImpl(
+                store.gameRepository(),
+                store.gamePlayerRepository(),
+                store.archivedGamePlayerRepository(),
+                store.userRepository(),
+                sessionManager,
+                new UserStatsService(store.userStatsRepository(), readYourWritesTracker),
+                readYourWritesTracker,
+                userProfileCache,
+                gameMetrics,
+                clock,
+                random);
+        this.roundScheduler = new RoundScheduler(scheduler, resolveDelayMs, RESOLVE_MAX_ATTEMPTS);
+        this.cleanupScheduler = new GameCleanupScheduler(store.gameRepository(), sessionManager);
+    }
+
+    /**
+     * Deja el mundo listo para la partida con esta semilla
+     */
+    void reset(long seed) {
+        scheduler.clear();
+        store.reset();
+        clock.set(START);
+        random.setSeed(seed);
+    }
+}
@@ -0,0 +1,519 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+import com.swemmanuelgz.users.impostorbackend.dto.GameDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
+import com.swemmanuelgz.users.impostorbackend.dto.RoundResolution;
+import com.swemmanuelgz.users.impostorbackend.entity.Game;
+import com.swemmanuelgz.users.impostorbackend.exception.GameException;
+import com.swemmanuelgz.users.impostorbackend.exception.WebSocketException;
+import com.swemmanuelgz.users.impostorbackend.service.GameSessionManager;
+import com.swemmanuelgz.users.impostorbackend.service.RoundScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Una partida completa en tiempo virtual, con la semilla como única fuente de azar: sala, entradas, inicio,
+ * rondas de discusión y votación, resolución programada por RoundScheduler, salida de los jugadores y la
+ * limpieza de sesiones posterior. Las acciones siguen lo que hace GameWebSocketController con cada mensaje
+ * (validaciones previas, GameSessionManager y después GameServiceImpl).
+ *
+ * Además de jugar, inyecta fallos con las probabilidades de SimulationSettings: conexiones que se caen
+ * antes de votar (y vuelven dentro o fuera de la ventana de reconexión), sockets que mueren sin DISCONNECT,
+ * resoluciones duplicadas de la misma ronda, votos tardíos de o para el jugador recién eliminado y rondas
+ * que se votan enteras mientras aún se notifica NEW_ROUND.
+ *
+ * El simulador lleva su propio modelo de la partida (jugadores activos, votos de la ronda, impostor) y lo
+ * compara con lo que devuelve el servicio; cada discrepancia es una Violation con la semilla de la partida
+ */
+final class SimulatedGame {
+
+    private static final String[] WORDS = {"Playa", "Guitarra", "Hospital", "Elefante", "Biblioteca", "Volcán"};
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(10);
+    /**
+     * Una partida que sigue abierta pasado este tiempo virtual se da por atascada
+     */
+    private static final Duration MAX_GAME_DURATION = Duration.ofHours(2);
+    private static final int MAX_TASKS_PER_GAME = 100_000;
+
+    private final SimulatedBackend backend;
+    private final SimulationSettings settings;
+    private final SimulationReport report;
+    private final long seed;
+    private final SplittableRandom random;
+    private final Consumer<String> trace;
+
+    // Modelo propio de la partida
+    private final List<Long> players = new ArrayList<>();
+    private final Set<Long> alive = new LinkedHashSet<>();
+    private final Map<Long, String> sessions = new LinkedHashMap<>();
+    private final Set<Long> halfOpen = new HashSet<>();
+    private final Map<Long, Long> votes = new LinkedHashMap<>();
+    private Instant begin;
+    private String roomCode;
+    private Long gameId;
+    private Long creatorId;
+    private Long impostorId;
+    private int joined;
+    private int round;
+    private int resolvedRound;
+    private int sessionCounter;
+    private boolean ended;
+    private RoundResolution.Outcome outcome;
+    private boolean sessionsReleased = true;
+    private ScheduledFuture<?> heartbeat;
+
+    SimulatedGame(SimulatedBackend backend, SimulationSettings settings, SimulationReport report, long seed,
+                  Consumer<String> trace) {
+        this.backend = backend;
+        this.settings = settings;
+        this.report = report;
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.trace = trace;
+    }
+
+    /**
+     * Juega la partida y comprueba los invariantes
+     * @return false si GameSessionManager no volvió a cero (el mundo no sirve para la siguiente partida)
+     */
+    boolean play() {
+        backend.reset(seed);
+        begin = backend.clock.instant();
+        int playerCount = random.nextInt(settings.minPlayers(), settings.maxPlayers() + 1);
+        for (long id = 1; id <= playerCount; id++) {
+            players.add(id);
+        }
+        creatorId = players.get(0);
+
+        try {
+            GameDto game = backend.gameService.createGame(creatorId, null, GameSessionManager.MAX_PLAYERS_PER_ROOM, 10);
+            roomCode = game.getRoomCode();
+            gameId = game.getId();
+        } catch (RuntimeException e) {
+            violation(Violation.UNEXPECTED_ERROR, "createGame: " + describe(e));
+            report.games.increment();
+            return true;
+        }
+        connect(creatorId, nextSessionId(creatorId));
+        trace(() -> "Sala " + roomCode + " creada por " + creatorId + " para " + playerCount + " jugadores");
+
+        for (Long userId : players.subList(1, players.size())) {
+            after(millis(500, 5_000), () -> join(userId));
+        }
+        heartbeat = backend.scheduler.scheduleAtFixedRate(this::heartbeat, begin.plus(HEARTBEAT_INTERVAL), HEARTBEAT_INTERVAL);
+
+        boolean drained = backend.scheduler.runUntilIdle(MAX_TASKS_PER_GAME);
+        report.virtualMillis.add(Duration.between(begin, backend.clock.instant()).toMillis());
+        if (!drained) {
+            violation(Violation.UNFINISHED_GAME, "más de " + MAX_TASKS_PER_GAME + " tareas sin terminar");
+        } else if (!ended) {
+            violation(Violation.UNFINISHED_GAME, "ronda " + round + " abierta con " + votes.size() + "/" + alive.size() + " votos");
+        }
+        checkStats();
+        checkSessionsReleased();
+
+        report.games.increment();
+        if (outcome == RoundResolution.Outcome.CITIZENS_WIN) {
+            report.citizenWins.increment();
+        } else if (outcome == RoundResolution.Outcome.IMPOSTOR_WINS) {
+            report.impostorWins.increment();
+        } else if (ended) {
+            report.abandoned.increment();
+        }
+        return sessionsReleased;
+    }
+
+    // ========== Sala ==========
+
+    private void join(Long userId) {
+        try {
+            backend.sessionManager.validateCanJoin(roomCode, userId);
+            backend.gameService.joinGame(roomCode, userId);
+        } catch (RuntimeException e) {
+            violation(Violation.UNEXPECTED_ERROR, "join de " + userId + ": " + describe(e));
+            return;
+        }
+        connect(userId, nextSessionId(userId));
+        trace(() -> "Entra " + userId);
+        if (++joined == players.size() - 1) {
+            after(millis(1_000, 10_000), this::start);
+        }
+    }
+
+    private void start() {
+        String word = WORDS[random.nextInt(WORDS.length)];
+        try {
+            if (!backend.sessionManager.canStartGame(roomCode)) {
+                throw WebSocketException.minimoJugadores(GameSessionManager.MIN_PLAYERS_TO_START,
+                        backend.sessionManager.getConnectedPlayersCount(roomCode));
+            }
+            backend.gameService.startGame(gameId, creatorId, word);
+            backend.sessionManager.markGameStarted(roomCode, word);
+        } catch (RuntimeException e) {
+            violation(Violation.UNEXPECTED_ERROR, "startGame: " + describe(e));
+            return;
+        }
+
+        List<Long> impostors = backend.gameService.getGamePlayers(gameId).stream()
+                .filter(player -> Boolean.TRUE.equals(player.getIsImpostor()))
+                .map(GamePlayerDto::getUserId)
+                .toList();
+        if (impostors.size() != 1) {
+            violation(Violation.INCONSISTENT_RESULT, impostors.size() + " impostores al iniciar");
+            return;
+        }
+        impostorId = impostors.get(0);
+        alive.addAll(players);
+        for (Long userId : players) {
+            if (random.nextDouble() < settings.halfOpenRate()) {
+                halfOpen.add(userId);
+            }
+        }
+        trace(() -> "Partida iniciada, impostor " + impostorId);
+        beginRound();
+    }
+
+    // ========== Rondas ==========
+
+    private void beginRound() {
+        round++;
+        votes.clear();
+        report.rounds.increment();
+        int votingRound = round;
+        for (Long userId : List.copyOf(alive)) {
+            Duration discussion = millis(20_000, 120_000);
+            // Si la ronda se vota entera antes (instantRoundRate) estas acciones ya no le corresponden
+            if (random.nextDouble() < settings.disconnectRate()) {
+                after(millis(0, discussion.toMillis()), () -> {
+                    if (votingRound == round) {
+                        dropConnection(userId, votingRound);
+                    }
+                });
+            } else {
+                after(discussion, () -> {
+                    if (votingRound == round) {
+                        vote(userId);
+                    }
+                });
+            }
+        }
+        trace(() -> "Ronda " + votingRound + " con " + alive.size() + " jugadores activos");
+    }
+
+    private void vote(Long userId) {
+        if (!sessions.containsKey(userId) || ended) {
+            return;
+        }
+        List<Long> candidates = new ArrayList<>(alive);
+        candidates.remove(userId);
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Long target = !userId.equals(impostorId) && alive.contains(impostorId) && random.nextDouble() < settings.voteSkill()
+                ? impostorId
+                : candidates.get(random.nextInt(candidates.size()));
+        castVote(userId, target, true);
+    }
+
+    /**
+     * Un voto como lo procesa GameWebSocketController.castVote. Con viaController=false se salta la
+     * comprobación de estado del controlador (un voto que la pasó justo antes de que acabase la partida)
+     */
+    private void castVote(Long voterId, Long targetId, boolean viaController) {
+        if (viaController) {
+            Optional<Game> game = backend.gameService.findByRoomCode(roomCode);
+            if (game.isEmpty() || (!"IN_PROGRESS".equals(game.get().getStatus()) && !"VOTING".equals(game.get().getStatus()))) {
+                report.votesRejected.increment();
+                return;
+            }
+        }
+        boolean valid = !ended && alive.contains(voterId) && alive.contains(targetId) && !votes.containsKey(voterId);
+        try {
+            backend.gameService.recordVote(gameId, voterId, targetId);
+        } catch (GameException e) {
+            report.votesRejected.increment();
+            if (valid) {
+                violation(Violation.UNEXPECTED_ERROR, "voto válido de " + voterId + " rechazado: " + e.getCodigo());
+            }
+            return;
+        }
+        report.votesAccepted.increment();
+        if (!valid) {
+            violation(Violation.VOTE_AFTER_ELIMINATION, "aceptado voto de " + voterId + " a " + targetId + " en la ronda " + round
+                    + (ended ? " tras el final" : "") + ", activos " + alive);
+        }
+        votes.put(voterId, targetId);
+        trace(() -> voterId + " vota a " + targetId);
+
+        if (backend.gameService.allPlayersVoted(gameId)) {
+            if (!backend.roundScheduler.scheduleResolution(gameId, this::resolve)) {
+                violation(Violation.UNFINISHED_GAME, "ronda " + round + " con todos los votos y sin resolución programada");
+            }
+            if (random.nextDouble() < settings.duplicateResolutionRate()) {
+                // Dos votos "últimos" concurrentes: el segundo también ve que han votado todos
+                if (!backend.roundScheduler.scheduleResolution(gameId, this::resolve)) {
+                    report.resolutionsDeduplicated.increment();
+                }
+                // Y una resolución que llega cuando la primera ya terminó (otro nodo, un reintento)
+                after(Duration.ofMillis(settings.resolveDelayMs()).plus(millis(1, 2_000)), () -> resolve(null));
+            }
+        }
+    }
+
+    /**
+     * Resolución como GameWebSocketController.processVotingResults: libera la plaza de RoundScheduler
+     * (slot null si no viene de él) en cuanto resolveRound vuelve y después "notifica" el resultado
+     */
+    private void resolve(RoundScheduler.Slot slot) {
+        Optional<RoundResolution> resolved;
+        try {
+            resolved = backend.gameService.resolveRound(gameId);
+        } catch (RuntimeException e) {
+            violation(Violation.UNEXPECTED_ERROR, "resolveRound en la ronda " + round + ": " + describe(e));
+            return;
+        }
+        if (slot != null) {
+            slot.release();
+        }
+        if (resolved.isEmpty()) {
+            report.resolutionsSkipped.increment();
+            return;
+        }
+        RoundResolution result = resolved.get();
+        if (ended || resolvedRound == round) {
+            violation(Violation.DOUBLE_RESOLUTION, "ronda " + round + (ended ? " resuelta tras el final" : " resuelta dos veces"));
+        }
+        resolvedRound = round;
+
+        Map<Long, Integer> expectedCounts = new HashMap<>();
+        votes.values().forEach(target -> expectedCounts.merge(target, 1, Integer::sum));
+        if (!expectedCounts.equals(result.voteCounts())) {
+            violation(Violation.INCONSISTENT_RESULT, "recuento " + result.voteCounts() + ", votos emitidos " + votes);
+        }
+        Long eliminated = result.eliminatedUserId();
+        int maxVotes = expectedCounts.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+        if (expectedCounts.getOrDefault(eliminated, 0) != maxVotes) {
+            violation(Violation.INCONSISTENT_RESULT, "eliminado " + eliminated + " sin ser el más votado: " + expectedCounts);
+        }
+        if (!alive.remove(eliminated)) {
+            violation(Violation.INCONSISTENT_RESULT, "eliminado " + eliminated + " que no estaba activo");
+        }
+        int citizensLeft = alive.size() - (alive.contains(impostorId) ? 1 : 0);
+        RoundResolution.Outcome expected = eliminated.equals(impostorId) ? RoundResolution.Outcome.CITIZENS_WIN
+                : citizensLeft <= 1 ? RoundResolution.Outcome.IMPOSTOR_WINS
+                : RoundResolution.Outcome.NEW_ROUND;
+        if (result.outcome() != expected) {
+            violation(Violation.INCONSISTENT_RESULT, "ronda " + round + ": " + result.outcome() + ", se esperaba " + expected);
+        }
+        trace(() -> "Eliminado " + eliminated + " (" + result.outcome() + ")");
+
+        if (result.gameEnded()) {
+            ended = true;
+            outcome = result.outcome();
+            backend.sessionManager.markGameEnded(roomCode);
+            scheduleDepartures();
+            if (random.nextDouble() < settings.duplicateResolutionRate()) {
+                boolean impostorWins = random.nextBoolean();
+                after(millis(0, 3_000), () -> endAgain(impostorWins));
+            }
+        } else {
+            beginRound();
+            if (random.nextDouble() < settings.instantRoundRate()) {
+                // Todos votan nada más recibir NEW_ROUND, antes de que esta resolución termine
+                report.instantRounds.increment();
+                List.copyOf(alive).forEach(this::vote);
+            }
+        }
+
+        if (random.nextDouble() < settings.staleVoteRate()) {
+            // El eliminado con la pantalla de votación aún abierta, y otro que vota al eliminado con la lista vieja
+            List<Long> others = List.copyOf(alive);
+            Long stranger = others.get(random.nextInt(others.size()));
+            boolean viaController = !ended;
+            after(millis(0, 3_000), () -> castVote(eliminated, stranger, viaController));
+            after(millis(0, 3_000), () -> castVote(stranger, eliminated, viaController));
+        }
+    }
+
+    /**
+     * Cierre manual repetido (POST /api/games/{id}/end) de una partida ya terminada: no debe volver a
+     * contar estadísticas (lo comprueba checkStats)
+     */
+    private void endAgain(boolean impostorWins) {
+        try {
+            backend.gameService.endGame(gameId, impostorWins);
+        } catch (RuntimeException e) {
+            violation(Violation.UNEXPECTED_ERROR, "endGame repetido: " + describe(e));
+        }
+    }
+
+    // ========== Conexiones ==========
+
+    private void dropConnection(Long userId, int votingRound) {
+        String sessionId = sessions.remove(userId);
+        if (sessionId == null) {
+            return;
+        }
+        disconnect(sessionId);
+        Duration offline = millis(2_000, 90_000);
+        trace(() -> userId + " pierde la conexión durante " + offline.toSeconds() + " s");
+        after(offline, () -> reconnect(userId, votingRound));
+    }
+
+    private void reconnect(Long userId, int votingRound) {
+        String sessionId = nextSessionId(userId);
+        if (backend.sessionManager.attemptReconnect(userId, roomCode, sessionId)) {
+            sessions.put(userId, sessionId);
+            report.reconnects.increment();
+        } else {
+            // Fuera de la ventana de reconexión el cliente vuelve a entrar por join (joinGame admite a quien ya estaba)
+            try {
+                backend.sessionManager.validateCanJoin(roomCode, userId);
+                backend.gameService.joinGame(roomCode, userId);
+            } catch (GameException | WebSocketException e) {
+                if (!ended) {
+                    violation(Violation.UNEXPECTED_ERROR, "rejoin de " + userId + ": " + describe(e));
+                }
+                return;
+            }
+            connect(userId, sessionId);
+            report.rejoins.increment();
+        }
+        if (ended) {
+            after(millis(1_000, 30_000), () -> leave(userId));
+        } else if (votingRound == round) {
+            after(millis(1_000, 10_000), () -> vote(userId));
+        }
+    }
+
+    private void scheduleDepartures() {
+        for (Long userId : List.copyOf(sessions.keySet())) {
+            if (halfOpen.contains(userId)) {
+                // El socket muere sin DISCONNECT: deja de latir y solo lo limpia el timeout de inactividad
+                sessions.remove(userId);
+                report.halfOpenSessions.increment();
+            } else {
+                after(millis(1_000, 30_000), () -> leave(userId));
+            }
+        }
+    }
+
+    private void leave(Long userId) {
+        String sessionId = sessions.remove(userId);
+        if (sessionId != null) {
+            disconnect(sessionId);
+        }
+    }
+
+    /**
+     * Desconexión como GameWebSocketController.onSessionDisconnect: si la sala se queda vacía se cierra
+     */
+    private void disconnect(String sessionId) {
+        GameSessionManager.DisconnectionResult result = backend.sessionManager.playerDisconnected(sessionId);
+        if (result != null && result.roomIsEmpty && backend.cleanupScheduler.closeGameIfEmpty(result.roomCode) && !ended) {
+            ended = true;
+            trace(() -> "Sala vacía en la ronda " + round + ", partida cerrada sin ganador");
+            scheduleDepartures();
+        }
+    }
+
+    private void connect(Long userId, String sessionId) {
+        backend.sessionManager.playerConnected(roomCode, userId, sessionId);
+        sessions.put(userId, sessionId);
+    }
+
+    private String nextSessionId(Long userId) {
+        return "sim-" + userId + "-" + (++sessionCounter);
+    }
+
+    private void heartbeat() {
+        for (String sessionId : sessions.values()) {
+            backend.sessionManager.recordActivity(roomCode, sessionId);
+        }
+        boolean finished = ended && sessions.isEmpty();
+        if (finished || Duration.between(begin, backend.clock.instant()).compareTo(MAX_GAME_DURATION) > 0) {
+            heartbeat.cancel(false);
+        }
+    }
+
+    // ========== Invariantes al terminar ==========
+
+    /**
+     * Cada jugador de una partida con ganador suma una vez a sus estadísticas; una partida cerrada por vacía, ninguna
+     */
+    private void checkStats() {
+        int expected = outcome != null ? 1 : 0;
+        for (Long userId : players) {
+            int recorded = backend.store.statsRecorded(userId);
+            if (recorded != expected) {
+                violation(Violation.STATS_MISMATCH, "usuario " + userId + " con " + recorded + " registros, se esperaba " + expected);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Pasado el timeout de inactividad (sockets medio abiertos) y después la ventana de reconexión, no debe
+     * quedar nada de la partida en GameSessionManager ni resoluciones pendientes
+     */
+    private void checkSessionsReleased() {
+        backend.clock.advance(GameSessionManager.SESSION_IDLE_TIMEOUT.plusMinutes(1));
+        backend.sessionManager.cleanupInactiveSessions();
+        backend.clock.advance(Duration.ofSeconds(2L * GameSessionManager.RECONNECT_TIMEOUT_SECONDS + 60));
+        backend.sessionManager.cleanupInactiveSessions();
+
+        GameSessionManager.StateSize size = backend.sessionManager.stateSize();
+        int pending = backend.roundScheduler.pendingResolutions();
+        if (!size.isEmpty() || pending > 0) {
+            violation(Violation.ORPHANED_SESSION, size + ", resoluciones pendientes: " + pending);
+            sessionsReleased = false;
+        }
+    }
+
+    // ========== Utilidades ==========
+
+    private void violation(Violation violation, String detail) {
+        report.violation(violation, seed, detail);
+        trace(() -> "VIOLACIÓN " + violation + ": " + detail);
+    }
+
+    private void after(Duration delay, Runnable action) {
+        backend.scheduler.after(delay, action);
+    }
+
+    private Duration millis(long min, long max) {
+        return Duration.ofMillis(random.nextLong(min, max + 1));
+    }
+
+    private void trace(Supplier<String> message) {
+        if (trace != null) {
+            Duration at = Duration.between(begin, backend.clock.instant());
+            trace.accept(String.format("[+%02d:%02d.%03d] %s",
+                    at.toMinutes(), at.toSecondsPart(), at.toMillisPart(), message.get()));
+        }
+    }
+
+    private static String describe(RuntimeException e) {
+        if (e instanceof GameException gameException) {
+            return gameException.getCodigo() + " - " + e.getMessage();
+        }
+        if (e instanceof WebSocketException webSocketException) {
+            return webSocketException.getCodigo() + " - " + e.getMessage();
+        }
+        return e.getClass().getSimpleName() + " - " + e.getMessage();
+    }
+}
@@ -0,0 +1,92 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de la simulación compartidos por todos los hilos (LongAdder: sin contención entre mundos)
+ * y las primeras violaciones con la semilla de su partida para poder repetirla
+ */
+final class SimulationReport {
+
+    record Sample(Violation violation, long seed, String detail) {
+    }
+
+    final LongAdder games = new LongAdder();
+    final LongAdder rounds = new LongAdder();
+    final LongAdder instantRounds = new LongAdder();
+    final LongAdder votesAccepted = new LongAdder();
+    final LongAdder votesRejected = new LongAdder();
+    final LongAdder resolutionsDeduplicated = new LongAdder();
+    final LongAdder resolutionsSkipped = new LongAdder();
+    final LongAdder reconnects = new LongAdder();
+    final LongAdder rejoins = new LongAdder();
+    final LongAdder halfOpenSessions = new LongAdder();
+    final LongAdder citizenWins = new LongAdder();
+    final LongAdder impostorWins = new LongAdder();
+    final LongAdder abandoned = new LongAdder();
+    final LongAdder virtualMillis = new LongAdder();
+
+    private final Map<Violation, LongAdder> violations = new EnumMap<>(Violation.class);
+    private final ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final int maxSamples;
+
+    SimulationReport(int maxSamples) {
+        this.maxSamples = maxSamples;
+        for (Violation violation : Violation.values()) {
+            violations.put(violation, new LongAdder());
+        }
+    }
+
+    void violation(Violation violation, long seed, String detail) {
+        violations.get(violation).increment();
+        if (sampleCount.getAndIncrement() < maxSamples) {
+            samples.add(new Sample(violation, seed, detail));
+        }
+    }
+
+    long totalViolations() {
+        return violations.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    long violations(Violation violation) {
+        return violations.get(violation).sum();
+    }
+
+    List<Sample> samples() {
+        return new ArrayList<>(samples);
+    }
+
+    List<String> summary(Duration wallTime) {
+        long played = games.sum();
+        double seconds = Math.max(wallTime.toNanos() / 1e9, 1e-9);
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Partidas: %,d en %.1f s (%,.0f/s, %,.0f/min)", played, seconds, played / seconds, played * 60 / seconds));
+        lines.add(String.format("Tiempo virtual jugado: %,.0f h (x%,.0f respecto al reloj real)",
+                virtualMillis.sum() / 3_600_000.0, virtualMillis.sum() / 1000.0 / seconds));
+        lines.add(String.format("Rondas: %,d (%,d votadas durante NEW_ROUND)  Votos aceptados: %,d  rechazados: %,d",
+                rounds.sum(), instantRounds.sum(), votesAccepted.sum(), votesRejected.sum()));
+        lines.add(String.format("Resoluciones de más: %,d evitadas por RoundScheduler, %,d descartadas por resolveRound",
+                resolutionsDeduplicated.sum(), resolutionsSkipped.sum()));
+        lines.add(String.format("Reconexiones: %,d  Vueltas por join tras el timeout: %,d  Sockets medio abiertos: %,d",
+                reconnects.sum(), rejoins.sum(), halfOpenSessions.sum()));
+        lines.add(String.format("Ganan ciudadanos: %.1f%%  Gana el impostor: %.1f%%  Abandonadas: %.1f%%",
+                percent(citizenWins.sum(), played), percent(impostorWins.sum(), played), percent(abandoned.sum(), played)));
+        for (Violation violation : Violation.values()) {
+            long count = violations(violation);
+            lines.add(String.format("  %-24s %,12d  %s", violation, count, count == 0 ? "" : violation.description));
+        }
+        return lines;
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0 : part * 100.0 / total;
+    }
+}
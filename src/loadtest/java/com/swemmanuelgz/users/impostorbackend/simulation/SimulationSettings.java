@@ -0,0 +1,77 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+/**
+ * Parámetros del simulador, leídos de propiedades del sistema simulation.* (la tarea simulate de Gradle
+ * pasa los -Psimulation.* tal cual).
+ *
+ * @param games                   partidas a jugar
+ * @param threads                 hilos (mundos simulados independientes); por defecto uno por núcleo
+ * @param seed                    semilla maestra: la partida i juega con una semilla derivada de (seed, i)
+ * @param replay                  semilla de una sola partida a repetir con traza y log DEBUG (null = simulación completa)
+ * @param minPlayers              jugadores mínimos por partida (al menos 3 para que haya rondas)
+ * @param maxPlayers              jugadores máximos por partida
+ * @param voteSkill               probabilidad de que un ciudadano vote al impostor
+ * @param disconnectRate          probabilidad por jugador y ronda de perder la conexión antes de votar
+ * @param halfOpenRate            probabilidad por jugador de que su socket muera sin DISCONNECT al acabar
+ * @param duplicateResolutionRate probabilidad por ronda de que el último voto dispare resoluciones de más
+ *                                (y por partida de un endGame repetido tras el final)
+ * @param staleVoteRate           probabilidad por ronda de votos tardíos de o para el recién eliminado
+ * @param instantRoundRate        probabilidad por ronda nueva de que todos voten ya mientras se notifica NEW_ROUND
+ *                                (clientes rápidos: el último voto llega antes de que termine la resolución anterior)
+ * @param resolveDelayMs          espera entre el último voto y la resolución (game.vote.resolve-delay-ms)
+ * @param maxSamples              violaciones que se muestran con su semilla en el informe
+ */
+record SimulationSettings(long games,
+                          int threads,
+                          long seed,
+                          Long replay,
+                          int minPlayers,
+                          int maxPlayers,
+                          double voteSkill,
+                          double disconnectRate,
+                          double halfOpenRate,
+                          double duplicateResolutionRate,
+                          double staleVoteRate,
+                          double instantRoundRate,
+                          long resolveDelayMs,
+                          int maxSamples) {
+
+    static SimulationSettings fromSystemProperties() {
+        String replay = System.getProperty("simulation.replay");
+        SimulationSettings settings = new SimulationSettings(
+                Long.getLong("simulation.games", 1_000_000L),
+                Integer.getInteger("simulation.threads", Runtime.getRuntime().availableProcessors()),
+                Long.getLong("simulation.seed", 42L),
+                replay != null && !replay.isBlank() ? Long.parseLong(replay.trim()) : null,
+                Integer.getInteger("simulation.min-players", 3),
+                Integer.getInteger("simulation.max-players", 8),
+                Double.parseDouble(System.getProperty("simulation.vote-skill", "0.4")),
+                Double.parseDouble(System.getProperty("simulation.disconnect-rate", "0.05")),
+                Double.parseDouble(System.getProperty("simulation.half-open-rate", "0.02")),
+                Double.parseDouble(System.getProperty("simulation.duplicate-resolution-rate", "0.05")),
+                Double.parseDouble(System.getProperty("simulation.stale-vote-rate", "0.05")),
+                Double.parseDouble(System.getProperty("simulation.instant-round-rate", "0.05")),
+                Long.getLong("simulation.resolve-delay-ms", 500L),
+                Integer.getInteger("simulation.max-samples", 20));
+        if (settings.minPlayers < 3 || settings.maxPlayers < settings.minPlayers) {
+            throw new IllegalArgumentException("simulation.min-players debe ser al menos 3 y no mayor que simulation.max-players");
+        }
+        if (settings.maxPlayers > SimulatedBackend.USERS) {
+            throw new IllegalArgumentException("simulation.max-players no puede pasar de " + SimulatedBackend.USERS);
+        }
+        if (settings.threads < 1) {
+            throw new IllegalArgumentException("simulation.threads debe ser al menos 1");
+        }
+        return settings;
+    }
+
+    /**
+     * Semilla de la partida index (SplitMix64 sobre la semilla maestra): no depende del hilo que la juegue
+     */
+    long gameSeed(long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,20 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+/**
+ * Invariantes que comprueba el simulador en cada partida
+ */
+enum Violation {
+    DOUBLE_RESOLUTION("Ronda resuelta más de una vez o después del final de la partida"),
+    VOTE_AFTER_ELIMINATION("Voto aceptado de o para un jugador eliminado, o con la partida terminada"),
+    ORPHANED_SESSION("Estado de GameSessionManager o resolución pendiente que no vuelve a cero tras la partida"),
+    UNFINISHED_GAME("Partida que no termina (ni por votación ni por quedarse vacía)"),
+    INCONSISTENT_RESULT("Resultado de la ronda distinto del que dictan las reglas"),
+    STATS_MISMATCH("Estadísticas registradas un número de veces distinto de una por jugador"),
+    UNEXPECTED_ERROR("Excepción del servicio en una acción válida");
+
+    final String description;
+
+    Violation(String description) {
+        this.description = description;
+    }
+}
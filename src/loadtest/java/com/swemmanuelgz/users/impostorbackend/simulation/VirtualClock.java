@@ -0,0 +1,43 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Reloj del simulador: solo avanza cuando lo mueve VirtualTaskScheduler (o advance). Cada mundo simulado
+ * tiene el suyo y se usa desde un único hilo
+ */
+final class VirtualClock extends Clock {
+
+    private Instant now;
+
+    VirtualClock(Instant start) {
+        this.now = start;
+    }
+
+    void set(Instant instant) {
+        this.now = instant;
+    }
+
+    void advance(Duration duration) {
+        this.now = now.plus(duration);
+    }
+
+    @Override
+    public Instant instant() {
+        return now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        throw new UnsupportedOperationException("El reloj virtual siempre es UTC");
+    }
+}
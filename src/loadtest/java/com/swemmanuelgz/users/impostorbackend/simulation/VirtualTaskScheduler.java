@@ -0,0 +1,177 @@
+package com.swemmanuelgz.users.impostorbackend.simulation;
+
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskScheduler de tiempo virtual: las tareas se guardan en una cola ordenada por instante (y por orden de
+ * programación a igual instante) y runUntilIdle las ejecuta una tras otra en el hilo que llama, moviendo
+ * el VirtualClock hasta cada una. Esperas de segundos o minutos cuestan lo que cuesta sacar un elemento de la cola.
+ *
+ * Con la misma secuencia de llamadas el orden de ejecución es siempre el mismo: de ahí sale el determinismo
+ * del simulador
+ */
+final class VirtualTaskScheduler implements TaskScheduler {
+
+    private final VirtualClock clock;
+    private final PriorityQueue<VirtualTask> queue = new PriorityQueue<>(
+            Comparator.comparing((VirtualTask task) -> task.at).thenComparingLong(task -> task.sequence));
+    private long sequence;
+
+    VirtualTaskScheduler(VirtualClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Programa task dentro de delay (tiempo virtual)
+     */
+    ScheduledFuture<?> after(Duration delay, Runnable task) {
+        return schedule(task, clock.instant().plus(delay));
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Instant startTime) {
+        return enqueue(new VirtualTask(task, max(startTime), null));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Instant startTime, Duration period) {
+        return enqueue(new VirtualTask(task, max(startTime), period));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, Duration period) {
+        return scheduleAtFixedRate(task, clock.instant(), period);
+    }
+
+    /**
+     * Las tareas no consumen tiempo virtual, así que fixed delay y fixed rate son lo mismo
+     */
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Instant startTime, Duration delay) {
+        return scheduleAtFixedRate(task, startTime, delay);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, Duration delay) {
+        return scheduleAtFixedRate(task, clock.instant(), delay);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable task, Trigger trigger) {
+        throw new UnsupportedOperationException("Trigger no soportado en el scheduler virtual");
+    }
+
+    /**
+     * Ejecuta tareas hasta vaciar la cola o hasta maxTasks
+     * @return false si se cortó por maxTasks (la cola se descarta)
+     */
+    boolean runUntilIdle(int maxTasks) {
+        int executed = 0;
+        VirtualTask task;
+        while ((task = queue.poll()) != null) {
+            if (task.cancelled) {
+                continue;
+            }
+            if (++executed > maxTasks) {
+                queue.clear();
+                return false;
+            }
+            if (task.at.isAfter(clock.instant())) {
+                clock.set(task.at);
+            }
+            task.runnable.run();
+            if (task.period != null && !task.cancelled) {
+                task.at = task.at.plus(task.period);
+                task.sequence = sequence++;
+                queue.add(task);
+            } else {
+                task.done = true;
+            }
+        }
+        return true;
+    }
+
+    void clear() {
+        queue.clear();
+    }
+
+    private Instant max(Instant startTime) {
+        return startTime.isBefore(clock.instant()) ? clock.instant() : startTime;
+    }
+
+    private VirtualTask enqueue(VirtualTask task) {
+        task.sequence = sequence++;
+        queue.add(task);
+        return task;
+    }
+
+    private final class VirtualTask implements ScheduledFuture<Object> {
+
+        private final Runnable runnable;
+        private final Duration period;
+        private Instant at;
+        private long sequence;
+        private boolean cancelled;
+        private boolean done;
+
+        private VirtualTask(Runnable runnable, Instant at, Duration period) {
+            this.runnable = runnable;
+            this.at = at;
+            this.period = period;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(clock.instant(), at));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (done) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done || cancelled;
+        }
+
+        @Override
+        public Object get() {
+            return null;
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit) {
+            return null;
+        }
+    }
+}
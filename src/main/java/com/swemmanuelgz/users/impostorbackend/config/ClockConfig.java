@@ -0,0 +1,26 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.util.Random;
+
+/**
+ * Reloj y azar de la aplicación. Los servicios con timeouts en memoria (reconexión, sesiones inactivas) leen la
+ * hora de aquí, de forma que los tests de soak y las simulaciones pueden sustituirlo por uno acelerado.
+ * El Random (códigos de sala, elección del impostor) se sustituye igual por uno con semilla para repetir partidas
+ */
+@Configuration
+public class ClockConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
+    @Bean
+    public Random gameRandom() {
+        return new Random();
+    }
+}
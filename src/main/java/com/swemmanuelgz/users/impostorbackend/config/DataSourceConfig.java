@@ -0,0 +1,126 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * DataSources de la aplicación: primario (escrituras) y réplica opcional (lecturas readOnly).
+ *
+ * El primario se divide en tres pools con nombre (realtime, rest, batch) configurados en
+ * app.datasource.pools.*; cada servicio usa el de su tipo de carga (ver WorkloadContext).
+ * Spring Boot registra las métricas de Micrometer (hikaricp.connections.*) de cada pool con el tag pool.
+ *
+ * La réplica solo se crea si app.datasource.replica.url está definida.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    private static final Logger logger = Logger.getLogger(DataSourceConfig.class.getName());
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.pools.realtime")
+    public HikariDataSource realtimeDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        return namedPool(properties, "realtime");
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.pools.rest")
+    public HikariDataSource restDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        return namedPool(properties, "rest");
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.pools.batch")
+    public HikariDataSource batchDataSource(
+            @Qualifier("primaryDataSourceProperties") DataSourceProperties properties) {
+        return namedPool(properties, "batch");
+    }
+
+    /**
+     * Primario: enruta al pool del tipo de carga del hilo actual
+     */
+    @Bean
+    public DataSource primaryDataSource(@Qualifier("realtimeDataSource") DataSource realtime,
+                                        @Qualifier("restDataSource") DataSource rest,
+                                        @Qualifier("batchDataSource") DataSource batch) {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                WorkloadContext.Workload.REALTIME, realtime,
+                WorkloadContext.Workload.REST, rest,
+                WorkloadContext.Workload.BATCH, batch));
+        routing.setDefaultTargetDataSource(rest);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private HikariDataSource namedPool(DataSourceProperties properties, String poolName) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.url")
+    @ConfigurationProperties("app.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.url")
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * DataSource que usan JPA y JdbcTemplate
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicationRoutingDataSource.Route.PRIMARY, primary);
+
+        DataSource replicaDataSource = replica.getIfAvailable();
+        if (replicaDataSource != null) {
+            targets.put(ReplicationRoutingDataSource.Route.REPLICA, replicaDataSource);
+            AnsiColors.infoLog(logger, "Réplica de lectura configurada: las transacciones readOnly irán a la réplica");
+        }
+
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource();
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
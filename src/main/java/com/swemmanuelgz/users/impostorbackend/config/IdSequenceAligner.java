@@ -0,0 +1,52 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Ajusta las tablas de secuencia (games_seq, game_players_seq, login_attempts_seq) al arrancar.
+ *
+ * Con ddl-auto=update Hibernate crea la tabla de secuencia empezando en 1 si no existe, lo que
+ * chocaría con los ids ya generados por AUTO_INCREMENT. Aquí se sube next_val por encima del
+ * MAX(id) actual más un bloque completo (allocationSize), antes de que se haga ningún INSERT.
+ * Es idempotente: si la migración V6 ya se aplicó no cambia nada.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class IdSequenceAligner {
+
+    private static final Logger logger = Logger.getLogger(IdSequenceAligner.class.getName());
+
+    // Debe coincidir con allocationSize de los @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    // tabla de secuencia -> tabla de datos
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "games_seq", "games",
+            "game_players_seq", "game_players",
+            "login_attempts_seq", "login_attempts"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequenceTable, dataTable) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + dataTable, Long.class);
+            long minNext = (maxId == null ? 0 : maxId) + ALLOCATION_SIZE + 1;
+            int updated = jdbcTemplate.update(
+                    "UPDATE " + sequenceTable + " SET next_val = ? WHERE next_val < ?", minNext, minNext);
+            if (updated > 0) {
+                AnsiColors.infoLog(logger, "Secuencia " + sequenceTable + " ajustada a " + minNext);
+            }
+        });
+    }
+}
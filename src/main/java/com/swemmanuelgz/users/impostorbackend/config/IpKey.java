@@ -0,0 +1,111 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import java.net.Inet4Address;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * IP del cliente en binario (dos long) para indexar los buckets de rate limiting.
+ *
+ * Ocupa bastante menos que la cadena y dos formas de escribir la misma IP dan la misma clave.
+ * IPv4 se parsea a mano (es el caso habitual y evita crear InetAddress); IPv6 solo se acepta como literal,
+ * nunca se resuelve por DNS. Cualquier otro valor (cabeceras manipuladas) comparte la clave INVALID.
+ */
+public record IpKey(long high, long low) {
+
+    // Prefijo ::ffff:0:0/96 (IPv4 mapeada en IPv6): una IPv4 y su forma mapeada son la misma clave
+    private static final long IPV4_MAPPED_HIGH = 0L;
+    private static final long IPV4_MAPPED_PREFIX = 0x0000_FFFF_0000_0000L;
+
+    public static final IpKey INVALID = new IpKey(-1L, -1L);
+
+    public static IpKey of(String ip) {
+        if (ip == null || ip.isEmpty()) {
+            return INVALID;
+        }
+        long ipv4 = parseIpv4(ip);
+        if (ipv4 >= 0) {
+            return ipv4(ipv4);
+        }
+        if (ip.indexOf(':') >= 0 && isIpv6Literal(ip)) {
+            return parseIpv6(ip);
+        }
+        return INVALID;
+    }
+
+    public boolean isIpv4() {
+        return high == IPV4_MAPPED_HIGH && (low & 0xFFFF_FFFF_0000_0000L) == IPV4_MAPPED_PREFIX;
+    }
+
+    private static IpKey ipv4(long address) {
+        return new IpKey(IPV4_MAPPED_HIGH, IPV4_MAPPED_PREFIX | address);
+    }
+
+    /**
+     * a.b.c.d con cada octeto entre 0 y 255. Devuelve la dirección como entero sin signo, o -1 si no es IPv4
+     */
+    static long parseIpv4(String ip) {
+        long address = 0;
+        int octets = 0;
+        int value = -1;
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = (value < 0 ? 0 : value * 10) + (c - '0');
+                if (value > 255) {
+                    return -1;
+                }
+            } else if (c == '.' && value >= 0 && octets < 3) {
+                address = (address << 8) | value;
+                octets++;
+                value = -1;
+            } else {
+                return -1;
+            }
+        }
+        if (octets != 3 || value < 0) {
+            return -1;
+        }
+        return (address << 8) | value;
+    }
+
+    private static boolean isIpv6Literal(String ip) {
+        if (ip.length() > 45) {
+            return false;
+        }
+        for (int i = 0; i < ip.length(); i++) {
+            char c = ip.charAt(i);
+            boolean hex = (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+            if (!hex && c != ':' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static IpKey parseIpv6(String ip) {
+        try {
+            // Con ':' y solo dígitos hex InetAddress lo trata como literal: no hay consulta DNS
+            InetAddress address = InetAddress.getByName(ip);
+            byte[] bytes = address.getAddress();
+            if (address instanceof Inet4Address) {
+                return ipv4(toLong(bytes, 0, 4));
+            }
+            if (address instanceof Inet6Address) {
+                return new IpKey(toLong(bytes, 0, 8), toLong(bytes, 8, 8));
+            }
+        } catch (UnknownHostException e) {
+            // No es una IPv6 válida
+        }
+        return INVALID;
+    }
+
+    private static long toLong(byte[] bytes, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
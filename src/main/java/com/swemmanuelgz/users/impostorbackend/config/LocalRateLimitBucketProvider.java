@@ -0,0 +1,36 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buckets en memoria de la instancia. Con varias instancias detrás del balanceador cada una aplica el límite por separado
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBucketProvider implements RateLimitBucketProvider {
+
+    private final RateLimitBucketStore generalBuckets;
+    private final RateLimitBucketStore authBuckets;
+
+    public LocalRateLimitBucketProvider(MeterRegistry meterRegistry,
+                                        @Value("${rate-limit.max-tracked-ips:200000}") long maxTrackedIps) {
+        this.generalBuckets = new RateLimitBucketStore("general", RateLimitPolicies.REFILL_PERIOD, maxTrackedIps,
+                ip -> Bucket.builder().addLimit(RateLimitPolicies.GENERAL_LIMIT).build(), meterRegistry);
+        this.authBuckets = new RateLimitBucketStore("auth", RateLimitPolicies.REFILL_PERIOD, maxTrackedIps,
+                ip -> Bucket.builder().addLimit(RateLimitPolicies.AUTH_LIMIT).build(), meterRegistry);
+    }
+
+    @Override
+    public Bucket general(IpKey ip) {
+        return generalBuckets.resolve(ip);
+    }
+
+    @Override
+    public Bucket auth(IpKey ip) {
+        return authBuckets.resolve(ip);
+    }
+}
@@ -0,0 +1,115 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.mysql.Bucket4jMySQL;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.logging.Logger;
+
+/**
+ * Buckets compartidos entre instancias: el estado vive en la tabla rate_limit_buckets de MySQL
+ * (Bucket4j, SELECT ... FOR UPDATE), así dos nodos no duplican los límites.
+ *
+ * Cada instancia guarda localmente el proxy de cada IP (RateLimitBucketStore) con una optimización
+ * para no ir a la base de datos en cada petición:
+ * - general: delaying, hasta general-max-unsynced-tokens consumos locales o general-max-unsynced-ms sin sincronizar
+ * - auth: batching (peticiones concurrentes de la misma IP van en un solo viaje); sin margen local, el límite es exacto
+ *
+ * Los buckets sin cambios durante más de un periodo de recarga ya están llenos y se borran por lotes.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.mode", havingValue = "mysql")
+public class MySqlRateLimitBucketProvider implements RateLimitBucketProvider {
+
+    private static final Logger logger = Logger.getLogger(MySqlRateLimitBucketProvider.class.getName());
+
+    static final String TABLE = "rate_limit_buckets";
+
+    private final ProxyManager<String> proxyManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final RateLimitBucketStore generalBuckets;
+    private final RateLimitBucketStore authBuckets;
+
+    public MySqlRateLimitBucketProvider(DataSource dataSource,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${rate-limit.max-tracked-ips:200000}") long maxTrackedIps,
+                                        @Value("${rate-limit.mysql.general-max-unsynced-tokens:10}") long generalMaxUnsyncedTokens,
+                                        @Value("${rate-limit.mysql.general-max-unsynced-ms:1000}") long generalMaxUnsyncedMs) {
+        this.proxyManager = Bucket4jMySQL.selectForUpdateBasedBuilder(dataSource)
+                .primaryKeyMapper(PrimaryKeyMapper.STRING)
+                .table(TABLE)
+                .idColumn("id")
+                .stateColumn("state")
+                .build();
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Optimization generalOptimization = Optimizations.delaying(
+                new DelayParameters(generalMaxUnsyncedTokens, Duration.ofMillis(generalMaxUnsyncedMs)));
+        BucketConfiguration general = BucketConfiguration.builder().addLimit(RateLimitPolicies.GENERAL_LIMIT).build();
+        BucketConfiguration auth = BucketConfiguration.builder().addLimit(RateLimitPolicies.AUTH_LIMIT).build();
+
+        this.generalBuckets = new RateLimitBucketStore("general", RateLimitPolicies.REFILL_PERIOD, maxTrackedIps,
+                key -> proxyManager.builder().withOptimization(generalOptimization).build(bucketId("general", key), () -> general),
+                meterRegistry);
+        this.authBuckets = new RateLimitBucketStore("auth", RateLimitPolicies.REFILL_PERIOD, maxTrackedIps,
+                key -> proxyManager.builder().withOptimization(Optimizations.batching()).build(bucketId("auth", key), () -> auth),
+                meterRegistry);
+        AnsiColors.infoLog(logger, "Rate limiting distribuido (MySQL) activado");
+    }
+
+    @Override
+    public Bucket general(IpKey ip) {
+        return generalBuckets.resolve(ip);
+    }
+
+    @Override
+    public Bucket auth(IpKey ip) {
+        return authBuckets.resolve(ip);
+    }
+
+    static String bucketId(String policy, IpKey ip) {
+        return policy + ":" + Long.toHexString(ip.high()) + ":" + Long.toHexString(ip.low());
+    }
+
+    /**
+     * Borra por lotes los buckets que llevan más de dos periodos de recarga sin cambios
+     */
+    @Scheduled(initialDelayString = "${rate-limit.mysql.cleanup-interval-ms:300000}",
+               fixedDelayString = "${rate-limit.mysql.cleanup-interval-ms:300000}")
+    public void purgeIdleBuckets() {
+        try {
+            WorkloadContext.run(WorkloadContext.Workload.BATCH, this::deleteIdleBuckets);
+        } catch (Exception e) {
+            AnsiColors.errorLog(logger, "Error limpiando buckets de rate limiting: " + e.getMessage());
+        }
+    }
+
+    private void deleteIdleBuckets() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(RateLimitPolicies.REFILL_PERIOD.multipliedBy(2)));
+        int deleted;
+        int total = 0;
+        do {
+            deleted = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE updated_at < ? LIMIT 5000", cutoff);
+            total += deleted;
+        } while (deleted == 5000);
+        if (total > 0) {
+            AnsiColors.infoLog(logger, "Borrados " + total + " buckets de rate limiting inactivos");
+        }
+    }
+}
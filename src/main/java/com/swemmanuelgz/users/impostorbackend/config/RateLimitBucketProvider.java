@@ -0,0 +1,15 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import io.github.bucket4j.Bucket;
+
+/**
+ * De dónde salen los buckets del RateLimitingFilter (rate-limit.mode):
+ * - local: buckets en memoria de cada instancia
+ * - mysql: estado compartido entre instancias en la tabla rate_limit_buckets
+ */
+public interface RateLimitBucketProvider {
+
+    Bucket general(IpKey ip);
+
+    Bucket auth(IpKey ip);
+}
@@ -0,0 +1,56 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Buckets de rate limiting por IP con memoria acotada.
+ *
+ * Un bucket sin uso durante refillTime ya está lleno otra vez, así que descartarlo no cambia nada:
+ * se crearía igual en la siguiente petición. Además hay un máximo de entradas para que un barrido
+ * de IPs (o de X-Forwarded-For falsos) no haga crecer el heap. Métricas: cache.size / cache.evictions
+ * con cache=rateLimitBuckets.{name}.
+ */
+public class RateLimitBucketStore {
+
+    private final Cache<IpKey, Bucket> buckets;
+    private final Function<IpKey, Bucket> bucketFactory;
+
+    public RateLimitBucketStore(String name, Duration refillTime, long maxEntries,
+                                Function<IpKey, Bucket> bucketFactory, MeterRegistry meterRegistry) {
+        this(name, refillTime, maxEntries, bucketFactory, meterRegistry, Ticker.systemTicker());
+    }
+
+    /**
+     * Con un Ticker propio para la caducidad (los tests de soak avanzan el tiempo sin esperar)
+     */
+    public RateLimitBucketStore(String name, Duration refillTime, long maxEntries,
+                                Function<IpKey, Bucket> bucketFactory, MeterRegistry meterRegistry, Ticker ticker) {
+        this.bucketFactory = bucketFactory;
+        this.buckets = Caffeine.newBuilder()
+                .ticker(ticker)
+                .expireAfterAccess(refillTime)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimitBuckets." + name);
+        }
+    }
+
+    public Bucket resolve(IpKey ip) {
+        return buckets.get(ip, bucketFactory);
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,34 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import io.github.bucket4j.Bandwidth;
+
+import java.time.Duration;
+
+/**
+ * Límites de rate limiting, compartidos por el modo local y el distribuido
+ */
+public final class RateLimitPolicies {
+
+    public static final Duration REFILL_PERIOD = Duration.ofMinutes(1);
+
+    /**
+     * Endpoints generales: 100 requests por minuto
+     */
+    public static final Bandwidth GENERAL_LIMIT = Bandwidth.builder()
+            .capacity(100)
+            .refillGreedy(100, REFILL_PERIOD)
+            .build();
+
+    /**
+     * Autenticación: 10 requests por minuto (protección brute force)
+     * Usa refillIntervally para que el bloqueo sea real de 60 segundos
+     * en lugar de refillGreedy que rellena gradualmente
+     */
+    public static final Bandwidth AUTH_LIMIT = Bandwidth.builder()
+            .capacity(10)
+            .refillIntervally(10, REFILL_PERIOD)
+            .build();
+
+    private RateLimitPolicies() {
+    }
+}
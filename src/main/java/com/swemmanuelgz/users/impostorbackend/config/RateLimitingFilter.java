@@ -1,20 +1,17 @@
 package com.swemmanuelgz.users.impostorbackend.config;
 
-import io.github.bucket4j.Bandwidth;
 import io.github.bucket4j.Bucket;
 import io.github.bucket4j.ConsumptionProbe;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.time.Duration;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
@@ -25,41 +22,17 @@ import java.util.logging.Logger;
  * Límites configurados:
  * - Endpoints de autenticación: 10 requests/minuto (protección brute force)
  * - API general: 100 requests/minuto
+ * 
+ * Los límites están en RateLimitPolicies. Los buckets (por IP en binario, IpKey) los da un
+ * RateLimitBucketProvider: en memoria de la instancia o compartidos entre instancias (rate-limit.mode).
  */
 @Component
+@RequiredArgsConstructor
 public class RateLimitingFilter extends OncePerRequestFilter {
 
     private static final Logger logger = Logger.getLogger(RateLimitingFilter.class.getName());
     
-    // Cache de buckets por IP
-    private final Map<String, Bucket> bucketCache = new ConcurrentHashMap<>();
-    private final Map<String, Bucket> authBucketCache = new ConcurrentHashMap<>();
-
-    /**
-     * Bucket para endpoints generales: 100 requests por minuto
-     */
-    private Bucket createGeneralBucket() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.builder()
-                        .capacity(100)
-                        .refillGreedy(100, Duration.ofMinutes(1))
-                        .build())
-                .build();
-    }
-
-    /**
-     * Bucket para autenticación: 10 requests por minuto (protección brute force)
-     * Usa refillIntervally para que el bloqueo sea real de 60 segundos
-     * en lugar de refillGreedy que rellena gradualmente
-     */
-    private Bucket createAuthBucket() {
-        return Bucket.builder()
-                .addLimit(Bandwidth.builder()
-                        .capacity(10)
-                        .refillIntervally(10, Duration.ofMinutes(1))
-                        .build())
-                .build();
-    }
+    private final RateLimitBucketProvider bucketProvider;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -71,10 +44,11 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         
         // Seleccionar bucket según el tipo de endpoint
         Bucket bucket;
+        IpKey ipKey = IpKey.of(clientIp);
         if (isAuthEndpoint(path)) {
-            bucket = authBucketCache.computeIfAbsent(clientIp, k -> createAuthBucket());
+            bucket = bucketProvider.auth(ipKey);
         } else {
-            bucket = bucketCache.computeIfAbsent(clientIp, k -> createGeneralBucket());
+            bucket = bucketProvider.general(ipKey);
         }
 
         ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
@@ -109,7 +83,8 @@ public class RateLimitingFilter extends OncePerRequestFilter {
     private boolean isAuthEndpoint(String path) {
         return path.contains("/auth/login") || 
                path.contains("/auth/signup") || 
-               path.contains("/auth/refresh");
+               path.contains("/auth/refresh") ||
+               path.contains("/auth/logout");
     }
 
     private String getClientIP(HttpServletRequest request) {
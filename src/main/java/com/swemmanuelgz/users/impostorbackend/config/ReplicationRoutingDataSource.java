@@ -0,0 +1,52 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Enruta cada conexión a la réplica o al primario según la transacción en curso:
+ * - @Transactional(readOnly = true) -> réplica
+ * - cualquier otra cosa (escrituras, sin transacción) -> primario
+ *
+ * Debe envolverse en un LazyConnectionDataSourceProxy: el flag readOnly de la transacción
+ * solo está disponible cuando se ejecuta la primera sentencia, no al abrir la transacción.
+ * Si no hay réplica configurada todo cae en el primario (defaultTargetDataSource).
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (Boolean.TRUE.equals(FORCE_PRIMARY.get())) {
+            return Route.PRIMARY;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    /**
+     * Ejecuta la lectura contra el primario si se cumple la condición; si no, con el enrutado normal.
+     * Se usa para read-your-writes: la réplica puede ir con retraso respecto a lo que se acaba de escribir.
+     * La conexión se decide en la primera sentencia, así que la lectura tiene que ser la primera de la transacción
+     */
+    public static <T> T readPrimaryIf(boolean condition, Supplier<T> read) {
+        if (!condition) {
+            return read.get();
+        }
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Clock;
+
+/**
+ * Schedulers de la aplicación, ambos con el Clock de la aplicación:
+ * - taskScheduler: tareas @Scheduled. Los jobs por lotes (archivado, retención de intentos de login) duermen
+ *   entre lotes y ocupan sus hilos durante minutos.
+ * - roundResolutionScheduler: solo resoluciones de ronda (RoundScheduler), para que un voto nunca espere
+ *   detrás de un job de limpieza.
+ *
+ * El contexto ya tiene el TaskScheduler de WebSocket (heartbeats del broker); al haber varios, los @Scheduled
+ * buscan el llamado taskScheduler y RoundScheduler pide el suyo por nombre
+ */
+@Configuration
+public class SchedulerConfig {
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(Clock clock,
+                                                 @Value("${scheduling.pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("scheduled-job-");
+        scheduler.setClock(clock);
+        return scheduler;
+    }
+
+    @Bean
+    public ThreadPoolTaskScheduler roundResolutionScheduler(Clock clock,
+                                                            @Value("${game.vote.resolver-threads:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("round-resolver-");
+        scheduler.setClock(clock);
+        return scheduler;
+    }
+}
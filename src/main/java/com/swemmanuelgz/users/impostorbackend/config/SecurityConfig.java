@@ -34,9 +34,10 @@ public class SecurityConfig {
     private final JwtAuthFilter jwtAuthFilter;
     private final RateLimitingFilter rateLimitingFilter;
 
+    // Coste de BCrypt; al subirlo los hashes antiguos se rehacen en el siguiente login correcto
     @Bean
-    public BCryptPasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public BCryptPasswordEncoder passwordEncoder(@Value("${password.hashing.bcrypt-strength:10}") int strength){
+        return new BCryptPasswordEncoder(strength);
     }
 
     //todo: cambiar y poner los endpoints en un array de strings
@@ -48,9 +49,10 @@ public class SecurityConfig {
                     .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                     .authorizeHttpRequests(authorize -> authorize
                             .requestMatchers(HttpMethod.OPTIONS,"/**").permitAll()
-                            .requestMatchers("/api/auth/login","/api/auth/refresh","/api/auth/signup","/api/auth/google").permitAll()
+                            .requestMatchers(JwtAuthFilter.PUBLIC_AUTH_PATHS.toArray(String[]::new)).permitAll()
                             .requestMatchers("/chat-socket/**","/topic/**","/app/**","/chat-socket").permitAll()
                             .requestMatchers("/actuator/health", "/actuator/health/**").permitAll() // Solo health público
+                            .requestMatchers("/actuator/jfr", "/actuator/jfr/**").hasRole("ADMIN") // Volcados JFR: escriben a disco
                             .requestMatchers("/actuator/**").authenticated() // Otros actuator requieren auth
                             .anyRequest().authenticated()
                     )
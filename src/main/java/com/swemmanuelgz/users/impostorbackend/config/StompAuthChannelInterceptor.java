@@ -0,0 +1,132 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.swemmanuelgz.users.impostorbackend.dto.UserProfile;
+import com.swemmanuelgz.users.impostorbackend.exception.WebSocketException;
+import com.swemmanuelgz.users.impostorbackend.security.StompPrincipal;
+import com.swemmanuelgz.users.impostorbackend.security.VerifiedToken;
+import com.swemmanuelgz.users.impostorbackend.security.VerifiedTokenCache;
+import com.swemmanuelgz.users.impostorbackend.service.UserProfileCache;
+import com.swemmanuelgz.users.impostorbackend.utils.GameLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Autenticación de la sesión STOMP en el frame CONNECT.
+ *
+ * El cliente envía el JWT en la cabecera nativa Authorization ("Bearer ...") o token. Se verifica una vez
+ * y se guarda un StompPrincipal (userId + username) en la sesión; el resto de frames no repite nada.
+ * Con websocket.auth.allow-legacy-user-id-header=true (desactivado por defecto) se acepta además la cabecera
+ * userId sin token de clientes antiguos y las conexiones anónimas. Esa cabecera no prueba nada: cada uso se
+ * registra en WARN y se cuenta en websocket.auth.legacy.connects para saber cuándo se puede retirar.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final GameLog log = GameLog.of(StompAuthChannelInterceptor.class);
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserProfileCache userProfileCache;
+    private final boolean allowLegacyUserIdHeader;
+    private final Counter legacyConnects;
+
+    public StompAuthChannelInterceptor(VerifiedTokenCache verifiedTokenCache,
+                                       UserProfileCache userProfileCache,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${websocket.auth.allow-legacy-user-id-header:false}") boolean allowLegacyUserIdHeader) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.userProfileCache = userProfileCache;
+        this.allowLegacyUserIdHeader = allowLegacyUserIdHeader;
+        this.legacyConnects = Counter.builder("websocket.auth.legacy.connects")
+                .description("CONNECT autenticados solo con la cabecera userId (sin token)")
+                .register(meterRegistry);
+        if (allowLegacyUserIdHeader) {
+            log.warn().log("websocket.auth.allow-legacy-user-id-header activo: se acepta la cabecera userId sin token");
+        }
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        StompPrincipal principal = authenticate(accessor);
+        if (principal != null) {
+            accessor.setUser(principal);
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            if (attributes != null) {
+                attributes.put(StompPrincipal.SESSION_ATTRIBUTE, principal);
+            }
+            log.debug().user(principal.getUserId()).log("CONNECT autenticado como {}", principal.getUsername());
+        } else {
+            log.debug().log("CONNECT sin credenciales - usando anonymous");
+            accessor.setUser(new AnonymousAuthenticationToken(
+                    "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+        }
+        return message;
+    }
+
+    /**
+     * Resuelve la identidad del CONNECT. Lanza WebSocketException (el cliente recibe un frame ERROR)
+     * si el token no es válido o si no hay credenciales y el modo legacy está desactivado
+     */
+    private StompPrincipal authenticate(StompHeaderAccessor accessor) {
+        String token = extractToken(accessor);
+        if (token != null) {
+            VerifiedToken jwt = verifiedTokenCache.verify(token)
+                    .filter(verified -> !verified.isRefreshToken() && verified.userId() != null)
+                    .orElseThrow(() -> {
+                        log.warn().log("CONNECT rechazado: token no válido");
+                        return WebSocketException.usuarioNoAutenticado();
+                    });
+            return new StompPrincipal(jwt.userId(), usernameOf(jwt.userId(), jwt.email()));
+        }
+
+        if (!allowLegacyUserIdHeader) {
+            log.warn().log("CONNECT rechazado: falta el token");
+            throw WebSocketException.usuarioNoAutenticado();
+        }
+
+        String userIdHeader = accessor.getFirstNativeHeader("userId");
+        if (userIdHeader == null || userIdHeader.isBlank()) {
+            return null;
+        }
+        try {
+            Long userId = Long.valueOf(userIdHeader.trim());
+            legacyConnects.increment();
+            log.warn().user(userId).kv("sessionId", accessor.getSessionId())
+                    .log("CONNECT con cabecera userId sin token (modo legacy)");
+            return new StompPrincipal(userId, usernameOf(userId, null));
+        } catch (NumberFormatException e) {
+            throw WebSocketException.usuarioNoAutenticado();
+        }
+    }
+
+    private String extractToken(StompHeaderAccessor accessor) {
+        String authorization = accessor.getFirstNativeHeader("Authorization");
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            return authorization.substring(7);
+        }
+        String token = accessor.getFirstNativeHeader("token");
+        return token != null && !token.isBlank() ? token : null;
+    }
+
+    private String usernameOf(Long userId, String fallback) {
+        return userProfileCache.findById(userId)
+                .map(UserProfile::username)
+                .orElse(fallback != null ? fallback : "Jugador " + userId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.swemmanuelgz.users.impostorbackend.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swemmanuelgz.users.impostorbackend.monitoring.StompLatencyTracer;
 import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -12,13 +13,9 @@ import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.messaging.simp.stomp.StompCommand;
-import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
-import org.springframework.messaging.support.ChannelInterceptor;
-import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
-import org.springframework.security.authentication.AnonymousAuthenticationToken;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
@@ -34,6 +31,8 @@ public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer
 
     private final Logger logger = Logger.getLogger(WebSocketConfiguration.class.getName());
     private final ObjectMapper objectMapper;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final StompLatencyTracer stompLatencyTracer;
 //
 //    @Autowired
 //    private ApiKeyStompInterceptor apiKeyStompInterceptor;
@@ -74,30 +73,27 @@ public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer
         AnsiColors.infoLog(logger, "Configurando canal de entrada de cliente");
         registration.taskExecutor().corePoolSize(5);
 
-        registration.interceptors(new ChannelInterceptor() {
+        // Primero el tracer para que la espera en cola empiece a contar al llegar el frame
+        if (stompLatencyTracer.isEnabled()) {
+            registration.interceptors(stompLatencyTracer.inbound());
+        }
+        // Autenticación en el CONNECT (JWT una vez por sesión)
+        registration.interceptors(stompAuthChannelInterceptor, new ExecutorChannelInterceptor() {
+            // Los handlers STOMP usan el pool de conexiones de tiempo real
+            private final ThreadLocal<WorkloadContext.Scope> workloadScope = new ThreadLocal<>();
+
+            @Override
+            public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+                workloadScope.set(WorkloadContext.use(WorkloadContext.Workload.REALTIME));
+                return message;
+            }
+
             @Override
-            public Message<?> preSend(Message<?> message, MessageChannel channel) {
-                try {
-                    StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
-                    if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
-                        // Obtener el userId desde los headers de conexión
-                        String userId = accessor.getFirstNativeHeader("userId");
-                        
-                        if (userId != null && !userId.isEmpty()) {
-                            AnsiColors.successLog(logger, "Cliente conectandose con userId: " + userId);
-                            
-                            // Crear un Principal con el userId para que Spring pueda enrutar mensajes
-                            accessor.setUser(() -> userId);
-                        } else {
-                            AnsiColors.infoLog(logger, "Cliente conectandose SIN userId en headers - usando anonymous");
-                            accessor.setUser(new AnonymousAuthenticationToken(
-                                    "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
-                        }
-                    }
-                    return message;
-                } catch (Exception e) {
-                    AnsiColors.errorLog(logger, "Error en interceptor: " + e.getMessage());
-                    return message; // Importante: seguir devolviendo el mensaje original
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                WorkloadContext.Scope scope = workloadScope.get();
+                if (scope != null) {
+                    scope.close();
+                    workloadScope.remove();
                 }
             }
         });
@@ -106,6 +102,9 @@ public class WebSocketConfiguration implements WebSocketMessageBrokerConfigurer
     public void configureClientOutboundChannel(ChannelRegistration registration) {
         // Aumentar el tamaño del pool de hilos para mensajes salientes también
         registration.taskExecutor().corePoolSize(5).maxPoolSize(10);
+        if (stompLatencyTracer.isEnabled()) {
+            registration.interceptors(stompLatencyTracer.outbound());
+        }
     }
 
     /**
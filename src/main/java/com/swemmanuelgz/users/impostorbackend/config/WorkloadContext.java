@@ -0,0 +1,68 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+/**
+ * Tipo de carga del hilo actual, usado para elegir el pool de conexiones (bulkhead).
+ * - REALTIME: handlers STOMP de la partida (votos, unirse, iniciar...)
+ * - REST: peticiones HTTP, incluida la autenticación (por defecto)
+ * - BATCH: tareas programadas y procesos de fondo
+ */
+public final class WorkloadContext {
+
+    public enum Workload { REALTIME, REST, BATCH }
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : Workload.REST;
+    }
+
+    /**
+     * Ejecuta la tarea con el hilo marcado con un tipo de carga y después restaura el anterior.
+     * La marca tiene que estar antes de la primera consulta: la conexión se elige al ejecutar la primera sentencia
+     */
+    public static <E extends Exception> void run(Workload workload, Task<E> task) throws E {
+        Scope scope = use(workload);
+        try {
+            task.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Marca el hilo actual con un tipo de carga hasta cerrar el scope, para quien abre y cierra en
+     * callbacks distintos (interceptores del canal STOMP). En el resto de casos, run
+     */
+    public static Scope use(Workload workload) {
+        return new Scope(workload);
+    }
+
+    /**
+     * Tarea de run: puede lanzar las excepciones comprobadas de quien la ejecuta
+     */
+    @FunctionalInterface
+    public interface Task<E extends Exception> {
+        void run() throws E;
+    }
+
+    public static final class Scope {
+        private final Workload previous;
+
+        private Scope(Workload workload) {
+            this.previous = CURRENT.get();
+            CURRENT.set(workload);
+        }
+
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Elige el pool del primario según el tipo de carga del hilo (WorkloadContext).
+ * Cada pool tiene su propio tamaño y timeout, así que agotar uno no bloquea a los demás
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+}
@@ -6,21 +6,24 @@ import com.swemmanuelgz.users.impostorbackend.dto.GoogleUserInfo;
 import com.swemmanuelgz.users.impostorbackend.dto.TokenRefreshRequest;
 import com.swemmanuelgz.users.impostorbackend.dto.TokenRefreshResponse;
 import com.swemmanuelgz.users.impostorbackend.dto.UserDto;
+import com.swemmanuelgz.users.impostorbackend.dto.UserProfile;
 import com.swemmanuelgz.users.impostorbackend.entity.LoginAttempt;
 import com.swemmanuelgz.users.impostorbackend.entity.User;
 import com.swemmanuelgz.users.impostorbackend.exception.UserException;
 import com.swemmanuelgz.users.impostorbackend.security.JwtProvider;
+import com.swemmanuelgz.users.impostorbackend.security.VerifiedToken;
+import com.swemmanuelgz.users.impostorbackend.security.VerifiedTokenCache;
 import com.swemmanuelgz.users.impostorbackend.service.GoogleTokenService;
 import com.swemmanuelgz.users.impostorbackend.service.LoginAttemptService;
 import com.swemmanuelgz.users.impostorbackend.service.OAuth2UserService;
+import com.swemmanuelgz.users.impostorbackend.service.PasswordHashingService;
+import com.swemmanuelgz.users.impostorbackend.service.UserProfileCache;
 import com.swemmanuelgz.users.impostorbackend.service.UserServiceImpl;
 import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -40,6 +43,9 @@ public class AuthenticationController {
     private final GoogleTokenService googleTokenService;
     private final OAuth2UserService oAuth2UserService;
     private final LoginAttemptService loginAttemptService;
+    private final UserProfileCache userProfileCache;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final PasswordHashingService passwordHashingService;
 
     /**
      * Login de usuario
@@ -75,9 +81,7 @@ public class AuthenticationController {
             throw UserException.usuarioOAuth(provider);
         }
         
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        
-        if (!encoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             loginAttemptService.recordFailedLogin(username, clientIp, userAgent,
                     LoginAttempt.AUTH_TYPE_LOCAL, LoginAttempt.FAILURE_INVALID_PASSWORD);
             AnsiColors.errorLog(logger, "Contraseña incorrecta para usuario: " + username);
@@ -89,6 +93,11 @@ public class AuthenticationController {
                 LoginAttempt.AUTH_TYPE_LOCAL, user.getId());
         user.setLastLoginIp(clientIp);
         user.setLastLoginAt(Instant.now());
+        if (passwordHashingService.needsUpgrade(user.getPassword())) {
+            // Rehacer el hash con el coste actual (solo aquí tenemos la contraseña en claro)
+            user.setPassword(passwordHashingService.encode(password));
+            AnsiColors.infoLog(logger, "Hash de contraseña actualizado al coste actual para: " + username);
+        }
         userService.update(user);
         
         // Generar tokens
@@ -114,31 +123,47 @@ public class AuthenticationController {
         
         String requestRefreshToken = request.getRefreshToken();
         
-        // Validar el refresh token
-        if (!jwtProvider.validateToken(requestRefreshToken)) {
+        // Validar el refresh token (una sola verificación)
+        VerifiedToken verified = verifiedTokenCache.verify(requestRefreshToken).orElse(null);
+        if (verified == null) {
             return ResponseEntity.badRequest().body("Refresh token no válido o expirado");
         }
         
         // Verificar que sea refresh token
-        Claims claims = jwtProvider.getClaims(requestRefreshToken);
-        Object tokenType = claims.get("tokenType");
-        
-        if (tokenType == null || !tokenType.equals("refresh")) {
+        if (!verified.isRefreshToken()) {
             return ResponseEntity.badRequest().body("Token no es un refresh token válido");
         }
         
         // Generar nuevos tokens
-        String email = jwtProvider.getEmailFromToken(requestRefreshToken);
-        User user = userService.findByEmail(email)
+        String email = verified.email();
+        UserProfile user = userProfileCache.findByEmail(email)
                 .orElseThrow(() -> UserException.usuarioNoEncontradoEmail(email));
         
         String newAccessToken = jwtProvider.generateToken(user);
         String newRefreshToken = jwtProvider.generateRefreshToken(user);
         
-        AnsiColors.successLog(logger, "Tokens actualizados para: " + user.getEmail());
+        AnsiColors.successLog(logger, "Tokens actualizados para: " + user.email());
         return ResponseEntity.ok(new TokenRefreshResponse(newAccessToken, newRefreshToken));
     }
 
+    /**
+     * Logout: revoca el access token de la cabecera Authorization y, si se envía, el refresh token.
+     * Requiere un access token válido (JwtAuthFilter) y comparte el límite por IP de los endpoints de auth
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String authorization,
+                                    @RequestBody(required = false) TokenRefreshRequest request) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            verifiedTokenCache.revoke(authorization.substring(7));
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            verifiedTokenCache.revoke(request.getRefreshToken());
+        }
+        AnsiColors.infoLog(logger, "Sesión cerrada, tokens revocados");
+        return ResponseEntity.ok(Map.of("mensaje", "Sesión cerrada"));
+    }
+
     /**
      * Registro de usuario
      * POST /api/auth/signup
@@ -156,8 +181,7 @@ public class AuthenticationController {
         String rawPassword = userDto.getPassword();
         
         // Encriptar contraseña
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        userDto.setPassword(encoder.encode(userDto.getPassword()));
+        userDto.setPassword(passwordHashingService.encode(userDto.getPassword()));
         
         // Crear usuario
         User user = userDto.toEntity();
@@ -183,11 +207,11 @@ public class AuthenticationController {
         User user = userService.findById(userId)
                 .orElseThrow(() -> UserException.usuarioNoEncontradoIDLong(userId));
         
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        
-        if (encoder.matches(oldPassword, user.getPassword())) {
-            user.setPassword(encoder.encode(newPassword));
+        if (passwordHashingService.matches(oldPassword, user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(newPassword));
             User updatedUser = userService.update(user);
+            // Los tokens emitidos con la contraseña anterior dejan de valer
+            verifiedTokenCache.revokeAllForUser(userId);
             AnsiColors.successLog(logger, "Contraseña actualizada para usuario ID: " + userId);
             return ResponseEntity.ok(UserDto.fromEntity(updatedUser));
         }
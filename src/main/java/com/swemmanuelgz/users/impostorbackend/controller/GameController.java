@@ -1,7 +1,9 @@
 package com.swemmanuelgz.users.impostorbackend.controller;
 
 import com.swemmanuelgz.users.impostorbackend.dto.CreateGameRequest;
+import com.swemmanuelgz.users.impostorbackend.dto.CursorPage;
 import com.swemmanuelgz.users.impostorbackend.dto.GameDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto;
 import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
 import com.swemmanuelgz.users.impostorbackend.dto.JoinGameRequest;
 import com.swemmanuelgz.users.impostorbackend.entity.Game;
@@ -139,12 +141,9 @@ public class GameController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<GameDto> getGameById(@PathVariable Long id) {
-        Game game = gameService.findById(id)
+        GameDto gameDto = gameService.findGameDetailsById(id)
                 .orElseThrow(() -> GameException.gameNoEncontrado(id));
         
-        List<GamePlayerDto> players = gameService.getGamePlayers(id);
-        GameDto gameDto = GameDto.fromEntityWithPlayers(game, players);
-        
         AnsiColors.infoLog(logger, "Partida encontrada con ID: " + id);
         return ResponseEntity.ok(gameDto);
     }
@@ -155,12 +154,9 @@ public class GameController {
      */
     @GetMapping("/code/{roomCode}")
     public ResponseEntity<GameDto> getGameByRoomCode(@PathVariable String roomCode) {
-        Game game = gameService.findByRoomCode(roomCode)
+        GameDto gameDto = gameService.findGameDetailsByRoomCode(roomCode)
                 .orElseThrow(() -> GameException.gameNoEncontradoPorCodigo(roomCode));
         
-        List<GamePlayerDto> players = gameService.getGamePlayers(game.getId());
-        GameDto gameDto = GameDto.fromEntityWithPlayers(game, players);
-        
         AnsiColors.infoLog(logger, "Partida encontrada con código: " + roomCode);
         return ResponseEntity.ok(gameDto);
     }
@@ -209,6 +205,39 @@ public class GameController {
         return ResponseEntity.ok(games);
     }
 
+    /**
+     * Listado de partidas con paginación por cursor (más recientes primero)
+     * GET /api/game/scroll?size=20&cursor=...&includeTotal=false
+     * El coste de cada página es el mismo sea cual sea su profundidad
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<GameDto>> scrollGames(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        CursorPage<GameDto> games = gameService.findPageByCursor(cursor, size, includeTotal);
+        
+        AnsiColors.infoLog(logger, "Listando partidas por cursor - Tamaño: " + games.getSize());
+        return ResponseEntity.ok(games);
+    }
+
+    /**
+     * Historial de partidas terminadas de un usuario (incluye las archivadas)
+     * GET /api/game/history/{userId}?size=20&cursor=...
+     */
+    @GetMapping("/history/{userId}")
+    public ResponseEntity<CursorPage<GameHistoryDto>> getUserHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        
+        CursorPage<GameHistoryDto> history = gameService.findUserHistory(userId, cursor, size);
+        
+        AnsiColors.infoLog(logger, "Historial de usuario " + userId + " - Partidas: " + history.getSize());
+        return ResponseEntity.ok(history);
+    }
+
     /**
      * Obtener jugadores de una partida
      * GET /api/game/{gameId}/players
@@ -1,15 +1,22 @@
 package com.swemmanuelgz.users.impostorbackend.controller;
 
+import com.swemmanuelgz.users.impostorbackend.config.WorkloadContext;
 import com.swemmanuelgz.users.impostorbackend.dto.*;
 import com.swemmanuelgz.users.impostorbackend.entity.Game;
-import com.swemmanuelgz.users.impostorbackend.entity.GamePlayer;
 import com.swemmanuelgz.users.impostorbackend.exception.GameException;
 import com.swemmanuelgz.users.impostorbackend.exception.WebSocketException;
-import com.swemmanuelgz.users.impostorbackend.repository.UserRepository;
+import com.swemmanuelgz.users.impostorbackend.monitoring.BroadcastFanoutEvent;
+import com.swemmanuelgz.users.impostorbackend.monitoring.GameMetrics;
+import com.swemmanuelgz.users.impostorbackend.monitoring.PlayerJoinedEvent;
+import com.swemmanuelgz.users.impostorbackend.monitoring.RoundResolvedEvent;
+import com.swemmanuelgz.users.impostorbackend.monitoring.VoteCastEvent;
+import com.swemmanuelgz.users.impostorbackend.security.StompPrincipal;
 import com.swemmanuelgz.users.impostorbackend.service.GameCleanupScheduler;
 import com.swemmanuelgz.users.impostorbackend.service.GameServiceImpl;
 import com.swemmanuelgz.users.impostorbackend.service.GameSessionManager;
-import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import com.swemmanuelgz.users.impostorbackend.service.RoundScheduler;
+import com.swemmanuelgz.users.impostorbackend.service.UserProfileCache;
+import com.swemmanuelgz.users.impostorbackend.utils.GameLog;
 import com.swemmanuelgz.users.impostorbackend.utils.WordGenerator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.event.EventListener;
@@ -25,7 +32,7 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
 import java.security.Principal;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Optional;
 
 /**
  * Controlador WebSocket para el juego del impostor
@@ -49,14 +56,16 @@ import java.util.logging.Logger;
 @RequiredArgsConstructor
 public class GameWebSocketController {
     
-    private static final Logger logger = Logger.getLogger(GameWebSocketController.class.getName());
+    private static final GameLog log = GameLog.of(GameWebSocketController.class);
     
     private final GameServiceImpl gameService;
     private final GameSessionManager sessionManager;
     private final SimpMessagingTemplate messagingTemplate;
     private final WordGenerator wordGenerator;
     private final GameCleanupScheduler gameCleanupScheduler;
-    private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
+    private final GameMetrics gameMetrics;
+    private final RoundScheduler roundScheduler;
 
     // ========== Eventos de Conexión/Desconexión ==========
     
@@ -70,10 +79,9 @@ public class GameWebSocketController {
         Principal user = headers.getUser();
         
         if (user != null) {
-            AnsiColors.successLog(logger, "=== CONEXIÓN WEBSOCKET ===");
-            AnsiColors.infoLog(logger, "SessionId: " + sessionId + ", UserId: " + user.getName());
+            log.info().user(user.getName()).kv("sessionId", sessionId).log("Conexión WebSocket");
         } else {
-            AnsiColors.warningLog(logger, "Conexión anónima - SessionId: " + sessionId);
+            log.warn().kv("sessionId", sessionId).log("Conexión WebSocket anónima");
         }
     }
     
@@ -82,20 +90,27 @@ public class GameWebSocketController {
      */
     @EventListener
     public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        // La desconexión no pasa por el canal inbound: se marca aquí la carga de tiempo real
+        WorkloadContext.run(WorkloadContext.Workload.REALTIME, () -> onSessionDisconnect(event));
+    }
+    
+    private void onSessionDisconnect(SessionDisconnectEvent event) {
         SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(event.getMessage());
         String sessionId = headers.getSessionId();
         
-        AnsiColors.warningLog(logger, "=== DESCONEXIÓN WEBSOCKET ===");
-        AnsiColors.infoLog(logger, "SessionId: " + sessionId);
+        log.info().kv("sessionId", sessionId).log("Desconexión WebSocket");
         
         // Registrar desconexión en el gestor de sesiones y obtener resultado
         GameSessionManager.DisconnectionResult result = sessionManager.playerDisconnected(sessionId);
         
         if (result != null) {
-            // Obtener username del jugador desconectado
-            String username = userRepository.findById(result.userId)
-                    .map(u -> u.getUsername())
-                    .orElse("Jugador " + result.userId);
+            // Obtener username del jugador desconectado (de la sesión; solo las conexiones legacy/anónimas consultan la caché)
+            StompPrincipal principal = StompPrincipal.from(headers);
+            String username = principal != null && principal.getUserId().equals(result.userId)
+                    ? principal.getUsername()
+                    : userProfileCache.findById(result.userId)
+                            .map(UserProfile::username)
+                            .orElse("Jugador " + result.userId);
             
             // Obtener el juego para verificar estado y si es anfitrión
             Game game = gameService.findByRoomCode(result.roomCode).orElse(null);
@@ -104,15 +119,15 @@ public class GameWebSocketController {
                 boolean isHost = game.getCreator() != null && game.getCreator().getId().equals(result.userId);
                 String gameStatus = game.getStatus();
                 
-                AnsiColors.infoLog(logger, "Estado del juego: " + gameStatus + ", Es anfitrión: " + isHost);
+                log.debug().room(result.roomCode).user(result.userId).log("Estado del juego: {}, es anfitrión: {}", gameStatus, isHost);
                 
                 // Si el juego está en WAITING, remover al jugador de la BD
                 if ("WAITING".equals(gameStatus)) {
                     try {
                         gameService.leaveGame(game.getId(), result.userId);
-                        AnsiColors.successLog(logger, "Jugador " + username + " removido de la partida en BD");
+                        log.info().room(result.roomCode).user(result.userId).log("Jugador {} removido de la partida en BD", username);
                     } catch (Exception e) {
-                        AnsiColors.errorLog(logger, "Error al remover jugador de BD: " + e.getMessage());
+                        log.error().room(result.roomCode).user(result.userId).log("Error al remover jugador de BD: {}", e.getMessage());
                     }
                 }
                 
@@ -125,7 +140,7 @@ public class GameWebSocketController {
                         updatedGame = GameDto.fromEntityWithPlayers(refreshedGame, players);
                     }
                 } catch (Exception e) {
-                    AnsiColors.warningLog(logger, "No se pudo obtener juego actualizado: " + e.getMessage());
+                    log.warn().room(result.roomCode).log("No se pudo obtener juego actualizado: {}", e.getMessage());
                 }
                 
                 // Calcular timeout de reconexión (solo para anfitrión)
@@ -140,22 +155,21 @@ public class GameWebSocketController {
                     reconnectTimeout
                 );
                 
-                messagingTemplate.convertAndSend("/topic/game/" + result.roomCode, disconnectMsg);
-                AnsiColors.infoLog(logger, "Notificada desconexión del jugador " + username + 
-                    " (" + result.userId + ") a sala " + result.roomCode + 
-                    (isHost ? " [ANFITRIÓN - " + reconnectTimeout + "s para reconectar]" : ""));
+                broadcastToRoom(result.roomCode, disconnectMsg);
+                log.info().room(result.roomCode).user(result.userId).kv("host", isHost)
+                        .log("Notificada desconexión del jugador {} ({}s para reconectar)", username, reconnectTimeout);
                 
             } else {
                 // El juego ya no existe, solo loguear
-                AnsiColors.warningLog(logger, "El juego " + result.roomCode + " ya no existe");
+                log.warn().room(result.roomCode).log("El juego ya no existe");
             }
             
             // Si la sala quedó vacía, cerrarla automáticamente
             if (result.roomIsEmpty) {
-                AnsiColors.warningLog(logger, "Sala " + result.roomCode + " quedó vacía, cerrando automáticamente...");
+                log.info().room(result.roomCode).log("Sala vacía, cerrando automáticamente");
                 boolean closed = gameCleanupScheduler.closeGameIfEmpty(result.roomCode);
                 if (closed) {
-                    AnsiColors.successLog(logger, "Sala " + result.roomCode + " cerrada automáticamente por estar vacía");
+                    log.info().room(result.roomCode).log("Sala cerrada automáticamente por estar vacía");
                 }
             }
         }
@@ -175,8 +189,11 @@ public class GameWebSocketController {
             @Payload GameWebSocketMessage message,
             SimpMessageHeaderAccessor headerAccessor) {
         
-        AnsiColors.infoLog(logger, "=== JOIN GAME ===");
-        AnsiColors.infoLog(logger, "RoomCode: " + roomCode + ", UserId: " + message.getSenderId());
+        long start = System.nanoTime();
+        PlayerJoinedEvent joinedEvent = new PlayerJoinedEvent();
+        joinedEvent.begin();
+        StompPrincipal principal = bindSender(message, headerAccessor);
+        log.debug().room(roomCode).user(message.getSenderId()).log("Join recibido");
         
         try {
             GameDto gameDto;
@@ -188,12 +205,12 @@ public class GameWebSocketController {
             try {
                 // Intentar unirse a la partida via servicio (persiste en BD)
                 gameDto = gameService.joinGame(roomCode, message.getSenderId());
-                AnsiColors.successLog(logger, "Jugador " + message.getSenderUsername() + " se unió a sala " + roomCode);
+                log.info().room(roomCode).user(message.getSenderId()).log("Jugador {} se unió a la sala", message.getSenderUsername());
                 
             } catch (GameException e) {
                 // Si el error es que ya está en la partida, simplemente obtener el estado actual (idempotente)
                 if (GameException.JUGADOR_YA_EN_PARTIDA.equals(e.getCodigo())) {
-                    AnsiColors.warningLog(logger, "Jugador " + message.getSenderId() + " ya está en la partida - devolviendo estado actual");
+                    log.debug().room(roomCode).user(message.getSenderId()).log("Jugador ya en la partida - devolviendo estado actual");
                     
                     // Obtener la partida actual con sus jugadores
                     Game game = gameService.findByRoomCode(roomCode)
@@ -208,6 +225,9 @@ public class GameWebSocketController {
             // Registrar conexión en el gestor de sesiones
             String sessionId = headerAccessor.getSessionId();
             sessionManager.playerConnected(roomCode, message.getSenderId(), sessionId);
+            if (principal != null) {
+                principal.setRoomCode(roomCode);
+            }
             
             // Obtener datos del jugador
             List<GamePlayerDto> players = gameDto.getPlayers();
@@ -219,15 +239,27 @@ public class GameWebSocketController {
             return GameWebSocketMessage.playerJoined(gameDto, playerData);
             
         } catch (GameException e) {
-            AnsiColors.errorLog(logger, "Error GameException al unirse: " + e.getMessage());
+            log.warn().room(roomCode).user(message.getSenderId()).log("GameException al unirse: {}", e.getMessage());
+            gameMetrics.handlerError(GameMetrics.Handler.JOIN, e);
             return GameWebSocketMessage.error(null, roomCode, e.getCodigo(), e.getMessage());
         } catch (WebSocketException e) {
-            AnsiColors.errorLog(logger, "Error WebSocketException al unirse: " + e.getMessage());
+            log.warn().room(roomCode).user(message.getSenderId()).log("WebSocketException al unirse: {}", e.getMessage());
+            gameMetrics.handlerError(GameMetrics.Handler.JOIN, e);
             return GameWebSocketMessage.error(null, roomCode, e.getCodigo(), e.getMessage());
         } catch (Exception e) {
-            AnsiColors.errorLog(logger, "Error inesperado al unirse: " + e.getMessage());
-            e.printStackTrace();
+            log.error().room(roomCode).user(message.getSenderId()).cause(e).log("Error inesperado al unirse");
+            gameMetrics.handlerError(GameMetrics.Handler.JOIN, e);
             return GameWebSocketMessage.error(null, roomCode, "ERROR_DESCONOCIDO", e.getMessage());
+        } finally {
+            recordFanOut(roomCode);
+            gameMetrics.recordHandler(GameMetrics.Handler.JOIN, start);
+            joinedEvent.end();
+            if (joinedEvent.shouldCommit()) {
+                joinedEvent.roomCode = roomCode;
+                joinedEvent.userId = message.getSenderId() != null ? message.getSenderId() : 0;
+                joinedEvent.connectedPlayers = sessionManager.getConnectedPlayersCount(roomCode);
+                joinedEvent.commit();
+            }
         }
     }
     
@@ -243,8 +275,9 @@ public class GameWebSocketController {
             @Payload GameWebSocketMessage message,
             SimpMessageHeaderAccessor headerAccessor) {
         
-        AnsiColors.infoLog(logger, "=== LEAVE GAME ===");
-        AnsiColors.infoLog(logger, "RoomCode: " + roomCode + ", UserId: " + message.getSenderId());
+        long start = System.nanoTime();
+        StompPrincipal principal = bindSender(message, headerAccessor);
+        log.debug().room(roomCode).user(message.getSenderId()).log("Leave recibido");
         
         try {
             // Obtener juego antes de salir
@@ -256,6 +289,9 @@ public class GameWebSocketController {
             
             // Desregistrar del gestor de sesiones
             sessionManager.playerDisconnected(headerAccessor.getSessionId());
+            if (principal != null) {
+                principal.setRoomCode(null);
+            }
             
             // Obtener estado actualizado
             GameDto updatedGame = null;
@@ -267,10 +303,10 @@ public class GameWebSocketController {
                 }
             } catch (Exception e) {
                 // La partida puede haber sido eliminada si no quedan jugadores
-                AnsiColors.infoLog(logger, "Partida eliminada o no encontrada después de leave");
+                log.debug().room(roomCode).log("Partida eliminada o no encontrada después de leave");
             }
             
-            AnsiColors.successLog(logger, "Jugador " + message.getSenderId() + " salió de sala " + roomCode);
+            log.info().room(roomCode).user(message.getSenderId()).log("Jugador salió de la sala");
             
             return GameWebSocketMessage.playerLeft(
                 updatedGame != null ? updatedGame : GameDto.builder().roomCode(roomCode).build(),
@@ -279,8 +315,12 @@ public class GameWebSocketController {
             );
             
         } catch (Exception e) {
-            AnsiColors.errorLog(logger, "Error al salir: " + e.getMessage());
+            log.warn().room(roomCode).user(message.getSenderId()).log("Error al salir: {}", e.getMessage());
+            gameMetrics.handlerError(GameMetrics.Handler.LEAVE, e);
             return GameWebSocketMessage.error(null, roomCode, "ERROR_LEAVE", e.getMessage());
+        } finally {
+            recordFanOut(roomCode);
+            gameMetrics.recordHandler(GameMetrics.Handler.LEAVE, start);
         }
     }
     
@@ -293,11 +333,12 @@ public class GameWebSocketController {
     @MessageMapping("/game/{roomCode}/start")
     public void startGame(
             @DestinationVariable String roomCode,
-            @Payload GameWebSocketMessage message) {
+            @Payload GameWebSocketMessage message,
+            SimpMessageHeaderAccessor headerAccessor) {
         
-        AnsiColors.infoLog(logger, "=== START GAME ===");
-        AnsiColors.infoLog(logger, "RoomCode: " + roomCode + ", CreatorId: " + message.getSenderId());
-        AnsiColors.infoLog(logger, "Word: " + message.getContent());
+        long start = System.nanoTime();
+        bindSender(message, headerAccessor);
+        log.debug().room(roomCode).user(message.getSenderId()).log("Start recibido");
         
         try {
             // Validar mínimo de jugadores
@@ -322,17 +363,17 @@ public class GameWebSocketController {
                     try {
                         impostorCount = Integer.parseInt(parts[1].trim());
                     } catch (NumberFormatException e) {
-                        AnsiColors.warningLog(logger, "No se pudo parsear impostorCount, usando 1");
+                        log.warn().room(roomCode).log("No se pudo parsear impostorCount, usando 1");
                     }
                 }
-                AnsiColors.infoLog(logger, "📝 Palabra recibida: " + word + ", Impostores: " + impostorCount);
+                log.debug().room(roomCode).log("Palabra recibida: {}, impostores: {}", word, impostorCount);
             }
             
             // Generar palabra automáticamente si no se proporciona
             if (word == null || word.isEmpty()) {
                 WordGenerator.WordWithCategory generated = wordGenerator.getRandomWordWithCategory();
                 word = generated.word();
-                AnsiColors.infoLog(logger, "📝 Palabra generada automáticamente: " + word + " (categoría: " + generated.category() + ")");
+                log.debug().room(roomCode).log("Palabra generada automáticamente: {} (categoría: {})", word, generated.category());
             }
             
             GameDto gameDto = gameService.startGame(game.getId(), message.getSenderId(), word);
@@ -342,23 +383,27 @@ public class GameWebSocketController {
             
             // Enviar mensaje broadcast de que el juego inició
             GameWebSocketMessage startedMsg = GameWebSocketMessage.gameStarted(gameDto, message.getSenderId());
-            messagingTemplate.convertAndSend("/topic/game/" + roomCode, startedMsg);
+            broadcastToRoom(roomCode, startedMsg);
             
-            AnsiColors.successLog(logger, "Partida " + roomCode + " iniciada. Enviando roles a jugadores...");
+            log.info().room(roomCode).user(message.getSenderId()).log("Partida iniciada, enviando roles");
             
             // Enviar notificación individual a cada jugador con su rol y palabra
             sendRoleNotifications(game.getId(), roomCode, word);
             
         } catch (GameException e) {
-            AnsiColors.errorLog(logger, "GameException al iniciar: " + e.getMessage());
+            log.warn().room(roomCode).log("GameException al iniciar: {}", e.getMessage());
+            gameMetrics.handlerError(GameMetrics.Handler.START, e);
             sendErrorToRoom(roomCode, e.getCodigo(), e.getMessage());
         } catch (WebSocketException e) {
-            AnsiColors.errorLog(logger, "WebSocketException al iniciar: " + e.getMessage());
+            log.warn().room(roomCode).log("WebSocketException al iniciar: {}", e.getMessage());
+            gameMetrics.handlerError(GameMetrics.Handler.START, e);
             sendErrorToRoom(roomCode, e.getCodigo(), e.getMessage());
         } catch (Exception e) {
-            AnsiColors.errorLog(logger, "Error inesperado al iniciar: " + e.getMessage());
-            e.printStackTrace();
+            log.error().room(roomCode).cause(e).log("Error inesperado al iniciar");
+            gameMetrics.handlerError(GameMetrics.Handler.START, e);
             sendErrorToRoom(roomCode, "ERROR_START", e.getMessage());
+        } finally {
+            gameMetrics.recordHandler(GameMetrics.Handler.START, start);
         }
     }
     
@@ -368,7 +413,8 @@ public class GameWebSocketController {
     private void sendRoleNotifications(Long gameId, String roomCode, String word) {
         List<GamePlayerDto> players = gameService.getGamePlayers(gameId);
         
-        AnsiColors.infoLog(logger, "Enviando roles a " + players.size() + " jugadores");
+        log.debug().room(roomCode).log("Enviando roles a {} jugadores", players.size());
+        gameMetrics.broadcast(players.size());
         
         for (GamePlayerDto player : players) {
             String playerWord = player.getIsImpostor() ? null : word;
@@ -388,14 +434,8 @@ public class GameWebSocketController {
                     notification
             );
             
-            String roleStr = player.getIsImpostor() ? "IMPOSTOR" : "CIUDADANO";
-            String wordStr = player.getIsImpostor() ? "(sin palabra)" : "(palabra: " + word + ")";
-            AnsiColors.successLog(logger, 
-                String.format("✅ Rol enviado a User %d (%s) - %s %s", 
-                    player.getUserId(), 
-                    player.getUsername(),
-                    roleStr,
-                    wordStr));
+            log.debug().room(roomCode).user(player.getUserId())
+                    .log("Rol enviado: {}", player.getIsImpostor() ? "IMPOSTOR" : "CIUDADANO");
         }
     }
     
@@ -410,8 +450,8 @@ public class GameWebSocketController {
             @DestinationVariable String roomCode,
             @Payload GameWebSocketMessage message) {
         
-        AnsiColors.infoLog(logger, "=== END GAME ===");
-        AnsiColors.infoLog(logger, "RoomCode: " + roomCode + ", Winner: " + message.getContent());
+        long start = System.nanoTime();
+        log.debug().room(roomCode).log("End recibido, ganador: {}", message.getContent());
         
         try {
             Game game = gameService.findByRoomCode(roomCode)
@@ -427,14 +467,17 @@ public class GameWebSocketController {
             List<GamePlayerDto> players = gameService.getGamePlayers(game.getId());
             GameDto finalGame = GameDto.fromEntityWithPlayers(game, players);
             
-            AnsiColors.successLog(logger, "Partida " + roomCode + " finalizada. Ganador: " + 
-                (impostorWins ? "IMPOSTOR" : "CIVILES"));
+            log.info().room(roomCode).log("Partida finalizada. Ganador: {}", impostorWins ? "IMPOSTOR" : "CIVILES");
             
             return GameWebSocketMessage.gameEnded(finalGame, impostorWins);
             
         } catch (Exception e) {
-            AnsiColors.errorLog(logger, "Error al finalizar: " + e.getMessage());
+            log.warn().room(roomCode).log("Error al finalizar: {}", e.getMessage());
+            gameMetrics.handlerError(GameMetrics.Handler.END, e);
             return GameWebSocketMessage.error(null, roomCode, "ERROR_END", e.getMessage());
+        } finally {
+            recordFanOut(roomCode);
+            gameMetrics.recordHandler(GameMetrics.Handler.END, start);
         }
     }
 
@@ -449,32 +492,43 @@ public class GameWebSocketController {
     @SendTo("/topic/game/{roomCode}")
     public GameWebSocketMessage sendChatMessage(
             @DestinationVariable String roomCode,
-            @Payload GameWebSocketMessage message) {
-        
-        AnsiColors.infoLog(logger, "=== CHAT MESSAGE ===");
-        AnsiColors.infoLog(logger, "RoomCode: " + roomCode + ", From: " + message.getSenderUsername());
+            @Payload GameWebSocketMessage message,
+            SimpMessageHeaderAccessor headerAccessor) {
         
-        // Validar mensaje
-        if (message.getContent() == null || message.getContent().trim().isEmpty()) {
-            throw WebSocketException.payloadVacio();
-        }
+        long start = System.nanoTime();
+        bindSender(message, headerAccessor);
+        log.debug().room(roomCode).user(message.getSenderId()).log("Mensaje de chat");
         
-        // Validar que el jugador está en la sala
-        if (!sessionManager.isPlayerConnected(roomCode, message.getSenderId())) {
-            AnsiColors.warningLog(logger, "Jugador " + message.getSenderId() + " no está conectado a sala " + roomCode);
-            // Permitir el mensaje de todas formas (puede ser reconexión)
+        try {
+            // Validar mensaje
+            if (message.getContent() == null || message.getContent().trim().isEmpty()) {
+                throw WebSocketException.payloadVacio();
+            }
+            
+            // Validar que el jugador está en la sala
+            if (!sessionManager.isPlayerConnected(roomCode, message.getSenderId())) {
+                log.debug().room(roomCode).user(message.getSenderId()).log("Chat de un jugador no conectado a la sala");
+                // Permitir el mensaje de todas formas (puede ser reconexión)
+            }
+            
+            Game game = gameService.findByRoomCode(roomCode).orElse(null);
+            Long gameId = game != null ? game.getId() : null;
+            
+            recordFanOut(roomCode);
+            return GameWebSocketMessage.chatMessage(
+                    gameId,
+                    roomCode,
+                    message.getSenderId(),
+                    message.getSenderUsername(),
+                    message.getContent()
+            );
+        } catch (RuntimeException e) {
+            // La excepción se sigue propagando como antes; aquí solo se cuenta
+            gameMetrics.handlerError(GameMetrics.Handler.CHAT, e);
+            throw e;
+        } finally {
+            gameMetrics.recordHandler(GameMetrics.Handler.CHAT, start);
         }
-        
-        Game game = gameService.findByRoomCode(roomCode).orElse(null);
-        Long gameId = game != null ? game.getId() : null;
-        
-        return GameWebSocketMessage.chatMessage(
-                gameId,
-                roomCode,
-                message.getSenderId(),
-                message.getSenderUsername(),
-                message.getContent()
-        );
     }
 
     // ========== Votación ==========
@@ -488,11 +542,14 @@ public class GameWebSocketController {
     @SendTo("/topic/game/{roomCode}")
     public GameWebSocketMessage castVote(
             @DestinationVariable String roomCode,
-            @Payload GameWebSocketMessage message) {
+            @Payload GameWebSocketMessage message,
+            SimpMessageHeaderAccessor headerAccessor) {
         
-        AnsiColors.infoLog(logger, "=== VOTE CAST ===");
-        AnsiColors.infoLog(logger, "RoomCode: " + roomCode + ", Voter: " + message.getSenderId() + 
-            ", VotedFor: " + message.getContent());
+        long start = System.nanoTime();
+        VoteCastEvent voteEvent = new VoteCastEvent();
+        voteEvent.begin();
+        bindSender(message, headerAccessor);
+        log.debug().room(roomCode).user(message.getSenderId()).log("Voto por {}", message.getContent());
         
         try {
             Game game = gameService.findByRoomCode(roomCode)
@@ -515,117 +572,107 @@ public class GameWebSocketController {
             );
             
             // ===== VERIFICAR SI TODOS VOTARON =====
-            if (gameService.allPlayersVoted(game.getId())) {
-                AnsiColors.successLog(logger, "¡Todos han votado! Procesando resultados...");
+            boolean allVoted = gameService.allPlayersVoted(game.getId());
+            voteEvent.allVoted = allVoted;
+            if (allVoted) {
+                log.info().room(roomCode).log("Todos han votado, procesando resultados");
                 
                 // Programar procesamiento de resultados (con pequeño delay para que llegue el último voto)
-                new Thread(() -> {
-                    try {
-                        Thread.sleep(500); // Pequeño delay
-                        processVotingResults(roomCode, game.getId());
-                    } catch (InterruptedException e) {
-                        AnsiColors.errorLog(logger, "Error en thread de procesamiento: " + e.getMessage());
-                    }
-                }).start();
+                Long gameId = game.getId();
+                WorkloadContext.Workload workload = WorkloadContext.current();
+                roundScheduler.scheduleResolution(gameId, slot ->
+                        WorkloadContext.run(workload, () -> processVotingResults(roomCode, gameId, slot)));
             }
             
             return voteMsg;
             
         } catch (NumberFormatException e) {
+            gameMetrics.handlerError(GameMetrics.Handler.VOTE, e);
             return GameWebSocketMessage.error(null, roomCode, WebSocketException.VOTACION_INVALIDA, 
                 "ID de jugador votado inválido");
         } catch (Exception e) {
-            AnsiColors.errorLog(logger, "Error en votación: " + e.getMessage());
+            log.warn().room(roomCode).user(message.getSenderId()).log("Error en votación: {}", e.getMessage());
+            gameMetrics.handlerError(GameMetrics.Handler.VOTE, e);
             return GameWebSocketMessage.error(null, roomCode, "ERROR_VOTE", e.getMessage());
+        } finally {
+            recordFanOut(roomCode);
+            gameMetrics.recordHandler(GameMetrics.Handler.VOTE, start);
+            voteEvent.end();
+            if (voteEvent.shouldCommit()) {
+                voteEvent.roomCode = roomCode;
+                voteEvent.voterId = message.getSenderId() != null ? message.getSenderId() : 0;
+                voteEvent.commit();
+            }
         }
     }
     
     /**
-     * Procesar resultados de votación
+     * Procesar resultados de votación (la lógica de la ronda está en GameServiceImpl.resolveRound).
+     * La plaza de RoundScheduler se libera en cuanto la ronda está guardada, antes de los broadcasts
      */
-    private void processVotingResults(String roomCode, Long gameId) {
-        AnsiColors.infoLog(logger, "=== PROCESANDO RESULTADOS DE VOTACIÓN ===");
+    private void processVotingResults(String roomCode, Long gameId, RoundScheduler.Slot slot) {
+        long start = System.nanoTime();
+        RoundResolvedEvent resolvedEvent = new RoundResolvedEvent();
+        resolvedEvent.begin();
+        resolvedEvent.outcome = "ERROR";
+        log.debug().room(roomCode).log("Procesando resultados de votación");
         
         try {
-            // 1. Obtener jugador más votado
-            GamePlayer eliminatedPlayer =
-                gameService.getMostVotedPlayer(gameId);
-            
-            Long eliminatedUserId = eliminatedPlayer.getUser().getId();
-            String eliminatedUsername = eliminatedPlayer.getUser().getUsername();
-            boolean wasImpostor = Boolean.TRUE.equals(eliminatedPlayer.getIsImpostor());
-            
-            // 2. Obtener conteo de votos
-            java.util.Map<Long, Integer> voteCounts = gameService.getVoteCounts(gameId);
+            Optional<RoundResolution> resolved = gameService.resolveRound(gameId);
+            slot.release();
+            if (resolved.isEmpty()) {
+                // Otra resolución ya se ocupó de esta ronda o la partida terminó entretanto
+                resolvedEvent.outcome = "SKIPPED";
+                log.debug().room(roomCode).log("Ronda ya resuelta, no se notifica de nuevo");
+                return;
+            }
+            RoundResolution result = resolved.get();
+            resolvedEvent.eliminatedWasImpostor = result.eliminatedWasImpostor();
+            resolvedEvent.outcome = result.outcome().name();
             
-            AnsiColors.infoLog(logger, "Eliminado: " + eliminatedUsername + 
-                " (userId=" + eliminatedUserId + ", wasImpostor=" + wasImpostor + ")");
+            log.info().room(roomCode).user(result.eliminatedUserId()).kv("wasImpostor", result.eliminatedWasImpostor())
+                    .log("Jugador eliminado: {}", result.eliminatedUsername());
             
-            // 3. Broadcast resultado de votación
+            // Broadcast resultado de votación
             GameWebSocketMessage voteResult = GameWebSocketMessage.builder()
                     .type("VOTE_RESULT")
                     .gameId(gameId)
                     .roomCode(roomCode)
-                    .content(eliminatedUsername)
-                    .senderId(eliminatedUserId)
+                    .content(result.eliminatedUsername())
+                    .senderId(result.eliminatedUserId())
                     .data(java.util.Map.of(
-                        "eliminatedUserId", eliminatedUserId,
-                        "eliminatedUsername", eliminatedUsername,
-                        "wasImpostor", wasImpostor,
-                        "voteCounts", voteCounts
+                        "eliminatedUserId", result.eliminatedUserId(),
+                        "eliminatedUsername", result.eliminatedUsername(),
+                        "wasImpostor", result.eliminatedWasImpostor(),
+                        "voteCounts", result.voteCounts()
                     ))
                     .build();
             
-            messagingTemplate.convertAndSend("/topic/game/" + roomCode, voteResult);
+            broadcastToRoom(roomCode, voteResult);
             
-            // 4. Eliminar al jugador
-            gameService.eliminatePlayer(gameId, eliminatedUserId);
-            
-            // 5. Verificar condiciones de victoria
-            if (wasImpostor && gameService.checkCitizensWin(gameId)) {
-                // Ciudadanos ganan - eliminaron al impostor
-                AnsiColors.successLog(logger, "¡CIUDADANOS GANAN! Impostor eliminado");
-                gameService.endGame(gameId, false);
-                
-                List<String> impostorNames = gameService.getImpostorNames(gameId);
-                
-                GameWebSocketMessage gameEnded = GameWebSocketMessage.builder()
-                        .type("GAME_ENDED")
-                        .gameId(gameId)
-                        .roomCode(roomCode)
-                        .data(java.util.Map.of(
-                            "impostorWins", false,
-                            "impostorNames", impostorNames,
-                            "reason", "IMPOSTOR_ELIMINATED"
-                        ))
-                        .build();
-                
-                messagingTemplate.convertAndSend("/topic/game/" + roomCode, gameEnded);
-                
-            } else if (!wasImpostor && gameService.checkImpostorWins(gameId)) {
-                // Impostor gana - hay mayoría
-                AnsiColors.successLog(logger, "¡IMPOSTOR GANA! Mayoría alcanzada");
-                gameService.endGame(gameId, true);
-                
-                List<String> impostorNames = gameService.getImpostorNames(gameId);
+            if (result.gameEnded()) {
+                boolean impostorWins = result.outcome() == RoundResolution.Outcome.IMPOSTOR_WINS;
+                log.info().room(roomCode).log(impostorWins
+                        ? "Impostor gana: mayoría alcanzada"
+                        : "Ciudadanos ganan: impostor eliminado");
                 
                 GameWebSocketMessage gameEnded = GameWebSocketMessage.builder()
                         .type("GAME_ENDED")
                         .gameId(gameId)
                         .roomCode(roomCode)
                         .data(java.util.Map.of(
-                            "impostorWins", true,
-                            "impostorNames", impostorNames,
-                            "reason", "IMPOSTOR_MAJORITY"
+                            "impostorWins", impostorWins,
+                            "impostorNames", result.impostorNames(),
+                            "reason", impostorWins ? "IMPOSTOR_MAJORITY" : "IMPOSTOR_ELIMINATED"
                         ))
                         .build();
                 
-                messagingTemplate.convertAndSend("/topic/game/" + roomCode, gameEnded);
+                broadcastToRoom(roomCode, gameEnded);
+                sessionManager.markGameEnded(roomCode);
                 
             } else {
                 // El juego continúa - nueva ronda
-                AnsiColors.infoLog(logger, "El juego continúa - iniciando nueva ronda");
-                gameService.startNewRound(gameId);
+                log.info().room(roomCode).log("El juego continúa - iniciando nueva ronda");
                 
                 GameWebSocketMessage newRound = GameWebSocketMessage.builder()
                         .type("NEW_ROUND")
@@ -634,17 +681,28 @@ public class GameWebSocketController {
                         .content("Nueva ronda de discusión")
                         .build();
                 
-                messagingTemplate.convertAndSend("/topic/game/" + roomCode, newRound);
+                broadcastToRoom(roomCode, newRound);
             }
             
         } catch (Exception e) {
-            AnsiColors.errorLog(logger, "Error procesando resultados: " + e.getMessage());
-            e.printStackTrace();
+            log.error().room(roomCode).cause(e).log("Error procesando resultados de votación");
+            gameMetrics.handlerError(GameMetrics.Handler.RESOLVE, e);
+            if (!slot.isReleased() && !slot.isLastAttempt()) {
+                // La ronda no se llegó a guardar: RoundScheduler la reintenta
+                throw e;
+            }
             
             GameWebSocketMessage errorMsg = GameWebSocketMessage.error(
                 gameId, roomCode, "ERROR_PROCESSING_VOTES", e.getMessage()
             );
-            messagingTemplate.convertAndSend("/topic/game/" + roomCode, errorMsg);
+            broadcastToRoom(roomCode, errorMsg);
+        } finally {
+            gameMetrics.recordHandler(GameMetrics.Handler.RESOLVE, start);
+            resolvedEvent.end();
+            if (resolvedEvent.shouldCommit()) {
+                resolvedEvent.roomCode = roomCode;
+                resolvedEvent.commit();
+            }
         }
     }
 
@@ -660,14 +718,18 @@ public class GameWebSocketController {
             @Payload GameWebSocketMessage message,
             SimpMessageHeaderAccessor headerAccessor) {
         
-        AnsiColors.infoLog(logger, "=== RECONNECT ATTEMPT ===");
-        AnsiColors.infoLog(logger, "RoomCode: " + roomCode + ", UserId: " + message.getSenderId());
+        long start = System.nanoTime();
+        StompPrincipal principal = bindSender(message, headerAccessor);
+        log.debug().room(roomCode).user(message.getSenderId()).log("Intento de reconexión");
         
         try {
             String sessionId = headerAccessor.getSessionId();
             boolean reconnected = sessionManager.attemptReconnect(message.getSenderId(), roomCode, sessionId);
             
             if (reconnected) {
+                if (principal != null) {
+                    principal.setRoomCode(roomCode);
+                }
                 // Obtener estado actual del juego
                 Game game = gameService.findByRoomCode(roomCode)
                         .orElseThrow(() -> WebSocketException.salaNoEncontrada(roomCode));
@@ -694,7 +756,7 @@ public class GameWebSocketController {
                         .senderUsername(message.getSenderUsername())
                         .build();
                 
-                messagingTemplate.convertAndSend("/topic/game/" + roomCode, notifyMsg);
+                broadcastToRoom(roomCode, notifyMsg);
                 
                 // Si el juego está en progreso, reenviar rol
                 if ("IN_PROGRESS".equals(game.getStatus())) {
@@ -714,7 +776,7 @@ public class GameWebSocketController {
                     );
                 }
                 
-                AnsiColors.successLog(logger, "Reconexión exitosa para " + message.getSenderId());
+                log.info().room(roomCode).user(message.getSenderId()).log("Reconexión exitosa");
                 
             } else {
                 // Reconexión fallida
@@ -730,12 +792,14 @@ public class GameWebSocketController {
                         errorMsg
                 );
                 
-                AnsiColors.warningLog(logger, "Reconexión fallida para " + message.getSenderId());
+                log.info().room(roomCode).user(message.getSenderId()).log("Reconexión fallida");
             }
             
         } catch (Exception e) {
-            AnsiColors.errorLog(logger, "Error en reconexión: " + e.getMessage());
-            e.printStackTrace();
+            log.error().room(roomCode).user(message.getSenderId()).cause(e).log("Error en reconexión");
+            gameMetrics.handlerError(GameMetrics.Handler.RECONNECT, e);
+        } finally {
+            gameMetrics.recordHandler(GameMetrics.Handler.RECONNECT, start);
         }
     }
     
@@ -749,11 +813,12 @@ public class GameWebSocketController {
             @Payload GameWebSocketMessage message,
             SimpMessageHeaderAccessor headerAccessor) {
         
-        // Solo log en nivel debug para no saturar
-        AnsiColors.infoLog(logger, "Heartbeat recibido - Room: " + roomCode + ", User: " + message.getSenderId());
+        bindSender(message, headerAccessor);
+        // Solo en debug: llega cada pocos segundos por cliente
+        log.debug().room(roomCode).user(message.getSenderId()).log("Heartbeat recibido");
         
         // Actualizar última actividad en el gestor de sesiones
-        sessionManager.getGameSession(roomCode).ifPresent(session -> session.updateLastActivity());
+        sessionManager.recordActivity(roomCode, headerAccessor.getSessionId());
         
         // Responder con heartbeat para confirmar que el servidor está vivo
         GameWebSocketMessage response = GameWebSocketMessage.heartbeat(roomCode);
@@ -767,12 +832,51 @@ public class GameWebSocketController {
     
     // ========== Métodos de Utilidad ==========
     
+    /**
+     * Usa la identidad autenticada en el CONNECT como remitente del mensaje, ignorando el
+     * senderId/senderUsername que envíe el cliente. Sin principal (modo legacy anónimo) se deja el payload
+     */
+    private StompPrincipal bindSender(GameWebSocketMessage message, SimpMessageHeaderAccessor headers) {
+        StompPrincipal principal = StompPrincipal.from(headers);
+        if (principal != null) {
+            message.setSenderId(principal.getUserId());
+            message.setSenderUsername(principal.getUsername());
+        }
+        return principal;
+    }
+    
+    /**
+     * Envía un mensaje a toda la sala y registra a cuántos jugadores llega
+     */
+    private void broadcastToRoom(String roomCode, Object message) {
+        BroadcastFanoutEvent event = new BroadcastFanoutEvent();
+        event.begin();
+        messagingTemplate.convertAndSend("/topic/game/" + roomCode, message);
+        int recipients = recordFanOut(roomCode);
+        event.end();
+        if (event.shouldCommit()) {
+            event.roomCode = roomCode;
+            event.messageType = message instanceof GameWebSocketMessage wsMessage ? wsMessage.getType() : message.getClass().getSimpleName();
+            event.recipients = recipients;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Los suscritos a /topic/game/{roomCode} son los jugadores conectados a la sala
+     */
+    private int recordFanOut(String roomCode) {
+        int recipients = sessionManager.getConnectedPlayersCount(roomCode);
+        gameMetrics.broadcast(recipients);
+        return recipients;
+    }
+    
     /**
      * Envía un mensaje de error a toda la sala
      */
     private void sendErrorToRoom(String roomCode, String errorCode, String message) {
         GameWebSocketMessage errorMsg = GameWebSocketMessage.error(null, roomCode, errorCode, message);
-        messagingTemplate.convertAndSend("/topic/game/" + roomCode, errorMsg);
+        broadcastToRoom(roomCode, errorMsg);
     }
     
     /**
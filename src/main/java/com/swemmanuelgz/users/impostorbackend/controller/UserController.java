@@ -1,9 +1,13 @@
 package com.swemmanuelgz.users.impostorbackend.controller;
 
+import com.swemmanuelgz.users.impostorbackend.dto.CursorPage;
 import com.swemmanuelgz.users.impostorbackend.dto.UserDto;
+import com.swemmanuelgz.users.impostorbackend.dto.UserStatsDto;
 import com.swemmanuelgz.users.impostorbackend.entity.User;
 import com.swemmanuelgz.users.impostorbackend.exception.UserException;
+import com.swemmanuelgz.users.impostorbackend.service.PasswordHashingService;
 import com.swemmanuelgz.users.impostorbackend.service.UserServiceImpl;
+import com.swemmanuelgz.users.impostorbackend.service.UserStatsService;
 import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -12,7 +16,6 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.logging.Logger;
@@ -25,6 +28,8 @@ public class UserController {
     private static final Logger logger = Logger.getLogger(UserController.class.getName());
     
     private final UserServiceImpl userService;
+    private final UserStatsService userStatsService;
+    private final PasswordHashingService passwordHashingService;
 
     /**
      * Obtener todos los usuarios con paginación
@@ -49,6 +54,23 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Listado de usuarios con paginación por cursor (más recientes primero)
+     * GET /api/user/scroll?size=20&cursor=...&includeTotal=false
+     */
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<UserDto>> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        CursorPage<UserDto> users = userService.findPageByCursor(cursor, size, includeTotal)
+                .map(UserDto::fromEntity);
+        
+        AnsiColors.infoLog(logger, "Listando usuarios por cursor - Tamaño: " + users.getSize());
+        return ResponseEntity.ok(users);
+    }
+
     /**
      * Obtener usuario por ID
      * GET /api/user/{id}
@@ -62,6 +84,18 @@ public class UserController {
         return ResponseEntity.ok(UserDto.fromEntity(user));
     }
 
+    /**
+     * Obtener estadísticas del jugador (partidas jugadas, ganadas, rachas...)
+     * GET /api/user/{id}/stats
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<UserStatsDto> getUserStats(@PathVariable Long id) {
+        UserStatsDto stats = userStatsService.getStats(id);
+        
+        AnsiColors.infoLog(logger, "Estadísticas obtenidas para usuario ID: " + id);
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * Obtener usuario por email
      * GET /api/user/email/{email}
@@ -100,8 +134,7 @@ public class UserController {
         }
         
         // Encriptar contraseña
-        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-        userDto.setPassword(encoder.encode(userDto.getPassword()));
+        userDto.setPassword(passwordHashingService.encode(userDto.getPassword()));
         
         // Crear usuario
         User user = userDto.toEntity();
@@ -131,8 +164,7 @@ public class UserController {
         
         // Si se envía nueva contraseña, encriptarla
         if (userDto.getPassword() != null && !userDto.getPassword().isEmpty()) {
-            BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-            existingUser.setPassword(encoder.encode(userDto.getPassword()));
+            existingUser.setPassword(passwordHashingService.encode(userDto.getPassword()));
         }
         
         AnsiColors.infoLog(logger, "Actualizando usuario con ID: " + id);
@@ -0,0 +1,38 @@
+package com.swemmanuelgz.users.impostorbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados con paginación por cursor (keyset).
+ * nextCursor es opaco para el cliente: se reenvía tal cual para pedir la siguiente página.
+ * totalElements solo se calcula si el cliente lo pide (evita el COUNT(*) en cada página)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private Integer size;
+    private Long totalElements;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return CursorPage.<R>builder()
+                .content(content.stream().<R>map(mapper).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(size)
+                .totalElements(totalElements)
+                .build();
+    }
+}
@@ -30,6 +30,22 @@ public class GameDto {
     private Integer duration; // Duración de la partida en minutos
     private Instant startedAt; // Cuándo inició la partida
 
+    /**
+     * Constructor usado por las proyecciones JPQL (SELECT new ...).
+     * Evita materializar Game y su creador como entidades gestionadas
+     */
+    public GameDto(Long id, String roomCode, String status, Long creatorId, String creatorUsername,
+                   Instant createdAt, Integer duration, Instant startedAt) {
+        this.id = id;
+        this.roomCode = roomCode;
+        this.status = status;
+        this.creatorId = creatorId;
+        this.creatorUsername = creatorUsername;
+        this.createdAt = createdAt;
+        this.duration = duration;
+        this.startedAt = startedAt;
+    }
+
     public static GameDto fromEntity(Game game) {
         if (game == null) return null;
         return GameDto.builder()
@@ -52,4 +68,13 @@ public class GameDto {
         }
         return dto;
     }
+
+    /**
+     * Añade la lista de jugadores a un DTO ya construido (p.ej. desde una proyección)
+     */
+    public GameDto withPlayers(List<GamePlayerDto> players) {
+        this.players = players;
+        this.currentPlayers = players != null ? players.size() : 0;
+        return this;
+    }
 }
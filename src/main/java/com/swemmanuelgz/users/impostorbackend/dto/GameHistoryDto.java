@@ -0,0 +1,27 @@
+package com.swemmanuelgz.users.impostorbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Entrada del historial de partidas de un usuario.
+ * Se construye con proyecciones JPQL tanto desde las tablas vivas como desde el archivo
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GameHistoryDto {
+    private Long gameId;
+    private String roomCode;
+    private String category;
+    private Instant createdAt;
+    private Integer duration;
+    private Boolean isImpostor;
+    private Boolean isWinner;
+    private boolean archived;
+}
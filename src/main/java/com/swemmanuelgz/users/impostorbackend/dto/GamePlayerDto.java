@@ -22,6 +22,15 @@ public class GamePlayerDto {
     private Boolean isWinner;
     private String word; // Palabra asignada (null si es impostor)
 
+    /**
+     * Constructor usado por las proyecciones JPQL (SELECT new ...).
+     * Solo lee las columnas necesarias, sin cargar User ni Game en el contexto de persistencia
+     */
+    public GamePlayerDto(Long id, Long gameId, Long userId, String username, String pictureUrl,
+                         Boolean isImpostor, Boolean isWinner) {
+        this(id, gameId, userId, username, pictureUrl, isImpostor, isWinner, null);
+    }
+
     public static GamePlayerDto fromEntity(GamePlayer gamePlayer) {
         if (gamePlayer == null) return null;
         return GamePlayerDto.builder()
@@ -0,0 +1,8 @@
+package com.swemmanuelgz.users.impostorbackend.dto;
+
+/**
+ * Fila mínima del resultado de un jugador en una partida terminada.
+ * Proyección usada para recorrer game_players por bloques sin cargar entidades
+ */
+public record PlayerResultRow(Long id, Long userId, Boolean isImpostor, Boolean isWinner) {
+}
@@ -0,0 +1,25 @@
+package com.swemmanuelgz.users.impostorbackend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de resolver una ronda de votación (GameService.resolveRound): a quién se eliminó,
+ * el recuento de votos y cómo sigue la partida. impostorNames solo se rellena si la partida terminó
+ */
+public record RoundResolution(Long gameId,
+                              Long eliminatedUserId,
+                              String eliminatedUsername,
+                              boolean eliminatedWasImpostor,
+                              Map<Long, Integer> voteCounts,
+                              Outcome outcome,
+                              List<String> impostorNames) {
+
+    public enum Outcome {
+        CITIZENS_WIN, IMPOSTOR_WINS, NEW_ROUND
+    }
+
+    public boolean gameEnded() {
+        return outcome != Outcome.NEW_ROUND;
+    }
+}
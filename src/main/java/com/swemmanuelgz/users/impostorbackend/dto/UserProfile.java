@@ -0,0 +1,16 @@
+package com.swemmanuelgz.users.impostorbackend.dto;
+
+import com.swemmanuelgz.users.impostorbackend.entity.User;
+
+/**
+ * Instantánea inmutable de los datos de perfil que se leen en caliente
+ * (nombre para mostrar, foto, rol para el token). Es lo que guarda UserProfileCache
+ */
+public record UserProfile(Long id, String username, String email, String pictureUrl,
+                          String role, String authProvider) {
+
+    public static UserProfile fromEntity(User user) {
+        return new UserProfile(user.getId(), user.getUsername(), user.getEmail(),
+                user.getPictureUrl(), user.getRole(), user.getAuthProvider());
+    }
+}
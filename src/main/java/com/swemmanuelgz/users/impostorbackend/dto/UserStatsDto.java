@@ -0,0 +1,49 @@
+package com.swemmanuelgz.users.impostorbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.swemmanuelgz.users.impostorbackend.entity.UserStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserStatsDto {
+    private Long userId;
+    private Integer gamesPlayed;
+    private Integer gamesWon;
+    private Integer gamesWonAsImpostor;
+    private Integer gamesWonAsCivilian;
+    private Integer timesCaughtAsImpostor;
+    private Integer currentWinStreak;
+    private Integer bestWinStreak;
+    private Instant updatedAt;
+
+    public static UserStatsDto fromEntity(UserStats stats) {
+        if (stats == null) return null;
+        return UserStatsDto.builder()
+                .userId(stats.getUserId())
+                .gamesPlayed(stats.getGamesPlayed())
+                .gamesWon(stats.getGamesWon())
+                .gamesWonAsImpostor(stats.getGamesWonAsImpostor())
+                .gamesWonAsCivilian(stats.getGamesWonAsCivilian())
+                .timesCaughtAsImpostor(stats.getTimesCaughtAsImpostor())
+                .currentWinStreak(stats.getCurrentWinStreak())
+                .bestWinStreak(stats.getBestWinStreak())
+                .updatedAt(stats.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Estadísticas vacías para un usuario que todavía no ha terminado ninguna partida
+     */
+    public static UserStatsDto empty(Long userId) {
+        return fromEntity(new UserStats(userId));
+    }
+}
@@ -0,0 +1,58 @@
+package com.swemmanuelgz.users.impostorbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * Partida terminada movida fuera de la tabla games (ver GameArchiveJob).
+ * Conserva el mismo id que tenía en games, así el histórico combina ambas tablas sin duplicados
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "games_archive", indexes = {
+        @Index(name = "idx_games_archive_created_at_id", columnList = "created_at, id")
+})
+public class ArchivedGame {
+    @Id
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "room_code", nullable = false, length = 10)
+    private String roomCode;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "category", length = 50)
+    private String category;
+
+    @Column(name = "word", length = 100)
+    private String word;
+
+    @Column(name = "max_players")
+    private Integer maxPlayers;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @OnDelete(action = OnDeleteAction.SET_NULL)
+    @JoinColumn(name = "creator_id")
+    private User creator;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Column(name = "duration")
+    private Integer duration;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+}
@@ -0,0 +1,46 @@
+package com.swemmanuelgz.users.impostorbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Jugador de una partida archivada (copia de game_players con el mismo id)
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "game_players_archive")
+public class ArchivedGamePlayer {
+    @Id
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "game_id", nullable = false)
+    private ArchivedGame game;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "is_impostor")
+    private Boolean isImpostor;
+
+    @Column(name = "is_winner")
+    private Boolean isWinner;
+
+    @Column(name = "has_voted")
+    private Boolean hasVoted;
+
+    @Column(name = "voted_for_id")
+    private Long votedForId;
+
+    @Column(name = "status", length = 20)
+    private String status;
+
+}
@@ -12,10 +12,15 @@ import java.time.Instant;
 @Getter
 @Setter
 @Entity
-@Table(name = "games")
+@Table(name = "games", indexes = {
+        @Index(name = "idx_games_created_at_id", columnList = "created_at, id")
+})
 public class Game {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids por bloques (pooled): MySQL no tiene secuencias y Hibernate la emula con la tabla games_seq.
+    // Con IDENTITY Hibernate desactiva el batching de INSERT
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "games_seq_gen")
+    @SequenceGenerator(name = "games_seq_gen", sequenceName = "games_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -41,7 +46,7 @@ public class Game {
     private User creator;
 
     @ColumnDefault("CURRENT_TIMESTAMP")
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
     @Column(name = "duration")
@@ -13,7 +13,9 @@ import org.hibernate.annotations.OnDeleteAction;
 @Table(name = "game_players")
 public class GamePlayer {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Ids por bloques (tabla game_players_seq) para que las altas de jugadores vayan en batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "game_players_seq_gen")
+    @SequenceGenerator(name = "game_players_seq_gen", sequenceName = "game_players_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Long id;
 
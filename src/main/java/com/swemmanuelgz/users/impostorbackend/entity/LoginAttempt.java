@@ -29,7 +29,9 @@ import java.time.Instant;
 public class LoginAttempt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia emulada con la tabla login_attempts_seq; el registro de intentos se puede agrupar en batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "login_attempts_seq_gen")
+    @SequenceGenerator(name = "login_attempts_seq_gen", sequenceName = "login_attempts_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,46 @@
+package com.swemmanuelgz.users.impostorbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDate;
+
+/**
+ * Resumen diario de intentos de login.
+ * LoginAttemptRetentionJob lo rellena justo antes de borrar los intentos antiguos,
+ * así se conservan los totales aunque desaparezca el detalle de login_attempts.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "login_attempt_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_login_attempt_daily",
+                columnNames = {"day", "auth_type", "success", "failure_reason"})
+})
+public class LoginAttemptDaily {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    // UNKNOWN cuando el intento original no tenía tipo
+    @Column(name = "auth_type", nullable = false, length = 20)
+    private String authType;
+
+    @Column(name = "success", nullable = false)
+    private Boolean success;
+
+    // Cadena vacía para los intentos correctos (NULL no cuenta en la clave única)
+    @ColumnDefault("''")
+    @Column(name = "failure_reason", nullable = false, length = 100)
+    private String failureReason = "";
+
+    @ColumnDefault("0")
+    @Column(name = "attempts", nullable = false)
+    private Long attempts = 0L;
+}
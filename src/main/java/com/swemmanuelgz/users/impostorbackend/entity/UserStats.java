@@ -0,0 +1,85 @@
+package com.swemmanuelgz.users.impostorbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+/**
+ * Agregado de estadísticas por usuario.
+ * Se mantiene de forma incremental al finalizar cada partida (ver UserStatsRepository.recordGameResult),
+ * así el perfil no necesita recontar game_players.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @ColumnDefault("0")
+    @Column(name = "games_played", nullable = false)
+    private Integer gamesPlayed = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "games_won", nullable = false)
+    private Integer gamesWon = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "games_won_as_impostor", nullable = false)
+    private Integer gamesWonAsImpostor = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "games_won_as_civilian", nullable = false)
+    private Integer gamesWonAsCivilian = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "times_caught_as_impostor", nullable = false)
+    private Integer timesCaughtAsImpostor = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "current_win_streak", nullable = false)
+    private Integer currentWinStreak = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "best_win_streak", nullable = false)
+    private Integer bestWinStreak = 0;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public UserStats() {
+    }
+
+    public UserStats(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Aplica el resultado de una partida en memoria (usado por el backfill).
+     * Debe mantenerse en línea con la sentencia de UserStatsRepository.recordGameResult
+     */
+    public void apply(boolean impostor, boolean winner, Instant at) {
+        gamesPlayed++;
+        if (winner) {
+            gamesWon++;
+            if (impostor) {
+                gamesWonAsImpostor++;
+            } else {
+                gamesWonAsCivilian++;
+            }
+            currentWinStreak++;
+            bestWinStreak = Math.max(bestWinStreak, currentWinStreak);
+        } else {
+            if (impostor) {
+                timesCaughtAsImpostor++;
+            }
+            currentWinStreak = 0;
+        }
+        updatedAt = at;
+    }
+}
@@ -33,6 +33,9 @@ public class GlobalExceptionHandler {
             case UserException.USUARIO_OAUTH:
                 status = HttpStatus.BAD_REQUEST;  // Usuario OAuth intenta login con contraseña
                 break;
+            case UserException.SERVICIO_SATURADO:
+                status = HttpStatus.SERVICE_UNAVAILABLE;
+                break;
             case UserException.JSON_INVALIDO:
             case UserException.EMAIL_INVALIDO:
             case UserException.USERNAME_INVALIDO:
@@ -115,6 +118,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(response);
     }
 
+    @ExceptionHandler(PaginationException.class)
+    public ResponseEntity<Map<String, Object>> handlePaginationException(PaginationException ex) {
+        AnsiColors.errorLog(logger, "PaginationException: " + ex.getMessage());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("codigo", ex.getCodigo());
+        response.put("mensaje", ex.getMessage());
+        response.put("status", HttpStatus.BAD_REQUEST.value());
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
         AnsiColors.errorLog(logger, "Exception genérica: " + ex.getMessage());
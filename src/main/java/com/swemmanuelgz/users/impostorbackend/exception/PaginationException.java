@@ -0,0 +1,20 @@
+package com.swemmanuelgz.users.impostorbackend.exception;
+
+import lombok.Getter;
+
+@Getter
+public class PaginationException extends RuntimeException {
+
+    public static final String CURSOR_INVALIDO = "CURSOR_INVALIDO";
+
+    private final String codigo;
+
+    public PaginationException(String mensaje, String codigo) {
+        super(mensaje);
+        this.codigo = codigo;
+    }
+
+    public static PaginationException cursorInvalido() {
+        return new PaginationException("Cursor de paginación inválido", CURSOR_INVALIDO);
+    }
+}
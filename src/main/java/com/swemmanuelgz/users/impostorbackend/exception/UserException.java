@@ -12,6 +12,7 @@ public class UserException extends RuntimeException {
     public static final String EMAIL_INVALIDO = "EMAIL_INVALIDO";
     public static final String USERNAME_INVALIDO = "USERNAME_INVALIDO";
     public static final String USUARIO_OAUTH = "USUARIO_OAUTH";
+    public static final String SERVICIO_SATURADO = "SERVICIO_SATURADO";
 
     private final String codigo;
 
@@ -52,6 +53,10 @@ public class UserException extends RuntimeException {
         return new UserException("El username no es válido: " + username, USERNAME_INVALIDO);
     }
 
+    public static UserException servicioSaturado() {
+        return new UserException("Servidor ocupado, inténtalo de nuevo en unos segundos", SERVICIO_SATURADO);
+    }
+
     public static UserException usuarioOAuth(String provider) {
         return new UserException("Esta cuenta fue creada con " + provider + ". Por favor, usa el botón de " + provider + " para iniciar sesión.", USUARIO_OAUTH);
     }
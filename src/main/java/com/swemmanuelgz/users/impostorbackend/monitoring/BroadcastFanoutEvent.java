@@ -0,0 +1,28 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Broadcast a /topic/game/{roomCode}: destinatarios y tiempo de entrega al broker
+ */
+@Name("impostor.BroadcastFanout")
+@Label("Broadcast Fan-out")
+@Category({"Impostor", "WebSocket"})
+@Description("Broadcast a /topic/game/{roomCode}: destinatarios y tiempo de entrega al broker")
+@StackTrace(false)
+public class BroadcastFanoutEvent extends Event {
+
+    @Label("Room Code")
+    public String roomCode;
+
+    @Label("Message Type")
+    public String messageType;
+
+    @Label("Recipients")
+    public int recipients;
+}
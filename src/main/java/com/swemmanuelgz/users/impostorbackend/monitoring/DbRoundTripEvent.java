@@ -0,0 +1,25 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Consulta o escritura en BD desde las rutas calientes de GameServiceImpl
+ */
+@Name("impostor.DbRoundTrip")
+@Label("Database Round Trip")
+@Category({"Impostor", "Database"})
+@Description("Consulta o escritura en BD desde las rutas calientes de GameServiceImpl")
+@StackTrace(false)
+public class DbRoundTripEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Game Id")
+    public long gameId;
+}
@@ -0,0 +1,116 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas del dominio del juego (expuestas en /actuator/prometheus).
+ *
+ * Las etiquetas son de cardinalidad baja y fija: handler, status, outcome, winner y la clase de la
+ * excepción. Nunca roomCode ni userId, que crecerían sin límite en Prometheus.
+ *
+ * - game.handler.duration{handler}: latencia de cada handler STOMP de la partida y de la resolución (histograma)
+ * - game.handler.errors{handler,exception}: errores por handler
+ * - game.broadcast.fanout: destinatarios de cada broadcast a /topic/game/{roomCode}
+ * - game.room.players: jugadores conectados en la sala al iniciar la partida
+ * - game.reconnects{outcome}: success, timeout, wrong_room, unknown
+ * - game.votes, game.games.started, game.games.finished{winner}
+ * - game.rooms.active{status} y game.sessions.connected: gauges de GameSessionManager
+ */
+@Component
+public class GameMetrics {
+
+    public enum Handler {
+        JOIN, LEAVE, START, END, CHAT, VOTE, RESOLVE, RECONNECT;
+
+        final String tag = name().toLowerCase();
+    }
+
+    public enum ReconnectOutcome {
+        SUCCESS, TIMEOUT, WRONG_ROOM, UNKNOWN;
+
+        final String tag = name().toLowerCase();
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Handler, Timer> handlerTimers = new EnumMap<>(Handler.class);
+    private final Map<ReconnectOutcome, Counter> reconnects = new EnumMap<>(ReconnectOutcome.class);
+    private final DistributionSummary fanOut;
+    private final DistributionSummary roomPlayers;
+    private final Counter votes;
+    private final Counter gamesStarted;
+    private final Counter impostorWins;
+    private final Counter citizenWins;
+
+    public GameMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Handler handler : Handler.values()) {
+            handlerTimers.put(handler, Timer.builder("game.handler.duration")
+                    .tag("handler", handler.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (ReconnectOutcome outcome : ReconnectOutcome.values()) {
+            reconnects.put(outcome, Counter.builder("game.reconnects").tag("outcome", outcome.tag).register(meterRegistry));
+        }
+        this.fanOut = DistributionSummary.builder("game.broadcast.fanout")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.roomPlayers = DistributionSummary.builder("game.room.players").register(meterRegistry);
+        this.votes = Counter.builder("game.votes").register(meterRegistry);
+        this.gamesStarted = Counter.builder("game.games.started").register(meterRegistry);
+        this.impostorWins = Counter.builder("game.games.finished").tag("winner", "impostor").register(meterRegistry);
+        this.citizenWins = Counter.builder("game.games.finished").tag("winner", "citizens").register(meterRegistry);
+    }
+
+    /**
+     * Registra la duración de un handler desde startNanos (System.nanoTime() al entrar)
+     */
+    public void recordHandler(Handler handler, long startNanos) {
+        handlerTimers.get(handler).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void handlerError(Handler handler, Throwable error) {
+        meterRegistry.counter("game.handler.errors",
+                "handler", handler.tag,
+                "exception", error.getClass().getSimpleName()).increment();
+    }
+
+    public void broadcast(int recipients) {
+        fanOut.record(recipients);
+    }
+
+    public void gameStarted(int connectedPlayers) {
+        gamesStarted.increment();
+        roomPlayers.record(connectedPlayers);
+    }
+
+    public void gameFinished(boolean impostorWon) {
+        (impostorWon ? impostorWins : citizenWins).increment();
+    }
+
+    public void voteRecorded() {
+        votes.increment();
+    }
+
+    public void reconnect(ReconnectOutcome outcome) {
+        reconnects.get(outcome).increment();
+    }
+
+    public void gaugeRooms(String status, Supplier<Number> count) {
+        Gauge.builder("game.rooms.active", count).tag("status", status).register(meterRegistry);
+    }
+
+    public void gaugeConnectedSessions(Supplier<Number> count) {
+        Gauge.builder("game.sessions.connected", count).register(meterRegistry);
+    }
+}
@@ -0,0 +1,145 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.logging.Logger;
+
+/**
+ * Grabación JFR continua (perfil default del JDK + jfr/impostor.jfc) con los eventos del juego,
+ * acotada por antigüedad y tamaño en disco.
+ *
+ * - GET  /actuator/jfr: estado de la grabación
+ * - POST /actuator/jfr: vuelca lo grabado hasta ahora a un .jfr en jfr.dump-directory (para abrir con JMC)
+ *
+ * Solo para ROLE_ADMIN (SecurityConfig). Cada volcado puede ocupar jfr.continuous.max-size-mb: como mucho uno
+ * cada jfr.dump-min-interval-seconds (429 si no) y se conservan los últimos jfr.dump-max-files.
+ */
+@Component
+@Endpoint(id = "jfr")
+@ConditionalOnProperty(name = "jfr.continuous.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrRecordingEndpoint {
+
+    private static final Logger logger = Logger.getLogger(JfrRecordingEndpoint.class.getName());
+
+    static final String SETTINGS = "jfr/impostor.jfc";
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private static final String DUMP_PREFIX = "impostor-";
+    private static final String DUMP_SUFFIX = ".jfr";
+
+    private final Recording recording;
+    private final Path dumpDirectory;
+    private final Duration dumpMinInterval;
+    private final int dumpMaxFiles;
+    private Instant lastDump;
+
+    public JfrRecordingEndpoint(@Value("${jfr.continuous.max-age-minutes:360}") long maxAgeMinutes,
+                                @Value("${jfr.continuous.max-size-mb:250}") long maxSizeMb,
+                                @Value("${jfr.dump-directory:${java.io.tmpdir}/impostor-jfr}") String dumpDirectory,
+                                @Value("${jfr.dump-min-interval-seconds:300}") long dumpMinIntervalSeconds,
+                                @Value("${jfr.dump-max-files:5}") int dumpMaxFiles)
+            throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(new ClassPathResource(SETTINGS).getInputStream(), StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        this.recording = new Recording(settings);
+        recording.setName("impostor-continuous");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        this.dumpDirectory = Path.of(dumpDirectory);
+        this.dumpMinInterval = Duration.ofSeconds(dumpMinIntervalSeconds);
+        this.dumpMaxFiles = Math.max(1, dumpMaxFiles);
+    }
+
+    @PostConstruct
+    public void start() {
+        recording.start();
+        AnsiColors.infoLog(logger, "Grabación JFR continua iniciada (maxAge " + recording.getMaxAge() + ")");
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", recording.getName());
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime());
+        status.put("maxAge", recording.getMaxAge().toString());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("dumpDirectory", dumpDirectory.toString());
+        return status;
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> dump() throws IOException {
+        Instant now = Instant.now();
+        if (lastDump != null && now.isBefore(lastDump.plus(dumpMinInterval))) {
+            long retryAfter = Duration.between(now, lastDump.plus(dumpMinInterval)).toSeconds() + 1;
+            return new WebEndpointResponse<>(Map.of("error", "Ya se hizo un volcado hace poco", "retryAfterSeconds", retryAfter),
+                    WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        lastDump = now;
+        Files.createDirectories(dumpDirectory);
+        Path file = dumpDirectory.resolve(DUMP_PREFIX + FILE_TIMESTAMP.format(now) + DUMP_SUFFIX);
+        recording.dump(file);
+        long bytes = Files.size(file);
+        AnsiColors.infoLog(logger, "Grabación JFR volcada en " + file + " (" + bytes + " bytes)");
+        pruneOldDumps();
+        return new WebEndpointResponse<>(Map.of("file", file.toString(), "bytes", bytes));
+    }
+
+    /**
+     * Borra los volcados más antiguos hasta dejar dumpMaxFiles (el nombre lleva la fecha: orden alfabético = cronológico)
+     */
+    private void pruneOldDumps() throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            dumps = files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(DUMP_PREFIX) && name.endsWith(DUMP_SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+        for (Path old : dumps.subList(0, Math.max(0, dumps.size() - dumpMaxFiles))) {
+            Files.deleteIfExists(old);
+            AnsiColors.infoLog(logger, "Volcado JFR antiguo borrado: " + old);
+        }
+    }
+}
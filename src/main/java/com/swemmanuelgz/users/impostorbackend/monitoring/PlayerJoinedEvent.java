@@ -0,0 +1,28 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Join por WebSocket: duración del handler hasta devolver el estado de la sala
+ */
+@Name("impostor.PlayerJoined")
+@Label("Player Joined")
+@Category({"Impostor", "Game"})
+@Description("Join por WebSocket: duración del handler hasta devolver el estado de la sala")
+@StackTrace(false)
+public class PlayerJoinedEvent extends Event {
+
+    @Label("Room Code")
+    public String roomCode;
+
+    @Label("User Id")
+    public long userId;
+
+    @Label("Connected Players")
+    public int connectedPlayers;
+}
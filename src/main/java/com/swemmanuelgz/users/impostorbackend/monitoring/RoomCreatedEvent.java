@@ -0,0 +1,25 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Sala creada (GameServiceImpl.createGame)
+ */
+@Name("impostor.RoomCreated")
+@Label("Room Created")
+@Category({"Impostor", "Game"})
+@Description("Sala creada (GameServiceImpl.createGame)")
+@StackTrace(false)
+public class RoomCreatedEvent extends Event {
+
+    @Label("Room Code")
+    public String roomCode;
+
+    @Label("Creator Id")
+    public long creatorId;
+}
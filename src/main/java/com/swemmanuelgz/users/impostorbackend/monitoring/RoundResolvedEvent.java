@@ -0,0 +1,29 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Resolución de una ronda de votación: recuento, eliminación y condición de victoria
+ */
+@Name("impostor.RoundResolved")
+@Label("Round Resolved")
+@Category({"Impostor", "Game"})
+@Description("Resolución de una ronda de votación: recuento, eliminación y condición de victoria")
+@StackTrace(false)
+public class RoundResolvedEvent extends Event {
+
+    @Label("Room Code")
+    public String roomCode;
+
+    @Label("Outcome")
+    @Description("CITIZENS_WIN, IMPOSTOR_WINS, NEW_ROUND, SKIPPED (ronda ya resuelta) o ERROR")
+    public String outcome;
+
+    @Label("Eliminated Was Impostor")
+    public boolean eliminatedWasImpostor;
+}
@@ -0,0 +1,211 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import com.swemmanuelgz.users.impostorbackend.utils.GameLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Latencia de los mensajes STOMP de la partida separada por etapas:
+ *
+ * - stomp.inbound.queue{destination}: desde que llega el frame hasta que un hilo del clientInbound lo coge
+ * - stomp.inbound.handler{destination}: ejecución del @MessageMapping (incluye BD y el envío al broker)
+ * - stomp.outbound.delivery{destination}: desde que el handler genera un mensaje hasta que se escribe en la
+ *   sesión WebSocket (cola del clientOutbound + serialización Jackson + envío)
+ *
+ * El mensaje entrante lleva un Trace en una cabecera interna (no se envía al cliente). Mientras corre el
+ * handler el Trace queda en un ThreadLocal, y los mensajes salientes que genera en ese hilo lo heredan, así
+ * que la entrega se etiqueta con el destino que la originó. destination se normaliza a /app/game/{@literal *}/accion
+ * con un conjunto fijo de acciones para no disparar la cardinalidad.
+ *
+ * Los mensajes cuyo total supera slow-threshold-ms se registran (muestreados) con el desglose por etapa.
+ */
+@Component
+public class StompLatencyTracer {
+
+    private static final GameLog log = GameLog.of(StompLatencyTracer.class);
+
+    static final String TRACE_HEADER = "impostorTrace";
+
+    private static final Pattern GAME_DESTINATION = Pattern.compile("^/app/game/[^/]+/([a-z]+)$");
+    private static final Set<String> ACTIONS = Set.of(
+            "join", "leave", "start", "end", "chat", "vote", "reconnect", "heartbeat");
+    private static final String UNTRACED = "untraced";
+
+    /**
+     * Tiempos de un mensaje entrante (System.nanoTime). handleStartNanos y enqueuedNanos valen 0 hasta su etapa
+     */
+    record Trace(long id, String destination, long receivedNanos, long handleStartNanos, long enqueuedNanos) {
+
+        Trace handling(long now) {
+            return new Trace(id, destination, receivedNanos, now, enqueuedNanos);
+        }
+
+        Trace enqueued(long now) {
+            return new Trace(id, destination, receivedNanos, handleStartNanos, now);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long slowThresholdNanos;
+    private final double slowLogSampleRate;
+    private final AtomicLong traceIds = new AtomicLong();
+    private final ThreadLocal<Trace> current = new ThreadLocal<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StompLatencyTracer(MeterRegistry meterRegistry,
+                              @Value("${stomp.tracing.enabled:true}") boolean enabled,
+                              @Value("${stomp.tracing.slow-threshold-ms:500}") long slowThresholdMs,
+                              @Value("${stomp.tracing.slow-log-sample-rate:0.1}") double slowLogSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMs);
+        this.slowLogSampleRate = slowLogSampleRate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Interceptor del clientInbound: marca la llegada y mide la espera en cola y el handler
+     */
+    public ExecutorChannelInterceptor inbound() {
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+                    return message;
+                }
+                String destination = normalize(SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+                return withTrace(message, new Trace(traceIds.incrementAndGet(), destination, System.nanoTime(), 0, 0));
+            }
+
+            @Override
+            public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+                Trace trace = traceOf(message);
+                if (trace != null && handler instanceof SimpAnnotationMethodMessageHandler) {
+                    long now = System.nanoTime();
+                    timer("stomp.inbound.queue", trace.destination()).record(now - trace.receivedNanos(), TimeUnit.NANOSECONDS);
+                    current.set(trace.handling(now));
+                }
+                return message;
+            }
+
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                Trace trace = current.get();
+                if (trace == null || !(handler instanceof SimpAnnotationMethodMessageHandler)) {
+                    return;
+                }
+                current.remove();
+                long now = System.nanoTime();
+                timer("stomp.inbound.handler", trace.destination()).record(now - trace.handleStartNanos(), TimeUnit.NANOSECONDS);
+                if (now - trace.receivedNanos() > slowThresholdNanos && sampled()) {
+                    log.info().kv("traceId", trace.id()).kv("destination", trace.destination())
+                            .log("Mensaje STOMP lento: cola {} ms, handler {} ms",
+                                    millis(trace.handleStartNanos() - trace.receivedNanos()),
+                                    millis(now - trace.handleStartNanos()));
+                }
+            }
+        };
+    }
+
+    /**
+     * Interceptor del clientOutbound: hereda el Trace del handler que genera el mensaje y mide la entrega
+     */
+    public ExecutorChannelInterceptor outbound() {
+        return new ExecutorChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                Trace trace = current.get();
+                if (trace == null) {
+                    // Mensajes fuera de un handler STOMP (desconexiones, resultados de votación, REST)
+                    trace = new Trace(0, UNTRACED, 0, 0, 0);
+                }
+                return withTrace(message, trace.enqueued(System.nanoTime()));
+            }
+
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                Trace trace = traceOf(message);
+                if (trace == null) {
+                    return;
+                }
+                long now = System.nanoTime();
+                timer("stomp.outbound.delivery", trace.destination()).record(now - trace.enqueuedNanos(), TimeUnit.NANOSECONDS);
+                if (trace.receivedNanos() != 0 && now - trace.receivedNanos() > slowThresholdNanos && sampled()) {
+                    log.info().kv("traceId", trace.id()).kv("destination", trace.destination())
+                            .log("Entrega STOMP lenta: cola {} ms, handler hasta envío {} ms, salida {} ms, total {} ms",
+                                    millis(trace.handleStartNanos() - trace.receivedNanos()),
+                                    millis(trace.enqueuedNanos() - trace.handleStartNanos()),
+                                    millis(now - trace.enqueuedNanos()),
+                                    millis(now - trace.receivedNanos()));
+                }
+            }
+        };
+    }
+
+    static String normalize(String destination) {
+        if (destination == null) {
+            return "other";
+        }
+        Matcher matcher = GAME_DESTINATION.matcher(destination);
+        if (matcher.matches() && ACTIONS.contains(matcher.group(1))) {
+            return "/app/game/*/" + matcher.group(1);
+        }
+        return "other";
+    }
+
+    private static Trace traceOf(Message<?> message) {
+        return message.getHeaders().get(TRACE_HEADER, Trace.class);
+    }
+
+    /**
+     * Los frames de STOMP llegan con las cabeceras mutables (así las modifican los interceptores);
+     * si no lo son se copia el mensaje
+     */
+    private static Message<?> withTrace(Message<?> message, Trace trace) {
+        MessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, MessageHeaderAccessor.class);
+        if (accessor != null && accessor.isMutable()) {
+            accessor.setHeader(TRACE_HEADER, trace);
+            return message;
+        }
+        return MessageBuilder.fromMessage(message).setHeader(TRACE_HEADER, trace).build();
+    }
+
+    private Timer timer(String name, String destination) {
+        return timers.computeIfAbsent(name + '|' + destination, key -> Timer.builder(name)
+                .tag("destination", destination)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private boolean sampled() {
+        return ThreadLocalRandom.current().nextDouble() < slowLogSampleRate;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
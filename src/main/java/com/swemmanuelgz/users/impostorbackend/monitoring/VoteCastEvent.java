@@ -0,0 +1,28 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Voto por WebSocket: duración del handler (registro en BD y comprobación de fin de votación)
+ */
+@Name("impostor.VoteCast")
+@Label("Vote Cast")
+@Category({"Impostor", "Game"})
+@Description("Voto por WebSocket: duración del handler (registro en BD y comprobación de fin de votación)")
+@StackTrace(false)
+public class VoteCastEvent extends Event {
+
+    @Label("Room Code")
+    public String roomCode;
+
+    @Label("Voter Id")
+    public long voterId;
+
+    @Label("All Voted")
+    public boolean allVoted;
+}
@@ -0,0 +1,36 @@
+package com.swemmanuelgz.users.impostorbackend.repository;
+
+import com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto;
+import com.swemmanuelgz.users.impostorbackend.dto.PlayerResultRow;
+import com.swemmanuelgz.users.impostorbackend.entity.ArchivedGamePlayer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ArchivedGamePlayerRepository extends JpaRepository<ArchivedGamePlayer, Long> {
+
+    // Historial del usuario en partidas archivadas (keyset sobre createdAt, id)
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto(g.id, g.roomCode, g.category, g.createdAt, g.duration, gp.isImpostor, gp.isWinner, true) " +
+           "FROM ArchivedGamePlayer gp JOIN gp.game g WHERE gp.user.id = :userId " +
+           "ORDER BY g.createdAt DESC, g.id DESC")
+    List<GameHistoryDto> findFirstHistoryPage(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto(g.id, g.roomCode, g.category, g.createdAt, g.duration, gp.isImpostor, gp.isWinner, true) " +
+           "FROM ArchivedGamePlayer gp JOIN gp.game g WHERE gp.user.id = :userId " +
+           "AND (g.createdAt < :createdAt OR (g.createdAt = :createdAt AND g.id < :id)) " +
+           "ORDER BY g.createdAt DESC, g.id DESC")
+    List<GameHistoryDto> findHistoryPageAfter(@Param("userId") Long userId, @Param("createdAt") Instant createdAt,
+                                              @Param("id") Long id, Pageable pageable);
+
+    // Backfill de user_stats: mismos criterios que GamePlayerRepository.findFinishedResultsAfter
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.PlayerResultRow(gp.id, gp.user.id, gp.isImpostor, gp.isWinner) " +
+           "FROM ArchivedGamePlayer gp JOIN gp.game g WHERE gp.id > :afterId " +
+           "AND EXISTS (SELECT 1 FROM ArchivedGamePlayer w WHERE w.game = g AND w.isWinner = true) ORDER BY gp.id")
+    List<PlayerResultRow> findFinishedResultsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
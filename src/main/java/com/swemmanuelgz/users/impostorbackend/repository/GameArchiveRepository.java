@@ -0,0 +1,39 @@
+package com.swemmanuelgz.users.impostorbackend.repository;
+
+import com.swemmanuelgz.users.impostorbackend.entity.ArchivedGame;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Movimiento de partidas terminadas de las tablas vivas al archivo.
+ * Se usa por bloques de ids desde GameArchiveJob, cada bloque en su propia transacción
+ */
+@Repository
+public interface GameArchiveRepository extends JpaRepository<ArchivedGame, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO games_archive (id, room_code, status, category, word, max_players, creator_id, created_at, duration, started_at, archived_at) " +
+                   "SELECT id, room_code, status, category, word, max_players, creator_id, created_at, duration, started_at, :archivedAt " +
+                   "FROM games WHERE id IN (:gameIds)", nativeQuery = true)
+    int copyGames(@Param("gameIds") Collection<Long> gameIds, @Param("archivedAt") Instant archivedAt);
+
+    @Modifying
+    @Query(value = "INSERT INTO game_players_archive (id, game_id, user_id, is_impostor, is_winner, has_voted, voted_for_id, status) " +
+                   "SELECT id, game_id, user_id, is_impostor, is_winner, has_voted, voted_for_id, status " +
+                   "FROM game_players WHERE game_id IN (:gameIds)", nativeQuery = true)
+    int copyPlayers(@Param("gameIds") Collection<Long> gameIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM game_players WHERE game_id IN (:gameIds)", nativeQuery = true)
+    int deleteLivePlayers(@Param("gameIds") Collection<Long> gameIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM games WHERE id IN (:gameIds)", nativeQuery = true)
+    int deleteLiveGames(@Param("gameIds") Collection<Long> gameIds);
+}
@@ -1,11 +1,18 @@
 package com.swemmanuelgz.users.impostorbackend.repository;
 
+import com.swemmanuelgz.users.impostorbackend.dto.GameDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
+import com.swemmanuelgz.users.impostorbackend.dto.PlayerResultRow;
 import com.swemmanuelgz.users.impostorbackend.entity.GamePlayer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +22,16 @@ public interface GamePlayerRepository extends JpaRepository<GamePlayer, Long> {
     @Query("SELECT gp FROM GamePlayer gp JOIN FETCH gp.user JOIN FETCH gp.game WHERE gp.game.id = :gameId")
     List<GamePlayer> findByGameId(@Param("gameId") Long gameId);
     
+    // Proyección de solo lectura: solo las columnas que necesita GamePlayerDto
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto(gp.id, gp.game.id, u.id, u.username, u.pictureUrl, gp.isImpostor, gp.isWinner) " +
+           "FROM GamePlayer gp JOIN gp.user u WHERE gp.game.id = :gameId ORDER BY gp.id")
+    List<GamePlayerDto> findPlayerDtosByGameId(@Param("gameId") Long gameId);
+    
+    // Igual que la anterior pero para varias partidas a la vez (listados)
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto(gp.id, gp.game.id, u.id, u.username, u.pictureUrl, gp.isImpostor, gp.isWinner) " +
+           "FROM GamePlayer gp JOIN gp.user u WHERE gp.game.id IN :gameIds ORDER BY gp.id")
+    List<GamePlayerDto> findPlayerDtosByGameIds(@Param("gameIds") Collection<Long> gameIds);
+    
     @Query("SELECT gp FROM GamePlayer gp JOIN FETCH gp.user WHERE gp.user.id = :userId")
     List<GamePlayer> findByUserId(@Param("userId") Long userId);
     
@@ -45,10 +62,35 @@ public interface GamePlayerRepository extends JpaRepository<GamePlayer, Long> {
     @Query("SELECT COUNT(gp) FROM GamePlayer gp WHERE gp.user.id = :userId AND gp.isImpostor = false AND gp.isWinner = true")
     int countGamesWonAsCivilianByUserId(@Param("userId") Long userId);
     
+    // Historial del usuario en partidas terminadas aún en las tablas vivas (keyset sobre createdAt, id)
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto(g.id, g.roomCode, g.category, g.createdAt, g.duration, gp.isImpostor, gp.isWinner, false) " +
+           "FROM GamePlayer gp JOIN gp.game g WHERE gp.user.id = :userId AND g.status = 'FINISHED' " +
+           "ORDER BY g.createdAt DESC, g.id DESC")
+    List<GameHistoryDto> findFirstHistoryPage(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto(g.id, g.roomCode, g.category, g.createdAt, g.duration, gp.isImpostor, gp.isWinner, false) " +
+           "FROM GamePlayer gp JOIN gp.game g WHERE gp.user.id = :userId AND g.status = 'FINISHED' " +
+           "AND (g.createdAt < :createdAt OR (g.createdAt = :createdAt AND g.id < :id)) " +
+           "ORDER BY g.createdAt DESC, g.id DESC")
+    List<GameHistoryDto> findHistoryPageAfter(@Param("userId") Long userId, @Param("createdAt") Instant createdAt,
+                                              @Param("id") Long id, Pageable pageable);
+    
+    // Backfill de user_stats: resultados de partidas terminadas con ganador, por bloques (keyset sobre id)
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.PlayerResultRow(gp.id, gp.user.id, gp.isImpostor, gp.isWinner) " +
+           "FROM GamePlayer gp JOIN gp.game g WHERE g.status = 'FINISHED' AND gp.id > :afterId " +
+           "AND EXISTS (SELECT 1 FROM GamePlayer w WHERE w.game = g AND w.isWinner = true) ORDER BY gp.id")
+    List<PlayerResultRow> findFinishedResultsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
     // Reconexión: buscar partida activa más reciente del usuario
     @Query("SELECT gp FROM GamePlayer gp JOIN FETCH gp.game g JOIN FETCH gp.user WHERE gp.user.id = :userId AND g.status IN ('WAITING', 'IN_PROGRESS', 'VOTING') ORDER BY g.createdAt DESC")
     List<GamePlayer> findActiveGamesByUserId(@Param("userId") Long userId);
     
+    // Reconexión (proyección): partidas activas del usuario sin cargar entidades
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameDto(g.id, g.roomCode, g.status, c.id, c.username, g.createdAt, g.duration, g.startedAt) " +
+           "FROM GamePlayer gp JOIN gp.game g LEFT JOIN g.creator c " +
+           "WHERE gp.user.id = :userId AND g.status IN ('WAITING', 'IN_PROGRESS', 'VOTING') ORDER BY g.createdAt DESC")
+    List<GameDto> findActiveGameDtosByUserId(@Param("userId") Long userId);
+    
     // ===== QUERIES PARA SISTEMA DE VOTACIÓN =====
     
     // Contar jugadores activos que ya votaron
@@ -1,5 +1,6 @@
 package com.swemmanuelgz.users.impostorbackend.repository;
 
+import com.swemmanuelgz.users.impostorbackend.dto.GameDto;
 import com.swemmanuelgz.users.impostorbackend.entity.Game;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,30 @@ public interface GameRepository extends JpaRepository<Game, Long> {
     @Query("SELECT g FROM Game g LEFT JOIN FETCH g.creator WHERE g.id = :id")
     Optional<Game> findByIdWithCreator(@Param("id") Long id);
     
+    // Proyecciones de solo lectura para endpoints de detalle (sin entidades gestionadas)
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameDto(g.id, g.roomCode, g.status, c.id, c.username, g.createdAt, g.duration, g.startedAt) " +
+           "FROM Game g LEFT JOIN g.creator c WHERE g.id = :id")
+    Optional<GameDto> findDtoById(@Param("id") Long id);
+    
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameDto(g.id, g.roomCode, g.status, c.id, c.username, g.createdAt, g.duration, g.startedAt) " +
+           "FROM Game g LEFT JOIN g.creator c WHERE g.roomCode = :roomCode")
+    Optional<GameDto> findDtoByRoomCode(@Param("roomCode") String roomCode);
+    
+    // Paginación keyset sobre (createdAt, id): el coste de cada página no depende de lo profunda que sea
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameDto(g.id, g.roomCode, g.status, c.id, c.username, g.createdAt, g.duration, g.startedAt) " +
+           "FROM Game g LEFT JOIN g.creator c ORDER BY g.createdAt DESC, g.id DESC")
+    List<GameDto> findFirstKeysetPage(Pageable pageable);
+    
+    @Query("SELECT new com.swemmanuelgz.users.impostorbackend.dto.GameDto(g.id, g.roomCode, g.status, c.id, c.username, g.createdAt, g.duration, g.startedAt) " +
+           "FROM Game g LEFT JOIN g.creator c " +
+           "WHERE g.createdAt < :createdAt OR (g.createdAt = :createdAt AND g.id < :id) " +
+           "ORDER BY g.createdAt DESC, g.id DESC")
+    List<GameDto> findKeysetPageAfter(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Archivado: ids de partidas terminadas anteriores al corte, por bloques (keyset sobre id)
+    @Query("SELECT g.id FROM Game g WHERE g.status = 'FINISHED' AND g.createdAt < :cutoff AND g.id > :afterId ORDER BY g.id")
+    List<Long> findArchivableGameIds(@Param("cutoff") Instant cutoff, @Param("afterId") Long afterId, Pageable pageable);
+    
     boolean existsByRoomCode(String roomCode);
     
     List<Game> findByStatus(String status);
@@ -39,6 +65,12 @@ public interface GameRepository extends JpaRepository<Game, Long> {
     @Query("SELECT g FROM Game g WHERE g.status IN ('WAITING', 'IN_PROGRESS', 'VOTING') AND g.createdAt < :cutoffTime")
     List<Game> findStaleActiveGames(@Param("cutoffTime") java.time.Instant cutoffTime);
     
+    // Terminar una partida solo si seguía abierta: el UPDATE bloquea la fila, así que de dos cierres
+    // concurrentes solo uno ve 1 fila afectada
+    @org.springframework.data.jpa.repository.Modifying
+    @Query("UPDATE Game g SET g.status = 'FINISHED' WHERE g.id = :id AND g.status <> 'FINISHED'")
+    int markFinished(@Param("id") Long id);
+    
     // Cerrar todas las partidas antiguas de una vez
     @org.springframework.data.jpa.repository.Modifying
     @Query("UPDATE Game g SET g.status = 'FINISHED' WHERE g.status IN ('WAITING', 'IN_PROGRESS', 'VOTING') AND g.createdAt < :cutoffTime")
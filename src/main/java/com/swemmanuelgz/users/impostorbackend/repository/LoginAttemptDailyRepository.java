@@ -0,0 +1,26 @@
+package com.swemmanuelgz.users.impostorbackend.repository;
+
+import com.swemmanuelgz.users.impostorbackend.entity.LoginAttemptDaily;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface LoginAttemptDailyRepository extends JpaRepository<LoginAttemptDaily, Long> {
+
+    /**
+     * Suma al resumen diario los intentos de un bloque de retención (mismo rango que
+     * LoginAttemptRepository.deleteBeforeUpTo). Debe ir en la misma transacción que el borrado
+     */
+    @Modifying
+    @Query(value = "INSERT INTO login_attempt_daily (day, auth_type, success, failure_reason, attempts) " +
+                   "SELECT DATE(attempt_timestamp), COALESCE(auth_type, 'UNKNOWN'), success, COALESCE(failure_reason, ''), COUNT(*) " +
+                   "FROM login_attempts WHERE attempt_timestamp < :cutoff AND attempt_timestamp <= :boundary " +
+                   "GROUP BY DATE(attempt_timestamp), COALESCE(auth_type, 'UNKNOWN'), success, COALESCE(failure_reason, '') " +
+                   "ON DUPLICATE KEY UPDATE attempts = attempts + VALUES(attempts)", nativeQuery = true)
+    int rollUpBeforeUpTo(@Param("cutoff") Instant cutoff, @Param("boundary") Instant boundary);
+}
@@ -1,7 +1,9 @@
 package com.swemmanuelgz.users.impostorbackend.repository;
 
 import com.swemmanuelgz.users.impostorbackend.entity.LoginAttempt;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -52,7 +54,32 @@ public interface LoginAttemptRepository extends JpaRepository<LoginAttempt, Long
     List<LoginAttempt> findFailedAttemptsByIp(@Param("ip") String ipAddress, @Param("since") Instant since);
 
     /**
-     * Limpia intentos de login antiguos (para mantenimiento)
+     * Intentos fallidos desde un instante, en orden cronológico (para restaurar los contadores de bloqueo)
      */
-    void deleteByAttemptTimestampBefore(Instant before);
+    @Query("SELECT la FROM LoginAttempt la WHERE la.success = false AND la.attemptTimestamp > :since ORDER BY la.attemptTimestamp ASC")
+    List<LoginAttempt> findFailedAttemptsSince(@Param("since") Instant since);
+
+    /**
+     * Marca de tiempo que cierra un bloque de retención: la del intento número offset+1 más antiguo
+     * anterior al corte. Se pide con PageRequest.of(chunkSize - 1, 1)
+     */
+    @Query("SELECT la.attemptTimestamp FROM LoginAttempt la WHERE la.attemptTimestamp < :cutoff ORDER BY la.attemptTimestamp ASC")
+    List<Instant> findRetentionBoundary(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    /**
+     * Borra como mucho limit intentos anteriores al corte, empezando por los más antiguos.
+     * DELETE directo en MySQL: no carga entidades en memoria
+     */
+    @Modifying
+    @Query(value = "DELETE FROM login_attempts WHERE attempt_timestamp < :cutoff ORDER BY attempt_timestamp LIMIT :limit",
+           nativeQuery = true)
+    int deleteOldestBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /**
+     * Borra los intentos anteriores al corte hasta la marca de tiempo de fin de bloque (incluida)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM login_attempts WHERE attempt_timestamp < :cutoff AND attempt_timestamp <= :boundary",
+           nativeQuery = true)
+    int deleteBeforeUpTo(@Param("cutoff") Instant cutoff, @Param("boundary") Instant boundary);
 }
@@ -1,10 +1,14 @@
 package com.swemmanuelgz.users.impostorbackend.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.swemmanuelgz.users.impostorbackend.entity.User;
@@ -20,6 +24,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Page<User> findByUsernameContainingIgnoreCase(String username, Pageable pageable);
     
+    // Paginación keyset sobre (createdAt, id)
+    @Query("SELECT u FROM User u ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findFirstKeysetPage(Pageable pageable);
+    
+    @Query("SELECT u FROM User u WHERE u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findKeysetPageAfter(@Param("createdAt") Instant createdAt, @Param("id") Long id, Pageable pageable);
+    
     boolean existsByEmail(String email);
     
     boolean existsByUsername(String username);
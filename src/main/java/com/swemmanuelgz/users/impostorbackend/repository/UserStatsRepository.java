@@ -0,0 +1,41 @@
+package com.swemmanuelgz.users.impostorbackend.repository;
+
+import com.swemmanuelgz.users.impostorbackend.entity.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    /**
+     * Suma el resultado de una partida a las estadísticas del usuario en una sola sentencia atómica.
+     * Crea la fila si no existe. best_win_streak se asigna antes que current_win_streak
+     * porque MySQL evalúa las asignaciones del UPDATE de izquierda a derecha.
+     * Los flags se pasan como 0/1.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, games_played, games_won, games_won_as_impostor, games_won_as_civilian, " +
+            "times_caught_as_impostor, current_win_streak, best_win_streak, updated_at) " +
+            "VALUES (:userId, 1, :won, :wonAsImpostor, :wonAsCivilian, :caughtAsImpostor, :won, :won, :now) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "games_played = games_played + 1, " +
+            "games_won = games_won + :won, " +
+            "games_won_as_impostor = games_won_as_impostor + :wonAsImpostor, " +
+            "games_won_as_civilian = games_won_as_civilian + :wonAsCivilian, " +
+            "times_caught_as_impostor = times_caught_as_impostor + :caughtAsImpostor, " +
+            "best_win_streak = GREATEST(best_win_streak, IF(:won = 1, current_win_streak + 1, 0)), " +
+            "current_win_streak = IF(:won = 1, current_win_streak + 1, 0), " +
+            "updated_at = :now",
+            nativeQuery = true)
+    int recordGameResult(@Param("userId") Long userId,
+                         @Param("won") int won,
+                         @Param("wonAsImpostor") int wonAsImpostor,
+                         @Param("wonAsCivilian") int wonAsCivilian,
+                         @Param("caughtAsImpostor") int caughtAsImpostor,
+                         @Param("now") Instant now);
+}
@@ -0,0 +1,16 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import java.security.PublicKey;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Claves públicas de firma de Google indexadas por kid, con el instante en que Google indica
+ * que hay que volver a descargarlas (Cache-Control max-age)
+ */
+public record GoogleKeySet(Map<String, PublicKey> keysById, Instant expiresAt) {
+
+    public GoogleKeySet {
+        keysById = Map.copyOf(keysById);
+    }
+}
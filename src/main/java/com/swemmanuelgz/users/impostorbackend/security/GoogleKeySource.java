@@ -0,0 +1,11 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+/**
+ * Origen de las claves de firma de los ID tokens de Google.
+ * En producción es HttpGoogleKeySource; los tests pueden usar un servidor local o claves generadas
+ */
+@FunctionalInterface
+public interface GoogleKeySource {
+
+    GoogleKeySet fetch() throws Exception;
+}
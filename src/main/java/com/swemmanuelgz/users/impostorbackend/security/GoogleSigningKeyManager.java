@@ -0,0 +1,120 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Claves de firma de Google en memoria, renovadas en segundo plano antes de que caduquen.
+ *
+ * La verificación de un ID token nunca espera a una descarga: si la renovación falla se siguen usando
+ * las claves anteriores (Google las mantiene publicadas bastante más que su max-age) y se reintenta.
+ * Un kid desconocido (rotación) pide una renovación inmediata, como mucho una vez por min-refresh-interval.
+ */
+@Component
+public class GoogleSigningKeyManager {
+
+    private static final Logger logger = Logger.getLogger(GoogleSigningKeyManager.class.getName());
+
+    private final GoogleKeySource keySource;
+    private final Duration refreshAhead;
+    private final Duration retryDelay;
+    private final Duration minRefreshInterval;
+
+    private volatile GoogleKeySet keySet;
+    private volatile Instant lastAttempt = Instant.EPOCH;
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> nextRefresh;
+
+    public GoogleSigningKeyManager(GoogleKeySource keySource,
+                                   @Value("${google.oauth2.keys.refresh-ahead-seconds:600}") long refreshAheadSeconds,
+                                   @Value("${google.oauth2.keys.retry-seconds:30}") long retrySeconds,
+                                   @Value("${google.oauth2.keys.min-refresh-interval-seconds:60}") long minRefreshIntervalSeconds) {
+        this.keySource = keySource;
+        this.refreshAhead = Duration.ofSeconds(refreshAheadSeconds);
+        this.retryDelay = Duration.ofSeconds(retrySeconds);
+        this.minRefreshInterval = Duration.ofSeconds(minRefreshIntervalSeconds);
+    }
+
+    /**
+     * Primera carga (síncrona, al arrancar) y programación de las renovaciones. Solo si Google OAuth2 está activo
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "google-keys-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresh();
+    }
+
+    public Optional<PublicKey> key(String keyId) {
+        GoogleKeySet current = keySet;
+        return current != null ? Optional.ofNullable(current.keysById().get(keyId)) : Optional.empty();
+    }
+
+    public Collection<PublicKey> keys() {
+        GoogleKeySet current = keySet;
+        return current != null ? current.keysById().values() : List.of();
+    }
+
+    /**
+     * Pide una renovación en segundo plano (kid desconocido). No bloquea al que llama
+     */
+    public void requestRefresh() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null && Instant.now().isAfter(lastAttempt.plus(minRefreshInterval))) {
+            current.execute(this::refresh);
+        }
+    }
+
+    private synchronized void refresh() {
+        lastAttempt = Instant.now();
+        Duration delay;
+        try {
+            GoogleKeySet fetched = keySource.fetch();
+            keySet = fetched;
+            Duration untilExpiry = Duration.between(Instant.now(), fetched.expiresAt()).minus(refreshAhead);
+            delay = untilExpiry.compareTo(minRefreshInterval) > 0 ? untilExpiry : minRefreshInterval;
+            AnsiColors.infoLog(logger, "Claves de Google actualizadas (" + fetched.keysById().size() +
+                    "), próxima renovación en " + delay.toSeconds() + "s");
+        } catch (Exception e) {
+            delay = retryDelay;
+            AnsiColors.errorLog(logger, "No se pudieron actualizar las claves de Google, se reintenta en " +
+                    retryDelay.toSeconds() + "s: " + e.getMessage());
+        }
+        schedule(delay);
+    }
+
+    private void schedule(Duration delay) {
+        if (nextRefresh != null) {
+            nextRefresh.cancel(false);
+        }
+        if (scheduler != null && !scheduler.isShutdown()) {
+            nextRefresh = scheduler.schedule(this::refresh, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
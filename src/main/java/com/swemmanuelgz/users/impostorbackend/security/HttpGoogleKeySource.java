@@ -0,0 +1,76 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Descarga las claves de Google en formato JWKS (google.oauth2.certs-url) y usa el max-age
+ * de la respuesta como caducidad del conjunto
+ */
+@Component
+public class HttpGoogleKeySource implements GoogleKeySource {
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofHours(1);
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final URI certsUri;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public HttpGoogleKeySource(@Value("${google.oauth2.certs-url:https://www.googleapis.com/oauth2/v3/certs}") String certsUrl,
+                               ObjectMapper objectMapper) {
+        this.certsUri = URI.create(certsUrl);
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(TIMEOUT).build();
+    }
+
+    @Override
+    public GoogleKeySet fetch() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(certsUri).timeout(TIMEOUT).GET().build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Respuesta " + response.statusCode() + " al descargar las claves de Google");
+        }
+
+        KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JsonNode jwk : objectMapper.readTree(response.body()).path("keys")) {
+            if (!"RSA".equals(jwk.path("kty").asText())) {
+                continue;
+            }
+            BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("n").asText()));
+            BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode(jwk.path("e").asText()));
+            keys.put(jwk.path("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+        }
+        if (keys.isEmpty()) {
+            throw new IOException("La respuesta de claves de Google no contiene claves RSA");
+        }
+
+        Duration maxAge = response.headers().firstValue("Cache-Control")
+                .map(MAX_AGE::matcher)
+                .filter(Matcher::find)
+                .map(matcher -> Duration.ofSeconds(Long.parseLong(matcher.group(1))))
+                .orElse(DEFAULT_MAX_AGE);
+        return new GoogleKeySet(keys, Instant.now().plus(maxAge));
+    }
+}
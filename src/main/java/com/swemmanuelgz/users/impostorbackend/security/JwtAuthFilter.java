@@ -2,7 +2,7 @@ package com.swemmanuelgz.users.impostorbackend.security;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.logging.Logger;
+import java.util.Optional;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,9 +13,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.swemmanuelgz.users.impostorbackend.exception.TokenException;
-import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import com.swemmanuelgz.users.impostorbackend.utils.GameLog;
 
-import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,25 +23,34 @@ import jakarta.servlet.http.HttpServletResponse;
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
-    private final JwtProvider jwtProvider;
 
-    Logger logger = Logger.getLogger(getClass().getName());
+    /**
+     * Endpoints de autenticación sin sesión previa: el filtro no los toca. El resto de /api/auth
+     * (logout, change-password) necesita el access token como cualquier otra petición
+     */
+    public static final List<String> PUBLIC_AUTH_PATHS =
+            List.of("/api/auth/login", "/api/auth/refresh", "/api/auth/signup", "/api/auth/google");
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private static final GameLog log = GameLog.of(JwtAuthFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
         String token = getTokenFromRequest(request);
 
-        if (token != null && jwtProvider.validateToken(token)){
-            Claims claims = jwtProvider.getClaims(token);
-            String email = jwtProvider.getEmailFromToken(token);
-            String role = claims.get("role",String.class);
+        // Una sola verificación (firma + caducidad) por token; las peticiones siguientes salen de caché
+        Optional<VerifiedToken> verified = verifiedTokenCache.verify(token);
+
+        if (verified.isPresent()){
+            VerifiedToken jwt = verified.get();
 
             //creamos objeto donde van los claims
-            JwtUserDetails userDetails = new JwtUserDetails(email, claims);
+            JwtUserDetails userDetails = new JwtUserDetails(jwt.email(), jwt.claims());
 
             UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    userDetails,null, List.of(new SimpleGrantedAuthority("ROLE_"+role))
+                    userDetails,null, List.of(new SimpleGrantedAuthority("ROLE_"+jwt.role()))
             );
             SecurityContextHolder.getContext().setAuthentication(auth);
 
@@ -65,7 +73,7 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         String bearerToken = request.getHeader("Authorization");
         //validadr bearerToken
         if (bearerToken != null && bearerToken.startsWith("Bearer ")){
-            AnsiColors.successLog(logger, "Token recibido en request es válido");
+            log.debug().log("Token Bearer recibido en la petición");
             return  bearerToken.substring(7);
         }
        // throw TokenException.tokenInvalido();
@@ -75,7 +83,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request){
         String path = request.getServletPath();
-        return path.contains("/login") || path.contains("/auth") ||
-                path.contains("/chat-socket") || path.contains("/refresh");
+        return PUBLIC_AUTH_PATHS.contains(path) || path.startsWith("/chat-socket");
     }
 }
@@ -1,110 +1,131 @@
 package com.swemmanuelgz.users.impostorbackend.security;
 
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.logging.Logger;
+import java.util.Optional;
+
+import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.swemmanuelgz.users.impostorbackend.dto.UserProfile;
 import com.swemmanuelgz.users.impostorbackend.entity.User;
 import com.swemmanuelgz.users.impostorbackend.exception.UserException;
-import com.swemmanuelgz.users.impostorbackend.service.UserServiceImpl;
-import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import com.swemmanuelgz.users.impostorbackend.service.UserProfileCache;
+import com.swemmanuelgz.users.impostorbackend.utils.GameLog;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
 
 @Component
-@RequiredArgsConstructor
 public class JwtProvider {
-    private final Logger logger = Logger.getLogger(getClass().getName());
-
-    @Value("${jwt.secret}")
-    private String jwtSecret;
-
-    @Value("${jwt.expiration}")
-    private Integer jwtExpirationInMs;
-
-    @Value("${jwt.refresh.expiration}")
-    private Integer jwtRefreshTokenExpirationMs;
-
-    private final UserServiceImpl userService;
+    private static final GameLog log = GameLog.of(JwtProvider.class);
+
+    private final Integer jwtExpirationInMs;
+    private final Integer jwtRefreshTokenExpirationMs;
+    private final UserProfileCache userProfileCache;
+
+    // La clave y el parser son inmutables y thread-safe: se construyen una vez y no por cada token
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+
+    public JwtProvider(@Value("${jwt.secret}") String jwtSecret,
+                       @Value("${jwt.expiration}") Integer jwtExpirationInMs,
+                       @Value("${jwt.refresh.expiration}") Integer jwtRefreshTokenExpirationMs,
+                       UserProfileCache userProfileCache) {
+        this.jwtExpirationInMs = jwtExpirationInMs;
+        this.jwtRefreshTokenExpirationMs = jwtRefreshTokenExpirationMs;
+        this.userProfileCache = userProfileCache;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+    }
 
     public String generateToken(User user){
+        return generateToken(UserProfile.fromEntity(user));
+    }
+
+    public String generateToken(UserProfile user){
         Date now = new Date(); //fecha actual
         Date expireDate = new Date(now.getTime() + jwtExpirationInMs); //caducidad del token
 
         Map<String,Object> claims = new HashMap<>();
-        claims.put("id",user.getId());
-        claims.put("email",user.getEmail());
-        claims.put("role",user.getRole()); //aquí van los datos del claims
+        claims.put("id",user.id());
+        claims.put("email",user.email());
+        claims.put("role",user.role()); //aquí van los datos del claims
 
-        AnsiColors.infoLog(logger,"Claims token generados para usuario: "+user.getEmail());
+        log.debug().user(user.id()).log("Access token generado");
 
         return Jwts.builder()
                 .setClaims(claims)
-                .setSubject(user.getEmail())
+                .setSubject(user.email())
                 .setIssuedAt(now)
                 .setExpiration(expireDate)
-                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact(); //<- em esta lambda van los datos que llevará el token
     }
 
     public String generateRefreshToken(User user){
+        return generateRefreshToken(UserProfile.fromEntity(user));
+    }
+
+    public String generateRefreshToken(UserProfile user){
         Date now = new Date(); //fecha actual
         Date expireDate = new Date(now.getTime() + jwtRefreshTokenExpirationMs); //caducidad del token
 
         Map<String,Object> claims = new HashMap<>();
-        claims.put("id",user.getId());
-        claims.put("email",user.getEmail());
+        claims.put("id",user.id());
+        claims.put("email",user.email());
         claims.put("tokenType","refresh"); //aquí va el identificador de que el token es tipo refresh
 
-        AnsiColors.infoLog(logger,"Refresh token generados para usuario: "+user.getEmail());
+        log.debug().user(user.id()).log("Refresh token generado");
 
         return Jwts.builder()
                 .setClaims(claims)
-                .setSubject(user.getEmail())
+                .setSubject(user.email())
                 .setIssuedAt(now)
                 .setExpiration(expireDate)
-                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes()), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact(); //<- em esta lambda van los datos que llevará el token
     }
     public String generateTokenFromEmail(String email){
-        User user = userService.findByEmail(email)
+        UserProfile user = userProfileCache.findByEmail(email)
                 .orElseThrow(() -> UserException.usuarioNoEncontradoEmail(email));
         return generateToken(user);
     }
 
-    public boolean validateToken(String token){
-       // AnsiColors.infoLog(logger,"Token Secret: "+jwtSecret);
+    /**
+     * Verifica firma y caducidad una sola vez y devuelve los datos del token.
+     * Vacío si el token está caducado o no es válido
+     */
+    public Optional<VerifiedToken> verify(String token){
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
-                    .build()
-                    .parseClaimsJws(token);
-            AnsiColors.infoLog(logger,"Token validado");
-            return true;
+            return Optional.of(VerifiedToken.fromClaims(parser.parseClaimsJws(token).getBody()));
         } catch (ExpiredJwtException e) {
-            AnsiColors.errorLog(logger, "Token expirado: " + e.getMessage());
-            return false;
+            log.debug().log("Token expirado: {}", e.getMessage());
+            return Optional.empty();
         } catch (Exception e) {
-            AnsiColors.errorLog(logger, "Token inválido: " + e.getMessage());
-            return false;
+            log.debug().log("Token inválido: {}", e.getMessage());
+            return Optional.empty();
         }
     }
+
+    public boolean validateToken(String token){
+        return verify(token).isPresent();
+    }
+
     public Claims getClaims(String token){
-        return Jwts.parserBuilder()
-                .setSigningKey(Keys.hmacShaKeyFor(jwtSecret.getBytes()))
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public String getEmailFromToken(String token){
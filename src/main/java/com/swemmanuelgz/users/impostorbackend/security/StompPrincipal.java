@@ -0,0 +1,67 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Identidad de una sesión STOMP, resuelta una sola vez en el CONNECT (ver StompAuthChannelInterceptor).
+ * Se guarda como usuario de la sesión y en sus atributos, así los handlers la leen sin consultar nada.
+ *
+ * getName() devuelve el userId para que convertAndSendToUser(userId, ...) siga funcionando.
+ */
+public class StompPrincipal implements Principal {
+
+    public static final String SESSION_ATTRIBUTE = "stompPrincipal";
+
+    private final Long userId;
+    private final String username;
+    // Sala actual; la actualizan join/reconnect/leave desde el hilo que procesa el frame
+    private volatile String roomCode;
+
+    public StompPrincipal(Long userId, String username) {
+        this.userId = userId;
+        this.username = username;
+    }
+
+    /**
+     * Principal de la sesión del mensaje, o null si la conexión es anónima
+     */
+    public static StompPrincipal from(SimpMessageHeaderAccessor headers) {
+        if (headers.getUser() instanceof StompPrincipal principal) {
+            return principal;
+        }
+        Map<String, Object> attributes = headers.getSessionAttributes();
+        if (attributes != null && attributes.get(SESSION_ATTRIBUTE) instanceof StompPrincipal principal) {
+            return principal;
+        }
+        return null;
+    }
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getRoomCode() {
+        return roomCode;
+    }
+
+    public void setRoomCode(String roomCode) {
+        this.roomCode = roomCode;
+    }
+
+    @Override
+    public String toString() {
+        return "StompPrincipal{userId=" + userId + ", username=" + username + ", roomCode=" + roomCode + "}";
+    }
+}
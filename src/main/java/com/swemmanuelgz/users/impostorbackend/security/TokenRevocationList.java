@@ -0,0 +1,93 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tokens revocados antes de caducar, con comprobación O(1).
+ *
+ * - Por token (logout): se guarda el digest hasta su exp; después ya no hace falta recordarlo.
+ * - Por usuario (cambio de contraseña): se guarda el instante de revocación y se rechaza cualquier
+ *   token emitido antes. Se olvida cuando ya no puede quedar vivo ningún token anterior (refresh expiration).
+ *
+ * Sin límite de tamaño: expulsar una entrada antes de tiempo devolvería la validez a un token revocado.
+ * Solo se revocan tokens válidos y desde un logout autenticado y limitado por IP (RateLimitingFilter), así que
+ * el tamaño lo acota el ritmo de emisión de tokens por su duración.
+ *
+ * Es memoria local de cada instancia.
+ */
+@Component
+public class TokenRevocationList {
+
+    private final Cache<String, Instant> revokedDigests;
+    private final Cache<Long, Instant> revokedBeforeByUser;
+
+    public TokenRevocationList(@Value("${jwt.refresh.expiration}") long refreshExpirationMs) {
+        this.revokedDigests = Caffeine.newBuilder()
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+        this.revokedBeforeByUser = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(refreshExpirationMs))
+                .build();
+    }
+
+    public void revokeDigest(String digest, Instant expiresAt) {
+        if (expiresAt != null && expiresAt.isAfter(Instant.now())) {
+            revokedDigests.put(digest, expiresAt);
+        }
+    }
+
+    /**
+     * Invalida todos los tokens del usuario emitidos hasta ahora. El iat del JWT va en segundos,
+     * así que se compara a segundos: los tokens emitidos a partir del segundo siguiente son válidos
+     */
+    public void revokeAllForUser(Long userId) {
+        if (userId != null) {
+            revokedBeforeByUser.put(userId, Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1));
+        }
+    }
+
+    public boolean isRevoked(String digest, VerifiedToken token) {
+        if (revokedDigests.getIfPresent(digest) != null) {
+            return true;
+        }
+        if (token.userId() == null || token.issuedAt() == null) {
+            return false;
+        }
+        Instant revokedBefore = revokedBeforeByUser.getIfPresent(token.userId());
+        return revokedBefore != null && token.issuedAt().isBefore(revokedBefore);
+    }
+
+    private static Duration untilExpiry(Instant expiresAt) {
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    /**
+     * El digest se recuerda hasta el exp del token revocado, ni más ni menos
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, Instant> {
+
+        @Override
+        public long expireAfterCreate(String digest, Instant expiresAt, long currentTime) {
+            return untilExpiry(expiresAt).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Instant expiresAt, long currentTime, long currentDuration) {
+            return untilExpiry(expiresAt).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Instant expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
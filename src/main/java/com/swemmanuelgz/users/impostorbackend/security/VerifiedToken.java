@@ -0,0 +1,29 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * Resultado de verificar un JWT una sola vez (firma + caducidad).
+ * Lleva ya extraídos los datos que usan el filtro y el refresh, para no volver a parsear el token.
+ */
+public record VerifiedToken(String email, Long userId, String role, String tokenType,
+                            Instant issuedAt, Instant expiresAt, Claims claims) {
+
+    static VerifiedToken fromClaims(Claims claims) {
+        Object id = claims.get("id");
+        return new VerifiedToken(
+                claims.getSubject(),
+                id != null ? Long.valueOf(id.toString()) : null,
+                claims.get("role", String.class),
+                claims.get("tokenType", String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims);
+    }
+
+    public boolean isRefreshToken() {
+        return "refresh".equals(tokenType);
+    }
+}
@@ -0,0 +1,119 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.swemmanuelgz.users.impostorbackend.utils.TokenDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Caché de tokens ya verificados, indexada por el SHA-256 del token (nunca se guarda el token en claro).
+ *
+ * Cada entrada caduca exactamente en el exp del JWT, así que un acierto no necesita volver a
+ * comprobar la firma HS512. La revocación (TokenRevocationList) se consulta siempre, también en los aciertos.
+ * Las métricas se publican con cache=verifiedTokens y jwt.revoked.rejected.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtProvider jwtProvider;
+    private final TokenRevocationList revocationList;
+    private final Cache<String, VerifiedToken> verified;
+    private final Counter revokedRejected;
+
+    public VerifiedTokenCache(JwtProvider jwtProvider,
+                              TokenRevocationList revocationList,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.max-size:50000}") long maxSize) {
+        this.jwtProvider = jwtProvider;
+        this.revocationList = revocationList;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        this.revokedRejected = Counter.builder("jwt.revoked.rejected").register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "verifiedTokens");
+    }
+
+    /**
+     * Igual que JwtProvider.verify pero sin repetir la verificación de un token ya visto
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        String digest = TokenDigest.sha256(token);
+        VerifiedToken cached = verified.getIfPresent(digest);
+        if (cached == null) {
+            cached = jwtProvider.verify(token).orElse(null);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            verified.put(digest, cached);
+        }
+        if (revocationList.isRevoked(digest, cached)) {
+            revokedRejected.increment();
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * Revoca un token concreto (logout). Los tokens no válidos se ignoran
+     */
+    public void revoke(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        String digest = TokenDigest.sha256(token);
+        Optional.ofNullable(verified.getIfPresent(digest))
+                .or(() -> jwtProvider.verify(token))
+                .ifPresent(jwt -> revocationList.revokeDigest(digest, jwt.expiresAt()));
+        verified.invalidate(digest);
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para el usuario (cambio de contraseña)
+     */
+    public void revokeAllForUser(Long userId) {
+        revocationList.revokeAllForUser(userId);
+    }
+
+    private static Duration untilExpiry(Instant expiresAt) {
+        if (expiresAt == null) {
+            return Duration.ZERO;
+        }
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    /**
+     * La entrada vive hasta el exp del token; leerla o reemplazarla no lo alarga
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            return untilExpiry(token.expiresAt()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.config.WorkloadContext;
+import com.swemmanuelgz.users.impostorbackend.repository.GameArchiveRepository;
+import com.swemmanuelgz.users.impostorbackend.repository.GameRepository;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Archivado de partidas terminadas (separación caliente/fría).
+ *
+ * Mueve a games_archive / game_players_archive las partidas FINISHED más antiguas que
+ * archive.games.older-than-days, en bloques pequeños ordenados por id. Cada bloque es una
+ * transacción corta (copiar + borrar) y entre bloques se hace una pausa, así nunca se
+ * mantienen bloqueos largos sobre las tablas que usan las partidas en curso.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "archive.games.enabled", havingValue = "true", matchIfMissing = true)
+public class GameArchiveJob {
+
+    private static final Logger logger = Logger.getLogger(GameArchiveJob.class.getName());
+
+    private final GameRepository gameRepository;
+    private final GameArchiveRepository gameArchiveRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${archive.games.older-than-days:7}")
+    private int olderThanDays;
+
+    @Value("${archive.games.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${archive.games.pause-ms:250}")
+    private long pauseMs;
+
+    @Value("${archive.games.max-chunks-per-run:500}")
+    private int maxChunksPerRun;
+
+    @Scheduled(initialDelayString = "${archive.games.initial-delay-ms:600000}",
+               fixedDelayString = "${archive.games.interval-ms:3600000}")
+    public void archiveFinishedGames() {
+        try {
+            WorkloadContext.run(WorkloadContext.Workload.BATCH, this::archive);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            AnsiColors.warningLog(logger, "Archivado de partidas interrumpido");
+        } catch (Exception e) {
+            AnsiColors.errorLog(logger, "❌ Error archivando partidas: " + e.getMessage());
+        }
+    }
+
+    private void archive() throws InterruptedException {
+        Instant cutoff = Instant.now().minus(olderThanDays, ChronoUnit.DAYS);
+        long lastId = 0L;
+        int chunks = 0;
+        int archivedGames = 0;
+
+        while (chunks < maxChunksPerRun) {
+            List<Long> gameIds = gameRepository.findArchivableGameIds(cutoff, lastId, PageRequest.ofSize(chunkSize));
+            if (gameIds.isEmpty()) {
+                break;
+            }
+
+            Integer moved = transactionTemplate.execute(status -> moveChunk(gameIds));
+            archivedGames += moved != null ? moved : 0;
+            lastId = gameIds.get(gameIds.size() - 1);
+            chunks++;
+
+            if (gameIds.size() < chunkSize) {
+                break;
+            }
+            Thread.sleep(pauseMs);
+        }
+
+        if (archivedGames > 0) {
+            AnsiColors.successLog(logger, "📦 Archivadas " + archivedGames + " partidas terminadas en " + chunks + " bloques");
+        }
+    }
+
+    /**
+     * Copia y borra un bloque. El archivo de partidas va primero porque game_players_archive la referencia
+     */
+    private int moveChunk(List<Long> gameIds) {
+        int games = gameArchiveRepository.copyGames(gameIds, Instant.now());
+        gameArchiveRepository.copyPlayers(gameIds);
+        gameArchiveRepository.deleteLivePlayers(gameIds);
+        gameArchiveRepository.deleteLiveGames(gameIds);
+        return games;
+    }
+}
@@ -1,5 +1,6 @@
 package com.swemmanuelgz.users.impostorbackend.service;
 
+import com.swemmanuelgz.users.impostorbackend.config.WorkloadContext;
 import com.swemmanuelgz.users.impostorbackend.repository.GameRepository;
 import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
 import lombok.RequiredArgsConstructor;
@@ -41,14 +42,17 @@ public class GameCleanupScheduler {
         
         Instant cutoffTime = Instant.now().minus(MAX_GAME_DURATION_HOURS, ChronoUnit.HOURS);
         
+        // UPDATE masivo: usa el pool batch para no quitar conexiones a las partidas en curso
         try {
-            int closedCount = gameRepository.closeStaleGames(cutoffTime);
-            
-            if (closedCount > 0) {
-                AnsiColors.successLog(logger, "✅ Cerradas " + closedCount + " partidas antiguas (>1 hora)");
-            } else {
-                AnsiColors.infoLog(logger, "📋 No hay partidas antiguas para cerrar");
-            }
+            WorkloadContext.run(WorkloadContext.Workload.BATCH, () -> {
+                int closedCount = gameRepository.closeStaleGames(cutoffTime);
+
+                if (closedCount > 0) {
+                    AnsiColors.successLog(logger, "✅ Cerradas " + closedCount + " partidas antiguas (>1 hora)");
+                } else {
+                    AnsiColors.infoLog(logger, "📋 No hay partidas antiguas para cerrar");
+                }
+            });
         } catch (Exception e) {
             AnsiColors.errorLog(logger, "❌ Error cerrando partidas antiguas: " + e.getMessage());
         }
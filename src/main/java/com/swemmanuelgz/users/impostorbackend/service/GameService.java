@@ -1,7 +1,10 @@
 package com.swemmanuelgz.users.impostorbackend.service;
 
+import com.swemmanuelgz.users.impostorbackend.dto.CursorPage;
 import com.swemmanuelgz.users.impostorbackend.dto.GameDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto;
 import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
+import com.swemmanuelgz.users.impostorbackend.dto.RoundResolution;
 import com.swemmanuelgz.users.impostorbackend.entity.Game;
 import com.swemmanuelgz.users.impostorbackend.entity.GamePlayer;
 import org.springframework.data.domain.Page;
@@ -18,6 +21,7 @@ public interface GameService {
     void deleteById(Long id);
     Optional<Game> findById(Long id);
     Page<Game> findAll(Pageable pageable);
+    CursorPage<GameDto> findPageByCursor(String cursor, int size, boolean includeTotal);
     
     // Búsquedas específicas
     Optional<Game> findByRoomCode(String roomCode);
@@ -38,8 +42,13 @@ public interface GameService {
     
     // Obtener jugadores
     List<GamePlayerDto> getGamePlayers(Long gameId);
+    Optional<GameDto> findGameDetailsById(Long id);
+    Optional<GameDto> findGameDetailsByRoomCode(String roomCode);
     GamePlayerDto getPlayerRole(Long gameId, Long userId);
     
+    // Historial (tablas vivas + archivo)
+    CursorPage<GameHistoryDto> findUserHistory(Long userId, String cursor, int size);
+    
     // Reconexión
     Optional<GameDto> getActiveGameForUser(Long userId);
     GameDto rejoinGame(String roomCode, Long userId);
@@ -54,4 +63,5 @@ public interface GameService {
     boolean checkCitizensWin(Long gameId);
     List<String> getImpostorNames(Long gameId);
     void startNewRound(Long gameId);
+    Optional<RoundResolution> resolveRound(Long gameId);
 }
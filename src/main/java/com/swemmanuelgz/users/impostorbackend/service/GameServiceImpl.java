@@ -1,47 +1,73 @@
 package com.swemmanuelgz.users.impostorbackend.service;
 
+import com.swemmanuelgz.users.impostorbackend.dto.CursorPage;
 import com.swemmanuelgz.users.impostorbackend.dto.GameDto;
+import com.swemmanuelgz.users.impostorbackend.dto.GameHistoryDto;
 import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
+import com.swemmanuelgz.users.impostorbackend.dto.RoundResolution;
+import com.swemmanuelgz.users.impostorbackend.dto.UserProfile;
+import com.swemmanuelgz.users.impostorbackend.config.ReplicationRoutingDataSource;
 import com.swemmanuelgz.users.impostorbackend.entity.Game;
 import com.swemmanuelgz.users.impostorbackend.entity.GamePlayer;
 import com.swemmanuelgz.users.impostorbackend.entity.User;
 import com.swemmanuelgz.users.impostorbackend.exception.GameException;
 import com.swemmanuelgz.users.impostorbackend.exception.UserException;
+import com.swemmanuelgz.users.impostorbackend.monitoring.DbRoundTripEvent;
+import com.swemmanuelgz.users.impostorbackend.monitoring.GameMetrics;
+import com.swemmanuelgz.users.impostorbackend.monitoring.RoomCreatedEvent;
+import com.swemmanuelgz.users.impostorbackend.repository.ArchivedGamePlayerRepository;
 import com.swemmanuelgz.users.impostorbackend.repository.GamePlayerRepository;
 import com.swemmanuelgz.users.impostorbackend.repository.GameRepository;
 import com.swemmanuelgz.users.impostorbackend.repository.UserRepository;
 import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import com.swemmanuelgz.users.impostorbackend.utils.GameLog;
+import com.swemmanuelgz.users.impostorbackend.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Clock;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class GameServiceImpl implements GameService {
     
     private static final Logger logger = Logger.getLogger(GameServiceImpl.class.getName());
+    // Votos, roles y consultas por jugador: se llaman en cada mensaje de la partida
+    private static final GameLog log = GameLog.of(GameServiceImpl.class);
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int CODE_LENGTH = 6;
     
     private final GameRepository gameRepository;
     private final GamePlayerRepository gamePlayerRepository;
+    private final ArchivedGamePlayerRepository archivedGamePlayerRepository;
     private final UserRepository userRepository;
     private final GameSessionManager gameSessionManager;
-    private final Random random = new Random();
+    private final UserStatsService userStatsService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final UserProfileCache userProfileCache;
+    private final GameMetrics gameMetrics;
+    // Inyectados (ClockConfig) para que el simulador de partidas use tiempo virtual y semillas fijas
+    private final Clock clock;
+    private final Random random;
 
     @Override
     @Transactional
     public Game save(Game game) {
-        game.setCreatedAt(Instant.now());
+        game.setCreatedAt(clock.instant());
         Game savedGame = gameRepository.save(game);
         AnsiColors.successLog(logger, "Partida guardada con ID: " + savedGame.getId());
         return savedGame;
@@ -70,13 +96,61 @@ public class GameServiceImpl implements GameService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Game> findAll(Pageable pageable) {
         return gameRepository.findAll(pageable);
     }
 
+    /**
+     * Listado de partidas por cursor sobre (createdAt, id) DESC.
+     * Se pide una fila de más para saber si hay página siguiente sin hacer COUNT(*),
+     * y los jugadores de toda la página se cargan en una sola consulta
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<GameDto> findPageByCursor(String cursor, int size, boolean includeTotal) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+
+        List<GameDto> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = gameRepository.findFirstKeysetPage(limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = gameRepository.findKeysetPageAfter(position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<GameDto> games = hasNext ? rows.subList(0, pageSize) : rows;
+
+        if (!games.isEmpty()) {
+            Map<Long, List<GamePlayerDto>> playersByGame = gamePlayerRepository
+                    .findPlayerDtosByGameIds(games.stream().map(GameDto::getId).toList())
+                    .stream()
+                    .collect(Collectors.groupingBy(GamePlayerDto::getGameId));
+            games = games.stream()
+                    .map(game -> game.withPlayers(playersByGame.getOrDefault(game.getId(), List.of())))
+                    .toList();
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            GameDto last = games.get(games.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<GameDto>builder()
+                .content(games)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(games.size())
+                .totalElements(includeTotal ? gameRepository.count() : null)
+                .build();
+    }
+
     @Override
     public Optional<Game> findByRoomCode(String roomCode) {
-        return gameRepository.findByRoomCode(roomCode);
+        return timedQuery("findByRoomCode", null, () -> gameRepository.findByRoomCode(roomCode));
     }
 
     @Override
@@ -85,6 +159,7 @@ public class GameServiceImpl implements GameService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Game> findAvailableGames() {
         return gameRepository.findAvailableGames();
     }
@@ -99,8 +174,10 @@ public class GameServiceImpl implements GameService {
     public GameDto createGame(Long creatorId, String category, Integer maxPlayers, Integer duration) {
         AnsiColors.infoLog(logger, "Creando partida para usuario ID: " + creatorId + " con duración: " + duration + " minutos");
         
-        User creator = userRepository.findById(creatorId)
+        // El perfil sale de la caché; para las FK basta con una referencia sin SELECT
+        UserProfile creatorProfile = userProfileCache.findById(creatorId)
                 .orElseThrow(() -> UserException.usuarioNoEncontradoIDLong(creatorId));
+        User creator = userRepository.getReferenceById(creatorId);
         
         // Generar código de sala único
         String roomCode = generateRoomCode();
@@ -112,11 +189,17 @@ public class GameServiceImpl implements GameService {
         game.setRoomCode(roomCode);
         game.setStatus("WAITING");
         game.setCreator(creator);
-        game.setCreatedAt(Instant.now());
+        game.setCreatedAt(clock.instant());
         game.setDuration(duration != null ? duration : 10); // Default 10 minutos
         
         game = gameRepository.save(game);
         AnsiColors.successLog(logger, "Partida creada con código: " + roomCode);
+        RoomCreatedEvent roomCreated = new RoomCreatedEvent();
+        if (roomCreated.shouldCommit()) {
+            roomCreated.roomCode = roomCode;
+            roomCreated.creatorId = creatorId;
+            roomCreated.commit();
+        }
         
         // Añadir al creador como jugador
         GamePlayer creatorPlayer = new GamePlayer();
@@ -127,9 +210,13 @@ public class GameServiceImpl implements GameService {
         gamePlayerRepository.save(creatorPlayer);
         
         AnsiColors.successLog(logger, "Creador añadido a la partida como jugador");
+        readYourWritesTracker.markUserWrite(creatorId);
+        markGameWrite(game);
         
         List<GamePlayerDto> players = getGamePlayers(game.getId());
-        return GameDto.fromEntityWithPlayers(game, players);
+        return new GameDto(game.getId(), game.getRoomCode(), game.getStatus(), creatorId, creatorProfile.username(),
+                game.getCreatedAt(), game.getDuration(), game.getStartedAt())
+                .withPlayers(players);
     }
 
     @Override
@@ -140,8 +227,9 @@ public class GameServiceImpl implements GameService {
         Game game = gameRepository.findByRoomCode(roomCode)
                 .orElseThrow(() -> GameException.gameNoEncontradoPorCodigo(roomCode));
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> UserException.usuarioNoEncontradoIDLong(userId));
+        if (userProfileCache.findById(userId).isEmpty()) {
+            throw UserException.usuarioNoEncontradoIDLong(userId);
+        }
         
         // Verificar si el usuario ya está en la partida (reconexión)
         Optional<GamePlayer> existingPlayer = gamePlayerRepository.findByGameIdAndUserId(game.getId(), userId);
@@ -165,12 +253,14 @@ public class GameServiceImpl implements GameService {
         // Añadir jugador nuevo
         GamePlayer player = new GamePlayer();
         player.setGame(game);
-        player.setUser(user);
+        player.setUser(userRepository.getReferenceById(userId));
         player.setIsImpostor(false);
         player.setIsWinner(false);
         gamePlayerRepository.save(player);
         
         AnsiColors.successLog(logger, "Usuario " + userId + " se unió a la partida " + roomCode);
+        readYourWritesTracker.markUserWrite(userId);
+        markGameWrite(game);
         
         List<GamePlayerDto> players = getGamePlayers(game.getId());
         return GameDto.fromEntityWithPlayers(game, players);
@@ -192,6 +282,8 @@ public class GameServiceImpl implements GameService {
         // Si la partida ya inició, mantener al jugador para permitir reconexión
         if ("WAITING".equals(game.getStatus())) {
             gamePlayerRepository.deleteByGameIdAndUserId(gameId, userId);
+            readYourWritesTracker.markUserWrite(userId);
+            markGameWrite(game);
             AnsiColors.successLog(logger, "Usuario " + userId + " salió de la partida " + gameId + " (partida en espera)");
             
             // Si no quedan jugadores, eliminar la partida
@@ -233,17 +325,18 @@ public class GameServiceImpl implements GameService {
         // Seleccionar impostor aleatoriamente
         int impostorIndex = random.nextInt(players.size());
         for (int i = 0; i < players.size(); i++) {
-            GamePlayer player = players.get(i);
-            player.setIsImpostor(i == impostorIndex);
-            gamePlayerRepository.save(player);
+            players.get(i).setIsImpostor(i == impostorIndex);
         }
+        gamePlayerRepository.saveAll(players);
         
         // Cambiar estado de la partida
         game.setStatus("IN_PROGRESS");
-        game.setStartedAt(Instant.now()); // Guardar momento de inicio para el cronómetro
+        game.setStartedAt(clock.instant()); // Guardar momento de inicio para el cronómetro
         game = gameRepository.save(game);
         
+        markGameWrite(game);
         AnsiColors.successLog(logger, "Partida " + gameId + " iniciada. Impostor seleccionado.");
+        gameMetrics.gameStarted(players.size());
         
         List<GamePlayerDto> playerDtos = getGamePlayers(gameId);
         GameDto gameDto = GameDto.fromEntityWithPlayers(game, playerDtos);
@@ -266,12 +359,38 @@ public class GameServiceImpl implements GameService {
         return code.toString();
     }
 
+    /**
+     * Jugadores de una partida como proyección de solo lectura.
+     * No se materializan User ni Game, así que no hay dirty checking ni caché de primer nivel
+     */
     @Override
+    @Transactional(readOnly = true)
     public List<GamePlayerDto> getGamePlayers(Long gameId) {
-        return gamePlayerRepository.findByGameId(gameId)
-                .stream()
-                .map(GamePlayerDto::fromEntity)
-                .collect(Collectors.toList());
+        return ReplicationRoutingDataSource.readPrimaryIf(readYourWritesTracker.hasRecentGameWrite(gameId),
+                () -> gamePlayerRepository.findPlayerDtosByGameId(gameId));
+    }
+
+    /**
+     * Detalle de partida (con jugadores) por ID, construido solo con proyecciones
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<GameDto> findGameDetailsById(Long id) {
+        return ReplicationRoutingDataSource.readPrimaryIf(readYourWritesTracker.hasRecentGameWrite(id),
+                () -> gameRepository.findDtoById(id)
+                        .map(game -> game.withPlayers(gamePlayerRepository.findPlayerDtosByGameId(id))));
+    }
+
+    /**
+     * Detalle de partida (con jugadores) por código de sala, construido solo con proyecciones.
+     * El ID no se conoce antes de consultar, así que read-your-writes va por el código de sala
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<GameDto> findGameDetailsByRoomCode(String roomCode) {
+        return ReplicationRoutingDataSource.readPrimaryIf(readYourWritesTracker.hasRecentRoomWrite(roomCode),
+                () -> gameRepository.findDtoByRoomCode(roomCode)
+                        .map(game -> game.withPlayers(gamePlayerRepository.findPlayerDtosByGameId(game.getId()))));
     }
 
     @Override
@@ -290,9 +409,8 @@ public class GameServiceImpl implements GameService {
             }
         }
         
-        AnsiColors.infoLog(logger, "Obteniendo rol para usuario " + userId + ": " + 
-                (Boolean.TRUE.equals(player.getIsImpostor()) ? "IMPOSTOR" : "CIUDADANO") +
-                (word != null ? " (palabra: " + word + ")" : ""));
+        log.debug().kv("gameId", gameId).user(userId)
+                .log("Rol consultado: {}", Boolean.TRUE.equals(player.getIsImpostor()) ? "IMPOSTOR" : "CIUDADANO");
         
         return GamePlayerDto.fromEntityWithRole(player, word);
     }
@@ -302,25 +420,68 @@ public class GameServiceImpl implements GameService {
      * Si el usuario tiene una partida activa (WAITING, IN_PROGRESS, VOTING), retorna la más reciente
      */
     @Override
+    @Transactional(readOnly = true)
     public Optional<GameDto> getActiveGameForUser(Long userId) {
-        AnsiColors.infoLog(logger, "Buscando partida activa para usuario: " + userId);
-        
-        List<GamePlayer> activeGames = gamePlayerRepository.findActiveGamesByUserId(userId);
-        
-        if (activeGames.isEmpty()) {
-            AnsiColors.infoLog(logger, "No hay partidas activas para usuario: " + userId);
-            return Optional.empty();
+        // Si el usuario acaba de crear/unirse a una partida la réplica puede no verla todavía
+        return ReplicationRoutingDataSource.readPrimaryIf(readYourWritesTracker.hasRecentUserWrite(userId), () -> {
+            List<GameDto> activeGames = gamePlayerRepository.findActiveGameDtosByUserId(userId);
+            if (activeGames.isEmpty()) {
+                log.debug().user(userId).log("Sin partidas activas");
+                return Optional.<GameDto>empty();
+            }
+            // Tomar la más reciente (ya viene ordenada por createdAt DESC)
+            GameDto game = activeGames.get(0);
+            
+            log.debug().room(game.getRoomCode()).user(userId)
+                    .log("Partida activa encontrada (status: {}, activas: {})", game.getStatus(), activeGames.size());
+            
+            return Optional.of(game.withPlayers(gamePlayerRepository.findPlayerDtosByGameId(game.getId())));
+        });
+    }
+
+    /**
+     * Historial de partidas terminadas de un usuario, combinando tablas vivas y archivo.
+     * Cada fuente devuelve como mucho size+1 filas tras el cursor y se mezclan por (createdAt, id) DESC;
+     * como el archivo conserva los ids originales no hay duplicados entre ambas
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<GameHistoryDto> findUserHistory(Long userId, String cursor, int size) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+
+        List<GameHistoryDto> live;
+        List<GameHistoryDto> archived;
+        if (cursor == null || cursor.isBlank()) {
+            live = gamePlayerRepository.findFirstHistoryPage(userId, limit);
+            archived = archivedGamePlayerRepository.findFirstHistoryPage(userId, limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            live = gamePlayerRepository.findHistoryPageAfter(userId, position.createdAt(), position.id(), limit);
+            archived = archivedGamePlayerRepository.findHistoryPageAfter(userId, position.createdAt(), position.id(), limit);
         }
-        
-        // Tomar la más reciente (ya viene ordenada por createdAt DESC)
-        GamePlayer gamePlayer = activeGames.get(0);
-        Game game = gamePlayer.getGame();
-        List<GamePlayerDto> players = getGamePlayers(game.getId());
-        
-        AnsiColors.successLog(logger, "Partida activa encontrada: " + game.getRoomCode() + 
-                " (status: " + game.getStatus() + "). Total partidas activas: " + activeGames.size());
-        
-        return Optional.of(GameDto.fromEntityWithPlayers(game, players));
+
+        List<GameHistoryDto> rows = Stream.concat(live.stream(), archived.stream())
+                .sorted(Comparator.comparing(GameHistoryDto::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(GameHistoryDto::getGameId, Comparator.reverseOrder()))
+                .limit(pageSize + 1L)
+                .toList();
+
+        boolean hasNext = rows.size() > pageSize;
+        List<GameHistoryDto> entries = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            GameHistoryDto last = entries.get(entries.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getGameId()).encode();
+        }
+
+        return CursorPage.<GameHistoryDto>builder()
+                .content(entries)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(entries.size())
+                .build();
     }
 
     /**
@@ -361,9 +522,7 @@ public class GameServiceImpl implements GameService {
     @Override
     @Transactional
     public void recordVote(Long gameId, Long voterId, Long votedForId) {
-        AnsiColors.infoLog(logger, "Registrando voto: gameId=" + gameId + ", voterId=" + voterId + ", votedForId=" + votedForId);
-        
-        GamePlayer voter = gamePlayerRepository.findByGameIdAndUserId(gameId, voterId)
+        GamePlayer voter = timedQuery("findVoter", gameId, () -> gamePlayerRepository.findByGameIdAndUserId(gameId, voterId))
                 .orElseThrow(() -> new GameException("Votante no encontrado", "VOTER_NOT_FOUND"));
         
         // Verificar que no haya votado ya
@@ -376,12 +535,26 @@ public class GameServiceImpl implements GameService {
             throw new GameException("No puedes votar - estás eliminado", "PLAYER_ELIMINATED");
         }
         
+        // La partida viene en el JOIN FETCH del votante: votos que llegan tras el final no cuentan
+        String gameStatus = voter.getGame().getStatus();
+        if (!"IN_PROGRESS".equals(gameStatus) && !"VOTING".equals(gameStatus)) {
+            throw new GameException("La partida no está en curso", "GAME_NOT_IN_PROGRESS");
+        }
+        
+        // Un voto a un jugador ya eliminado (cliente con la lista desactualizada) dejaría la ronda sin
+        // resolver: el más votado no estaría entre los activos
+        timedQuery("findVoteTarget", gameId, () -> gamePlayerRepository.findByGameIdAndUserId(gameId, votedForId))
+                .filter(target -> "ACTIVE".equals(target.getStatus()))
+                .orElseThrow(() -> new GameException("Solo se puede votar a jugadores activos de la partida", "INVALID_VOTE_TARGET"));
+        
         // Registrar voto
         voter.setHasVoted(true);
         voter.setVotedForId(votedForId);
         gamePlayerRepository.save(voter);
+        markGameWrite(voter.getGame());
+        gameMetrics.voteRecorded();
         
-        AnsiColors.successLog(logger, "Voto registrado correctamente");
+        log.debug().kv("gameId", gameId).user(voterId).log("Voto registrado por {}", votedForId);
     }
     
     /**
@@ -389,10 +562,10 @@ public class GameServiceImpl implements GameService {
      */
     @Override
     public boolean allPlayersVoted(Long gameId) {
-        int activePlayers = gamePlayerRepository.countActivePlayers(gameId);
-        int votedPlayers = gamePlayerRepository.countActivePlayersWhoVoted(gameId);
+        int activePlayers = timedQuery("countActivePlayers", gameId, () -> gamePlayerRepository.countActivePlayers(gameId));
+        int votedPlayers = timedQuery("countActivePlayersWhoVoted", gameId, () -> gamePlayerRepository.countActivePlayersWhoVoted(gameId));
         
-        AnsiColors.infoLog(logger, "Votos: " + votedPlayers + "/" + activePlayers);
+        log.debug().kv("gameId", gameId).log("Votos: {}/{}", votedPlayers, activePlayers);
         
         return votedPlayers >= activePlayers;
     }
@@ -402,16 +575,11 @@ public class GameServiceImpl implements GameService {
      */
     @Override
     public GamePlayer getMostVotedPlayer(Long gameId) {
-        List<GamePlayer> activePlayers = gamePlayerRepository.findActivePlayersByGameId(gameId);
-        
-        // Contar votos por jugador
-        java.util.Map<Long, Integer> voteCounts = new java.util.HashMap<>();
-        for (GamePlayer player : activePlayers) {
-            if (player.getVotedForId() != null) {
-                voteCounts.merge(player.getVotedForId(), 1, Integer::sum);
-            }
-        }
-        
+        List<GamePlayer> activePlayers = timedQuery("findActivePlayers", gameId, () -> gamePlayerRepository.findActivePlayersByGameId(gameId));
+        return mostVoted(gameId, activePlayers, countVotes(activePlayers));
+    }
+    
+    private static GamePlayer mostVoted(Long gameId, List<GamePlayer> activePlayers, java.util.Map<Long, Integer> voteCounts) {
         // Encontrar el más votado
         Long mostVotedUserId = null;
         int maxVotes = 0;
@@ -427,7 +595,7 @@ public class GameServiceImpl implements GameService {
         }
         
         final Long finalMostVotedUserId = mostVotedUserId;
-        AnsiColors.infoLog(logger, "Jugador más votado: userId=" + mostVotedUserId + " con " + maxVotes + " votos");
+        log.debug().kv("gameId", gameId).user(mostVotedUserId).log("Jugador más votado con {} votos", maxVotes);
         
         return activePlayers.stream()
                 .filter(p -> p.getUser().getId().equals(finalMostVotedUserId))
@@ -440,15 +608,19 @@ public class GameServiceImpl implements GameService {
      */
     @Override
     public java.util.Map<Long, Integer> getVoteCounts(Long gameId) {
-        List<GamePlayer> activePlayers = gamePlayerRepository.findActivePlayersByGameId(gameId);
-        
+        return countVotes(timedQuery("findActivePlayers", gameId, () -> gamePlayerRepository.findActivePlayersByGameId(gameId)));
+    }
+    
+    /**
+     * Votos recibidos por cada userId entre los jugadores dados (los que no han votado no cuentan)
+     */
+    static java.util.Map<Long, Integer> countVotes(List<GamePlayer> players) {
         java.util.Map<Long, Integer> voteCounts = new java.util.HashMap<>();
-        for (GamePlayer player : activePlayers) {
+        for (GamePlayer player : players) {
             if (player.getVotedForId() != null) {
                 voteCounts.merge(player.getVotedForId(), 1, Integer::sum);
             }
         }
-        
         return voteCounts;
     }
     
@@ -463,6 +635,7 @@ public class GameServiceImpl implements GameService {
         
         player.setStatus("ELIMINATED");
         gamePlayerRepository.save(player);
+        readYourWritesTracker.markGameWrite(gameId);
         
         AnsiColors.successLog(logger, "Jugador " + userId + " eliminado de la partida " + gameId);
     }
@@ -479,8 +652,7 @@ public class GameServiceImpl implements GameService {
         // Impostor gana si tiene >= ciudadanos
         boolean impostorWins = activeImpostors >= activeCitizens;
         
-        AnsiColors.infoLog(logger, "Check victoria: " + activeImpostors + " impostores vs " + activeCitizens + " ciudadanos → " + 
-            (impostorWins ? "IMPOSTOR GANA" : "Continúa"));
+        log.debug().kv("gameId", gameId).log("Check victoria: {} impostores vs {} ciudadanos", activeImpostors, activeCitizens);
         
         return impostorWins;
     }
@@ -515,12 +687,60 @@ public class GameServiceImpl implements GameService {
         for (GamePlayer player : activePlayers) {
             player.setHasVoted(false);
             player.setVotedForId(null);
-            gamePlayerRepository.save(player);
         }
+        gamePlayerRepository.saveAll(activePlayers);
+        readYourWritesTracker.markGameWrite(gameId);
         
         AnsiColors.successLog(logger, "Nueva ronda iniciada - votos reseteados para partida " + gameId);
     }
     
+    /**
+     * Resolver la ronda: eliminar al más votado y terminar la partida o empezar otra ronda.
+     * Vacío si no hay ronda que resolver (partida terminada, o ya resuelta y con los votos reiniciados),
+     * de modo que una segunda resolución de la misma ronda no elimina a otro jugador
+     */
+    @Override
+    @Transactional
+    public Optional<RoundResolution> resolveRound(Long gameId) {
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> GameException.gameNoEncontrado(gameId));
+        if (!"IN_PROGRESS".equals(game.getStatus()) && !"VOTING".equals(game.getStatus())) {
+            log.debug().kv("gameId", gameId).log("Ronda sin resolver: partida en estado {}", game.getStatus());
+            return Optional.empty();
+        }
+        
+        List<GamePlayer> activePlayers = timedQuery("findActivePlayers", gameId, () -> gamePlayerRepository.findActivePlayersByGameId(gameId));
+        if (activePlayers.isEmpty() || !activePlayers.stream().allMatch(p -> Boolean.TRUE.equals(p.getHasVoted()))) {
+            log.debug().kv("gameId", gameId).log("Ronda sin resolver: faltan votos o ya estaba resuelta");
+            return Optional.empty();
+        }
+        
+        java.util.Map<Long, Integer> voteCounts = countVotes(activePlayers);
+        GamePlayer eliminated = mostVoted(gameId, activePlayers, voteCounts);
+        Long eliminatedUserId = eliminated.getUser().getId();
+        boolean wasImpostor = Boolean.TRUE.equals(eliminated.getIsImpostor());
+        
+        eliminated.setStatus("ELIMINATED");
+        gamePlayerRepository.save(eliminated);
+        markGameWrite(game);
+        
+        RoundResolution.Outcome outcome;
+        if (wasImpostor && checkCitizensWin(gameId)) {
+            outcome = RoundResolution.Outcome.CITIZENS_WIN;
+            endGame(gameId, false);
+        } else if (!wasImpostor && checkImpostorWins(gameId)) {
+            outcome = RoundResolution.Outcome.IMPOSTOR_WINS;
+            endGame(gameId, true);
+        } else {
+            outcome = RoundResolution.Outcome.NEW_ROUND;
+            startNewRound(gameId);
+        }
+        
+        log.debug().kv("gameId", gameId).user(eliminatedUserId).kv("wasImpostor", wasImpostor).log("Ronda resuelta: {}", outcome);
+        return Optional.of(new RoundResolution(gameId, eliminatedUserId, eliminated.getUser().getUsername(), wasImpostor,
+                voteCounts, outcome, outcome == RoundResolution.Outcome.NEW_ROUND ? List.of() : getImpostorNames(gameId)));
+    }
+    
     /**
      * Finalizar juego y marcar ganadores
      */
@@ -530,18 +750,60 @@ public class GameServiceImpl implements GameService {
         Game game = gameRepository.findById(gameId)
                 .orElseThrow(() -> GameException.gameNoEncontrado(gameId));
         
-        game.setStatus("FINISHED");
-        gameRepository.save(game);
+        // Solo el endGame que pasa la partida a FINISHED marca ganadores y cuenta estadísticas.
+        // Leer el estado y luego escribirlo dejaba que dos cierres concurrentes contasen los dos
+        if (gameRepository.markFinished(gameId) == 0) {
+            log.debug().room(game.getRoomCode()).kv("gameId", gameId).log("Partida ya finalizada, no se cuenta otra vez");
+            return;
+        }
+        
+        // Marcar ganadores (los UPDATE salen en un solo batch al hacer flush)
+        List<GamePlayer> allPlayers = gamePlayerRepository.saveAll(markWinners(
+                gamePlayerRepository.findByGameId(gameId), impostorWins));
         
-        // Marcar ganadores
-        List<GamePlayer> allPlayers = gamePlayerRepository.findByGameId(gameId);
+        // Las estadísticas van después: cada upsert nativo fuerza un flush y partiría el batch
+        markGameWrite(game);
+        gameMetrics.gameFinished(impostorWins);
         for (GamePlayer player : allPlayers) {
-            boolean isWinner = (impostorWins && Boolean.TRUE.equals(player.getIsImpostor())) ||
-                               (!impostorWins && !Boolean.TRUE.equals(player.getIsImpostor()));
-            player.setIsWinner(isWinner);
-            gamePlayerRepository.save(player);
+            readYourWritesTracker.markUserWrite(player.getUser().getId());
+            userStatsService.recordGameResult(player.getUser().getId(),
+                    Boolean.TRUE.equals(player.getIsImpostor()), Boolean.TRUE.equals(player.getIsWinner()));
         }
         
         AnsiColors.successLog(logger, "Juego " + gameId + " finalizado. Ganador: " + (impostorWins ? "IMPOSTOR" : "CIUDADANOS"));
     }
+    
+    /**
+     * Read-your-writes de la partida tanto por ID como por código de sala
+     */
+    private void markGameWrite(Game game) {
+        readYourWritesTracker.markGameWrite(game.getId());
+        readYourWritesTracker.markRoomWrite(game.getRoomCode());
+    }
+
+    /**
+     * Consulta de las rutas calientes con evento JFR DbRoundTrip (si el evento está desactivado solo cuesta el begin/end)
+     */
+    private static <T> T timedQuery(String operation, Long gameId, Supplier<T> query) {
+        DbRoundTripEvent event = new DbRoundTripEvent();
+        event.begin();
+        try {
+            return query.get();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = operation;
+                event.gameId = gameId != null ? gameId : 0;
+                event.commit();
+            }
+        }
+    }
+    
+    private List<GamePlayer> markWinners(List<GamePlayer> players, boolean impostorWins) {
+        for (GamePlayer player : players) {
+            boolean isImpostor = Boolean.TRUE.equals(player.getIsImpostor());
+            player.setIsWinner(impostorWins == isImpostor);
+        }
+        return players;
+    }
 }
\ No newline at end of file
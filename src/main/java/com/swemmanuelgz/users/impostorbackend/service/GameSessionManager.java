@@ -3,10 +3,12 @@ package com.swemmanuelgz.users.impostorbackend.service;
 import com.swemmanuelgz.users.impostorbackend.dto.GameDto;
 import com.swemmanuelgz.users.impostorbackend.dto.GamePlayerDto;
 import com.swemmanuelgz.users.impostorbackend.exception.WebSocketException;
-import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
-import lombok.RequiredArgsConstructor;
+import com.swemmanuelgz.users.impostorbackend.monitoring.GameMetrics;
+import com.swemmanuelgz.users.impostorbackend.utils.GameLog;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
@@ -14,7 +16,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 /**
@@ -24,12 +25,15 @@ import java.util.stream.Collectors;
  * - Sesiones de juego activas
  * - Reconexión de jugadores
  * - Limpieza de sesiones inactivas
+ *
+ * Todo el estado vive en memoria y debe volver a cero cuando no hay partidas: las salas sin jugadores,
+ * las desconexiones caducadas y las sesiones sin actividad (sockets medio abiertos cuyo DISCONNECT no
+ * llegó) se eliminan en cleanupInactiveSessions. El tiempo sale del Clock inyectado.
  */
 @Service
-@RequiredArgsConstructor
 public class GameSessionManager {
     
-    private static final Logger logger = Logger.getLogger(GameSessionManager.class.getName());
+    private static final GameLog log = GameLog.of(GameSessionManager.class);
     
     /**
      * Máximo de jugadores por sala
@@ -46,6 +50,13 @@ public class GameSessionManager {
      */
     public static final int RECONNECT_TIMEOUT_SECONDS = 60;
     
+    /**
+     * Sesión sin heartbeat durante este tiempo: se da por muerta aunque no haya llegado su desconexión.
+     * Igual que la duración máxima de una partida (GameCleanupScheduler), así nunca se expulsa a un jugador
+     * de una partida que sigue abierta
+     */
+    public static final Duration SESSION_IDLE_TIMEOUT = Duration.ofHours(1);
+    
     /**
      * Map de roomCode -> Set de userIds conectados
      */
@@ -62,9 +73,20 @@ public class GameSessionManager {
     private final Map<Long, DisconnectionInfo> disconnectedPlayers = new ConcurrentHashMap<>();
     
     /**
-     * Map de sessionId (WebSocket) -> userId (para tracking de sesiones)
+     * Map de sessionId (WebSocket) -> userId y última actividad (para tracking de sesiones)
      */
-    private final Map<String, Long> sessionToUser = new ConcurrentHashMap<>();
+    private final Map<String, SessionEntry> sessionToUser = new ConcurrentHashMap<>();
+    
+    private final GameMetrics gameMetrics;
+    private final Clock clock;
+    
+    public GameSessionManager(GameMetrics gameMetrics, Clock clock) {
+        this.gameMetrics = gameMetrics;
+        this.clock = clock;
+        gameMetrics.gaugeRooms("WAITING", () -> countRoomsByStatus("WAITING"));
+        gameMetrics.gaugeRooms("IN_PROGRESS", () -> countRoomsByStatus("IN_PROGRESS"));
+        gameMetrics.gaugeConnectedSessions(sessionToUser::size);
+    }
     
     // ========== Gestión de Conexiones ==========
     
@@ -72,24 +94,27 @@ public class GameSessionManager {
      * Registra la conexión de un jugador a una sala
      */
     public void playerConnected(String roomCode, Long userId, String sessionId) {
-        AnsiColors.infoLog(logger, "Registrando conexión - RoomCode: " + roomCode + ", UserId: " + userId);
+        Instant now = clock.instant();
         
         // Registrar en el map de sesiones
-        sessionToUser.put(sessionId, userId);
+        sessionToUser.put(sessionId, new SessionEntry(userId, now));
         
-        // Añadir al set de jugadores conectados
-        connectedPlayers.computeIfAbsent(roomCode, k -> new CopyOnWriteArraySet<>()).add(userId);
+        // Añadir al set de jugadores conectados (dentro de compute: una desconexión concurrente puede
+        // estar quitando el set vacío de la misma sala)
+        connectedPlayers.compute(roomCode, (k, players) -> {
+            Set<Long> set = players != null ? players : new CopyOnWriteArraySet<>();
+            set.add(userId);
+            return set;
+        });
         
         // Limpiar de desconectados si estaba pendiente de reconexión
         disconnectedPlayers.remove(userId);
         
         // Actualizar info de sesión del juego
-        gameSessions.computeIfAbsent(roomCode, k -> new GameSessionInfo(roomCode));
-        gameSessions.get(roomCode).updateLastActivity();
+        gameSessions.computeIfAbsent(roomCode, k -> new GameSessionInfo(roomCode, now)).updateLastActivity(now);
         
         int totalConnected = getConnectedPlayersCount(roomCode);
-        AnsiColors.successLog(logger, "Jugador " + userId + " conectado a sala " + roomCode + 
-            ". Total conectados: " + totalConnected);
+        log.debug().room(roomCode).user(userId).log("Jugador conectado. Total conectados: {}", totalConnected);
     }
     
     /**
@@ -97,34 +122,49 @@ public class GameSessionManager {
      * @return DisconnectionResult con la info de la desconexión (roomCode, userId, isEmpty)
      */
     public DisconnectionResult playerDisconnected(String sessionId) {
-        Long userId = sessionToUser.remove(sessionId);
-        if (userId == null) {
-            AnsiColors.warningLog(logger, "Sesión desconocida desconectada: " + sessionId);
+        SessionEntry session = sessionToUser.remove(sessionId);
+        if (session == null) {
+            log.debug().kv("sessionId", sessionId).log("Sesión desconocida desconectada");
             return null;
         }
-        
-        AnsiColors.infoLog(logger, "Jugador " + userId + " desconectado (sessionId: " + sessionId + ")");
+        Long userId = session.userId;
         
         // Buscar en qué sala estaba ANTES de removerlo
         String roomCode = findRoomByUserId(userId);
         if (roomCode != null) {
             // Registrar desconexión para posible reconexión
-            disconnectedPlayers.put(userId, new DisconnectionInfo(userId, roomCode, Instant.now()));
+            disconnectedPlayers.put(userId, new DisconnectionInfo(userId, roomCode, clock.instant()));
             
-            // Remover de conectados
-            Set<Long> players = connectedPlayers.get(roomCode);
-            if (players != null) {
+            // Remover de conectados; el set vacío se quita del map
+            int[] remaining = {-1};
+            connectedPlayers.computeIfPresent(roomCode, (k, players) -> {
                 players.remove(userId);
-                int remaining = players.size();
-                AnsiColors.infoLog(logger, "Jugador " + userId + " removido de sala " + roomCode + 
-                    ". Quedan " + remaining + " conectados");
-                
-                return new DisconnectionResult(userId, roomCode, remaining == 0);
+                remaining[0] = players.size();
+                return players.isEmpty() ? null : players;
+            });
+            if (remaining[0] >= 0) {
+                log.debug().room(roomCode).user(userId).log("Jugador desconectado. Quedan {} conectados", remaining[0]);
+                return new DisconnectionResult(userId, roomCode, remaining[0] == 0);
             }
         }
         return null;
     }
     
+    /**
+     * Heartbeat de una sesión: mantiene viva la sesión y la sala
+     */
+    public void recordActivity(String roomCode, String sessionId) {
+        Instant now = clock.instant();
+        SessionEntry session = sessionId != null ? sessionToUser.get(sessionId) : null;
+        if (session != null) {
+            session.lastSeen = now;
+        }
+        GameSessionInfo gameSession = gameSessions.get(roomCode);
+        if (gameSession != null) {
+            gameSession.updateLastActivity(now);
+        }
+    }
+    
     /**
      * Resultado de una desconexión
      */
@@ -148,32 +188,33 @@ public class GameSessionManager {
         DisconnectionInfo disconnectInfo = disconnectedPlayers.get(userId);
         
         if (disconnectInfo == null) {
-            AnsiColors.warningLog(logger, "No hay info de desconexión para usuario " + userId);
+            log.debug().room(roomCode).user(userId).log("Reconexión sin desconexión previa registrada");
+            gameMetrics.reconnect(GameMetrics.ReconnectOutcome.UNKNOWN);
             return false;
         }
         
         // Verificar que sea la misma sala
         if (!disconnectInfo.roomCode.equals(roomCode)) {
-            AnsiColors.errorLog(logger, "Usuario " + userId + " intentó reconectar a sala diferente. " +
-                "Original: " + disconnectInfo.roomCode + ", Intentada: " + roomCode);
+            log.warn().room(roomCode).user(userId).log("Reconexión a una sala diferente de la original ({})", disconnectInfo.roomCode);
+            gameMetrics.reconnect(GameMetrics.ReconnectOutcome.WRONG_ROOM);
             return false;
         }
         
         // Verificar timeout de reconexión
-        long secondsSinceDisconnect = java.time.Duration.between(
-            disconnectInfo.disconnectedAt, Instant.now()
+        long secondsSinceDisconnect = Duration.between(
+            disconnectInfo.disconnectedAt, clock.instant()
         ).getSeconds();
         
         if (secondsSinceDisconnect > RECONNECT_TIMEOUT_SECONDS) {
-            AnsiColors.warningLog(logger, "Timeout de reconexión excedido para usuario " + userId + 
-                ". Segundos: " + secondsSinceDisconnect);
+            log.debug().room(roomCode).user(userId).log("Timeout de reconexión excedido: {}s", secondsSinceDisconnect);
             disconnectedPlayers.remove(userId);
+            gameMetrics.reconnect(GameMetrics.ReconnectOutcome.TIMEOUT);
             return false;
         }
         
         // Reconectar exitosamente
         playerConnected(roomCode, userId, newSessionId);
-        AnsiColors.successLog(logger, "Reconexión exitosa para usuario " + userId + " en sala " + roomCode);
+        gameMetrics.reconnect(GameMetrics.ReconnectOutcome.SUCCESS);
         return true;
     }
     
@@ -209,8 +250,8 @@ public class GameSessionManager {
         DisconnectionInfo info = disconnectedPlayers.get(userId);
         if (info == null) return false;
         
-        long secondsSinceDisconnect = java.time.Duration.between(
-            info.disconnectedAt, Instant.now()
+        long secondsSinceDisconnect = Duration.between(
+            info.disconnectedAt, clock.instant()
         ).getSeconds();
         
         return secondsSinceDisconnect <= RECONNECT_TIMEOUT_SECONDS;
@@ -228,14 +269,20 @@ public class GameSessionManager {
         return null;
     }
     
+    /**
+     * Número de salas con sesión activa en un estado (gauge game.rooms.active)
+     */
+    public long countRoomsByStatus(String status) {
+        return gameSessions.values().stream().filter(session -> status.equals(session.getStatus())).count();
+    }
+    
     /**
      * Verifica si se puede iniciar la partida (mínimo de jugadores)
      */
     public boolean canStartGame(String roomCode) {
         int count = getConnectedPlayersCount(roomCode);
         boolean canStart = count >= MIN_PLAYERS_TO_START;
-        AnsiColors.infoLog(logger, "Verificando inicio de partida en " + roomCode + 
-            ": " + count + "/" + MIN_PLAYERS_TO_START + " jugadores. CanStart: " + canStart);
+        log.debug().room(roomCode).log("Verificando inicio de partida: {}/{} jugadores", count, MIN_PLAYERS_TO_START);
         return canStart;
     }
     
@@ -287,8 +334,8 @@ public class GameSessionManager {
         if (session != null) {
             session.setStatus("IN_PROGRESS");
             session.setSecretWord(word);
-            session.setStartedAt(Instant.now());
-            AnsiColors.successLog(logger, "Partida marcada como iniciada: " + roomCode);
+            session.setStartedAt(clock.instant());
+            log.debug().room(roomCode).log("Sesión marcada como iniciada");
         }
     }
     
@@ -296,28 +343,42 @@ public class GameSessionManager {
      * Marca una partida como finalizada y limpia recursos
      */
     public void markGameEnded(String roomCode) {
-        AnsiColors.infoLog(logger, "Finalizando sesión de juego: " + roomCode);
-        
         // Limpiar jugadores conectados
         Set<Long> players = connectedPlayers.remove(roomCode);
-        if (players != null) {
-            AnsiColors.infoLog(logger, "Limpiados " + players.size() + " jugadores de sala " + roomCode);
-        }
         
         // Limpiar info de sesión
-        GameSessionInfo session = gameSessions.remove(roomCode);
-        if (session != null) {
-            AnsiColors.successLog(logger, "Sesión de juego " + roomCode + " limpiada");
-        }
+        gameSessions.remove(roomCode);
+        log.debug().room(roomCode).log("Sesión de juego finalizada, {} jugadores liberados", players != null ? players.size() : 0);
     }
     
     /**
-     * Limpia sesiones inactivas (llamar periódicamente)
+     * Limpia sesiones inactivas (llamar periódicamente):
+     * - sesiones sin actividad en SESSION_IDLE_TIMEOUT, como si hubiera llegado su desconexión
+     * - desconexiones que ya no pueden reconectar
+     * - salas sin jugadores conectados ni actividad desde hace más que la ventana de reconexión
      */
     public void cleanupInactiveSessions() {
-        AnsiColors.infoLog(logger, "Limpiando sesiones inactivas...");
+        Instant now = clock.instant();
+        Instant cutoff = now.minusSeconds(RECONNECT_TIMEOUT_SECONDS * 2);
         
-        Instant cutoff = Instant.now().minusSeconds(RECONNECT_TIMEOUT_SECONDS * 2);
+        // Sockets medio abiertos: se tratan como una desconexión normal (permite reconectar), salvo que
+        // el usuario ya tenga otra sesión viva (reconectó con otro socket): entonces solo se olvida la vieja
+        Instant idleCutoff = now.minus(SESSION_IDLE_TIMEOUT);
+        Set<Long> liveUsers = sessionToUser.values().stream()
+                .filter(session -> !session.lastSeen.isBefore(idleCutoff))
+                .map(session -> session.userId)
+                .collect(Collectors.toSet());
+        int removedSessions = 0;
+        for (Map.Entry<String, SessionEntry> entry : sessionToUser.entrySet()) {
+            if (entry.getValue().lastSeen.isBefore(idleCutoff)) {
+                if (liveUsers.contains(entry.getValue().userId)) {
+                    sessionToUser.remove(entry.getKey());
+                } else {
+                    playerDisconnected(entry.getKey());
+                }
+                removedSessions++;
+            }
+        }
         
         // Limpiar desconexiones antiguas
         int removedDisconnects = 0;
@@ -328,8 +389,43 @@ public class GameSessionManager {
             }
         }
         
-        if (removedDisconnects > 0) {
-            AnsiColors.infoLog(logger, "Limpiadas " + removedDisconnects + " desconexiones antiguas");
+        // Salas abandonadas sin markGameEnded (todos se fueron sin terminar la partida)
+        // (se comprueba dentro de computeIfPresent por si un jugador entra a la vez)
+        int removedRooms = 0;
+        for (String roomCode : gameSessions.keySet()) {
+            boolean[] removed = {false};
+            gameSessions.computeIfPresent(roomCode, (k, session) -> {
+                removed[0] = !hasConnectedPlayers(k) && session.getLastActivity().isBefore(cutoff);
+                return removed[0] ? null : session;
+            });
+            if (removed[0]) {
+                removedRooms++;
+            }
+        }
+        
+        if (removedSessions > 0 || removedDisconnects > 0 || removedRooms > 0) {
+            log.info().log("Limpiadas {} sesiones inactivas, {} desconexiones antiguas y {} salas abandonadas",
+                    removedSessions, removedDisconnects, removedRooms);
+        }
+    }
+    
+    /**
+     * Tamaño del estado en memoria, para comprobar que no crece sin límite
+     */
+    public StateSize stateSize() {
+        return new StateSize(sessionToUser.size(), connectedPlayers.size(), gameSessions.size(), disconnectedPlayers.size());
+    }
+    
+    /**
+     * @param sessions           sesiones WebSocket registradas (sessionId -> userId)
+     * @param roomsWithPlayers   salas con algún jugador conectado
+     * @param gameSessions       salas con información de sesión de juego
+     * @param pendingReconnects  jugadores desconectados dentro de la ventana de limpieza
+     */
+    public record StateSize(int sessions, int roomsWithPlayers, int gameSessions, int pendingReconnects) {
+        
+        public boolean isEmpty() {
+            return sessions == 0 && roomsWithPlayers == 0 && gameSessions == 0 && pendingReconnects == 0;
         }
     }
     
@@ -342,16 +438,18 @@ public class GameSessionManager {
         private final String roomCode;
         private String status = "WAITING";
         private String secretWord;
-        private Instant createdAt = Instant.now();
+        private final Instant createdAt;
         private Instant startedAt;
-        private Instant lastActivity = Instant.now();
+        private volatile Instant lastActivity;
         
-        public GameSessionInfo(String roomCode) {
+        public GameSessionInfo(String roomCode, Instant createdAt) {
             this.roomCode = roomCode;
+            this.createdAt = createdAt;
+            this.lastActivity = createdAt;
         }
         
-        public void updateLastActivity() {
-            this.lastActivity = Instant.now();
+        public void updateLastActivity(Instant now) {
+            this.lastActivity = now;
         }
         
         // Getters y Setters
@@ -366,6 +464,19 @@ public class GameSessionManager {
         public Instant getLastActivity() { return lastActivity; }
     }
     
+    /**
+     * Sesión WebSocket registrada: su usuario y el último heartbeat
+     */
+    private static class SessionEntry {
+        final Long userId;
+        volatile Instant lastSeen;
+        
+        SessionEntry(Long userId, Instant lastSeen) {
+            this.userId = userId;
+            this.lastSeen = lastSeen;
+        }
+    }
+    
     /**
      * Información de desconexión para reconexión
      */
@@ -1,18 +1,25 @@
 package com.swemmanuelgz.users.impostorbackend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
 import com.google.api.client.json.gson.GsonFactory;
 import com.swemmanuelgz.users.impostorbackend.dto.GoogleUserInfo;
+import com.swemmanuelgz.users.impostorbackend.security.GoogleSigningKeyManager;
 import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import com.swemmanuelgz.users.impostorbackend.utils.TokenDigest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -22,26 +29,49 @@ import java.util.logging.Logger;
  * Servicio para validar tokens de ID de Google.
  * Usado cuando el frontend (Flutter) hace login con Google y envía el idToken al backend.
  * 
+ * La verificación es local: firma RS256 contra las claves que GoogleSigningKeyManager mantiene en memoria
+ * (renovadas en segundo plano), más emisor, audiencia y caducidad. Los tokens ya verificados se recuerdan
+ * hasta su exp, así un reintento del cliente con el mismo idToken no repite la verificación.
+ * 
  * NOTA: Si GOOGLE_CLIENT_ID no está configurado, el servicio queda deshabilitado.
  */
 @Service
-@RequiredArgsConstructor
 public class GoogleTokenService {
 
     private static final Logger logger = Logger.getLogger(GoogleTokenService.class.getName());
 
-    @Value("${google.oauth2.client-id:}")
-    private String webClientId;
+    private static final List<String> ISSUERS = List.of("accounts.google.com", "https://accounts.google.com");
+    private static final long CLOCK_SKEW_SECONDS = 300;
 
-    @Value("${google.oauth2.android-client-id:}")
-    private String androidClientId;
+    private final GoogleSigningKeyManager keyManager;
+    private final JsonFactory jsonFactory = GsonFactory.getDefaultInstance();
+    private final Cache<String, VerifiedGoogleToken> verifiedTokens;
 
-    @Value("${google.oauth2.ios-client-id:}")
-    private String iosClientId;
+    private final String webClientId;
+    private final String androidClientId;
+    private final String iosClientId;
 
-    private GoogleIdTokenVerifier verifier;
+    private List<String> validClientIds = List.of();
     private boolean enabled = false;
 
+    public GoogleTokenService(GoogleSigningKeyManager keyManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${google.oauth2.client-id:}") String webClientId,
+                              @Value("${google.oauth2.android-client-id:}") String androidClientId,
+                              @Value("${google.oauth2.ios-client-id:}") String iosClientId,
+                              @Value("${google.oauth2.verified-cache.max-size:10000}") long maxCachedTokens) {
+        this.keyManager = keyManager;
+        this.webClientId = webClientId;
+        this.androidClientId = androidClientId;
+        this.iosClientId = iosClientId;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "googleIdTokens");
+    }
+
     @PostConstruct
     public void init() {
         // Si no hay client ID configurado, el servicio queda deshabilitado
@@ -51,13 +81,10 @@ public class GoogleTokenService {
         }
 
         // Construir lista de client IDs válidos (web + mobile)
-        List<String> validClientIds = buildValidClientIds();
+        this.validClientIds = buildValidClientIds();
         
-        this.verifier = new GoogleIdTokenVerifier.Builder(
-                new NetHttpTransport(),
-                GsonFactory.getDefaultInstance())
-                .setAudience(validClientIds)
-                .build();
+        // Carga inicial de claves y renovación en segundo plano
+        keyManager.start();
         
         this.enabled = true;
         AnsiColors.successLog(logger, "Google OAuth2 HABILITADO con " + validClientIds.size() + " client IDs");
@@ -74,7 +101,7 @@ public class GoogleTokenService {
             clientIds.add(iosClientId);
         }
         
-        return clientIds;
+        return List.copyOf(clientIds);
     }
 
     /**
@@ -95,11 +122,25 @@ public class GoogleTokenService {
             AnsiColors.errorLog(logger, "Google OAuth2 no está habilitado");
             return Optional.empty();
         }
+        if (idTokenString == null || idTokenString.isBlank()) {
+            return Optional.empty();
+        }
+
+        String digest = TokenDigest.sha256(idTokenString);
+        VerifiedGoogleToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return Optional.of(cached.userInfo());
+        }
 
         try {
-            GoogleIdToken idToken = verifier.verify(idTokenString);
+            GoogleIdToken idToken = GoogleIdToken.parse(jsonFactory, idTokenString);
             
-            if (idToken == null) {
+            if (!hasValidSignature(idToken)) {
+                AnsiColors.errorLog(logger, "Firma del token de Google no válida");
+                return Optional.empty();
+            }
+            if (!idToken.verifyIssuer(ISSUERS) || !idToken.verifyAudience(validClientIds)
+                    || !idToken.verifyTime(System.currentTimeMillis(), CLOCK_SKEW_SECONDS)) {
                 AnsiColors.errorLog(logger, "Token de Google inválido o expirado");
                 return Optional.empty();
             }
@@ -123,12 +164,65 @@ public class GoogleTokenService {
                     payload.getEmailVerified()
             );
 
+            verifiedTokens.put(digest, new VerifiedGoogleToken(userInfo,
+                    Instant.ofEpochSecond(payload.getExpirationTimeSeconds())));
             AnsiColors.successLog(logger, "Token de Google validado para: " + userInfo.email());
             return Optional.of(userInfo);
 
-        } catch (GeneralSecurityException | IOException e) {
+        } catch (Exception e) {
             AnsiColors.errorLog(logger, "Error al verificar token de Google: " + e.getMessage());
             return Optional.empty();
         }
     }
+
+    /**
+     * Comprueba la firma con la clave del kid del token. Un kid desconocido suele ser una rotación
+     * de claves: se pide la renovación en segundo plano y este intento falla
+     */
+    private boolean hasValidSignature(GoogleIdToken idToken) throws GeneralSecurityException {
+        String keyId = idToken.getHeader().getKeyId();
+        if (keyId != null) {
+            Optional<PublicKey> key = keyManager.key(keyId);
+            if (key.isEmpty()) {
+                AnsiColors.warningLog(logger, "Clave de Google desconocida (kid " + keyId + "), se renuevan las claves");
+                keyManager.requestRefresh();
+                return false;
+            }
+            return idToken.verifySignature(key.get());
+        }
+        for (PublicKey key : keyManager.keys()) {
+            if (idToken.verifySignature(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record VerifiedGoogleToken(GoogleUserInfo userInfo, Instant expiresAt) {
+        Duration timeToLive() {
+            Duration remaining = Duration.between(Instant.now(), expiresAt);
+            return remaining.isNegative() ? Duration.ZERO : remaining;
+        }
+    }
+
+    /**
+     * Cada idToken se recuerda hasta su exp; leerlo no alarga su vida
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedGoogleToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedGoogleToken token, long currentTime) {
+            return token.timeToLive().toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedGoogleToken token, long currentTime, long currentDuration) {
+            return token.timeToLive().toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedGoogleToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
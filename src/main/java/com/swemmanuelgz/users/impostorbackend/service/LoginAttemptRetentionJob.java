@@ -0,0 +1,122 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.config.WorkloadContext;
+import com.swemmanuelgz.users.impostorbackend.repository.LoginAttemptDailyRepository;
+import com.swemmanuelgz.users.impostorbackend.repository.LoginAttemptRepository;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Retención de login_attempts.
+ *
+ * Borra los intentos más antiguos que login.retention.days por bloques de chunk-size filas, con
+ * DELETE ... ORDER BY attempt_timestamp LIMIT n en una transacción corta por bloque y una pausa
+ * entre bloques. Nunca carga entidades ni mantiene una transacción grande abierta.
+ *
+ * Con login.retention.rollup-enabled cada bloque se resume antes en login_attempt_daily
+ * (en la misma transacción que el borrado, para no contar dos veces ni perder filas).
+ */
+@Service
+@ConditionalOnProperty(name = "login.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class LoginAttemptRetentionJob {
+
+    private static final Logger logger = Logger.getLogger(LoginAttemptRetentionJob.class.getName());
+
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final LoginAttemptDailyRepository loginAttemptDailyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter deletedCounter;
+    private final Timer chunkTimer;
+    private final AtomicLong lastRunDeleted = new AtomicLong();
+
+    @Value("${login.retention.days:90}")
+    private int retentionDays;
+
+    @Value("${login.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${login.retention.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${login.retention.max-chunks-per-run:1000}")
+    private int maxChunksPerRun;
+
+    @Value("${login.retention.rollup-enabled:true}")
+    private boolean rollupEnabled;
+
+    public LoginAttemptRetentionJob(LoginAttemptRepository loginAttemptRepository,
+                                    LoginAttemptDailyRepository loginAttemptDailyRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry) {
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.loginAttemptDailyRepository = loginAttemptDailyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.deletedCounter = Counter.builder("login.retention.deleted").register(meterRegistry);
+        this.chunkTimer = Timer.builder("login.retention.chunk").register(meterRegistry);
+        Gauge.builder("login.retention.last.run.deleted", lastRunDeleted, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${login.retention.initial-delay-ms:900000}",
+               fixedDelayString = "${login.retention.interval-ms:21600000}")
+    public void purgeOldAttempts() {
+        try {
+            WorkloadContext.run(WorkloadContext.Workload.BATCH, this::purge);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            AnsiColors.warningLog(logger, "Limpieza de intentos de login interrumpida");
+        } catch (Exception e) {
+            AnsiColors.errorLog(logger, "❌ Error limpiando intentos de login: " + e.getMessage());
+        }
+    }
+
+    private void purge() throws InterruptedException {
+        Instant cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+        long deleted = 0;
+        int chunks = 0;
+
+        while (chunks < maxChunksPerRun) {
+            Integer removed = chunkTimer.record(() -> transactionTemplate.execute(status -> deleteChunk(cutoff)));
+            int count = removed != null ? removed : 0;
+            deleted += count;
+            deletedCounter.increment(count);
+            chunks++;
+
+            if (count < chunkSize) {
+                break;
+            }
+            Thread.sleep(pauseMs);
+        }
+
+        lastRunDeleted.set(deleted);
+        if (deleted > 0) {
+            AnsiColors.successLog(logger, "🧹 Borrados " + deleted + " intentos de login anteriores a " + cutoff + " en " + chunks + " bloques");
+        }
+    }
+
+    private int deleteChunk(Instant cutoff) {
+        if (!rollupEnabled) {
+            return loginAttemptRepository.deleteOldestBefore(cutoff, chunkSize);
+        }
+
+        // El bloque termina en la marca de tiempo de la fila número chunkSize; si hay menos filas, entran todas
+        List<Instant> boundary = loginAttemptRepository.findRetentionBoundary(cutoff, PageRequest.of(chunkSize - 1, 1));
+        Instant upTo = boundary.isEmpty() ? cutoff : boundary.get(0);
+        loginAttemptDailyRepository.rollUpBeforeUpTo(cutoff, upTo);
+        return loginAttemptRepository.deleteBeforeUpTo(cutoff, upTo);
+    }
+}
@@ -1,37 +1,67 @@
 package com.swemmanuelgz.users.impostorbackend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.swemmanuelgz.users.impostorbackend.entity.LoginAttempt;
 import com.swemmanuelgz.users.impostorbackend.repository.LoginAttemptRepository;
 import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
-import lombok.RequiredArgsConstructor;
+import com.swemmanuelgz.users.impostorbackend.utils.SlidingWindowCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
 import java.util.logging.Logger;
 
 /**
  * Servicio para gestionar los intentos de login.
  * Registra todos los intentos y puede verificar si una IP/usuario está bloqueado.
+ *
+ * Las decisiones de bloqueo usan contadores en memoria (ventana deslizante por IP y por usuario),
+ * sin consultar MySQL en el hilo del login. La auditoría se escribe en segundo plano con LoginAuditWriter.
+ * Al arrancar los contadores se rellenan con los fallos recientes guardados en la base de datos.
+ * La limpieza de intentos antiguos la hace LoginAttemptRetentionJob.
  */
 @Service
-@RequiredArgsConstructor
 public class LoginAttemptService {
 
     private static final Logger logger = Logger.getLogger(LoginAttemptService.class.getName());
 
     private final LoginAttemptRepository loginAttemptRepository;
+    private final LoginAuditWriter loginAuditWriter;
 
     // Configuración de bloqueo
     private static final int MAX_FAILED_ATTEMPTS = 5;           // Máximo intentos fallidos
     private static final int LOCKOUT_DURATION_MINUTES = 5;      // Duración del bloqueo
+    private static final long LOCKOUT_WINDOW_MS = Duration.ofMinutes(LOCKOUT_DURATION_MINUTES).toMillis();
+
+    // Contadores acotados: una clave sin actividad durante la ventana ya no puede bloquear y se descarta
+    private final Cache<String, SlidingWindowCounter> failuresByIp;
+    private final Cache<String, SlidingWindowCounter> failuresByUser;
+
+    public LoginAttemptService(LoginAttemptRepository loginAttemptRepository,
+                               LoginAuditWriter loginAuditWriter,
+                               @Value("${login.lockout.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.loginAuditWriter = loginAuditWriter;
+        this.failuresByIp = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMillis(LOCKOUT_WINDOW_MS))
+                .build();
+        this.failuresByUser = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMillis(LOCKOUT_WINDOW_MS))
+                .build();
+    }
 
     /**
      * Registra un intento de login exitoso
      */
-    @Transactional
     public void recordSuccessfulLogin(String username, String ipAddress, String userAgent, String authType, Long userId) {
         LoginAttempt attempt = LoginAttempt.builder()
                 .username(username)
@@ -43,15 +73,15 @@ public class LoginAttemptService {
                 .attemptTimestamp(Instant.now())
                 .build();
 
-        loginAttemptRepository.save(attempt);
+        loginAuditWriter.enqueue(attempt);
         AnsiColors.successLog(logger, "Login exitoso registrado - Usuario: " + username + ", IP: " + ipAddress);
     }
 
     /**
      * Registra un intento de login fallido
      */
-    @Transactional
     public void recordFailedLogin(String username, String ipAddress, String userAgent, String authType, String failureReason) {
+        Instant now = Instant.now();
         LoginAttempt attempt = LoginAttempt.builder()
                 .username(username)
                 .ipAddress(ipAddress)
@@ -59,10 +89,11 @@ public class LoginAttemptService {
                 .authType(authType)
                 .success(false)
                 .failureReason(failureReason)
-                .attemptTimestamp(Instant.now())
+                .attemptTimestamp(now)
                 .build();
 
-        loginAttemptRepository.save(attempt);
+        countFailure(username, ipAddress, now.toEpochMilli());
+        loginAuditWriter.enqueue(attempt);
         
         long failedCount = getFailedAttemptCountForIp(ipAddress);
         AnsiColors.warningLog(logger, "Login fallido registrado - Usuario: " + username + 
@@ -74,46 +105,43 @@ public class LoginAttemptService {
      * Verifica si una IP está bloqueada por demasiados intentos fallidos
      */
     public boolean isIpBlocked(String ipAddress) {
-        Instant since = Instant.now().minus(LOCKOUT_DURATION_MINUTES, ChronoUnit.MINUTES);
-        long failedAttempts = loginAttemptRepository.countFailedAttemptsByIpSince(ipAddress, since);
-        return failedAttempts >= MAX_FAILED_ATTEMPTS;
+        SlidingWindowCounter counter = counterIfPresent(failuresByIp, ipAddress);
+        return counter != null && counter.isLimitReached(System.currentTimeMillis());
     }
 
     /**
      * Verifica si un usuario está bloqueado por demasiados intentos fallidos
      */
     public boolean isUserBlocked(String username) {
-        Instant since = Instant.now().minus(LOCKOUT_DURATION_MINUTES, ChronoUnit.MINUTES);
-        long failedAttempts = loginAttemptRepository.countFailedAttemptsByUsernameSince(username, since);
-        return failedAttempts >= MAX_FAILED_ATTEMPTS;
+        SlidingWindowCounter counter = counterIfPresent(failuresByUser, normalizeUsername(username));
+        return counter != null && counter.isLimitReached(System.currentTimeMillis());
     }
 
     /**
      * Obtiene cuántos intentos fallidos tiene una IP en el período de bloqueo
      */
     public long getFailedAttemptCountForIp(String ipAddress) {
-        Instant since = Instant.now().minus(LOCKOUT_DURATION_MINUTES, ChronoUnit.MINUTES);
-        return loginAttemptRepository.countFailedAttemptsByIpSince(ipAddress, since);
+        SlidingWindowCounter counter = counterIfPresent(failuresByIp, ipAddress);
+        return counter != null ? counter.count(System.currentTimeMillis()) : 0;
     }
 
     /**
      * Calcula cuántos segundos faltan para que se desbloquee una IP
      */
     public long getSecondsUntilUnblock(String ipAddress) {
-        Instant since = Instant.now().minus(LOCKOUT_DURATION_MINUTES, ChronoUnit.MINUTES);
-        List<LoginAttempt> failedAttempts = loginAttemptRepository.findFailedAttemptsByIp(ipAddress, since);
-        
-        if (failedAttempts.isEmpty() || failedAttempts.size() < MAX_FAILED_ATTEMPTS) {
-            return 0;
-        }
+        SlidingWindowCounter counter = counterIfPresent(failuresByIp, ipAddress);
+        return counter != null ? toSeconds(counter.millisUntilBelowLimit(System.currentTimeMillis())) : 0;
+    }
 
-        // El primer intento fallido de la lista (el más reciente) determina cuándo se desbloqueará
-        LoginAttempt oldestRelevantAttempt = failedAttempts.get(failedAttempts.size() - 1);
-        Instant unblockTime = oldestRelevantAttempt.getAttemptTimestamp()
-                .plus(LOCKOUT_DURATION_MINUTES, ChronoUnit.MINUTES);
-        
-        long secondsRemaining = Instant.now().until(unblockTime, ChronoUnit.SECONDS);
-        return Math.max(0, secondsRemaining);
+    /**
+     * Segundos hasta poder volver a intentar el login, teniendo en cuenta la IP y el usuario
+     */
+    public long getSecondsUntilUnblock(String ipAddress, String username) {
+        SlidingWindowCounter userCounter = counterIfPresent(failuresByUser, normalizeUsername(username));
+        long userSeconds = userCounter != null
+                ? toSeconds(userCounter.millisUntilBelowLimit(System.currentTimeMillis()))
+                : 0;
+        return Math.max(getSecondsUntilUnblock(ipAddress), userSeconds);
     }
 
     /**
@@ -131,13 +159,49 @@ public class LoginAttemptService {
     }
 
     /**
-     * Limpia intentos de login antiguos (llamar desde un job programado)
+     * Rellena los contadores con los fallos de la ventana actual para que un reinicio
+     * no desbloquee a quien estaba bloqueado
      */
-    @Transactional
-    public void cleanOldAttempts(int daysToKeep) {
-        Instant cutoff = Instant.now().minus(daysToKeep, ChronoUnit.DAYS);
-        loginAttemptRepository.deleteByAttemptTimestampBefore(cutoff);
-        AnsiColors.infoLog(logger, "Limpiados intentos de login anteriores a " + cutoff);
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedCountersFromDatabase() {
+        Instant since = Instant.now().minus(LOCKOUT_DURATION_MINUTES, ChronoUnit.MINUTES);
+        try {
+            List<LoginAttempt> recentFailures = loginAttemptRepository.findFailedAttemptsSince(since);
+            for (LoginAttempt attempt : recentFailures) {
+                countFailure(attempt.getUsername(), attempt.getIpAddress(), attempt.getAttemptTimestamp().toEpochMilli());
+            }
+            if (!recentFailures.isEmpty()) {
+                AnsiColors.infoLog(logger, "Contadores de bloqueo restaurados con " + recentFailures.size() + " intentos fallidos recientes");
+            }
+        } catch (Exception e) {
+            AnsiColors.errorLog(logger, "No se pudieron restaurar los contadores de bloqueo: " + e.getMessage());
+        }
+    }
+
+    private void countFailure(String username, String ipAddress, long atMillis) {
+        if (ipAddress != null) {
+            failuresByIp.get(ipAddress, key -> newCounter()).record(atMillis);
+        }
+        String user = normalizeUsername(username);
+        if (user != null) {
+            failuresByUser.get(user, key -> newCounter()).record(atMillis);
+        }
+    }
+
+    private SlidingWindowCounter newCounter() {
+        return new SlidingWindowCounter(MAX_FAILED_ATTEMPTS, LOCKOUT_WINDOW_MS);
+    }
+
+    private SlidingWindowCounter counterIfPresent(Cache<String, SlidingWindowCounter> counters, String key) {
+        return key != null ? counters.getIfPresent(key) : null;
+    }
+
+    private String normalizeUsername(String username) {
+        return username != null ? username.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private long toSeconds(long millis) {
+        return (millis + 999) / 1000;
     }
 
     // Getters para configuración (útil para frontend)
@@ -0,0 +1,128 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.config.WorkloadContext;
+import com.swemmanuelgz.users.impostorbackend.entity.LoginAttempt;
+import com.swemmanuelgz.users.impostorbackend.repository.LoginAttemptRepository;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Escritura asíncrona y por lotes de la auditoría de logins (login_attempts).
+ *
+ * El hilo del login solo encola; un hilo de fondo vacía la cola en lotes con saveAll
+ * (INSERT en batch gracias a los ids por bloques). La cola es acotada: si se llena,
+ * el registro se descarta y se cuenta en login.audit.dropped en lugar de frenar el login.
+ * Las decisiones de bloqueo no dependen de esta tabla (ver LoginAttemptService).
+ */
+@Component
+public class LoginAuditWriter {
+
+    private static final Logger logger = Logger.getLogger(LoginAuditWriter.class.getName());
+
+    private final LoginAttemptRepository loginAttemptRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<LoginAttempt> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final Counter written;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public LoginAuditWriter(LoginAttemptRepository loginAttemptRepository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${login.audit.queue-capacity:10000}") int queueCapacity,
+                            @Value("${login.audit.batch-size:100}") int batchSize,
+                            @Value("${login.audit.flush-interval-ms:200}") long flushIntervalMs) {
+        this.loginAttemptRepository = loginAttemptRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.written = Counter.builder("login.audit.written").register(meterRegistry);
+        this.dropped = Counter.builder("login.audit.dropped").register(meterRegistry);
+        Gauge.builder("login.audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::runLoop, "login-audit-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Encola un intento de login sin bloquear. Devuelve false si la cola estaba llena
+     */
+    public boolean enqueue(LoginAttempt attempt) {
+        if (queue.offer(attempt)) {
+            return true;
+        }
+        dropped.increment();
+        AnsiColors.warningLog(logger, "Cola de auditoría de login llena, intento descartado: " + attempt.getUsername());
+        return false;
+    }
+
+    private void runLoop() {
+        WorkloadContext.run(WorkloadContext.Workload.BATCH, this::drainQueue);
+    }
+
+    private void drainQueue() {
+        List<LoginAttempt> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LoginAttempt first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Parada: se sale del bucle cuando la cola quede vacía
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<LoginAttempt> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> loginAttemptRepository.saveAll(batch));
+            written.increment(batch.size());
+        } catch (Exception e) {
+            dropped.increment(batch.size());
+            AnsiColors.errorLog(logger, "Error guardando " + batch.size() + " intentos de login: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Al parar la aplicación se escribe lo que quede en la cola.
+     * No se interrumpe al hilo para no cortar un saveAll a medias: sale solo al vaciar la cola
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+}
@@ -23,6 +23,7 @@ public class OAuth2UserService {
     private static final Logger logger = Logger.getLogger(OAuth2UserService.class.getName());
 
     private final UserRepository userRepository;
+    private final UserProfileCache userProfileCache;
 
     /**
      * Procesa el login/registro con Google.
@@ -100,7 +101,9 @@ public class OAuth2UserService {
         }
         user.setUpdatedAt(Instant.now());
         
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userProfileCache.invalidate(savedUser);
+        return savedUser;
     }
 
     /**
@@ -0,0 +1,114 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.exception.UserException;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Hash y verificación de contraseñas (BCrypt) en un pool propio y acotado.
+ *
+ * BCrypt es CPU pura: ejecutado en los hilos de Tomcat, una ráfaga de logins puede ocupar todos los
+ * núcleos y frenar los executors STOMP. Aquí como mucho password.hashing.threads hilos hacen BCrypt a la vez
+ * y la cola es corta; si está llena se falla rápido con SERVICIO_SATURADO (503) en lugar de encolar sin límite.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = Logger.getLogger(PasswordHashingService.class.getName());
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Timer hashTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(BCryptPasswordEncoder encoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${password.hashing.threads:2}") int threads,
+                                  @Value("${password.hashing.queue-capacity:32}") int queueCapacity,
+                                  @Value("${password.hashing.timeout-ms:5000}") long timeoutMs) {
+        this.encoder = encoder;
+        this.timeoutMs = timeoutMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.hashTimer = Timer.builder("password.hashing").register(meterRegistry);
+        this.rejected = Counter.builder("password.hashing.rejected").register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> encoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return run(() -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * true si el hash guardado usa un coste menor que el configurado (se rehace tras un login correcto)
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return encodedPassword != null && encoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> hashTimer.recordCallable(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            AnsiColors.warningLog(logger, "Cola de hashing de contraseñas llena, petición rechazada");
+            throw UserException.servicioSaturado();
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            AnsiColors.warningLog(logger, "Hashing de contraseña sin terminar en " + timeoutMs + " ms");
+            throw UserException.servicioSaturado();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw UserException.servicioSaturado();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
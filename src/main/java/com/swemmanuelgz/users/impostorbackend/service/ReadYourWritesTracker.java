@@ -0,0 +1,91 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recuerda qué usuarios y partidas (por ID y por código de sala) se han modificado hace poco para leerlos del primario
+ * durante una ventana configurable (el retraso máximo esperado de la réplica).
+ *
+ * Ejemplo: tras joinGame el cliente pide los jugadores de la sala; si esa lectura fuese a la
+ * réplica podría no ver todavía al jugador que acaba de entrar.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final long windowNanos;
+    private final Map<Long, Long> userWrites = new ConcurrentHashMap<>();
+    private final Map<Long, Long> gameWrites = new ConcurrentHashMap<>();
+    private final Map<String, Long> roomWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(
+            @Value("${app.datasource.replica.read-your-writes-window-ms:2000}") long windowMs) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+    }
+
+    public void markUserWrite(Long userId) {
+        mark(userWrites, userId);
+    }
+
+    public void markGameWrite(Long gameId) {
+        mark(gameWrites, gameId);
+    }
+
+    public void markRoomWrite(String roomCode) {
+        mark(roomWrites, roomCode);
+    }
+
+    public boolean hasRecentUserWrite(Long userId) {
+        return isRecent(userWrites, userId);
+    }
+
+    public boolean hasRecentGameWrite(Long gameId) {
+        return isRecent(gameWrites, gameId);
+    }
+
+    public boolean hasRecentRoomWrite(String roomCode) {
+        return isRecent(roomWrites, roomCode);
+    }
+
+    /**
+     * La ventana empieza al hacer commit; sin transacción activa se marca en el momento
+     */
+    private <K> void mark(Map<K, Long> writes, K id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writes.put(id, System.nanoTime() + windowNanos);
+                }
+            });
+        } else {
+            writes.put(id, System.nanoTime() + windowNanos);
+        }
+    }
+
+    private <K> boolean isRecent(Map<K, Long> writes, K id) {
+        if (id == null) {
+            return false;
+        }
+        Long until = writes.get(id);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        userWrites.values().removeIf(until -> until - now <= 0);
+        gameWrites.values().removeIf(until -> until - now <= 0);
+        roomWrites.values().removeIf(until -> until - now <= 0);
+    }
+}
@@ -0,0 +1,138 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.utils.GameLog;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Programa la resolución de la ronda cuando vota el último jugador, con un pequeño retraso para que el
+ * broadcast del último voto llegue a los clientes antes que el resultado.
+ *
+ * Como mucho hay una resolución pendiente por partida: si dos votos concurrentes ven a la vez que ya han
+ * votado todos, solo el primero la programa. La resolución libera la plaza (Slot.release) en cuanto la ronda
+ * queda guardada y antes de notificarla: el último voto de la ronda siguiente puede llegar mientras aún se
+ * envía NEW_ROUND y tiene que poder programar la suya. Si falla antes de liberarla se reintenta (resolveRound
+ * no repite una ronda ya resuelta) hasta maxAttempts veces.
+ *
+ * La hora sale del Clock del TaskScheduler, así el simulador de partidas puede sustituirlo por uno virtual
+ */
+@Component
+public class RoundScheduler {
+
+    private static final GameLog log = GameLog.of(RoundScheduler.class);
+
+    private final TaskScheduler taskScheduler;
+    private final Duration resolveDelay;
+    private final int maxAttempts;
+    // Cada partida con su Slot pendiente: una resolución que termina tarde solo libera el suyo
+    private final ConcurrentMap<Long, Slot> pendingGames = new ConcurrentHashMap<>();
+
+    /**
+     * Usa su propio scheduler (SchedulerConfig.roundResolutionScheduler), no el de las tareas @Scheduled
+     */
+    public RoundScheduler(@Qualifier("roundResolutionScheduler") TaskScheduler taskScheduler,
+                          @Value("${game.vote.resolve-delay-ms:500}") long resolveDelayMs,
+                          @Value("${game.vote.resolve-max-attempts:3}") int maxAttempts) {
+        this.taskScheduler = taskScheduler;
+        this.resolveDelay = Duration.ofMillis(resolveDelayMs);
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Programa la resolución de la ronda de gameId
+     * @return false si ya había una pendiente para esa partida
+     */
+    public boolean scheduleResolution(Long gameId, Resolution resolution) {
+        Slot slot = new Slot(gameId);
+        if (pendingGames.putIfAbsent(gameId, slot) != null) {
+            log.debug().kv("gameId", gameId).log("Resolución de ronda ya programada");
+            return false;
+        }
+        try {
+            schedule(slot, resolution);
+        } catch (RuntimeException e) {
+            slot.release();
+            throw e;
+        }
+        return true;
+    }
+
+    private void schedule(Slot slot, Resolution resolution) {
+        slot.attempt++;
+        taskScheduler.schedule(() -> run(slot, resolution), taskScheduler.getClock().instant().plus(resolveDelay));
+    }
+
+    private void run(Slot slot, Resolution resolution) {
+        try {
+            resolution.resolve(slot);
+            slot.release();
+        } catch (RuntimeException e) {
+            if (slot.released || slot.isLastAttempt()) {
+                log.error().kv("gameId", slot.gameId).kv("attempt", slot.attempt).cause(e).log("Resolución de ronda fallida");
+                slot.release();
+                return;
+            }
+            log.warn().kv("gameId", slot.gameId).kv("attempt", slot.attempt).log("Resolución de ronda fallida, se reintenta: {}", e.getMessage());
+            try {
+                schedule(slot, resolution);
+            } catch (RuntimeException scheduleError) {
+                slot.release();
+                throw scheduleError;
+            }
+        }
+    }
+
+    /**
+     * Partidas con una resolución programada que aún no ha terminado
+     */
+    public int pendingResolutions() {
+        return pendingGames.size();
+    }
+
+    /**
+     * Resolución de una ronda. Tiene que llamar a slot.release() en cuanto la ronda quede guardada y antes
+     * de notificarla; si lanza una excepción sin haberlo hecho, se reintenta
+     */
+    @FunctionalInterface
+    public interface Resolution {
+        void resolve(Slot slot);
+    }
+
+    /**
+     * Plaza de la resolución pendiente de una partida
+     */
+    public final class Slot {
+        private final Long gameId;
+        private volatile int attempt;
+        private volatile boolean released;
+
+        private Slot(Long gameId) {
+            this.gameId = gameId;
+        }
+
+        /**
+         * Deja programar la resolución de la ronda siguiente; llamarlo más de una vez no hace nada
+         */
+        public void release() {
+            released = true;
+            pendingGames.remove(gameId, this);
+        }
+
+        public boolean isReleased() {
+            return released;
+        }
+
+        /**
+         * Si falla este intento ya no habrá otro
+         */
+        public boolean isLastAttempt() {
+            return attempt >= maxAttempts;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.swemmanuelgz.users.impostorbackend.dto.UserProfile;
+import com.swemmanuelgz.users.impostorbackend.entity.User;
+import com.swemmanuelgz.users.impostorbackend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché en memoria de perfiles de usuario (UserProfile), acotada por tamaño y TTL.
+ *
+ * Se indexa por id; el email solo guarda el id, así una invalidación por id basta para
+ * que las búsquedas por email vuelvan a la base de datos. No se cachean los usuarios inexistentes.
+ * Las métricas (cache.gets, cache.size...) se publican con cache=userProfiles.
+ */
+@Component
+public class UserProfileCache {
+
+    private final UserRepository userRepository;
+    private final Cache<Long, UserProfile> byId;
+    private final Cache<String, Long> idByEmail;
+
+    public UserProfileCache(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${cache.user-profiles.max-size:10000}") long maxSize,
+                            @Value("${cache.user-profiles.ttl-seconds:600}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "userProfiles");
+    }
+
+    public Optional<UserProfile> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        UserProfile profile = byId.get(id, key -> userRepository.findById(key)
+                .map(UserProfile::fromEntity)
+                .orElse(null));
+        if (profile != null) {
+            idByEmail.put(profile.email(), profile.id());
+        }
+        return Optional.ofNullable(profile);
+    }
+
+    public Optional<UserProfile> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        Long id = idByEmail.getIfPresent(email);
+        if (id != null) {
+            Optional<UserProfile> cached = findById(id);
+            // El email pudo cambiar desde que se indexó
+            if (cached.isPresent() && email.equals(cached.get().email())) {
+                return cached;
+            }
+            idByEmail.invalidate(email);
+        }
+        return userRepository.findByEmail(email)
+                .map(UserProfile::fromEntity)
+                .map(profile -> {
+                    byId.put(profile.id(), profile);
+                    idByEmail.put(email, profile.id());
+                    return profile;
+                });
+    }
+
+    /**
+     * Invalida el perfil tras modificar o borrar un usuario.
+     * Se invalida ya y otra vez al hacer commit, para que una lectura concurrente
+     * no deje en caché la versión anterior a la transacción
+     */
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    public void invalidate(User user) {
+        if (user != null) {
+            invalidate(user.getId());
+        }
+    }
+
+    private void evict(Long id) {
+        UserProfile previous = byId.getIfPresent(id);
+        if (previous != null) {
+            idByEmail.invalidate(previous.email());
+        }
+        byId.invalidate(id);
+    }
+}
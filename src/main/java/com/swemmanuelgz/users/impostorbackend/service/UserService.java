@@ -1,5 +1,6 @@
 package com.swemmanuelgz.users.impostorbackend.service;
 
+import com.swemmanuelgz.users.impostorbackend.dto.CursorPage;
 import com.swemmanuelgz.users.impostorbackend.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +14,7 @@ public interface UserService {
     void deleteById(Long id);
     Optional<User> findById(Long id);
     Page<User> findAll(Pageable pageable);
+    CursorPage<User> findPageByCursor(String cursor, int size, boolean includeTotal);
     
     // Métodos de búsqueda específicos
     Optional<User> findByEmail(String email);
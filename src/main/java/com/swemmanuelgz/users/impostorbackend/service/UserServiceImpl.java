@@ -1,16 +1,20 @@
 package com.swemmanuelgz.users.impostorbackend.service;
 
+import com.swemmanuelgz.users.impostorbackend.dto.CursorPage;
 import com.swemmanuelgz.users.impostorbackend.entity.User;
 import com.swemmanuelgz.users.impostorbackend.exception.UserException;
 import com.swemmanuelgz.users.impostorbackend.repository.UserRepository;
 import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import com.swemmanuelgz.users.impostorbackend.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -20,6 +24,7 @@ public class UserServiceImpl implements UserService {
     
     private static final Logger logger = Logger.getLogger(UserServiceImpl.class.getName());
     private final UserRepository repository;
+    private final UserProfileCache userProfileCache;
 
     @Override
     @Transactional
@@ -36,6 +41,7 @@ public class UserServiceImpl implements UserService {
     public User update(User user) {
         user.setUpdatedAt(Instant.now());
         User updatedUser = repository.save(user);
+        userProfileCache.invalidate(updatedUser);
         AnsiColors.successLog(logger, "Usuario actualizado con ID: " + updatedUser.getId());
         return updatedUser;
     }
@@ -46,6 +52,7 @@ public class UserServiceImpl implements UserService {
         repository.findById(id)
                 .orElseThrow(() -> UserException.usuarioNoEncontradoIDLong(id));
         repository.deleteById(id);
+        userProfileCache.invalidate(id);
         AnsiColors.successLog(logger, "Usuario eliminado con ID: " + id);
     }
 
@@ -55,10 +62,46 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<User> findAll(Pageable pageable) {
         return repository.findAll(pageable);
     }
 
+    /**
+     * Listado de usuarios por cursor sobre (createdAt, id) DESC, sin COUNT(*) salvo que se pida
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<User> findPageByCursor(String cursor, int size, boolean includeTotal) {
+        int pageSize = KeysetCursor.clampPageSize(size);
+        PageRequest limit = PageRequest.ofSize(pageSize + 1);
+
+        List<User> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repository.findFirstKeysetPage(limit);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor);
+            rows = repository.findKeysetPageAfter(position.createdAt(), position.id(), limit);
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<User> users = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            User last = users.get(users.size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<User>builder()
+                .content(users)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(users.size())
+                .totalElements(includeTotal ? repository.count() : null)
+                .build();
+    }
+
     @Override
     public Optional<User> findByEmail(String email) {
         return repository.findByEmail(email);
@@ -75,6 +118,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<User> findByUsername(String username, Pageable pageable) {
         return repository.findByUsernameContainingIgnoreCase(username, pageable);
     }
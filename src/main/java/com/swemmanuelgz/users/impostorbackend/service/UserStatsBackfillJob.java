@@ -0,0 +1,98 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.config.WorkloadContext;
+import com.swemmanuelgz.users.impostorbackend.dto.PlayerResultRow;
+import com.swemmanuelgz.users.impostorbackend.entity.UserStats;
+import com.swemmanuelgz.users.impostorbackend.repository.ArchivedGamePlayerRepository;
+import com.swemmanuelgz.users.impostorbackend.repository.GamePlayerRepository;
+import com.swemmanuelgz.users.impostorbackend.repository.UserStatsRepository;
+import com.swemmanuelgz.users.impostorbackend.utils.AnsiColors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.logging.Logger;
+
+/**
+ * Backfill único de user_stats a partir del histórico de game_players.
+ * Se activa con stats.backfill.enabled=true y se ejecuta al arrancar.
+ *
+ * Recorre las partidas terminadas por bloques (keyset sobre el id del jugador) para no
+ * cargar toda la tabla en memoria, acumula por usuario y al final reemplaza user_stats.
+ * Primero lee el archivo (partidas más antiguas) y después las tablas vivas, para que las
+ * rachas se calculen en orden cronológico.
+ * Pensado para lanzarse una vez antes de abrir tráfico: las partidas que terminen
+ * mientras corre se perderían al reemplazar la tabla.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "stats.backfill.enabled", havingValue = "true")
+public class UserStatsBackfillJob implements ApplicationRunner {
+
+    private static final Logger logger = Logger.getLogger(UserStatsBackfillJob.class.getName());
+
+    private final GamePlayerRepository gamePlayerRepository;
+    private final ArchivedGamePlayerRepository archivedGamePlayerRepository;
+    private final UserStatsRepository userStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${stats.backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        WorkloadContext.run(WorkloadContext.Workload.BATCH, this::backfill);
+    }
+
+    private void backfill() {
+        AnsiColors.infoLog(logger, "Iniciando backfill de user_stats (bloques de " + chunkSize + ")");
+
+        Instant now = Instant.now();
+        Map<Long, UserStats> statsByUser = new HashMap<>();
+        long processed = accumulate(archivedGamePlayerRepository::findFinishedResultsAfter, statsByUser, now)
+                + accumulate(gamePlayerRepository::findFinishedResultsAfter, statsByUser, now);
+
+        List<UserStats> all = new ArrayList<>(statsByUser.values());
+        transactionTemplate.executeWithoutResult(status -> {
+            userStatsRepository.deleteAllInBatch();
+            for (int from = 0; from < all.size(); from += chunkSize) {
+                userStatsRepository.saveAll(all.subList(from, Math.min(from + chunkSize, all.size())));
+                userStatsRepository.flush();
+            }
+        });
+
+        AnsiColors.successLog(logger, "Backfill de user_stats completado: " + processed +
+                " resultados procesados, " + all.size() + " usuarios");
+    }
+
+    private long accumulate(BiFunction<Long, Pageable, List<PlayerResultRow>> source,
+                            Map<Long, UserStats> statsByUser, Instant now) {
+        long lastId = 0L;
+        long processed = 0;
+
+        List<PlayerResultRow> chunk;
+        do {
+            chunk = source.apply(lastId, PageRequest.ofSize(chunkSize));
+            for (PlayerResultRow row : chunk) {
+                statsByUser.computeIfAbsent(row.userId(), UserStats::new)
+                        .apply(Boolean.TRUE.equals(row.isImpostor()), Boolean.TRUE.equals(row.isWinner()), now);
+                lastId = row.id();
+            }
+            processed += chunk.size();
+        } while (chunk.size() == chunkSize);
+
+        return processed;
+    }
+}
@@ -0,0 +1,50 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.config.ReplicationRoutingDataSource;
+import com.swemmanuelgz.users.impostorbackend.dto.UserStatsDto;
+import com.swemmanuelgz.users.impostorbackend.repository.UserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Servicio de estadísticas por usuario.
+ * Las estadísticas se actualizan de forma incremental cuando termina una partida,
+ * en lugar de contar game_players en cada consulta del perfil.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStatsService {
+
+    private final UserStatsRepository userStatsRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    /**
+     * Registra el resultado de un jugador en una partida terminada.
+     * Se ejecuta dentro de la transacción de GameServiceImpl.endGame
+     */
+    @Transactional
+    public void recordGameResult(Long userId, boolean impostor, boolean winner) {
+        userStatsRepository.recordGameResult(
+                userId,
+                winner ? 1 : 0,
+                winner && impostor ? 1 : 0,
+                winner && !impostor ? 1 : 0,
+                !winner && impostor ? 1 : 0,
+                Instant.now());
+    }
+
+    /**
+     * Obtiene las estadísticas de un usuario (vacías si no ha terminado ninguna partida)
+     */
+    @Transactional(readOnly = true)
+    public UserStatsDto getStats(Long userId) {
+        // Justo al acabar una partida se lee del primario para no mostrar estadísticas atrasadas
+        return ReplicationRoutingDataSource.readPrimaryIf(readYourWritesTracker.hasRecentUserWrite(userId),
+                () -> userStatsRepository.findById(userId)
+                        .map(UserStatsDto::fromEntity)
+                        .orElseGet(() -> UserStatsDto.empty(userId)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.swemmanuelgz.users.impostorbackend.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.util.function.Supplier;
+
+/**
+ * Logging para las rutas calientes (WebSocket, votos, chat, heartbeats, validación de JWT) sobre SLF4J.
+ *
+ * A diferencia de AnsiColors no concatena nada si el nivel está desactivado: los mensajes son
+ * parametrizados ({}) o Supplier, y roomCode/userId van como campos clave-valor en lugar de dentro del texto.
+ * La salida pasa por el appender asíncrono de logback-spring.xml.
+ *
+ * Uso: log.debug().room(roomCode).user(userId).log("Heartbeat recibido");
+ */
+public final class GameLog {
+
+    public static final String ROOM = "roomCode";
+    public static final String USER = "userId";
+
+    private final Logger logger;
+
+    private GameLog(Logger logger) {
+        this.logger = logger;
+    }
+
+    public static GameLog of(Class<?> type) {
+        return new GameLog(LoggerFactory.getLogger(type));
+    }
+
+    public boolean isDebugEnabled() {
+        return logger.isDebugEnabled();
+    }
+
+    public Event debug() {
+        return logger.isDebugEnabled() ? new Event(logger.atDebug()) : Event.DISABLED;
+    }
+
+    public Event info() {
+        return logger.isInfoEnabled() ? new Event(logger.atInfo()) : Event.DISABLED;
+    }
+
+    public Event warn() {
+        return logger.isWarnEnabled() ? new Event(logger.atWarn()) : Event.DISABLED;
+    }
+
+    public Event error() {
+        return logger.isErrorEnabled() ? new Event(logger.atError()) : Event.DISABLED;
+    }
+
+    /**
+     * Un evento de log en construcción. Con el nivel desactivado es una instancia compartida que no hace nada
+     */
+    public static final class Event {
+
+        private static final Event DISABLED = new Event(null);
+
+        private final LoggingEventBuilder builder;
+
+        private Event(LoggingEventBuilder builder) {
+            this.builder = builder;
+        }
+
+        public Event room(String roomCode) {
+            return kv(ROOM, roomCode);
+        }
+
+        public Event user(Object userId) {
+            return kv(USER, userId);
+        }
+
+        public Event kv(String key, Object value) {
+            if (builder != null) {
+                builder.addKeyValue(key, value);
+            }
+            return this;
+        }
+
+        public Event cause(Throwable cause) {
+            if (builder != null) {
+                builder.setCause(cause);
+            }
+            return this;
+        }
+
+        public void log(String message) {
+            if (builder != null) {
+                builder.log(message);
+            }
+        }
+
+        public void log(String format, Object arg) {
+            if (builder != null) {
+                builder.log(format, arg);
+            }
+        }
+
+        public void log(String format, Object arg1, Object arg2) {
+            if (builder != null) {
+                builder.log(format, arg1, arg2);
+            }
+        }
+
+        public void log(String format, Object... args) {
+            if (builder != null) {
+                builder.log(format, args);
+            }
+        }
+
+        public void log(Supplier<String> message) {
+            if (builder != null) {
+                builder.log(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.swemmanuelgz.users.impostorbackend.utils;
+
+import com.swemmanuelgz.users.impostorbackend.exception.PaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Posición de paginación keyset sobre (created_at, id).
+ * Se serializa como un token opaco en base64url; incluye los nanosegundos para no
+ * saltar ni repetir filas con el mismo created_at truncado a milisegundos.
+ * created_at es NOT NULL en games y users (V10), así que toda fila tiene posición.
+ */
+public record KeysetCursor(Instant createdAt, Long id) {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente
+     * @throws PaginationException si el token no es válido
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3) {
+                throw PaginationException.cursorInvalido();
+            }
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new KeysetCursor(createdAt, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            // NumberFormatException y errores de base64 son IllegalArgumentException; un instante fuera de rango, DateTimeException
+            throw PaginationException.cursorInvalido();
+        }
+    }
+
+    /**
+     * Limita el tamaño de página pedido por el cliente a [1, MAX_PAGE_SIZE]
+     */
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
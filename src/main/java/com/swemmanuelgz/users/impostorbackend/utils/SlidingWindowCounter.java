@@ -0,0 +1,68 @@
+package com.swemmanuelgz.users.impostorbackend.utils;
+
+/**
+ * Ventana deslizante de eventos con un buffer circular de marcas de tiempo.
+ *
+ * Solo guarda los últimos {@code limit} eventos: para decidir si se ha alcanzado el límite
+ * basta con mirar si el más antiguo de ellos sigue dentro de la ventana.
+ * Memoria constante por clave e independiente del número de intentos.
+ */
+public class SlidingWindowCounter {
+
+    private final long[] timestamps;
+    private final long windowMillis;
+    private int next;
+    private int size;
+
+    public SlidingWindowCounter(int limit, long windowMillis) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El límite debe ser mayor que 0");
+        }
+        this.timestamps = new long[limit];
+        this.windowMillis = windowMillis;
+    }
+
+    public synchronized void record(long nowMillis) {
+        timestamps[next] = nowMillis;
+        next = (next + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Número de eventos dentro de la ventana (como mucho el límite)
+     */
+    public synchronized int count(long nowMillis) {
+        long since = nowMillis - windowMillis;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (timestamps[i] > since) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * true si hay {@code limit} eventos dentro de la ventana
+     */
+    public synchronized boolean isLimitReached(long nowMillis) {
+        return size == timestamps.length && oldest() > nowMillis - windowMillis;
+    }
+
+    /**
+     * Milisegundos hasta que el evento más antiguo salga de la ventana (0 si no se ha alcanzado el límite)
+     */
+    public synchronized long millisUntilBelowLimit(long nowMillis) {
+        if (!isLimitReached(nowMillis)) {
+            return 0;
+        }
+        return oldest() + windowMillis - nowMillis;
+    }
+
+    // Con el buffer lleno, next apunta a la posición más antigua
+    private long oldest() {
+        return timestamps[next];
+    }
+}
@@ -139,7 +139,11 @@ public class WordGenerator {
      * Si la categoría no existe, devuelve una palabra de cualquier categoría
      */
     public String getRandomWordFromCategory(String category) {
-        List<String> words = WORDS_BY_CATEGORY.getOrDefault(category, getAllWords());
+        // Sin getOrDefault: evaluaría getAllWords() (copia de todas las palabras) en cada llamada
+        List<String> words = WORDS_BY_CATEGORY.get(category);
+        if (words == null) {
+            words = getAllWords();
+        }
         return words.get(random.nextInt(words.size()));
     }
     
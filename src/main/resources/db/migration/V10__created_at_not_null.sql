@@ -0,0 +1,8 @@
+-- created_at obligatorio en games y users: la paginación keyset (created_at, id) no alcanza filas con NULL
+-- y un cursor no puede representarlas. Las filas antiguas sin fecha pasan al final del listado (las más antiguas)
+
+UPDATE games SET created_at = COALESCE(started_at, '1970-01-01 00:00:01') WHERE created_at IS NULL;
+ALTER TABLE games MODIFY created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
+
+UPDATE users SET created_at = COALESCE(updated_at, '1970-01-01 00:00:01') WHERE created_at IS NULL;
+ALTER TABLE users MODIFY created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
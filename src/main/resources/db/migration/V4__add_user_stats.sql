@@ -0,0 +1,16 @@
+-- Migración para el agregado de estadísticas por usuario
+-- Se mantiene incrementalmente al terminar cada partida (GameServiceImpl.endGame)
+-- Para rellenarla con el histórico: arrancar una vez con stats.backfill.enabled=true
+
+CREATE TABLE IF NOT EXISTS user_stats (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    games_played INT NOT NULL DEFAULT 0,
+    games_won INT NOT NULL DEFAULT 0,
+    games_won_as_impostor INT NOT NULL DEFAULT 0,
+    games_won_as_civilian INT NOT NULL DEFAULT 0,
+    times_caught_as_impostor INT NOT NULL DEFAULT 0,
+    current_win_streak INT NOT NULL DEFAULT 0,
+    best_win_streak INT NOT NULL DEFAULT 0,
+    updated_at DATETIME(6) NULL,
+    CONSTRAINT fk_user_stats_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,5 @@
+-- Índices compuestos para la paginación por cursor (keyset) de los listados
+-- ORDER BY created_at DESC, id DESC se resuelve recorriendo el índice hacia atrás, sin filesort ni OFFSET
+
+CREATE INDEX idx_games_created_at_id ON games (created_at, id);
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
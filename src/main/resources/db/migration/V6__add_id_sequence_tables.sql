@@ -0,0 +1,18 @@
+-- Tablas de secuencia para los ids por bloques (pooled) de games, game_players y login_attempts
+-- MySQL no soporta SEQUENCE: Hibernate la emula con una tabla de una fila (next_val)
+-- Se inicializan por encima del MAX(id) actual + un bloque (allocationSize = 50)
+
+CREATE TABLE IF NOT EXISTS games_seq (next_val BIGINT);
+INSERT INTO games_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM games
+WHERE NOT EXISTS (SELECT 1 FROM games_seq);
+
+CREATE TABLE IF NOT EXISTS game_players_seq (next_val BIGINT);
+INSERT INTO game_players_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM game_players
+WHERE NOT EXISTS (SELECT 1 FROM game_players_seq);
+
+CREATE TABLE IF NOT EXISTS login_attempts_seq (next_val BIGINT);
+INSERT INTO login_attempts_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM login_attempts
+WHERE NOT EXISTS (SELECT 1 FROM login_attempts_seq);
@@ -0,0 +1,31 @@
+-- Tablas de archivo para partidas terminadas (separación caliente/fría)
+-- GameArchiveJob mueve aquí las partidas FINISHED antiguas por bloques; conservan su id original
+
+CREATE TABLE IF NOT EXISTS games_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    room_code VARCHAR(10) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    category VARCHAR(50) NULL,
+    word VARCHAR(100) NULL,
+    max_players INT NULL,
+    creator_id BIGINT NULL,
+    created_at DATETIME(6) NULL,
+    duration INT NULL,
+    started_at DATETIME(6) NULL,
+    archived_at DATETIME(6) NOT NULL,
+    INDEX idx_games_archive_created_at_id (created_at, id),
+    CONSTRAINT fk_games_archive_creator FOREIGN KEY (creator_id) REFERENCES users(id) ON DELETE SET NULL
+);
+
+CREATE TABLE IF NOT EXISTS game_players_archive (
+    id BIGINT NOT NULL PRIMARY KEY,
+    game_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    is_impostor BIT NULL,
+    is_winner BIT NULL,
+    has_voted BIT NULL,
+    voted_for_id BIGINT NULL,
+    status VARCHAR(20) NULL,
+    CONSTRAINT fk_game_players_archive_game FOREIGN KEY (game_id) REFERENCES games_archive(id) ON DELETE CASCADE,
+    CONSTRAINT fk_game_players_archive_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
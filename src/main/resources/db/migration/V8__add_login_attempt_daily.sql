@@ -0,0 +1,11 @@
+-- Resumen diario de login_attempts; LoginAttemptRetentionJob lo rellena antes de borrar los intentos antiguos
+
+CREATE TABLE IF NOT EXISTS login_attempt_daily (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    day DATE NOT NULL,
+    auth_type VARCHAR(20) NOT NULL,
+    success BIT NOT NULL,
+    failure_reason VARCHAR(100) NOT NULL DEFAULT '',
+    attempts BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_login_attempt_daily UNIQUE (day, auth_type, success, failure_reason)
+);
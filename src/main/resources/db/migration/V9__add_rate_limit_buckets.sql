@@ -0,0 +1,8 @@
+-- Estado de los buckets de rate limiting compartidos entre instancias (rate-limit.mode=mysql)
+
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    id VARCHAR(64) NOT NULL PRIMARY KEY,
+    state BLOB,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_rate_limit_buckets_updated_at (updated_at)
+);
@@ -0,0 +1,63 @@
+package com.swemmanuelgz.users.impostorbackend;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Utilidades de los tests de soak (@Tag("soak"), tarea soakTest): reloj manual para acelerar el tiempo
+ * y medición del heap. Las horas simuladas se ajustan con -Psoak.hours=N
+ */
+public final class SoakSupport {
+
+    private SoakSupport() {
+    }
+
+    public static int simulatedHours(int defaultHours) {
+        return Integer.getInteger("soak.hours", defaultHours);
+    }
+
+    /**
+     * Heap usado tras forzar GC (en MB). Orientativo: sirve para ver tendencias, no para medir al byte
+     */
+    public static long usedHeapMb() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024);
+    }
+
+    /**
+     * Reloj que solo avanza cuando el test lo pide
+     */
+    public static final class ManualClock extends Clock {
+
+        private volatile Instant now;
+
+        public ManualClock(Instant start) {
+            this.now = start;
+        }
+
+        public void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException("ManualClock siempre es UTC");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dos "instancias" del provider sobre la misma base de datos (H2 en modo MySQL): el límite de
+ * autenticación se reparte entre ambas en lugar de duplicarse
+ */
+class MySqlRateLimitBucketProviderTest {
+
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:ratelimit;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(dataSource).execute("CREATE TABLE " + MySqlRateLimitBucketProvider.TABLE + " ("
+                + "id VARCHAR(64) NOT NULL PRIMARY KEY, state BLOB, "
+                + "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+    }
+
+    private static MySqlRateLimitBucketProvider node() {
+        return new MySqlRateLimitBucketProvider(dataSource, new SimpleMeterRegistry(), 1000, 10, 1000);
+    }
+
+    @Test
+    void authLimitIsSharedAcrossInstances() {
+        MySqlRateLimitBucketProvider nodeA = node();
+        MySqlRateLimitBucketProvider nodeB = node();
+        IpKey ip = IpKey.of("203.0.113.7");
+
+        int consumed = 0;
+        for (int i = 0; i < 20; i++) {
+            MySqlRateLimitBucketProvider node = i % 2 == 0 ? nodeA : nodeB;
+            if (node.auth(ip).tryConsume(1)) {
+                consumed++;
+            }
+        }
+
+        assertEquals(RateLimitPolicies.AUTH_LIMIT.getCapacity(), consumed);
+        assertFalse(nodeA.auth(ip).tryConsume(1));
+        assertFalse(nodeB.auth(ip).tryConsume(1));
+    }
+
+    @Test
+    void differentIpsHaveSeparateBuckets() {
+        MySqlRateLimitBucketProvider nodeA = node();
+        MySqlRateLimitBucketProvider nodeB = node();
+
+        for (int i = 0; i < RateLimitPolicies.AUTH_LIMIT.getCapacity(); i++) {
+            nodeA.auth(IpKey.of("198.51.100.1")).tryConsume(1);
+        }
+
+        assertFalse(nodeB.auth(IpKey.of("198.51.100.1")).tryConsume(1));
+        assertTrue(nodeB.auth(IpKey.of("198.51.100.2")).tryConsume(1));
+    }
+}
@@ -0,0 +1,128 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.swemmanuelgz.users.impostorbackend.SoakSupport;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Barrido de millones de IPs aleatorias (como un escaneo o X-Forwarded-For falsos):
+ * el almacén de buckets no debe pasar de su máximo de entradas
+ */
+class RateLimitBucketStoreSoakTest {
+
+    private static final int MAX_ENTRIES = 50_000;
+    private static final int RANDOM_IPS = 2_000_000;
+
+    private static Bucket bucket() {
+        return Bucket.builder()
+                .addLimit(Bandwidth.builder().capacity(10).refillIntervally(10, Duration.ofMinutes(1)).build())
+                .build();
+    }
+
+    @Test
+    void randomIpSweepStaysWithinCap() {
+        RateLimitBucketStore store = new RateLimitBucketStore("soak", Duration.ofMinutes(1), MAX_ENTRIES,
+                ip -> bucket(), new SimpleMeterRegistry());
+        SplittableRandom random = new SplittableRandom(42);
+
+        for (int i = 0; i < RANDOM_IPS; i++) {
+            String ip = (i % 10 == 0) ? randomIpv6(random) : randomIpv4(random);
+            store.resolve(IpKey.of(ip)).tryConsume(1);
+        }
+
+        assertTrue(store.size() <= MAX_ENTRIES, "entradas: " + store.size());
+    }
+
+    /**
+     * Horas de tráfico en tiempo acelerado con IPs que aparecen y desaparecen (clientes móviles, NAT):
+     * los buckets de IPs que ya no vuelven caducan y el almacén se vacía al parar el tráfico
+     */
+    @Test
+    @Tag("soak")
+    void ipChurnReturnsToBaseline() {
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = nanos::get;
+        RateLimitBucketStore store = new RateLimitBucketStore("churn", Duration.ofMinutes(1), MAX_ENTRIES,
+                ip -> bucket(), null, ticker);
+        SplittableRandom random = new SplittableRandom(11);
+        long baselineHeapMb = SoakSupport.usedHeapMb();
+        int hours = SoakSupport.simulatedHours(24);
+        long maxSize = 0;
+
+        // Cada segundo simulado: 50 peticiones de un pool de 2000 IPs que se renueva poco a poco
+        int poolSize = 2000;
+        int poolBase = 0;
+        for (int second = 1; second <= hours * 3600; second++) {
+            nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+            poolBase += 5;
+            for (int i = 0; i < 50; i++) {
+                int client = poolBase + random.nextInt(poolSize);
+                store.resolve(IpKey.of("10." + ((client >>> 16) & 0xFF) + "." + ((client >>> 8) & 0xFF) + "." + (client & 0xFF)))
+                        .tryConsume(1);
+            }
+            if (second % 60 == 0) {
+                maxSize = Math.max(maxSize, store.size());
+            }
+            if (second % 3600 == 0) {
+                System.out.printf("hora %3d: %d buckets, heap %d MB%n", second / 3600, store.size(), SoakSupport.usedHeapMb());
+            }
+        }
+
+        // En un minuto (la caducidad) solo se tocan IPs del pool actual y las que entran en ese minuto
+        assertTrue(maxSize <= poolSize + 60 * 5, "buckets máximos: " + maxSize);
+
+        nanos.addAndGet(Duration.ofMinutes(1).plusSeconds(1).toNanos());
+        assertEquals(0, store.size());
+        long finalHeapMb = SoakSupport.usedHeapMb();
+        assertTrue(finalHeapMb <= baselineHeapMb + 32,
+                "heap final " + finalHeapMb + " MB frente a " + baselineHeapMb + " MB al empezar");
+    }
+
+    @Test
+    void sameClientKeepsItsBucket() {
+        RateLimitBucketStore store = new RateLimitBucketStore("same", Duration.ofMinutes(1), MAX_ENTRIES,
+                ip -> bucket(), null);
+
+        Bucket first = store.resolve(IpKey.of("203.0.113.7"));
+        assertSame(first, store.resolve(IpKey.of("203.0.113.7")));
+        assertSame(first, store.resolve(IpKey.of("::ffff:203.0.113.7")));
+        assertNotSame(first, store.resolve(IpKey.of("203.0.113.8")));
+    }
+
+    @Test
+    void ipKeyParsing() {
+        assertTrue(IpKey.of("192.168.1.1").isIpv4());
+        assertEquals(IpKey.of("2001:db8::1"), IpKey.of("2001:0db8:0:0:0:0:0:1"));
+        assertEquals(IpKey.INVALID, IpKey.of("256.1.1.1"));
+        assertEquals(IpKey.INVALID, IpKey.of("1.2.3"));
+        assertEquals(IpKey.INVALID, IpKey.of("evil.example.com"));
+        assertEquals(IpKey.INVALID, IpKey.of(""));
+    }
+
+    private static String randomIpv4(SplittableRandom random) {
+        int address = random.nextInt();
+        return ((address >>> 24) & 0xFF) + "." + ((address >>> 16) & 0xFF) + "." +
+                ((address >>> 8) & 0xFF) + "." + (address & 0xFF);
+    }
+
+    private static String randomIpv6(SplittableRandom random) {
+        StringBuilder ip = new StringBuilder("2001:db8");
+        for (int i = 0; i < 6; i++) {
+            ip.append(':').append(Integer.toHexString(random.nextInt(0x10000)));
+        }
+        return ip.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Enrutado primario/réplica contra dos bases de datos locales (H2 en memoria) que hacen de
+ * primario y réplica. Cada una guarda su propio nombre para saber a cuál ha ido la consulta
+ */
+class ReplicationRoutingDataSourceTest {
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate writeTx;
+    private static TransactionTemplate readOnlyTx;
+
+    @BeforeAll
+    static void setUp() {
+        DataSource primary = h2("primary");
+        DataSource replica = h2("replica");
+
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReplicationRoutingDataSource.Route.PRIMARY, primary,
+                ReplicationRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE node (name VARCHAR(16))");
+        template.update("INSERT INTO node (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void writeTransactionGoesToPrimary() {
+        assertEquals("primary", writeTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void noTransactionGoesToPrimary() {
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void forcedPrimaryReadOverridesReadOnly() {
+        String node = readOnlyTx.execute(status ->
+                ReplicationRoutingDataSource.readPrimaryIf(true, ReplicationRoutingDataSourceTest::currentNode));
+        assertEquals("primary", node);
+
+        // Terminada la lectura se vuelve al enrutado normal
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+    }
+}
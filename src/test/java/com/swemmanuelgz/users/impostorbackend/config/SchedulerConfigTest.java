@@ -0,0 +1,55 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.swemmanuelgz.users.impostorbackend.service.RoundScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Una resolución de ronda no espera a que terminen los jobs @Scheduled, aunque ocupen todos sus hilos
+ */
+class SchedulerConfigTest {
+
+    private final SchedulerConfig config = new SchedulerConfig();
+    private final ThreadPoolTaskScheduler jobs = config.taskScheduler(Clock.systemUTC(), 1);
+    private final ThreadPoolTaskScheduler resolutions = config.roundResolutionScheduler(Clock.systemUTC(), 1);
+    private final CountDownLatch jobRelease = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        jobRelease.countDown();
+        jobs.shutdown();
+        resolutions.shutdown();
+    }
+
+    @Test
+    void roundResolutionRunsWhileBatchJobHoldsSchedulerThreads() throws InterruptedException {
+        jobs.initialize();
+        resolutions.initialize();
+        CountDownLatch jobRunning = new CountDownLatch(1);
+        // Un job por lotes que duerme entre lotes y no suelta el único hilo de @Scheduled
+        jobs.execute(() -> {
+            jobRunning.countDown();
+            try {
+                jobRelease.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(jobRunning.await(5, TimeUnit.SECONDS));
+
+        RoundScheduler roundScheduler = new RoundScheduler(resolutions, 10, 1);
+        CountDownLatch resolved = new CountDownLatch(1);
+        assertTrue(roundScheduler.scheduleResolution(1L, slot -> resolved.countDown()));
+        assertFalse(roundScheduler.scheduleResolution(1L, slot -> resolved.countDown()));
+
+        assertTrue(resolved.await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,27 @@
+package com.swemmanuelgz.users.impostorbackend.config;
+
+import com.swemmanuelgz.users.impostorbackend.config.WorkloadContext.Workload;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * run deja el hilo con la carga que tenía antes, también si la tarea falla: un hilo de un pool
+ * no puede quedarse marcado como BATCH para la siguiente petición
+ */
+class WorkloadContextTest {
+
+    @Test
+    void runRestoresPreviousWorkloadWhenTaskFails() {
+        WorkloadContext.run(Workload.REALTIME, () -> {
+            assertThrows(InterruptedException.class, () -> WorkloadContext.run(Workload.BATCH, () -> {
+                assertEquals(Workload.BATCH, WorkloadContext.current());
+                throw new InterruptedException();
+            }));
+            assertEquals(Workload.REALTIME, WorkloadContext.current());
+        });
+
+        assertEquals(Workload.REST, WorkloadContext.current());
+    }
+}
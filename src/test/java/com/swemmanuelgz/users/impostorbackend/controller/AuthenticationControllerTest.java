@@ -0,0 +1,86 @@
+package com.swemmanuelgz.users.impostorbackend.controller;
+
+import com.swemmanuelgz.users.impostorbackend.config.LocalRateLimitBucketProvider;
+import com.swemmanuelgz.users.impostorbackend.config.SecurityConfig;
+import com.swemmanuelgz.users.impostorbackend.dto.UserProfile;
+import com.swemmanuelgz.users.impostorbackend.security.JwtAuthFilter;
+import com.swemmanuelgz.users.impostorbackend.security.JwtProvider;
+import com.swemmanuelgz.users.impostorbackend.security.TokenRevocationList;
+import com.swemmanuelgz.users.impostorbackend.security.VerifiedTokenCache;
+import com.swemmanuelgz.users.impostorbackend.service.GoogleTokenService;
+import com.swemmanuelgz.users.impostorbackend.service.LoginAttemptService;
+import com.swemmanuelgz.users.impostorbackend.service.OAuth2UserService;
+import com.swemmanuelgz.users.impostorbackend.service.PasswordHashingService;
+import com.swemmanuelgz.users.impostorbackend.service.UserProfileCache;
+import com.swemmanuelgz.users.impostorbackend.service.UserServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logout pasa por JwtAuthFilter como cualquier endpoint protegido: con un access token válido
+ * responde 200 y a partir de ahí ese token queda revocado
+ */
+@WebMvcTest(AuthenticationController.class)
+@Import({SecurityConfig.class, JwtAuthFilter.class, VerifiedTokenCache.class, JwtProvider.class,
+        TokenRevocationList.class, LocalRateLimitBucketProvider.class, AuthenticationControllerTest.Metrics.class})
+@TestPropertySource(properties = {
+        "jwt.secret=clave-de-pruebas-para-hs512-que-tiene-que-llegar-al-menos-a-sesenta-y-cuatro-bytes",
+        "jwt.expiration=3600000",
+        "jwt.refresh.expiration=604800000"
+})
+class AuthenticationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @MockitoBean
+    private UserServiceImpl userService;
+    @MockitoBean
+    private GoogleTokenService googleTokenService;
+    @MockitoBean
+    private OAuth2UserService oAuth2UserService;
+    @MockitoBean
+    private LoginAttemptService loginAttemptService;
+    @MockitoBean
+    private UserProfileCache userProfileCache;
+    @MockitoBean
+    private PasswordHashingService passwordHashingService;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void logoutRevokesTheBearerToken() throws Exception {
+        String token = jwtProvider.generateToken(new UserProfile(7L, "jugador7", "jugador7@example.com",
+                null, "USER", "LOCAL"));
+
+        // servletPath explícito: JwtAuthFilter decide con él qué rutas son públicas
+        mockMvc.perform(post("/api/auth/logout").servletPath("/api/auth/logout")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/auth/logout").servletPath("/api/auth/logout")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,86 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La grabación con jfr/impostor.jfc recoge los eventos del juego y el volcado se puede leer con la API de JFR;
+ * los volcados están limitados en frecuencia y en número de ficheros
+ */
+class JfrRecordingEndpointTest {
+
+    @Test
+    void dumpContainsGameEvents(@TempDir Path dir) throws Exception {
+        JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(10, 50, dir.toString(), 0, 5);
+        endpoint.start();
+        try {
+            VoteCastEvent vote = new VoteCastEvent();
+            vote.begin();
+            vote.roomCode = "ABC123";
+            vote.voterId = 42;
+            vote.allVoted = true;
+            vote.commit();
+
+            Map<String, Object> result = endpoint.dump().getBody();
+            Path file = Path.of((String) result.get("file"));
+            assertTrue(file.startsWith(dir));
+
+            List<RecordedEvent> votes = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("impostor.VoteCast"))
+                    .toList();
+            assertEquals(1, votes.size());
+            assertEquals("ABC123", votes.get(0).getString("roomCode"));
+            assertEquals(42, votes.get(0).getLong("voterId"));
+        } finally {
+            endpoint.stop();
+        }
+    }
+
+    @Test
+    void secondDumpWithinIntervalIsRejected(@TempDir Path dir) throws Exception {
+        JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(10, 50, dir.toString(), 300, 5);
+        endpoint.start();
+        try {
+            assertEquals(WebEndpointResponse.STATUS_OK, endpoint.dump().getStatus());
+            assertEquals(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS, endpoint.dump().getStatus());
+            assertEquals(1, dumpFiles(dir));
+        } finally {
+            endpoint.stop();
+        }
+    }
+
+    @Test
+    void onlyLastDumpsAreKept(@TempDir Path dir) throws Exception {
+        JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint(10, 50, dir.toString(), 0, 2);
+        endpoint.start();
+        try {
+            String last = null;
+            for (int i = 0; i < 4; i++) {
+                last = (String) endpoint.dump().getBody().get("file");
+                Thread.sleep(5);
+            }
+            assertEquals(2, dumpFiles(dir));
+            assertTrue(Files.exists(Path.of(last)));
+        } finally {
+            endpoint.stop();
+        }
+    }
+
+    private static long dumpFiles(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".jfr")).count();
+        }
+    }
+}
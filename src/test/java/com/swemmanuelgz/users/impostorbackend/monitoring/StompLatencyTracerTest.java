@@ -0,0 +1,79 @@
+package com.swemmanuelgz.users.impostorbackend.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.support.SimpAnnotationMethodMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Canales síncronos con los interceptores del tracer: un SEND a /app/game/{room}/vote pasa por el handler
+ * anotado, que publica un mensaje en el outbound, y cada etapa queda registrada con el mismo destino
+ */
+class StompLatencyTracerTest {
+
+    @Test
+    void recordsEveryStageUnderTheOriginatingDestination() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StompLatencyTracer tracer = new StompLatencyTracer(registry, true, 500, 0.0);
+
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+        inbound.addInterceptor(tracer.inbound());
+        outbound.addInterceptor(tracer.outbound());
+
+        List<Message<?>> delivered = new ArrayList<>();
+        outbound.subscribe(delivered::add);
+        inbound.subscribe(new SimpAnnotationMethodMessageHandler(inbound, outbound, new SimpMessagingTemplate(outbound)) {
+            @Override
+            public void handleMessage(Message<?> message) {
+                outbound.send(MessageBuilder.withPayload("VOTE_CAST").build());
+            }
+        });
+
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination("/app/game/ABC123/vote");
+        headers.setLeaveMutable(true);
+        inbound.send(MessageBuilder.createMessage("42", headers.getMessageHeaders()));
+
+        assertEquals(1, delivered.size());
+        StompLatencyTracer.Trace trace = delivered.get(0).getHeaders().get(StompLatencyTracer.TRACE_HEADER, StompLatencyTracer.Trace.class);
+        assertNotNull(trace);
+        assertEquals("/app/game/*/vote", trace.destination());
+
+        for (String name : List.of("stomp.inbound.queue", "stomp.inbound.handler", "stomp.outbound.delivery")) {
+            assertEquals(1, registry.get(name).tag("destination", "/app/game/*/vote").timer().count(), name);
+        }
+    }
+
+    @Test
+    void outboundWithoutHandlerIsUntraced() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StompLatencyTracer tracer = new StompLatencyTracer(registry, true, 500, 0.0);
+        ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+        outbound.addInterceptor(tracer.outbound());
+        outbound.subscribe(message -> { });
+
+        outbound.send(MessageBuilder.withPayload("PLAYER_DISCONNECTED").build());
+
+        assertEquals(1, registry.get("stomp.outbound.delivery").tag("destination", "untraced").timer().count());
+    }
+
+    @Test
+    void unknownActionsShareOneTag() {
+        assertEquals("/app/game/*/chat", StompLatencyTracer.normalize("/app/game/XYZ789/chat"));
+        assertEquals("other", StompLatencyTracer.normalize("/app/game/XYZ789/made-up"));
+        assertEquals("other", StompLatencyTracer.normalize("/app/lobby"));
+        assertEquals("other", StompLatencyTracer.normalize(null));
+    }
+}
@@ -0,0 +1,60 @@
+package com.swemmanuelgz.users.impostorbackend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * La lista de revocación no puede expulsar entradas por tamaño: un token revocado sigue rechazado
+ * aunque después lleguen muchas más revocaciones (un flood de logouts no lo "desrevoca")
+ */
+class TokenRevocationListTest {
+
+    private static final long REFRESH_EXPIRATION_MS = Duration.ofDays(7).toMillis();
+
+    private static VerifiedToken token(Long userId, Instant issuedAt) {
+        return new VerifiedToken("user" + userId + "@example.com", userId, "USER", "access",
+                issuedAt, issuedAt.plus(Duration.ofHours(1)), null);
+    }
+
+    @Test
+    void revokedTokenStaysRevokedAfterManyMoreRevocations() {
+        TokenRevocationList revocationList = new TokenRevocationList(REFRESH_EXPIRATION_MS);
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+        VerifiedToken victim = token(1L, Instant.now());
+
+        revocationList.revokeDigest("victim", expiresAt);
+        // Más que el antiguo máximo de la caché (jwt.revocation.max-size=100000)
+        for (int i = 0; i < 150_000; i++) {
+            revocationList.revokeDigest("flood-" + i, expiresAt);
+        }
+
+        assertTrue(revocationList.isRevoked("victim", victim));
+        assertTrue(revocationList.isRevoked("flood-0", victim));
+    }
+
+    @Test
+    void expiredTokensAreNotRemembered() {
+        TokenRevocationList revocationList = new TokenRevocationList(REFRESH_EXPIRATION_MS);
+
+        revocationList.revokeDigest("expired", Instant.now().minusSeconds(1));
+
+        assertFalse(revocationList.isRevoked("expired", token(1L, Instant.now().minusSeconds(3600))));
+    }
+
+    @Test
+    void userRevocationRejectsTokensIssuedBefore() {
+        TokenRevocationList revocationList = new TokenRevocationList(REFRESH_EXPIRATION_MS);
+        VerifiedToken before = token(7L, Instant.now().minusSeconds(60));
+
+        revocationList.revokeAllForUser(7L);
+
+        assertTrue(revocationList.isRevoked("any", before));
+        assertFalse(revocationList.isRevoked("any", token(7L, Instant.now().plusSeconds(5))));
+        assertFalse(revocationList.isRevoked("any", token(8L, Instant.now().minusSeconds(60))));
+    }
+}
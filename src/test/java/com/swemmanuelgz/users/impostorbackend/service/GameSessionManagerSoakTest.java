@@ -0,0 +1,155 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.swemmanuelgz.users.impostorbackend.SoakSupport;
+import com.swemmanuelgz.users.impostorbackend.SoakSupport.ManualClock;
+import com.swemmanuelgz.users.impostorbackend.monitoring.GameMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Horas de tráfico de salas en tiempo acelerado contra GameSessionManager, con los caminos que antes
+ * dejaban estado atrás:
+ *
+ * - NORMAL: la partida termina (markGameEnded) y los jugadores se desconectan después
+ * - ABANDONED: todos se desconectan sin terminar la partida
+ * - HALF_OPEN: los sockets mueren sin DISCONNECT ni heartbeats
+ * - FLAKY: cada jugador se cae y reconecta con otra sesión antes de terminar
+ *
+ * La limpieza corre cada 5 minutos simulados como en GameCleanupScheduler. Al parar el tráfico y pasar
+ * los timeouts, todo el estado tiene que volver a cero y el heap a su nivel inicial.
+ */
+@Tag("soak")
+class GameSessionManagerSoakTest {
+
+    private static final Duration TICK = Duration.ofSeconds(10);
+    private static final int TICKS_PER_CLEANUP = 30;
+    private static final int TICKS_PER_HOUR = 360;
+    private static final int NEW_ROOMS_PER_TICK = 5;
+    private static final long HEAP_TOLERANCE_MB = 32;
+
+    private enum Fate { NORMAL, ABANDONED, HALF_OPEN, FLAKY }
+
+    private static final class Room {
+        final String code;
+        final Fate fate;
+        final List<Long> users = new ArrayList<>();
+        final List<String> sessions = new ArrayList<>();
+        final int endTick;
+
+        Room(String code, Fate fate, int endTick) {
+            this.code = code;
+            this.fate = fate;
+            this.endTick = endTick;
+        }
+    }
+
+    private final ManualClock clock = new ManualClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final GameSessionManager sessionManager = new GameSessionManager(new GameMetrics(new SimpleMeterRegistry()), clock);
+    private final SplittableRandom random = new SplittableRandom(7);
+    private long nextUserId = 1;
+    private long nextSessionId = 1;
+
+    @Test
+    void retainedStateReturnsToBaselineAfterHoursOfChurn() {
+        long baselineHeapMb = SoakSupport.usedHeapMb();
+        int hours = SoakSupport.simulatedHours(24);
+        List<Room> rooms = new ArrayList<>();
+        int maxSessions = 0;
+
+        for (int tick = 1; tick <= hours * TICKS_PER_HOUR; tick++) {
+            clock.advance(TICK);
+            for (int i = 0; i < NEW_ROOMS_PER_TICK; i++) {
+                rooms.add(openRoom(tick));
+            }
+            Iterator<Room> it = rooms.iterator();
+            while (it.hasNext()) {
+                Room room = it.next();
+                if (advance(room, tick)) {
+                    it.remove();
+                }
+            }
+            if (tick % TICKS_PER_CLEANUP == 0) {
+                sessionManager.cleanupInactiveSessions();
+            }
+            maxSessions = Math.max(maxSessions, sessionManager.stateSize().sessions());
+            if (tick % TICKS_PER_HOUR == 0) {
+                System.out.printf("hora %3d: %s, salas en curso %d, heap %d MB%n",
+                        tick / TICKS_PER_HOUR, sessionManager.stateSize(), rooms.size(), SoakSupport.usedHeapMb());
+            }
+        }
+
+        // Las sesiones medio abiertas viven como mucho SESSION_IDLE_TIMEOUT: nunca debe haber más de lo que
+        // se abre en una hora (con salas llenas), con margen x2
+        int sessionsPerHour = NEW_ROOMS_PER_TICK * TICKS_PER_HOUR * 12;
+        assertTrue(maxSessions <= sessionsPerHour * 2, "sesiones máximas: " + maxSessions);
+
+        // Fin del tráfico: se cierran las salas que siguen vivas y pasan todos los timeouts
+        for (Room room : rooms) {
+            sessionManager.markGameEnded(room.code);
+            room.sessions.forEach(sessionManager::playerDisconnected);
+        }
+        rooms.clear();
+        clock.advance(GameSessionManager.SESSION_IDLE_TIMEOUT.plus(TICK));
+        sessionManager.cleanupInactiveSessions();
+        clock.advance(Duration.ofSeconds(GameSessionManager.RECONNECT_TIMEOUT_SECONDS * 2L).plus(TICK));
+        sessionManager.cleanupInactiveSessions();
+
+        GameSessionManager.StateSize remaining = sessionManager.stateSize();
+        assertEquals(new GameSessionManager.StateSize(0, 0, 0, 0), remaining);
+        long finalHeapMb = SoakSupport.usedHeapMb();
+        System.out.printf("heap inicial %d MB, final %d MB%n", baselineHeapMb, finalHeapMb);
+        assertTrue(finalHeapMb <= baselineHeapMb + HEAP_TOLERANCE_MB,
+                "heap final " + finalHeapMb + " MB frente a " + baselineHeapMb + " MB al empezar");
+    }
+
+    private Room openRoom(int tick) {
+        Fate fate = Fate.values()[random.nextInt(Fate.values().length)];
+        Room room = new Room("S" + tick + "-" + random.nextInt(1_000_000), fate, tick + 6 + random.nextInt(60));
+        int players = 3 + random.nextInt(GameSessionManager.MAX_PLAYERS_PER_ROOM - 2);
+        for (int i = 0; i < players; i++) {
+            Long userId = nextUserId++;
+            String sessionId = "ws-" + nextSessionId++;
+            room.users.add(userId);
+            room.sessions.add(sessionId);
+            sessionManager.playerConnected(room.code, userId, sessionId);
+        }
+        return room;
+    }
+
+    /**
+     * Un tick de la sala. Devuelve true cuando la sala ya no genera más tráfico
+     */
+    private boolean advance(Room room, int tick) {
+        if (room.fate == Fate.HALF_OPEN) {
+            return true; // nadie vuelve a enviar nada ni se desconecta
+        }
+        if (tick < room.endTick) {
+            room.sessions.forEach(sessionId -> sessionManager.recordActivity(room.code, sessionId));
+            if (room.fate == Fate.FLAKY && tick == room.endTick - 3) {
+                for (int i = 0; i < room.users.size(); i++) {
+                    sessionManager.playerDisconnected(room.sessions.get(i));
+                    String newSession = "ws-" + nextSessionId++;
+                    sessionManager.attemptReconnect(room.users.get(i), room.code, newSession);
+                    room.sessions.set(i, newSession);
+                }
+            }
+            return false;
+        }
+        if (room.fate != Fate.ABANDONED) {
+            sessionManager.markGameEnded(room.code);
+        }
+        room.sessions.forEach(sessionManager::playerDisconnected);
+        return true;
+    }
+}
@@ -0,0 +1,133 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import com.swemmanuelgz.users.impostorbackend.security.GoogleSigningKeyManager;
+import com.swemmanuelgz.users.impostorbackend.security.HttpGoogleKeySource;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verificación de ID tokens de Google contra un servidor de claves local (JWKS) que hace de Google.
+ * Los tokens se firman aquí con una clave RSA generada para el test
+ */
+class GoogleTokenServiceTest {
+
+    private static final String CLIENT_ID = "web-client.apps.googleusercontent.com";
+    private static final String KEY_ID = "test-key";
+
+    private final AtomicInteger keyRequests = new AtomicInteger();
+    private HttpServer keyServer;
+    private KeyPair signingKeys;
+    private GoogleSigningKeyManager keyManager;
+    private GoogleTokenService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        signingKeys = generator.generateKeyPair();
+
+        keyServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        keyServer.createContext("/certs", exchange -> {
+            keyRequests.incrementAndGet();
+            byte[] body = jwks((RSAPublicKey) signingKeys.getPublic()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Cache-Control", "public, max-age=3600");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        keyServer.start();
+
+        String certsUrl = "http://127.0.0.1:" + keyServer.getAddress().getPort() + "/certs";
+        keyManager = new GoogleSigningKeyManager(new HttpGoogleKeySource(certsUrl, new ObjectMapper()), 600, 30, 60);
+        service = new GoogleTokenService(keyManager, new SimpleMeterRegistry(), CLIENT_ID, "", "", 100);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        keyManager.stop();
+        keyServer.stop(0);
+    }
+
+    @Test
+    void validTokenIsVerifiedFromPreloadedKeys() throws Exception {
+        var userInfo = service.verifyToken(sign(KEY_ID, CLIENT_ID, signingKeys));
+
+        assertTrue(userInfo.isPresent());
+        assertEquals("jugador@example.com", userInfo.get().email());
+        assertEquals(1, keyRequests.get());
+    }
+
+    @Test
+    void repeatedTokenIsServedFromMemo() throws Exception {
+        String token = sign(KEY_ID, CLIENT_ID, signingKeys);
+        service.verifyToken(token);
+
+        // Aunque el servidor de claves caiga, el mismo token sigue resolviéndose sin red
+        keyServer.stop(0);
+        assertTrue(service.verifyToken(token).isPresent());
+        assertEquals(1, keyRequests.get());
+    }
+
+    @Test
+    void tokenForAnotherAudienceIsRejected() throws Exception {
+        assertTrue(service.verifyToken(sign(KEY_ID, "otra-app", signingKeys)).isEmpty());
+    }
+
+    @Test
+    void tokenSignedWithUnknownKeyIsRejected() throws Exception {
+        KeyPair forged = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+        assertTrue(service.verifyToken(sign(KEY_ID, CLIENT_ID, forged)).isEmpty());
+    }
+
+    private static String sign(String keyId, String audience, KeyPair keys) throws Exception {
+        long now = System.currentTimeMillis() / 1000;
+        JsonWebSignature.Header header = new JsonWebSignature.Header()
+                .setAlgorithm("RS256")
+                .setKeyId(keyId);
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+                .setIssuer("https://accounts.google.com")
+                .setAudience(audience)
+                .setSubject("1234567890")
+                .setEmail("jugador@example.com")
+                .setEmailVerified(true)
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + 3600);
+        return JsonWebSignature.signUsingRsaSha256(keys.getPrivate(), GsonFactory.getDefaultInstance(), header, payload);
+    }
+
+    private static String jwks(RSAPublicKey key) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return "{\"keys\":[{\"kty\":\"RSA\",\"alg\":\"RS256\",\"use\":\"sig\",\"kid\":\"" + KEY_ID + "\"," +
+                "\"n\":\"" + encoder.encodeToString(unsigned(key.getModulus().toByteArray())) + "\"," +
+                "\"e\":\"" + encoder.encodeToString(unsigned(key.getPublicExponent().toByteArray())) + "\"}]}";
+    }
+
+    // BigInteger.toByteArray puede añadir un 0 inicial de signo que JWK no lleva
+    private static byte[] unsigned(byte[] bytes) {
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return bytes;
+    }
+}
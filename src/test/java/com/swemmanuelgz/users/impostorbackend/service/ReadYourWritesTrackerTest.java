@@ -0,0 +1,33 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Una escritura reciente se ve tanto por el ID de la partida como por su código de sala
+ */
+class ReadYourWritesTrackerTest {
+
+    @Test
+    void roomWriteIsRecentWithinWindow() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60_000);
+
+        tracker.markRoomWrite("ABC123");
+
+        assertTrue(tracker.hasRecentRoomWrite("ABC123"));
+        assertFalse(tracker.hasRecentRoomWrite("XYZ789"));
+        assertFalse(tracker.hasRecentRoomWrite(null));
+    }
+
+    @Test
+    void roomWriteExpiresWithWindow() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(0);
+
+        tracker.markRoomWrite("ABC123");
+        tracker.purgeExpired();
+
+        assertFalse(tracker.hasRecentRoomWrite("ABC123"));
+    }
+}
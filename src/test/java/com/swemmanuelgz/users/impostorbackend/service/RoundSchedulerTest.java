@@ -0,0 +1,87 @@
+package com.swemmanuelgz.users.impostorbackend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El último voto de la ronda siguiente puede llegar mientras la resolución anterior aún notifica NEW_ROUND,
+ * y una resolución que falla antes de guardar la ronda no deja la partida atascada
+ */
+class RoundSchedulerTest {
+
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+    private RoundScheduler roundScheduler;
+
+    @BeforeEach
+    void setUp() {
+        taskScheduler.setPoolSize(2);
+        taskScheduler.initialize();
+        roundScheduler = new RoundScheduler(taskScheduler, 10, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    void voteDuringBroadcastSchedulesTheNextRound() throws InterruptedException {
+        AtomicBoolean nextRoundScheduled = new AtomicBoolean();
+        CountDownLatch nextRoundResolved = new CountDownLatch(1);
+
+        roundScheduler.scheduleResolution(1L, slot -> {
+            slot.release();
+            // El "broadcast" de NEW_ROUND: todos vuelven a votar antes de que esta resolución termine
+            nextRoundScheduled.set(roundScheduler.scheduleResolution(1L, next -> nextRoundResolved.countDown()));
+        });
+
+        assertTrue(nextRoundResolved.await(5, TimeUnit.SECONDS));
+        assertTrue(nextRoundScheduled.get());
+    }
+
+    @Test
+    void resolutionFailingBeforeSaveIsRetried() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch resolved = new CountDownLatch(1);
+
+        roundScheduler.scheduleResolution(1L, slot -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("base de datos no disponible");
+            }
+            slot.release();
+            resolved.countDown();
+        });
+
+        assertTrue(resolved.await(5, TimeUnit.SECONDS));
+        assertEquals(2, attempts.get());
+        assertEquals(0, roundScheduler.pendingResolutions());
+    }
+
+    @Test
+    void slotIsFreedAfterTheLastFailedAttempt() throws InterruptedException {
+        CountDownLatch attempts = new CountDownLatch(3);
+
+        roundScheduler.scheduleResolution(1L, slot -> {
+            attempts.countDown();
+            throw new IllegalStateException("base de datos no disponible");
+        });
+
+        assertTrue(attempts.await(5, TimeUnit.SECONDS));
+        // El último intento libera la plaza justo después de lanzar
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (roundScheduler.pendingResolutions() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, roundScheduler.pendingResolutions());
+    }
+}
@@ -0,0 +1,30 @@
+package com.swemmanuelgz.users.impostorbackend.utils;
+
+import com.swemmanuelgz.users.impostorbackend.exception.PaginationException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * El cursor conserva los nanosegundos y un token manipulado es un 400 CURSOR_INVALIDO, no un error genérico
+ */
+class KeysetCursorTest {
+
+    @Test
+    void roundTripKeepsNanos() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2025-03-01T10:15:30.123456789Z"), 42L);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void invalidTokensThrowPaginationException() {
+        for (String token : new String[]{"%%%", "MTIz", "YTpiOmM", "OTk5OTk5OTk5OTk5OTk5OTk6MDox"}) {
+            PaginationException e = assertThrows(PaginationException.class, () -> KeysetCursor.decode(token));
+            assertEquals(PaginationException.CURSOR_INVALIDO, e.getCodigo());
+        }
+    }
+}